@@ -3,6 +3,7 @@ package com.travelmaster.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -18,6 +19,8 @@ public class TripServiceClient {
 
     private final RestTemplate restTemplate;
     private static final String TRIP_SERVICE_URL = "http://trip-service:8082/api/v1/trips";
+    // Резервирование мест не публикуется через gateway
+    private static final String TRIP_INTERNAL_URL = "http://trip-service:8082/internal/v1/trips";
 
     /**
      * Получить информацию о поездке.
@@ -43,11 +46,18 @@ public class TripServiceClient {
         try {
             log.info("Reserving {} seats for trip {}", numberOfSeats, tripId);
             restTemplate.postForObject(
-                    TRIP_SERVICE_URL + "/" + tripId + "/reserve?seats=" + numberOfSeats,
+                    TRIP_INTERNAL_URL + "/" + tripId + "/reserve?seats=" + numberOfSeats,
                     null,
                     Void.class
             );
             return true;
+        } catch (HttpClientErrorException.Conflict e) {
+            // Ожидаемый отказ: мест не хватило, поездка не сломана
+            log.warn("Not enough seats on trip {} for {} passengers", tripId, numberOfSeats);
+            return false;
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Trip {} not found while reserving seats", tripId);
+            return false;
         } catch (Exception e) {
             log.error("Error reserving seats for trip {}: {}", tripId, e.getMessage());
             return false;
@@ -61,7 +71,7 @@ public class TripServiceClient {
         try {
             log.info("Releasing {} seats for trip {}", numberOfSeats, tripId);
             restTemplate.postForObject(
-                    TRIP_SERVICE_URL + "/" + tripId + "/release?seats=" + numberOfSeats,
+                    TRIP_INTERNAL_URL + "/" + tripId + "/release?seats=" + numberOfSeats,
                     null,
                     Void.class
             );
@@ -8,11 +8,14 @@ public final class RoleConstants {
     public static final String ROLE_TRAVELER = "ROLE_TRAVELER";
     public static final String ROLE_AGENT = "ROLE_AGENT";
     public static final String ROLE_ADMIN = "ROLE_ADMIN";
+    // Сервисные учётные записи для межсервисных вызовов (контакты пользователей и т.п.)
+    public static final String ROLE_SERVICE = "ROLE_SERVICE";
 
     // Для @PreAuthorize без префикса ROLE_
     public static final String TRAVELER = "TRAVELER";
     public static final String AGENT = "AGENT";
     public static final String ADMIN = "ADMIN";
+    public static final String SERVICE = "SERVICE";
 
     private RoleConstants() {
         throw new UnsupportedOperationException("Utility class");
@@ -0,0 +1,193 @@
+package com.travelmaster.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий кодек JWT (HMAC) для user-service и gateway-service.
+ *
+ * Выпуск токена не использует Jwts.builder(): заголовок зависит только от ключа,
+ * поэтому его base64url вычисляется один раз, фрагмент "roles" кешируется по набору
+ * ролей, payload собирается одним StringBuilder, подпись считается Mac из ThreadLocal.
+ * Результат - обычный JWS, который проверяет любой парсер jjwt.
+ *
+ * Проверка идёт через один заранее построенный JwtParser (неизменяем и потокобезопасен),
+ * claims извлекаются в {@link TokenClaims} за один проход. Алгоритм из заголовка должен
+ * совпадать с алгоритмом ключа: jjwt принял бы и HS256-подпись тем же секретом.
+ */
+@Slf4j
+public class JwtCodec {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    // Различных наборов ролей единицы; предел защищает от неожиданного роста
+    private static final int MAX_CACHED_ROLE_SETS = 256;
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final String algorithm;
+    private final String encodedHeader;
+    private final ThreadLocal<Mac> mac;
+    private final Map<List<String>, String> roleFragments = new ConcurrentHashMap<>();
+
+    public JwtCodec(String secret) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        // Keys.hmacShaKeyFor выбирает HmacSHA256/384/512 по длине ключа - так же, как signWith
+        this.algorithm = "HS" + key.getAlgorithm().substring("HmacSHA".length());
+        this.encodedHeader = BASE64URL.encodeToString(
+                ("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\"}").getBytes(StandardCharsets.UTF_8)) + ".";
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Выпускает подписанный токен. Пустые поля в payload не попадают.
+     */
+    public String encode(TokenClaims claims) {
+        StringBuilder payload = new StringBuilder(256).append('{');
+        appendString(payload, "jti", claims.getTokenId());
+        appendString(payload, "sub", claims.getUserId());
+        appendString(payload, "email", claims.getEmail());
+        if (claims.getRoles() != null) {
+            separate(payload).append(roleFragment(claims.getRoles()));
+        }
+        appendString(payload, "type", claims.getType());
+        if (claims.getIssuedAt() != null) {
+            separate(payload).append("\"iat\":").append(claims.getIssuedAt().getEpochSecond());
+        }
+        if (claims.getExpiresAt() != null) {
+            separate(payload).append("\"exp\":").append(claims.getExpiresAt().getEpochSecond());
+        }
+        if (claims.getSecurityVersion() != null) {
+            separate(payload).append("\"sv\":").append(claims.getSecurityVersion());
+        }
+        appendString(payload, "fam", claims.getFamilyId());
+        payload.append('}');
+
+        String signingInput = encodedHeader
+                + BASE64URL.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + BASE64URL.encodeToString(signature);
+    }
+
+    /**
+     * Проверяет подпись и срок действия и возвращает claims.
+     *
+     * @return claims валидного токена или пустой Optional, если токен невалиден
+     */
+    public Optional<TokenClaims> decode(String token) {
+        try {
+            return Optional.of(TokenClaims.from(parseClaims(token)));
+        } catch (ExpiredJwtException ex) {
+            log.debug("Expired JWT token");
+        } catch (MalformedJwtException ex) {
+            log.debug("Invalid JWT token");
+        } catch (UnsupportedJwtException ex) {
+            log.debug("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.debug("Invalid JWT signature");
+        } catch (IllegalArgumentException ex) {
+            log.debug("JWT claims string is empty");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Исходные claims для редких случаев, когда нужны нестандартные поля.
+     *
+     * @throws JwtException токен невалиден
+     */
+    public Claims parseClaims(String token) {
+        Jws<Claims> jws = parser.parseSignedClaims(token);
+        if (!algorithm.equals(jws.getHeader().getAlgorithm())) {
+            throw new UnsupportedJwtException("Unexpected JWT algorithm: " + jws.getHeader().getAlgorithm());
+        }
+        return jws.getPayload();
+    }
+
+    private String roleFragment(List<String> roles) {
+        String cached = roleFragments.get(roles);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder fragment = new StringBuilder("\"roles\":[");
+        for (int i = 0; i < roles.size(); i++) {
+            if (i > 0) {
+                fragment.append(',');
+            }
+            appendJsonString(fragment, roles.get(i));
+        }
+        String value = fragment.append(']').toString();
+        if (roleFragments.size() < MAX_CACHED_ROLE_SETS) {
+            roleFragments.putIfAbsent(List.copyOf(roles), value);
+        }
+        return value;
+    }
+
+    private static StringBuilder separate(StringBuilder payload) {
+        if (payload.length() > 1) {
+            payload.append(',');
+        }
+        return payload;
+    }
+
+    private static void appendString(StringBuilder payload, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        separate(payload).append('"').append(name).append("\":");
+        appendJsonString(payload, value);
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(key.getAlgorithm());
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC algorithm not available: " + key.getAlgorithm(), e);
+        }
+    }
+}
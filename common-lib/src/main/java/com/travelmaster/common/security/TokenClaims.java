@@ -0,0 +1,68 @@
+package com.travelmaster.common.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Claims JWT, извлечённые за один проход разбора.
+ * Неизменяемый объект - безопасно хранить в кеше проверенных токенов.
+ */
+@Value
+@Builder
+public class TokenClaims {
+
+    public static final String TYPE_ACCESS = "ACCESS";
+    public static final String TYPE_REFRESH = "REFRESH";
+
+    String tokenId;
+
+    String userId;
+
+    String email;
+
+    List<String> roles;
+
+    String type;
+
+    Instant issuedAt;
+
+    Instant expiresAt;
+
+    // Только refresh token: версия безопасности пользователя
+    Long securityVersion;
+
+    // Сессия (цепочка ротации refresh token); в access token - чтобы logout мог её отозвать
+    String familyId;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    static TokenClaims from(Claims claims) {
+        return TokenClaims.builder()
+                .tokenId(claims.getId())
+                .userId(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .roles(extractRoles(claims.get("roles")))
+                .type(claims.get("type", String.class))
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .securityVersion(claims.get("sv", Long.class))
+                .familyId(claims.get("fam", String.class))
+                .build();
+    }
+
+    private static List<String> extractRoles(Object rawRoles) {
+        if (rawRoles instanceof Collection<?> collection) {
+            return collection.stream()
+                    .map(String::valueOf)
+                    .toList();
+        }
+        return List.of();
+    }
+}
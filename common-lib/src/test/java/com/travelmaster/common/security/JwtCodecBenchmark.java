@@ -0,0 +1,126 @@
+package com.travelmaster.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность выпуска и проверки access token: прежняя реализация
+ * (Jwts.builder() и новый парсер на каждый вызов, как было в user-service) против JwtCodec.
+ *
+ * Запуск:
+ * mvn -pl common-lib test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.travelmaster.common.security.JwtCodecBenchmark
+ *
+ * Результаты (JDK 21.0.1, 1 vCPU Intel Xeon, ops/ms, 5 измерений по 2 с):
+ * <pre>
+ * Benchmark        @Threads(4)       -t 1
+ * mintBaseline      86.3 ± 48.9   86.0 ± 77.3
+ * mintCodec        376.7 ±  2.6  374.6 ±  9.2
+ * verifyBaseline    71.5 ± 54.5   87.3 ±  4.5
+ * verifyCodec       78.5 ± 50.5   93.6 ±  5.5
+ * </pre>
+ * Выпуск токена быстрее примерно в 4.3 раза. Проверка быстрее на ~7% (в однопоточном
+ * прогоне, с 4 потоками на одном ядре разница в пределах погрешности): её стоимость -
+ * HMAC-SHA512, который одинаков в обеих реализациях. Повторные проверки на Gateway
+ * экономит VerifiedTokenCache, а не кодек. Высокая погрешность baseline - паузы GC
+ * от аллокаций jjwt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtCodecBenchmark {
+
+    private static final String SECRET =
+            "travelmaster-super-secret-jwt-key-minimum-512-bits-hs512-algorithm-requires-this-length";
+    private static final List<String> ROLES = List.of("ROLE_TRAVELER");
+    private static final long VALIDITY_MS = 900_000;
+
+    private SecretKey key;
+    private JwtCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        codec = new JwtCodec(SECRET);
+        token = mintBaseline();
+    }
+
+    @Benchmark
+    public String mintBaseline() {
+        Date now = new Date();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("42")
+                .claim("email", "traveler@example.com")
+                .claim("roles", ROLES)
+                .claim("type", TokenClaims.TYPE_ACCESS)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + VALIDITY_MS))
+                .signWith(key)
+                .compact();
+    }
+
+    @Benchmark
+    public String mintCodec() {
+        Instant now = Instant.now();
+        return codec.encode(TokenClaims.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .userId("42")
+                .email("traveler@example.com")
+                .roles(ROLES)
+                .type(TokenClaims.TYPE_ACCESS)
+                .issuedAt(now)
+                .expiresAt(now.plusMillis(VALIDITY_MS))
+                .build());
+    }
+
+    @Benchmark
+    public Object verifyBaseline() {
+        Claims claims = Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return TokenClaims.from(claims);
+    }
+
+    @Benchmark
+    public Object verifyCodec() {
+        return codec.decode(token).orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
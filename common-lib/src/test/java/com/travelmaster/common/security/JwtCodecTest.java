@@ -0,0 +1,167 @@
+package com.travelmaster.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtCodec Unit Tests")
+class JwtCodecTest {
+
+    private static final String SECRET =
+            "travelmaster-super-secret-jwt-key-minimum-512-bits-hs512-algorithm-requires-this-length";
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtCodec codec = new JwtCodec(SECRET);
+
+    @Test
+    @DisplayName("Token minted by JwtCodec should verify with jjwt")
+    void shouldBeReadableByJjwt() {
+        // Given
+        TokenClaims claims = claims(Instant.now().plusSeconds(900));
+
+        // When
+        String token = codec.encode(claims);
+        Claims parsed = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        // Then
+        assertEquals("jti-1", parsed.getId());
+        assertEquals("42", parsed.getSubject());
+        assertEquals("user@example.com", parsed.get("email", String.class));
+        assertEquals(List.of("ROLE_USER", "ROLE_\"ADMIN\""), parsed.get("roles", List.class));
+        assertEquals("access", parsed.get("type", String.class));
+        assertEquals(3L, parsed.get("sv", Long.class));
+        assertEquals("family-1", parsed.get("fam", String.class));
+        assertEquals(claims.getExpiresAt(), parsed.getExpiration().toInstant());
+    }
+
+    @Test
+    @DisplayName("Token minted by jjwt should verify with JwtCodec")
+    void shouldReadJjwtToken() {
+        // Given
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String token = Jwts.builder()
+                .id("jti-2")
+                .subject("7")
+                .claim("email", "other@example.com")
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("type", "refresh")
+                .claim("sv", 1L)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plusSeconds(900)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When
+        Optional<TokenClaims> decoded = codec.decode(token);
+
+        // Then
+        assertTrue(decoded.isPresent());
+        assertEquals("jti-2", decoded.get().getTokenId());
+        assertEquals("7", decoded.get().getUserId());
+        assertEquals(List.of("ROLE_USER"), decoded.get().getRoles());
+        assertEquals("refresh", decoded.get().getType());
+        assertEquals(1L, decoded.get().getSecurityVersion());
+        assertEquals(issuedAt, decoded.get().getIssuedAt());
+        assertEquals(issuedAt.plusSeconds(900), decoded.get().getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should round-trip its own token")
+    void shouldRoundTrip() {
+        // Given
+        TokenClaims claims = claims(Instant.now().plusSeconds(900));
+
+        // When
+        Optional<TokenClaims> decoded = codec.decode(codec.encode(claims));
+
+        // Then
+        assertEquals(Optional.of(claims), decoded);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered signature and payload")
+    void shouldRejectTamperedToken() {
+        // Given
+        String token = codec.encode(claims(Instant.now().plusSeconds(900)));
+        String[] parts = token.split("\\.");
+        String forgedPayload = BASE64URL.encodeToString(
+                "{\"sub\":\"1\",\"type\":\"access\",\"roles\":[\"ROLE_ADMIN\"]}".getBytes(StandardCharsets.UTF_8));
+        char last = parts[2].charAt(0);
+
+        // When & Then
+        assertTrue(codec.decode(parts[0] + "." + parts[1] + "." + (last == 'A' ? 'B' : 'A')
+                + parts[2].substring(1)).isEmpty());
+        assertTrue(codec.decode(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(new JwtCodec(SECRET.replace('t', 'T')).decode(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject unsigned token and token signed with other algorithm")
+    void shouldRejectWrongAlgorithm() throws Exception {
+        // Given
+        String payload = BASE64URL.encodeToString(("{\"sub\":\"42\",\"type\":\"access\",\"exp\":"
+                + Instant.now().plusSeconds(900).getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8));
+        String none = BASE64URL.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + payload + ".";
+        String hs256Input = BASE64URL.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + payload;
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String hs256 = hs256Input + "." + BASE64URL.encodeToString(
+                hmac.doFinal(hs256Input.getBytes(StandardCharsets.US_ASCII)));
+
+        // When & Then
+        assertTrue(codec.decode(none).isEmpty());
+        assertTrue(codec.decode(hs256).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject expired token")
+    void shouldRejectExpiredToken() {
+        // Given
+        String token = codec.encode(claims(Instant.now().minusSeconds(5)));
+
+        // When & Then
+        assertTrue(codec.decode(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed input")
+    void shouldRejectMalformedToken() {
+        assertTrue(codec.decode("").isEmpty());
+        assertTrue(codec.decode("not-a-jwt").isEmpty());
+        assertTrue(codec.decode("a.b.c").isEmpty());
+    }
+
+    private static TokenClaims claims(Instant expiresAt) {
+        return TokenClaims.builder()
+                .tokenId("jti-1")
+                .userId("42")
+                .email("user@example.com")
+                .roles(List.of("ROLE_USER", "ROLE_\"ADMIN\""))
+                .type("access")
+                .issuedAt(expiresAt.minusSeconds(900).truncatedTo(ChronoUnit.SECONDS))
+                .expiresAt(expiresAt.truncatedTo(ChronoUnit.SECONDS))
+                .securityVersion(3L)
+                .familyId("family-1")
+                .build();
+    }
+}
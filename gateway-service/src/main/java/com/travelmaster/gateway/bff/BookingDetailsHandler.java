@@ -0,0 +1,246 @@
+package com.travelmaster.gateway.bff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.gateway.security.TokenRevocationRegistry;
+import com.travelmaster.gateway.security.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BFF-обработчик страницы бронирования.
+ *
+ * Вместо трёх последовательных вызовов клиента делает их сам, неблокирующе:
+ * бронирование и платёж запрашиваются параллельно, поездка - как только известен tripId
+ * (сразу, если клиент передал ?tripId=). У каждой ветки свой таймаут.
+ * Переданный ?tripId= только ускоряет запрос: если он не совпадает с tripId бронирования,
+ * возвращается 400, чтобы к бронированию не приклеить чужую поездку.
+ *
+ * Идентификаторы из пути и query подставляются в URI upstream как переменные шаблона
+ * и кодируются целиком, поэтому не могут изменить путь или добавить параметры.
+ *
+ * Без бронирования ответ невозможен, поэтому его ошибка возвращается клиенту как есть.
+ * Отказ поездки или платежа не ломает ответ: поле остаётся null, причина - в errors.
+ */
+@Component
+@Slf4j
+public class BookingDetailsHandler {
+
+    private final WebClient webClient;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final String bookingServiceUri;
+    private final String tripServiceUri;
+    private final String paymentServiceUri;
+    private final Duration bookingTimeout;
+    private final Duration tripTimeout;
+    private final Duration paymentTimeout;
+
+    public BookingDetailsHandler(
+            WebClient.Builder webClientBuilder,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationRegistry revocationRegistry,
+            @Value("${bff.services.booking-uri:http://localhost:8083}") String bookingServiceUri,
+            @Value("${bff.services.trip-uri:http://localhost:8082}") String tripServiceUri,
+            @Value("${bff.services.payment-uri:http://localhost:8084}") String paymentServiceUri,
+            @Value("${bff.timeouts.booking:2s}") Duration bookingTimeout,
+            @Value("${bff.timeouts.trip:1s}") Duration tripTimeout,
+            @Value("${bff.timeouts.payment:1s}") Duration paymentTimeout) {
+        this.webClient = webClientBuilder.build();
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationRegistry = revocationRegistry;
+        this.bookingServiceUri = bookingServiceUri;
+        this.tripServiceUri = tripServiceUri;
+        this.paymentServiceUri = paymentServiceUri;
+        this.bookingTimeout = bookingTimeout;
+        this.tripTimeout = tripTimeout;
+        this.paymentTimeout = paymentTimeout;
+    }
+
+    public Mono<ServerResponse> getBookingDetails(ServerRequest request) {
+        String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        Optional<TokenClaims> claims = authorization != null && authorization.startsWith("Bearer ")
+                ? verifiedTokenCache.getOrVerify(authorization.substring(7))
+                : Optional.empty();
+        if (claims.isEmpty()) {
+            return error(request, HttpStatus.UNAUTHORIZED, "Invalid authorization token");
+        }
+
+        return revocationRegistry.isRevoked(claims.get())
+                .flatMap(revoked -> revoked
+                        ? error(request, HttpStatus.UNAUTHORIZED, "Authorization token has been revoked")
+                        : aggregate(request, forwardedHeaders(authorization, claims.get())));
+    }
+
+    private Mono<ServerResponse> aggregate(ServerRequest request, HttpHeaders forwarded) {
+        String bookingId = request.pathVariable("id");
+        Optional<String> requestedTripId = request.queryParam("tripId");
+
+        Mono<JsonNode> booking = fetch(bookingServiceUri, "/api/v1/bookings/{id}", bookingId, forwarded)
+                .timeout(bookingTimeout)
+                .cache();
+
+        Mono<Branch> payment = branch("payment",
+                fetch(paymentServiceUri, "/api/v1/payments/booking/{id}", bookingId, forwarded), paymentTimeout);
+
+        Mono<Branch> trip = requestedTripId
+                .map(tripId -> branch("trip", fetchTrip(tripId, forwarded), tripTimeout))
+                .orElseGet(() -> booking.flatMap(b -> {
+                    String tripId = tripIdOf(b);
+                    if (tripId == null) {
+                        return Mono.just(Branch.failed("trip", "booking has no tripId"));
+                    }
+                    return branch("trip", fetchTrip(tripId, forwarded), tripTimeout);
+                }));
+
+        return Mono.zip(booking, trip, payment)
+                .flatMap(result -> {
+                    if (requestedTripId.isPresent() && !requestedTripId.get().equals(tripIdOf(result.getT1()))) {
+                        return error(request, HttpStatus.BAD_REQUEST, "tripId does not match booking");
+                    }
+                    Map<String, String> errors = new LinkedHashMap<>();
+                    result.getT2().collectError(errors);
+                    result.getT3().collectError(errors);
+
+                    BookingDetailsResponse body = BookingDetailsResponse.builder()
+                            .booking(result.getT1())
+                            .trip(result.getT2().value)
+                            .payment(result.getT3().value)
+                            .partial(!errors.isEmpty())
+                            .errors(errors)
+                            .build();
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(body);
+                })
+                .onErrorResume(WebClientResponseException.class, ex -> ServerResponse.status(ex.getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(ex.getResponseBodyAsByteArray()))
+                .onErrorResume(TimeoutException.class,
+                        ex -> error(request, HttpStatus.GATEWAY_TIMEOUT, "Booking service timed out"))
+                .onErrorResume(ex -> {
+                    log.warn("Booking details aggregation failed for {}: {}", bookingId, ex.getMessage());
+                    return error(request, HttpStatus.BAD_GATEWAY, "Booking service unavailable");
+                });
+    }
+
+    private Mono<JsonNode> fetchTrip(String tripId, HttpHeaders headers) {
+        return fetch(tripServiceUri, "/api/v1/trips/{id}", tripId, headers);
+    }
+
+    private Mono<JsonNode> fetch(String serviceUri, String pathTemplate, String id, HttpHeaders headers) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(serviceUri)
+                .path(pathTemplate)
+                .encode()
+                .buildAndExpand(id)
+                .toUri();
+        return webClient.get()
+                .uri(uri)
+                .headers(h -> h.addAll(headers))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
+
+    /**
+     * Необязательная ветка: ошибка и таймаут превращаются в пустое значение с причиной.
+     * 404 - не ошибка (например, платёж ещё не создан).
+     */
+    private static Mono<Branch> branch(String name, Mono<JsonNode> call, Duration timeout) {
+        return call.timeout(timeout)
+                .map(value -> new Branch(name, value, null))
+                .defaultIfEmpty(new Branch(name, null, null))
+                .onErrorResume(ex -> {
+                    if (ex instanceof WebClientResponseException wcre
+                            && wcre.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                        return Mono.just(new Branch(name, null, null));
+                    }
+                    String reason = ex instanceof TimeoutException ? "timeout" : describe(ex);
+                    log.debug("BFF branch {} failed: {}", name, reason);
+                    return Mono.just(Branch.failed(name, reason));
+                });
+    }
+
+    private static String tripIdOf(JsonNode booking) {
+        JsonNode tripId = booking.get("tripId");
+        return tripId == null || tripId.isNull() ? null : tripId.asText();
+    }
+
+    private static String describe(Throwable ex) {
+        if (ex instanceof WebClientResponseException wcre) {
+            HttpStatusCode status = wcre.getStatusCode();
+            return "upstream status " + status.value();
+        }
+        return "unavailable";
+    }
+
+    private static HttpHeaders forwardedHeaders(String authorization, TokenClaims claims) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        headers.set("X-User-Id", claims.getUserId());
+        if (claims.getEmail() != null) {
+            headers.set("X-User-Email", claims.getEmail());
+        }
+        return headers;
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+        String errorJson = String.format(
+                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.path()
+        );
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(errorJson);
+    }
+
+    /**
+     * Результат необязательной ветки.
+     */
+    private static final class Branch {
+
+        private final String name;
+        private final JsonNode value;
+        private final String error;
+
+        private Branch(String name, JsonNode value, String error) {
+            this.name = name;
+            this.value = value;
+            this.error = error;
+        }
+
+        static Branch failed(String name, String error) {
+            return new Branch(name, null, error);
+        }
+
+        void collectError(Map<String, String> errors) {
+            if (error != null) {
+                errors.put(name, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.travelmaster.gateway.bff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Агрегированные данные страницы бронирования: бронирование, поездка и платёж.
+ *
+ * При частичном отказе недоступная часть равна null, причина указана в errors,
+ * а partial = true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDetailsResponse {
+
+    private JsonNode booking;
+
+    private JsonNode trip;
+
+    private JsonNode payment;
+
+    private boolean partial;
+
+    private Map<String, String> errors;
+}
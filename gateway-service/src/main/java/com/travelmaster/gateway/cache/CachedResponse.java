@@ -0,0 +1,145 @@
+package com.travelmaster.gateway.cache;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Закешированный ответ upstream: тело, strong ETag и окно свежести.
+ * Для сжимаемых ответов хранится и gzip-вариант со своим ETag,
+ * чтобы не сжимать одно и то же тело на каждый запрос.
+ *
+ * Если upstream ответил с Vary, запоминаются значения перечисленных заголовков запроса:
+ * запись подходит только запросу с теми же значениями.
+ *
+ * Заголовки ответа upstream, которые нужно повторить при попадании в кеш, хранятся в headers.
+ * Strong ETag upstream сохраняется как ETag записи, чтобы клиент, получивший его мимо кеша,
+ * мог сделать conditional GET; иначе ETag вычисляется по телу.
+ */
+@Getter
+public class CachedResponse {
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String contentType;
+    private final Map<String, List<String>> headers;
+    private final Map<String, List<String>> varyValues;
+    private final String etag;
+    private final String gzipEtag;
+    private final long storedAtMillis;
+    private final long ttlMillis;
+    private final long staleWhileRevalidateMillis;
+
+    public CachedResponse(byte[] body, byte[] gzipBody, String contentType, Map<String, List<String>> headers,
+                          Map<String, List<String>> varyValues, Duration ttl, Duration staleWhileRevalidate) {
+        Map<String, List<String>> replayed = new HashMap<>(headers);
+        List<String> upstreamEtag = replayed.remove(HttpHeaders.ETAG);
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.contentType = contentType;
+        this.headers = Map.copyOf(replayed);
+        this.varyValues = Map.copyOf(varyValues);
+        this.etag = isStrongEtag(upstreamEtag) ? upstreamEtag.get(0) : strongEtag(body);
+        // Разные представления одного ресурса должны иметь разные strong ETag
+        this.gzipEtag = gzipBody != null ? etag.substring(0, etag.length() - 1) + "-gzip\"" : null;
+        this.storedAtMillis = System.currentTimeMillis();
+        this.ttlMillis = ttl.toMillis();
+        this.staleWhileRevalidateMillis = staleWhileRevalidate.toMillis();
+    }
+
+    public boolean hasGzip() {
+        return gzipBody != null;
+    }
+
+    public byte[] getBody(boolean gzip) {
+        return gzip && gzipBody != null ? gzipBody : body;
+    }
+
+    public String getEtag(boolean gzip) {
+        return gzip && gzipEtag != null ? gzipEtag : etag;
+    }
+
+    /**
+     * @param requestHeaders заголовки текущего запроса
+     * @return true, если значения заголовков из Vary совпадают с запросом, для которого сохранена запись
+     */
+    public boolean matchesVary(Map<String, List<String>> requestHeaders) {
+        for (Map.Entry<String, List<String>> vary : varyValues.entrySet()) {
+            List<String> values = requestHeaders.get(vary.getKey());
+            if (!vary.getValue().equals(values != null ? values : List.of())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis - storedAtMillis < ttlMillis;
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    /**
+     * Полное время жизни записи в кеше: TTL плюс окно stale-while-revalidate.
+     */
+    public long lifetimeNanos() {
+        return Duration.ofMillis(ttlMillis + staleWhileRevalidateMillis).toNanos();
+    }
+
+    /**
+     * Приблизительный размер записи в байтах для ограничения памяти кеша.
+     */
+    public int weight() {
+        int headersSize = (contentType != null ? contentType.length() : 0) + etag.length() * 2;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            headersSize += header.getKey().length() + String.join("", header.getValue()).length();
+        }
+        int gzipSize = gzipBody != null ? gzipBody.length : 0;
+        return body.length + gzipSize + headersSize + 64;
+    }
+
+    /**
+     * Проверка If-None-Match (слабое сравнение, как требует RFC 9110 для GET).
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStrongEtag(List<String> values) {
+        if (values == null || values.size() != 1) {
+            return false;
+        }
+        String value = values.get(0);
+        return value.length() > 2 && value.startsWith("\"") && value.endsWith("\"");
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.travelmaster.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.travelmaster.gateway.compression.ResponseCompressor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограниченное по памяти хранилище ответов для ResponseCacheFilter.
+ *
+ * Записи вытесняются по суммарному размеру (gateway.response-cache.max-size)
+ * и удаляются по истечении TTL + stale-while-revalidate своего маршрута.
+ * Сжимаемые ответы сжимаются один раз при записи в кеш.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private final Cache<String, CachedResponse> cache;
+    private final long maxEntryBytes;
+    private final ResponseCompressor compressor;
+
+    // Ключи, для которых уже идёт фоновая ревалидация
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    public ResponseCacheStore(
+            MeterRegistry meterRegistry,
+            ResponseCompressor compressor,
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${gateway.response-cache.max-entry-size:256KB}") DataSize maxEntrySize) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.compressor = compressor;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new LifetimeExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response.cache");
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /**
+     * Предельный размер тела записи; больше читать ответ upstream для кеша не нужно.
+     */
+    public int maxEntryBytes() {
+        return (int) Math.min(maxEntryBytes, Integer.MAX_VALUE);
+    }
+
+    public CachedResponse put(String key, byte[] body, String contentType, Map<String, List<String>> headers,
+                              Map<String, List<String>> varyValues, Duration ttl, Duration staleWhileRevalidate) {
+        byte[] gzipBody = compressor.isCompressible(contentType, body.length) ? compressor.gzip(body) : null;
+        CachedResponse entry = new CachedResponse(body, gzipBody, contentType, headers, varyValues,
+                ttl, staleWhileRevalidate);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * @return true, если вызывающий получил право на ревалидацию ключа
+     */
+    public boolean beginRevalidation(String key) {
+        return revalidating.add(key);
+    }
+
+    public void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+
+    private static final class LifetimeExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.travelmaster.gateway.compression;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Правила сжатия ответов Gateway: порог размера, разрешённые content-type и
+ * согласование по Accept-Encoding клиента.
+ */
+@Component
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    // Accept-Encoding клиента: из запроса к upstream он удаляется, сжатием управляет Gateway
+    public static final String CLIENT_ACCEPTS_GZIP_ATTR = ResponseCompressor.class.getName() + ".acceptsGzip";
+
+    private final boolean enabled;
+    private final long minSizeBytes;
+    private final List<MediaType> mimeTypes;
+
+    public ResponseCompressor(
+            @Value("${gateway.compression.enabled:true}") boolean enabled,
+            @Value("${gateway.compression.min-size:1KB}") DataSize minSize,
+            @Value("${gateway.compression.mime-types:application/json,application/problem+json,text/plain,text/html}")
+            List<String> mimeTypes) {
+        this.enabled = enabled;
+        this.minSizeBytes = minSize.toBytes();
+        this.mimeTypes = mimeTypes.stream()
+                .map(MediaType::parseMediaType)
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Подходит ли content-type под allowlist (размер ещё неизвестен).
+     */
+    public boolean isCompressibleType(String contentType) {
+        if (!enabled || contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(allowed -> allowed.isCompatibleWith(mediaType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    public boolean isCompressible(String contentType, int length) {
+        return length >= minSizeBytes && isCompressibleType(contentType);
+    }
+
+    public byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip response body", e);
+        }
+        return out.toByteArray();
+    }
+
+    public boolean acceptsGzip(ServerWebExchange exchange) {
+        Boolean accepts = exchange.getAttribute(CLIENT_ACCEPTS_GZIP_ATTR);
+        if (accepts != null) {
+            return accepts;
+        }
+        return acceptsGzip(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Разбор Accept-Encoding: gzip принимается, если указан явно или через *, и не с q=0.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase(GZIP) && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        rejected = false;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
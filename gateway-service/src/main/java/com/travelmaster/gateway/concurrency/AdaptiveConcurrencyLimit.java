@@ -0,0 +1,108 @@
+package com.travelmaster.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов к одному upstream (градиентный алгоритм).
+ *
+ * Сравнивает текущую задержку с долгосрочной средней: пока задержка не растёт, лимит
+ * увеличивается на sqrt(limit); при росте задержки лимит уменьшается пропорционально
+ * градиенту longRtt / rtt. При ошибках upstream (5xx, таймаут) лимит умножается на backoffRatio.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double readShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double estimatedLimit;
+
+    // Экспоненциальное среднее задержки, в наносекундах
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing,
+                                    double backoffRatio, double readShare) {
+        this.estimatedLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.readShare = readShare;
+    }
+
+    /**
+     * Пытается занять слот. Запросы на чтение могут занять только readShare от лимита,
+     * чтобы при перегрузке первыми отбрасывались они, а не операции записи.
+     */
+    public boolean tryAcquire(boolean priority) {
+        int limit = priority ? getLimit() : Math.max(1, (int) (getLimit() * readShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        int inFlightAtStart = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtStart, false);
+    }
+
+    public void onDropped() {
+        int inFlightAtStart = inFlight.getAndDecrement();
+        update(0, inFlightAtStart, true);
+    }
+
+    /**
+     * Освобождает слот без учёта в алгоритме (например, клиент отменил запрос).
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart, boolean dropped) {
+        double limit = estimatedLimit;
+        double newLimit;
+
+        if (dropped) {
+            newLimit = limit * backoffRatio;
+        } else {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                longRttNanos = longRttNanos * 0.95 + rttNanos * 0.05;
+            }
+
+            // Лимит не растёт, если upstream недогружен - иначе он уйдёт в потолок без причины
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+            double queueSize = Math.sqrt(limit);
+            newLimit = limit * gradient + queueSize;
+            newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,43 @@
+package com.travelmaster.gateway.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Адаптивные лимиты по маршрутам и их метрики
+ * (gateway.concurrency.limit, gateway.concurrency.inflight, gateway.concurrency.shed).
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimiterRegistry {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimit getOrCreate(String routeId, Supplier<AdaptiveConcurrencyLimit> factory) {
+        return limits.computeIfAbsent(routeId, id -> {
+            AdaptiveConcurrencyLimit limit = factory.get();
+            Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("route", id)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("route", id)
+                    .register(meterRegistry);
+            return limit;
+        });
+    }
+
+    public Counter shedCounter(String routeId, boolean priority) {
+        return meterRegistry.counter("gateway.concurrency.shed",
+                "route", routeId,
+                "priority", priority ? "write" : "read");
+    }
+}
@@ -0,0 +1,37 @@
+package com.travelmaster.gateway.config;
+
+import com.travelmaster.gateway.bff.BookingDetailsHandler;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Backend-for-frontend маршруты Gateway, агрегирующие данные нескольких сервисов.
+ *
+ * Router functions стоят раньше маршрутов Gateway, поэтому обработчик отвечает только запросам,
+ * уже прошедшим маршрут Gateway (маршрут bff-bookings с forward: в application.yml).
+ * Так на BFF действуют те же RequestRateLimiter, AdaptiveConcurrencyFilter и метрики маршрута,
+ * а прямой запрос без маршрута обработчик не видит.
+ */
+@Configuration
+public class BffRouterConfig {
+
+    /**
+     * Страница бронирования: бронирование + поездка + платёж одним ответом.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> bffRoutes(BookingDetailsHandler bookingDetailsHandler) {
+        return route(GET("/api/v1/bff/bookings/{id}").and(forwardedByGateway()),
+                bookingDetailsHandler::getBookingDetails);
+    }
+
+    private static RequestPredicate forwardedByGateway() {
+        return request -> request.attribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR).isPresent();
+    }
+}
@@ -0,0 +1,31 @@
+package com.travelmaster.gateway.config;
+
+import com.travelmaster.gateway.stream.BookingStatusStreamHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Push-каналы Gateway (Server-Sent Events).
+ */
+@Configuration
+public class BookingStreamRouterConfig {
+
+    /**
+     * Статусы бронирований текущего пользователя вместо опроса booking-service.
+     * session выдаёт cookie для EventSource, который не может передать Authorization.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> bookingStreamRoutes(BookingStatusStreamHandler handler) {
+        return route(GET(BookingStatusStreamHandler.STREAM_PATH).and(accept(MediaType.TEXT_EVENT_STREAM)),
+                handler::streamStatuses)
+                .andRoute(POST(BookingStatusStreamHandler.STREAM_PATH + "/session"), handler::openSession);
+    }
+}
@@ -1,11 +1,20 @@
 package com.travelmaster.gateway.config;
 
+import com.travelmaster.gateway.ratelimit.HybridRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 /**
  * Rate Limiting конфигурация с Redis.
  */
@@ -28,6 +37,23 @@ public class RateLimiterConfig {
         return new RedisRateLimiter(5, 10, 1);
     }
 
+    /**
+     * Hybrid rate limiter: решения по локальным token bucket, периодическая сверка с Redis.
+     * Параметры маршрута задаются через hybrid-rate-limiter.* в аргументах RequestRateLimiter.
+     */
+    @Bean
+    public HybridRateLimiter hybridRateLimiter(
+            ReactiveStringRedisTemplate redisTemplate,
+            ConfigurationService configurationService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limiter.hybrid.max-buckets:100000}") long maxBuckets,
+            @Value("${gateway.rate-limiter.hybrid.bucket-idle-timeout:5m}") Duration bucketIdleTimeout) {
+        RedisScript<Long> script = RedisScript.of(
+                new ClassPathResource("scripts/hybrid_rate_limiter.lua"), Long.class);
+        return new HybridRateLimiter(redisTemplate, script, configurationService, meterRegistry,
+                new HybridRateLimiter.Config(), maxBuckets, bucketIdleTimeout);
+    }
+
     /**
      * Key resolver based on IP address.
      */
@@ -0,0 +1,136 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.concurrency.AdaptiveConcurrencyLimit;
+import com.travelmaster.gateway.concurrency.ConcurrencyLimiterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Адаптивное ограничение параллелизма и сброс нагрузки для маршрута.
+ *
+ * Лимит одновременных запросов к upstream подстраивается по наблюдаемой задержке
+ * (см. AdaptiveConcurrencyLimit). Сверх лимита запрос сразу получает 503 с Retry-After,
+ * а не ждёт в очереди до таймаута. Операции записи (POST/PUT/PATCH/DELETE) могут занять
+ * весь лимит, чтение - только readShare от него, поэтому при перегрузке первым
+ * отбрасывается просмотр.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config> {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimiterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            String routeId = routeId(exchange);
+            AdaptiveConcurrencyLimit limit = registry.getOrCreate(routeId, () -> new AdaptiveConcurrencyLimit(
+                    config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                    config.getTolerance(), config.getSmoothing(),
+                    config.getBackoffRatio(), config.getReadShare()));
+
+            boolean priority = isWrite(exchange.getRequest().getMethod());
+            if (!limit.tryAcquire(priority)) {
+                registry.shedCounter(routeId, priority).increment();
+                log.warn("Shedding {} request to {}: limit {}, in flight {}",
+                        exchange.getRequest().getMethod(), routeId, limit.getLimit(), limit.getInFlight());
+                return shed(exchange, config);
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            limit.onIgnore();
+                        } else if (signal == SignalType.ON_ERROR || isOverloaded(exchange.getResponse().getStatusCode())) {
+                            limit.onDropped();
+                        } else {
+                            limit.onSuccess(System.nanoTime() - start);
+                        }
+                    });
+        };
+    }
+
+    private static boolean isWrite(HttpMethod method) {
+        return method == HttpMethod.POST
+                || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH
+                || method == HttpMethod.DELETE;
+    }
+
+    private static boolean isOverloaded(HttpStatusCode status) {
+        return status != null && (status.value() == 503 || status.value() == 504 || status.value() == 429);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, Config config) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, config.getRetryAfter().toSeconds())));
+
+        String errorJson = String.format(
+                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                "Service is overloaded, please retry later",
+                exchange.getRequest().getPath().value()
+        );
+
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(errorJson.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    @Data
+    public static class Config {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        // Во сколько раз задержка может превысить среднюю, прежде чем лимит начнёт снижаться
+        private double tolerance = 2.0;
+
+        // Сглаживание изменений лимита (0..1)
+        private double smoothing = 0.2;
+
+        // Множитель лимита при ошибке/таймауте upstream
+        private double backoffRatio = 0.9;
+
+        // Доля лимита, доступная запросам на чтение
+        private double readShare = 0.8;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.travelmaster.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Направляет hedge-попытку HedgingFilter на альтернативный экземпляр upstream.
+ *
+ * Стоит сразу после RouteToRequestUrlFilter: путь и query уже собраны из маршрута
+ * (с учётом RewritePath и т.п.), заменяются только схема, хост и порт.
+ */
+@Component
+public class HedgeTargetFilter implements GlobalFilter, Ordered {
+
+    static final String HEDGE_TARGET_ATTR = HedgeTargetFilter.class.getName() + ".target";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI target = exchange.getAttribute(HEDGE_TARGET_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (target == null || requestUrl == null) {
+            return chain.filter(exchange);
+        }
+
+        URI hedgeUrl = UriComponentsBuilder.fromUri(requestUrl)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, hedgeUrl);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,306 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.hedge.HedgeBudget;
+import com.travelmaster.gateway.hedge.LatencyTracker;
+import com.travelmaster.gateway.metrics.RouteLatencyMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged requests для идемпотентных GET-маршрутов (включается в конфигурации маршрута).
+ *
+ * Запрос отправляется в upstream; если ответа нет дольше перцентиля задержки маршрута
+ * (по умолчанию p95 последних запросов), отправляется второй запрос на другой экземпляр
+ * из hedgeUris. Клиенту уходит первый полученный ответ, второй запрос отменяется.
+ * Доля hedge-запросов ограничена HedgeBudget (maxHedgeRatio).
+ *
+ * Каждая попытка повторно проходит оставшуюся цепочку фильтров (RouteToRequestUrlFilter,
+ * HedgeTargetFilter, UpstreamTimingFilter, NettyRoutingFilter) на своей копии exchange:
+ * со своими атрибутами и ответом, в который NettyRoutingFilter пишет только статус и заголовки.
+ * Атрибуты и заголовки победившей попытки переносятся в исходный exchange, а тело ответа
+ * потоком пишет обычный NettyWriteResponseFilter - без буферизации в памяти.
+ * Соединение проигравшей попытки закрывается.
+ *
+ * В окно задержек попадает каждая попытка, получившая ответ, включая опоздавшую.
+ * Основной запрос, отменённый из-за победы hedge или таймаута, учитывается прошедшим
+ * временем - иначе перцентиль считался бы только по быстрым ответам и занижался.
+ * Таймаут всего запроса отдаётся клиенту как 504, как и в NettyRoutingFilter.
+ *
+ * Метрики: gateway.hedge.requests{outcome=primary|hedge_won|hedge_lost|denied|timeout}.
+ */
+@Component
+@Slf4j
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextHedgeUri = new AtomicInteger();
+
+    public HedgingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (route == null || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = route.getId();
+            LatencyTracker tracker = trackers.computeIfAbsent(routeId,
+                    id -> new LatencyTracker(config.getWindowSize(), config.getPercentile(), config.getMinSamples()));
+            HedgeBudget budget = budgets.computeIfAbsent(routeId,
+                    id -> new HedgeBudget(config.getMaxHedgeRatio(), config.getMaxBurst()));
+            budget.onRequest();
+
+            Duration hedgeDelay = clamp(tracker.percentileOr(config.getInitialDelay()), config);
+            AtomicReference<AttemptExchange> winner = new AtomicReference<>();
+
+            Mono<AttemptExchange> primary = attempt(exchange, chain, null, winner, tracker);
+
+            Mono<AttemptExchange> hedge = Mono.delay(hedgeDelay)
+                    .flatMap(tick -> {
+                        if (!budget.tryAcquire()) {
+                            count(routeId, "denied");
+                            return Mono.error(new IllegalStateException("Hedge budget exhausted"));
+                        }
+                        URI target = hedgeTarget(route, config);
+                        log.debug("Hedging {} to {} after {} ms", exchange.getRequest().getPath(), target, hedgeDelay.toMillis());
+                        return attempt(exchange, chain, target, winner, tracker)
+                                .doOnCancel(() -> count(routeId, "hedge_lost"));
+                    });
+
+            return Mono.firstWithValue(primary, hedge)
+                    .timeout(config.getTimeout())
+                    .doOnNext(attempt -> {
+                        count(routeId, attempt.hedgeTarget == null ? "primary" : "hedge_won");
+                        attempt.promote(exchange);
+                    })
+                    .onErrorMap(TimeoutException.class, error -> {
+                        count(routeId, "timeout");
+                        return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, error.getMessage(), error);
+                    })
+                    .then();
+        };
+    }
+
+    /**
+     * Прогоняет оставшуюся цепочку на копии exchange. Попытка, получившая ответ
+     * после победителя, закрывает своё соединение и завершается пустой.
+     *
+     * Задержка попытки записывается в tracker по получении ответа; отменённый основной
+     * запрос записывается прошедшим временем как нижняя оценка. Отменённый hedge
+     * не записывается: он стартовал позже и о хвосте задержек ничего не говорит.
+     */
+    private static Mono<AttemptExchange> attempt(ServerWebExchange exchange, GatewayFilterChain chain,
+                                                 URI hedgeTarget, AtomicReference<AttemptExchange> winner,
+                                                 LatencyTracker tracker) {
+        return Mono.defer(() -> {
+            AttemptExchange attempt = new AttemptExchange(exchange, hedgeTarget);
+            long start = System.nanoTime();
+            return chain.filter(attempt)
+                    .then(Mono.fromCallable(() -> {
+                        tracker.record(System.nanoTime() - start);
+                        if (winner.compareAndSet(null, attempt)) {
+                            return attempt;
+                        }
+                        attempt.discard();
+                        return null;
+                    }))
+                    .doOnCancel(() -> {
+                        if (hedgeTarget == null) {
+                            tracker.record(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private URI hedgeTarget(Route route, Config config) {
+        List<String> uris = config.getHedgeUris();
+        if (uris == null || uris.isEmpty()) {
+            return route.getUri();
+        }
+        int index = Math.floorMod(nextHedgeUri.getAndIncrement(), uris.size());
+        return URI.create(uris.get(index));
+    }
+
+    private static Duration clamp(Duration delay, Config config) {
+        if (delay.compareTo(config.getMinDelay()) < 0) {
+            return config.getMinDelay();
+        }
+        if (delay.compareTo(config.getMaxDelay()) > 0) {
+            return config.getMaxDelay();
+        }
+        return delay;
+    }
+
+    private void count(String routeId, String outcome) {
+        meterRegistry.counter("gateway.hedge.requests", "route", routeId, "outcome", outcome).increment();
+    }
+
+    /**
+     * Копия exchange для одной попытки: собственные атрибуты, замер upstream и ответ,
+     * в котором накапливаются статус и заголовки до выбора победителя.
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final Map<String, Object> attributes;
+        private final AttemptResponse response;
+        private final URI hedgeTarget;
+
+        AttemptExchange(ServerWebExchange delegate, URI hedgeTarget) {
+            super(delegate);
+            this.hedgeTarget = hedgeTarget;
+            this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+            this.response = new AttemptResponse(delegate.getResponse());
+            if (attributes.containsKey(RouteLatencyFilter.TIMING_ATTR)) {
+                attributes.put(RouteLatencyFilter.TIMING_ATTR, new RouteLatencyFilter.RequestTiming(System.nanoTime()));
+            }
+            if (hedgeTarget != null) {
+                attributes.put(HedgeTargetFilter.HEDGE_TARGET_ATTR, hedgeTarget);
+            }
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Переносит результат попытки в исходный exchange; тело затем пишет NettyWriteResponseFilter.
+         */
+        void promote(ServerWebExchange exchange) {
+            RouteLatencyFilter.RequestTiming outerTiming = exchange.getAttribute(RouteLatencyFilter.TIMING_ATTR);
+            RouteLatencyFilter.RequestTiming timing = (RouteLatencyFilter.RequestTiming) attributes.remove(RouteLatencyFilter.TIMING_ATTR);
+            if (outerTiming != null && timing != null) {
+                outerTiming.upstreamNanos = timing.upstreamNanos;
+                if (hedgeTarget != null) {
+                    outerTiming.source = RouteLatencyMetrics.Source.HEDGED;
+                }
+            }
+            attributes.remove(HedgeTargetFilter.HEDGE_TARGET_ATTR);
+            exchange.getAttributes().putAll(attributes);
+
+            ServerHttpResponse outer = exchange.getResponse();
+            if (response.status != null) {
+                outer.setStatusCode(response.status);
+            }
+            outer.getHeaders().putAll(response.headers);
+        }
+
+        void discard() {
+            Connection connection = (Connection) attributes.get(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+    }
+
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private volatile HttpStatusCode status;
+
+        AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+            headers.putAll(delegate.getHeaders());
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status != null ? status : getDelegate().getStatusCode();
+        }
+
+        @Override
+        @Deprecated
+        public boolean setRawStatusCode(Integer value) {
+            this.status = value != null ? HttpStatusCode.valueOf(value) : null;
+            return true;
+        }
+
+        @Override
+        @Deprecated
+        public Integer getRawStatusCode() {
+            HttpStatusCode code = getStatusCode();
+            return code != null ? code.value() : null;
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        // Перцентиль задержки маршрута, после которого отправляется hedge
+        private double percentile = 0.95;
+
+        // Задержка hedge, пока не набрано minSamples замеров
+        private Duration initialDelay = Duration.ofMillis(200);
+
+        private Duration minDelay = Duration.ofMillis(20);
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+
+        private int windowSize = 1000;
+
+        private int minSamples = 50;
+
+        // Максимальная доля запросов, для которых допускается hedge
+        private double maxHedgeRatio = 0.1;
+
+        // Запас hedge-запросов на всплеск
+        private double maxBurst = 10;
+
+        // Альтернативные экземпляры upstream; по умолчанию используется uri маршрута
+        private List<String> hedgeUris = new ArrayList<>();
+
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+}
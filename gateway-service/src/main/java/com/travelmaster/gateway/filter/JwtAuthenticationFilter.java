@@ -1,6 +1,8 @@
 package com.travelmaster.gateway.filter;
 
-import com.travelmaster.gateway.security.JwtTokenProvider;
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.gateway.security.TokenRevocationRegistry;
+import com.travelmaster.gateway.security.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -12,6 +14,7 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter для валидации токенов.
@@ -20,7 +23,8 @@ import java.util.List;
 @Slf4j
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry revocationRegistry;
 
     private static final List<String> PUBLIC_URLS = List.of(
             "/api/v1/auth/register",
@@ -32,9 +36,11 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             "/swagger-ui"
     );
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocationRegistry revocationRegistry) {
         super(Config.class);
-        this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationRegistry = revocationRegistry;
     }
 
     @Override
@@ -57,24 +63,32 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                 return onError(exchange, "Missing authorization token", HttpStatus.UNAUTHORIZED);
             }
 
-            // Валидация токена
-            if (!jwtTokenProvider.validateToken(token)) {
+            // Валидация токена (один разбор или попадание в кеш проверенных токенов)
+            Optional<TokenClaims> claims = verifiedTokenCache.getOrVerify(token);
+            if (claims.isEmpty()) {
                 log.warn("Invalid JWT token for path: {}", path);
                 return onError(exchange, "Invalid authorization token", HttpStatus.UNAUTHORIZED);
             }
 
             // Извлекаем информацию из токена и добавляем в заголовки
-            String userId = jwtTokenProvider.getUserIdFromToken(token);
-            String email = jwtTokenProvider.getEmailFromToken(token);
+            String userId = claims.get().getUserId();
+            String email = claims.get().getEmail();
 
             ServerHttpRequest modifiedRequest = request.mutate()
                     .header("X-User-Id", userId)
                     .header("X-User-Email", email)
                     .build();
 
-            log.debug("Authenticated request for user: {} ({})", email, userId);
-
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            // Проверка отзыва: Bloom filter в памяти, Redis - только при совпадении
+            return revocationRegistry.isRevoked(claims.get())
+                    .flatMap(revoked -> {
+                        if (revoked) {
+                            log.warn("Revoked JWT token for user {} on path: {}", userId, path);
+                            return onError(exchange, "Authorization token has been revoked", HttpStatus.UNAUTHORIZED);
+                        }
+                        log.debug("Authenticated request for user: {} ({})", email, userId);
+                        return chain.filter(exchange.mutate().request(modifiedRequest).build());
+                    });
         };
     }
 
@@ -0,0 +1,225 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.metrics.RouteLatencyMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight для одинаковых одновременных GET-запросов.
+ *
+ * Первый запрос с данным ключом (маршрут + путь + query + значимые заголовки) уходит в upstream,
+ * остальные, пришедшие пока он в полёте, ждут его ответ и получают копию статуса, заголовков и тела.
+ * Если ведущий запрос завершился ошибкой, был отменён или ответ слишком велик для копирования,
+ * ожидающие запросы выполняются самостоятельно.
+ *
+ * Объединяются только анонимные запросы: запрос с Authorization или Cookie идёт в upstream сам.
+ * Ответ на такой запрос может зависеть от пользователя, а ключ по токену почти не даёт
+ * совпадений (один пользователь редко шлёт одинаковые запросы одновременно) и держал бы
+ * учётные данные в ключах карты. Цена - нагрузка от авторизованных клиентов не снижается;
+ * для публичных маршрутов (поиск поездок) основной поток как раз анонимный.
+ *
+ * Фильтр стоит на своём месте в цепочке маршрута (после rate limiting), а ответ ведущего
+ * перехватывает через {@link ResponseWriteHookFilter}.
+ *
+ * Метрики: gateway.coalescing.requests{result=leader|coalesced|fallback}, gateway.coalescing.inflight.
+ */
+@Component
+@Slf4j
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+    private final Counter fallbackCounter;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.leaderCounter = meterRegistry.counter("gateway.coalescing.requests", "result", "leader");
+        this.coalescedCounter = meterRegistry.counter("gateway.coalescing.requests", "result", "coalesced");
+        this.fallbackCounter = meterRegistry.counter("gateway.coalescing.requests", "result", "fallback");
+        meterRegistry.gauge("gateway.coalescing.inflight", inFlight, Map::size);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET
+                    || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                    || request.getHeaders().containsKey(HttpHeaders.COOKIE)) {
+                return chain.filter(exchange);
+            }
+
+            String key = coalescingKey(exchange, config);
+            Flight flight = new Flight();
+            Flight existing = inFlight.putIfAbsent(key, flight);
+
+            if (existing != null) {
+                coalescedCounter.increment();
+                return existing.result()
+                        .timeout(config.getWaitTimeout())
+                        .flatMap(shared -> {
+                            RouteLatencyFilter.markSource(exchange, RouteLatencyMetrics.Source.LOCAL);
+                            return writeShared(exchange.getResponse(), shared);
+                        })
+                        .onErrorResume(error -> {
+                            fallbackCounter.increment();
+                            log.debug("Coalesced request {} falls back to upstream: {}", key, error.getMessage());
+                            return chain.filter(exchange);
+                        });
+            }
+
+            leaderCounter.increment();
+            ResponseWriteHookFilter.decorate(exchange,
+                    response -> new SharingResponseDecorator(response, key, flight, config));
+            return chain.filter(exchange)
+                    .doFinally(signal -> complete(key, flight, null));
+        };
+    }
+
+    /**
+     * Снимает полёт с учёта и раздаёт ответ ожидающим; без ответа они уйдут в upstream сами.
+     */
+    private void complete(String key, Flight flight, SharedResponse response) {
+        inFlight.remove(key, flight);
+        if (response != null) {
+            flight.sink.tryEmitValue(response);
+        } else {
+            flight.sink.tryEmitError(new IllegalStateException("Leader request finished without shareable response"));
+        }
+    }
+
+    private static Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.getStatus());
+        response.getHeaders().putAll(shared.getHeaders());
+        response.getHeaders().setContentLength(shared.getBody().length);
+        if (shared.getBody().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.getBody())));
+    }
+
+    private static String coalescingKey(ServerWebExchange exchange, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+
+        StringBuilder key = new StringBuilder()
+                .append(route != null ? route.getId() : "")
+                .append(':')
+                .append(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : config.getKeyHeaders()) {
+            key.append('|').append(header).append('=').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Ответ ведущего запроса: копирует тело для ожидающих, затем пишет его своему клиенту.
+     */
+    private class SharingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Flight flight;
+        private final Config config;
+
+        SharingResponseDecorator(ServerHttpResponse delegate, String key, Flight flight, Config config) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        if (bytes.length <= config.getMaxSharedBodySize()) {
+                            complete(key, flight, snapshot(bytes));
+                        } else {
+                            complete(key, flight, null);
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        private SharedResponse snapshot(byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            // Cookie ведущего не должны попасть другим клиентам
+            headers.remove(HttpHeaders.SET_COOKIE);
+            return new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+    }
+
+    private static final class Flight {
+
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+
+        Mono<SharedResponse> result() {
+            return sink.asMono();
+        }
+    }
+
+    @Value
+    private static class SharedResponse {
+        HttpStatusCode status;
+        HttpHeaders headers;
+        byte[] body;
+    }
+
+    @Data
+    public static class Config {
+
+        // Заголовки, от которых зависит ответ upstream и которые входят в ключ.
+        // Учётные данные сюда не входят: запросы с ними не объединяются.
+        // Accept-Encoding тоже не входит: ResponseCompressionFilter снимает его раньше,
+        // upstream всегда отвечает без сжатия, а gzip для клиента делается уже после раздачи
+        private List<String> keyHeaders = List.of(
+                HttpHeaders.ACCEPT,
+                HttpHeaders.ACCEPT_LANGUAGE);
+
+        // Сколько ожидающий запрос ждёт ответ ведущего, прежде чем пойти в upstream сам
+        private Duration waitTimeout = Duration.ofSeconds(10);
+
+        // Ответы больше этого размера не раздаются ожидающим
+        private int maxSharedBodySize = 1024 * 1024;
+    }
+}
@@ -0,0 +1,351 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.cache.CachedResponse;
+import com.travelmaster.gateway.cache.ResponseCacheStore;
+import com.travelmaster.gateway.compression.ResponseCompressor;
+import com.travelmaster.gateway.metrics.RouteLatencyMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кеш GET-ответов на уровне Gateway с ETag и conditional GET.
+ *
+ * - свежая запись: ответ из памяти, при совпадении If-None-Match - 304 без тела;
+ * - устаревшая запись в окне stale-while-revalidate: ответ из памяти (X-Cache: STALE)
+ *   и одна фоновая ревалидация к upstream;
+ * - промах: запрос уходит в upstream, успешный ответ кешируется.
+ *
+ * Если клиент принимает gzip, отдаётся заранее сжатый вариант записи. Ответ из памяти
+ * повторяет Content-Type и заголовки ответа upstream из REPLAYED_HEADERS.
+ *
+ * Не кешируются ответы с Set-Cookie, Content-Encoding, Cache-Control: no-store/private,
+ * Vary: * и не-200 статусом. Запись учитывает Vary ответа: она отдаётся только запросу с теми же
+ * значениями перечисленных заголовков. Запросы с Authorization или Cookie кешируются отдельно
+ * для каждого пользователя (X-User-Id от JwtAuthenticationFilter или хеш учётных данных).
+ * Запрос с Cache-Control: no-cache/no-store идёт мимо кеша.
+ *
+ * Фильтр стоит на своём месте в списке фильтров маршрута, после RequestRateLimiter и
+ * AdaptiveConcurrencyFilter: попадание в кеш тоже расходует лимиты. Тело промаха перехватывается
+ * через ResponseWriteHookFilter.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String USER_ID_HEADER = "X-User-Id";
+
+    // Заголовки ответа upstream, которые сохраняются в записи и повторяются при попадании
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CONTENT_LANGUAGE);
+
+    private final ResponseCacheStore store;
+    private final ResponseCompressor compressor;
+    private final WebClient webClient;
+
+    public ResponseCacheFilter(ResponseCacheStore store, ResponseCompressor compressor,
+                               WebClient.Builder webClientBuilder) {
+        super(Config.class);
+        this.store = store;
+        this.compressor = compressor;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || bypassesCache(request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(exchange);
+            long now = System.currentTimeMillis();
+            CachedResponse cached = store.get(key).orElse(null);
+
+            if (cached != null && cached.matchesVary(request.getHeaders())) {
+                if (cached.isFresh(now)) {
+                    return writeCached(exchange, cached, now, "HIT");
+                }
+                revalidate(exchange, key, config);
+                return writeCached(exchange, cached, now, "STALE");
+            }
+
+            ResponseWriteHookFilter.decorate(exchange,
+                    response -> new CachingResponseDecorator(response, exchange, key, config));
+            return chain.filter(exchange);
+        };
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, long now, String cacheStatus) {
+        RouteLatencyFilter.markSource(exchange, RouteLatencyMetrics.Source.LOCAL);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(now)));
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.getContentType() != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, cached.getContentType());
+        }
+        return writeVariant(exchange, response, cached);
+    }
+
+    /**
+     * Пишет подходящее клиенту представление записи или 304, если оно у клиента уже есть.
+     */
+    private Mono<Void> writeVariant(ServerWebExchange exchange, ServerHttpResponse target, CachedResponse cached) {
+        HttpHeaders headers = target.getHeaders();
+        boolean gzip = cached.hasGzip() && compressor.acceptsGzip(exchange);
+        headers.setETag(cached.getEtag(gzip));
+        if (cached.hasGzip()) {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (cached.matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            target.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return target.setComplete();
+        }
+
+        byte[] body = cached.getBody(gzip);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+        }
+        headers.setContentLength(body.length);
+        return target.writeWith(Mono.just(target.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Фоновое обновление устаревшей записи. На один ключ одновременно не более одной ревалидации.
+     */
+    private void revalidate(ServerWebExchange exchange, String key, Config config) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !store.beginRevalidation(key)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        URI target = UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(request.getPath().value())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+
+        webClient.get()
+                .uri(target)
+                .headers(headers -> headers.addAll(forwardedHeaders(request.getHeaders())))
+                .exchangeToMono(clientResponse -> {
+                    if (clientResponse.statusCode().value() != 200
+                            || !isCacheable(clientResponse.headers().asHttpHeaders())) {
+                        return clientResponse.releaseBody().then(Mono.<byte[]>empty());
+                    }
+                    HttpHeaders responseHeaders = clientResponse.headers().asHttpHeaders();
+                    Map<String, List<String>> varyValues = varyValues(responseHeaders, request.getHeaders());
+                    if (varyValues == null) {
+                        return clientResponse.releaseBody().then(Mono.<byte[]>empty());
+                    }
+                    String contentType = responseHeaders.getFirst(HttpHeaders.CONTENT_TYPE);
+                    // Тело читается потоком с пределом записи кеша, а не через кодек с лимитом 256KB;
+                    // больший ответ всё равно не кешируется
+                    return DataBufferUtils.join(clientResponse.bodyToFlux(DataBuffer.class), store.maxEntryBytes())
+                            .map(ResponseCacheFilter::toBytes)
+                            .defaultIfEmpty(new byte[0])
+                            .doOnNext(body -> store.put(key, body, contentType, replayedHeaders(responseHeaders),
+                                    varyValues, config.getTtl(), config.getStaleWhileRevalidate()));
+                })
+                .timeout(config.getRevalidationTimeout())
+                .doFinally(signal -> store.endRevalidation(key))
+                .subscribe(
+                        body -> log.debug("Revalidated cached response {}", key),
+                        error -> log.debug("Revalidation failed for {}: {}", key, error.getMessage()));
+    }
+
+    private static HttpHeaders forwardedHeaders(HttpHeaders original) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(original);
+        headers.remove(HttpHeaders.HOST);
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        return headers;
+    }
+
+    private static boolean bypassesCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null
+                && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    /**
+     * Значения заголовков запроса, перечисленных в Vary ответа.
+     *
+     * @return null для Vary: * - такой ответ не кешируется
+     */
+    private static Map<String, List<String>> varyValues(HttpHeaders responseHeaders, HttpHeaders requestHeaders) {
+        Map<String, List<String>> values = new HashMap<>();
+        for (String header : responseHeaders.getVary()) {
+            if (header.equals("*")) {
+                return null;
+            }
+            // Сжатие кеш выполняет сам и хранит оба варианта
+            if (!header.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                values.put(header, requestHeaders.getOrEmpty(header));
+            }
+        }
+        return values;
+    }
+
+    private static Map<String, List<String>> replayedHeaders(HttpHeaders responseHeaders) {
+        Map<String, List<String>> headers = new HashMap<>();
+        for (String header : REPLAYED_HEADERS) {
+            List<String> values = responseHeaders.get(header);
+            if (values != null && !values.isEmpty()) {
+                headers.put(header, List.copyOf(values));
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private static String cacheKey(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+        String query = exchange.getRequest().getURI().getRawQuery();
+        return routeId + ":" + exchange.getRequest().getPath().value() + (query != null ? "?" + query : "")
+                + principalKey(exchange.getRequest().getHeaders());
+    }
+
+    /**
+     * Часть ключа для запросов с учётными данными: ответ одного пользователя не отдаётся другому.
+     */
+    private static String principalKey(HttpHeaders headers) {
+        String userId = headers.getFirst(USER_ID_HEADER);
+        if (userId != null) {
+            return "|user=" + userId;
+        }
+        List<String> authorization = headers.getOrEmpty(HttpHeaders.AUTHORIZATION);
+        List<String> cookies = headers.getOrEmpty(HttpHeaders.COOKIE);
+        if (authorization.isEmpty() && cookies.isEmpty()) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.join(",", authorization).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '|');
+            digest.update(String.join(";", cookies).getBytes(StandardCharsets.UTF_8));
+            return "|credentials=" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Собирает тело ответа upstream, кладёт его в кеш и отвечает 304,
+     * если клиент уже имеет эту версию.
+     *
+     * В памяти накапливается не больше предела записи кеша: как только тело его превысило,
+     * накопленная часть и остаток ответа уходят клиенту потоком без кеширования.
+     */
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Config config;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, ServerWebExchange exchange, String key, Config config) {
+            super(delegate);
+            this.exchange = exchange;
+            this.key = key;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != 200 || !isCacheable(getHeaders())) {
+                return super.writeWith(body);
+            }
+            Map<String, List<String>> varyValues = varyValues(getHeaders(), exchange.getRequest().getHeaders());
+            if (varyValues == null) {
+                return super.writeWith(body);
+            }
+
+            int limit = store.maxEntryBytes();
+            AtomicLong size = new AtomicLong();
+            // До превышения предела части копятся в один список; после - каждая идёт отдельно
+            return Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > limit)
+                    .switchOnFirst((first, parts) -> {
+                        if (size.get() > limit) {
+                            return super.writeWith(parts.flatMapIterable(Function.identity()));
+                        }
+                        return parts.collectList().flatMap(lists -> {
+                            byte[] bytes = lists.isEmpty() ? new byte[0] : toBytes(bufferFactory().join(lists.get(0)));
+                            CachedResponse cached = store.put(key, bytes,
+                                    getHeaders().getFirst(HttpHeaders.CONTENT_TYPE), replayedHeaders(getHeaders()),
+                                    varyValues, config.getTtl(), config.getStaleWhileRevalidate());
+                            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            return writeVariant(exchange, getDelegate(), cached);
+                        });
+                    })
+                    .then();
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        // Время, в течение которого запись считается свежей
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // Сколько ещё отдавать устаревшую запись, пока идёт фоновое обновление
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+        // Таймаут фоновой ревалидации
+        private Duration revalidationTimeout = Duration.ofSeconds(5);
+    }
+}
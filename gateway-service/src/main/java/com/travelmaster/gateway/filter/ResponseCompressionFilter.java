@@ -0,0 +1,93 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.compression.ResponseCompressor;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gzip-сжатие ответов на уровне Gateway.
+ *
+ * Accept-Encoding клиента запоминается и не передаётся в upstream, чтобы тело ответа
+ * приходило несжатым: его можно закешировать и сжать один раз (см. ResponseCacheFilter).
+ * Сжимаются ответы из allowlist content-type размером не меньше gateway.compression.min-size.
+ * Ответы, уже имеющие Content-Encoding (например, готовый gzip-вариант из кеша), не трогаются.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCompressor compressor;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!compressor.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        boolean acceptsGzip = ResponseCompressor.acceptsGzip(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        exchange.getAttributes().put(ResponseCompressor.CLIENT_ACCEPTS_GZIP_ATTR, acceptsGzip);
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        ServerWebExchange.Builder mutated = exchange.mutate().request(request);
+        if (acceptsGzip) {
+            mutated.response(new CompressingResponseDecorator(exchange.getResponse()));
+        }
+        return chain.filter(mutated.build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Раньше декораторов кеша и single-flight (-2), чтобы оказаться ближе всех к клиенту
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    private class CompressingResponseDecorator extends ServerHttpResponseDecorator {
+
+        CompressingResponseDecorator(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    || !compressor.isCompressibleType(headers.getFirst(HttpHeaders.CONTENT_TYPE))) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                        if (!compressor.isCompressible(headers.getFirst(HttpHeaders.CONTENT_TYPE), bytes.length)) {
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        }
+
+                        byte[] compressed = compressor.gzip(bytes);
+                        headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+                        headers.setContentLength(compressed.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(compressed)));
+                    });
+        }
+    }
+}
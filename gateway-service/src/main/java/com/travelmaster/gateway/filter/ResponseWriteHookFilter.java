@@ -0,0 +1,81 @@
+package com.travelmaster.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Точка подключения декораторов ответа для фильтров маршрута.
+ *
+ * NettyWriteResponseFilter пишет тело в ответ того exchange, который получил сам, поэтому
+ * декоратор, установленный фильтром маршрута через exchange.mutate(), тело не увидит.
+ * Этот фильтр стоит перед NettyWriteResponseFilter и подменяет ответ обёрткой, цель записи
+ * которой фильтры маршрута (кеш, coalescing) могут обернуть через {@link #decorate}, оставаясь
+ * на своём месте в цепочке - после rate limiting и ограничения конкурентности.
+ */
+@Component
+public class ResponseWriteHookFilter implements GlobalFilter, Ordered {
+
+    private static final String HOOK_ATTR = ResponseWriteHookFilter.class.getName() + ".hook";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        WriteHook hook = new WriteHook(exchange.getResponse());
+        exchange.getAttributes().put(HOOK_ATTR, hook);
+        return chain.filter(exchange.mutate().response(hook).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Оборачивает цель записи ответа. Вызывается до того, как NettyWriteResponseFilter начнёт писать тело.
+     *
+     * @return false, если запрос прошёл мимо фильтра (декоратор не установлен)
+     */
+    static boolean decorate(ServerWebExchange exchange, UnaryOperator<ServerHttpResponse> decorator) {
+        WriteHook hook = exchange.getAttribute(HOOK_ATTR);
+        if (hook == null) {
+            return false;
+        }
+        hook.target = decorator.apply(hook.target);
+        return true;
+    }
+
+    private static final class WriteHook extends ServerHttpResponseDecorator {
+
+        private volatile ServerHttpResponse target;
+
+        WriteHook(ServerHttpResponse delegate) {
+            super(delegate);
+            this.target = delegate;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return target.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return target.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return target.setComplete();
+        }
+    }
+}
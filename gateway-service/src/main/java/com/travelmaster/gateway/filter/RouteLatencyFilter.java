@@ -0,0 +1,77 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.metrics.RouteLatencyMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Глобальный фильтр замера задержки запроса по маршруту.
+ *
+ * Стоит первым в цепочке и меряет полное время; UpstreamTimingFilter перед NettyRoutingFilter
+ * отмечает время, проведённое в upstream. Разница - время фильтров Gateway (JWT, rate limiting и т.д.).
+ * Фильтры, отвечающие без upstream (кеш, coalescing) или ответом hedge-запроса, помечают
+ * источник ответа через {@link #markSource}, и такой запрос не попадает в фазу filters.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteLatencyFilter implements GlobalFilter, Ordered {
+
+    static final String TIMING_ATTR = RouteLatencyFilter.class.getName() + ".timing";
+
+    private final RouteLatencyMetrics metrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        RouteLatencyMetrics.RouteMeters routeMeters = metrics.forRoute(route);
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        exchange.getAttributes().put(TIMING_ATTR, timing);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    routeMeters.record(status != null ? status.value() : 0,
+                            System.nanoTime() - timing.startNanos,
+                            timing.upstreamNanos,
+                            timing.source);
+                });
+    }
+
+    static void markSource(ServerWebExchange exchange, RouteLatencyMetrics.Source source) {
+        RequestTiming timing = exchange.getAttribute(TIMING_ATTR);
+        if (timing != null) {
+            timing.source = source;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Изменяемые отметки времени одного запроса.
+     */
+    static final class RequestTiming {
+
+        final long startNanos;
+        volatile long upstreamNanos = -1;
+        volatile RouteLatencyMetrics.Source source = RouteLatencyMetrics.Source.UPSTREAM;
+
+        RequestTiming(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.travelmaster.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Отмечает время, проведённое в upstream (вызов NettyRoutingFilter и запись ответа),
+ * для разбивки задержки в RouteLatencyFilter.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteLatencyFilter.RequestTiming timing = exchange.getAttribute(RouteLatencyFilter.TIMING_ATTR);
+        if (timing == null) {
+            return chain.filter(exchange);
+        }
+
+        // doOnTerminate/doOnCancel срабатывают до doFinally внешнего RouteLatencyFilter
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnTerminate(() -> timing.upstreamNanos = System.nanoTime() - start)
+                .doOnCancel(() -> timing.upstreamNanos = System.nanoTime() - start);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
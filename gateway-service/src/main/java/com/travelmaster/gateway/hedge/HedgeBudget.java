@@ -0,0 +1,31 @@
+package com.travelmaster.gateway.hedge;
+
+/**
+ * Бюджет hedge-запросов: каждый основной запрос добавляет maxRatio токена,
+ * каждый hedge тратит один. Так доля дополнительных запросов к upstream
+ * не превышает maxRatio даже при общей деградации, когда hedge бесполезен.
+ */
+public class HedgeBudget {
+
+    private final double maxRatio;
+    private final double maxTokens;
+
+    private double tokens;
+
+    public HedgeBudget(double maxRatio, double maxTokens) {
+        this.maxRatio = maxRatio;
+        this.maxTokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + maxRatio);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.travelmaster.gateway.hedge;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Скользящее окно последних задержек маршрута для расчёта перцентиля.
+ *
+ * Перцентиль пересчитывается не на каждый запрос, а раз в RECOMPUTE_EVERY замеров,
+ * чтобы не сортировать окно на горячем пути.
+ */
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 100;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+
+    private int position;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[position] = nanos;
+        position = (position + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= minSamples && (percentileNanos < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+            sinceRecompute = 0;
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            percentileNanos = copy[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    /**
+     * @return текущий перцентиль или fallback, пока замеров недостаточно
+     */
+    public Duration percentileOr(Duration fallback) {
+        long value = percentileNanos;
+        return value < 0 ? fallback : Duration.ofNanos(value);
+    }
+}
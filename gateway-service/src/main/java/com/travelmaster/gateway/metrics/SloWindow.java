@@ -0,0 +1,59 @@
+package com.travelmaster.gateway.metrics;
+
+/**
+ * Кольцевой буфер хороших/плохих запросов по 10-секундным интервалам за последний час.
+ *
+ * Burn rate = доля плохих запросов в окне / допустимая доля ошибок (1 - objective).
+ * Значение 1 означает, что бюджет ошибок расходуется ровно к концу периода SLO,
+ * 14.4 на часовом окне - что месячный бюджет закончится за двое суток.
+ */
+public class SloWindow {
+
+    private static final long BUCKET_MILLIS = 10_000;
+    private static final int BUCKETS = 360;
+
+    private final double errorBudget;
+
+    private final long[] bucketIds = new long[BUCKETS];
+    private final long[] good = new long[BUCKETS];
+    private final long[] bad = new long[BUCKETS];
+
+    public SloWindow(double objective) {
+        this.errorBudget = 1.0 - objective;
+    }
+
+    public synchronized void record(boolean success, long nowMillis) {
+        long bucketId = nowMillis / BUCKET_MILLIS;
+        int index = (int) (bucketId % BUCKETS);
+        if (bucketIds[index] != bucketId) {
+            bucketIds[index] = bucketId;
+            good[index] = 0;
+            bad[index] = 0;
+        }
+        if (success) {
+            good[index]++;
+        } else {
+            bad[index]++;
+        }
+    }
+
+    /**
+     * @param windowMillis длина окна, не больше часа
+     */
+    public synchronized double burnRate(long windowMillis, long nowMillis) {
+        long currentBucket = nowMillis / BUCKET_MILLIS;
+        long oldestBucket = currentBucket - Math.min(BUCKETS, windowMillis / BUCKET_MILLIS) + 1;
+        long total = 0;
+        long errors = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketIds[i] >= oldestBucket && bucketIds[i] <= currentBucket) {
+                total += good[i] + bad[i];
+                errors += bad[i];
+            }
+        }
+        if (total == 0 || errorBudget <= 0) {
+            return 0;
+        }
+        return ((double) errors / total) / errorBudget;
+    }
+}
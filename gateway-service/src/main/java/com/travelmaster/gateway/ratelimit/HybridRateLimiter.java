@@ -0,0 +1,239 @@
+package com.travelmaster.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Двухуровневый rate limiter: локальные token bucket + периодическая сверка с Redis.
+ *
+ * Решение о пропуске запроса принимается только по локальному bucket, без похода в Redis.
+ * Потраченные токены накапливаются и асинхронно списываются из глобального bucket в Redis:
+ * по истечении syncInterval, при исчерпании бюджета рассинхронизации (allowedSkew) или когда
+ * локальный bucket близок к исчерпанию. Ответ Redis ограничивает локальный остаток сверху,
+ * поэтому глобальный лимит между репликами соблюдается приблизительно - перерасход
+ * не превышает allowedSkew * burstCapacity на реплику за цикл синхронизации.
+ *
+ * При недоступности Redis лимитер продолжает работать только на локальных bucket.
+ */
+@Slf4j
+public class HybridRateLimiter extends AbstractRateLimiter<HybridRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+    private static final String KEY_PREFIX = "hybrid_rate_limiter.{";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<Long> script;
+    private final Config defaultConfig;
+
+    // Локальные bucket по ключу routeId:key; неактивные ключи вытесняются
+    private final Cache<String, LocalBucket> buckets;
+
+    private final Counter allowedCounter;
+    private final Counter deniedCounter;
+    private final Counter syncCounter;
+    private final Counter syncErrorCounter;
+
+    public HybridRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                             RedisScript<Long> script,
+                             ConfigurationService configurationService,
+                             MeterRegistry meterRegistry,
+                             Config defaultConfig,
+                             long maxBuckets,
+                             Duration bucketIdleTimeout) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+        this.defaultConfig = defaultConfig;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(bucketIdleTimeout)
+                .build();
+
+        this.allowedCounter = meterRegistry.counter("gateway.ratelimit.requests", "result", "allowed");
+        this.deniedCounter = meterRegistry.counter("gateway.ratelimit.requests", "result", "denied");
+        this.syncCounter = meterRegistry.counter("gateway.ratelimit.sync", "result", "success");
+        this.syncErrorCounter = meterRegistry.counter("gateway.ratelimit.sync", "result", "error");
+        meterRegistry.gauge("gateway.ratelimit.buckets", buckets, cache -> cache.estimatedSize());
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        String bucketKey = routeId + ":" + id;
+        LocalBucket bucket = buckets.get(bucketKey, key -> new LocalBucket(config.getBurstCapacity()));
+
+        long now = System.nanoTime();
+        long remaining = bucket.tryConsume(config, now);
+        boolean allowed = remaining >= 0;
+
+        if (allowed) {
+            allowedCounter.increment();
+        } else {
+            deniedCounter.increment();
+        }
+
+        if (bucket.needsSync(config, now)) {
+            synchronize(bucketKey, bucket, config);
+        }
+
+        return Mono.just(new Response(allowed, headers(config, Math.max(remaining, 0))));
+    }
+
+    /**
+     * Асинхронно списывает накопленный расход из глобального bucket и
+     * ограничивает локальный остаток глобальным.
+     */
+    private void synchronize(String bucketKey, LocalBucket bucket, Config config) {
+        if (!bucket.beginSync()) {
+            return;
+        }
+
+        long consumed = bucket.drainUnsynced(System.nanoTime());
+        List<String> keys = List.of(
+                KEY_PREFIX + bucketKey + "}.tokens",
+                KEY_PREFIX + bucketKey + "}.timestamp");
+        List<String> args = List.of(
+                String.valueOf(config.getReplenishRate()),
+                String.valueOf(config.getBurstCapacity()),
+                String.valueOf(consumed));
+
+        redisTemplate.execute(script, keys, args)
+                .next()
+                .doFinally(signal -> bucket.endSync())
+                .subscribe(
+                        globalRemaining -> {
+                            bucket.reconcile(globalRemaining);
+                            syncCounter.increment();
+                        },
+                        error -> {
+                            syncErrorCounter.increment();
+                            log.debug("Rate limiter sync failed for {}: {}", bucketKey, error.getMessage());
+                        });
+    }
+
+    private Map<String, String> headers(Config config, long remaining) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(RedisRateLimiter.REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        return headers;
+    }
+
+    /**
+     * Локальный token bucket одного ключа.
+     */
+    static final class LocalBucket {
+
+        private double tokens;
+        private long lastRefillNanos;
+        private long lastSyncNanos;
+        private long unsynced;
+        private final AtomicBoolean syncing = new AtomicBoolean();
+
+        LocalBucket(int initialTokens) {
+            long now = System.nanoTime();
+            this.tokens = initialTokens;
+            this.lastRefillNanos = now;
+            this.lastSyncNanos = now;
+        }
+
+        /**
+         * @return остаток токенов после списания или -1, если токенов недостаточно
+         */
+        synchronized long tryConsume(Config config, long now) {
+            refill(config, now);
+            int requested = config.getRequestedTokens();
+            if (tokens < requested) {
+                return -1;
+            }
+            tokens -= requested;
+            unsynced += requested;
+            return (long) tokens;
+        }
+
+        synchronized boolean needsSync(Config config, long now) {
+            if (unsynced == 0 || syncing.get()) {
+                return false;
+            }
+            long sinceSync = now - lastSyncNanos;
+            long intervalNanos = config.getSyncInterval().toNanos();
+            double skewBudget = config.skewBudget();
+            return sinceSync >= intervalNanos
+                    || unsynced >= skewBudget
+                    || (tokens < skewBudget && sinceSync >= intervalNanos / 4);
+        }
+
+        synchronized long drainUnsynced(long now) {
+            long consumed = unsynced;
+            unsynced = 0;
+            lastSyncNanos = now;
+            return consumed;
+        }
+
+        synchronized void reconcile(long globalRemaining) {
+            tokens = Math.min(tokens, globalRemaining);
+        }
+
+        boolean beginSync() {
+            return syncing.compareAndSet(false, true);
+        }
+
+        void endSync() {
+            syncing.set(false);
+        }
+
+        private void refill(Config config, long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed <= 0) {
+                return;
+            }
+            double refilled = elapsed / 1_000_000_000.0 * config.getReplenishRate();
+            tokens = Math.min(config.getBurstCapacity(), tokens + refilled);
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * Настройки лимитера для маршрута (hybrid-rate-limiter.* в аргументах фильтра).
+     */
+    @Data
+    public static class Config {
+
+        // Токенов в секунду (глобально на все реплики)
+        private int replenishRate = 10;
+
+        // Ёмкость bucket
+        private int burstCapacity = 20;
+
+        // Стоимость одного запроса в токенах
+        private int requestedTokens = 1;
+
+        // Доля burstCapacity, которую реплика может израсходовать без сверки с Redis
+        private double allowedSkew = 0.1;
+
+        // Максимальный интервал между сверками с Redis
+        private Duration syncInterval = Duration.ofMillis(500);
+
+        double skewBudget() {
+            return Math.max(requestedTokens, allowedSkew * burstCapacity);
+        }
+    }
+}
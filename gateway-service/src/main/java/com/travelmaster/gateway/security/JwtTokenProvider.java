@@ -1,65 +1,34 @@
 package com.travelmaster.gateway.security;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
+import com.travelmaster.common.security.JwtCodec;
+import com.travelmaster.common.security.TokenClaims;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * JWT Token Provider для валидации токенов в Gateway.
- * Синхронизирован с User Service.
+ * Синхронизирован с User Service через общий {@link JwtCodec}.
  */
 @Component
-@Slf4j
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    private final JwtCodec jwtCodec;
 
     public JwtTokenProvider(@Value("${jwt.secret}") String secret) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtCodec = new JwtCodec(secret);
     }
 
-    public String getUserIdFromToken(String token) {
-        Claims claims = getAllClaims(token);
-        return claims.getSubject();
-    }
-
-    public String getEmailFromToken(String token) {
-        Claims claims = getAllClaims(token);
-        return claims.get("email", String.class);
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
-        }
-        return false;
-    }
-
-    private Claims getAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Разбирает токен и проверяет подпись один раз, возвращая все claims вместе.
+     * Принимаются только access token: refresh token подписан тем же ключом,
+     * но не должен открывать доступ к API.
+     *
+     * @return claims валидного access token или пустой Optional, если токен невалиден
+     */
+    public Optional<TokenClaims> parseAndValidate(String token) {
+        return jwtCodec.decode(token)
+                .filter(claims -> TokenClaims.TYPE_ACCESS.equals(claims.getType()));
     }
 }
-
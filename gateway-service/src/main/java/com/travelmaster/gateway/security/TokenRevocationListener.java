@@ -0,0 +1,33 @@
+package com.travelmaster.gateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer событий отзыва токенов.
+ *
+ * Каждая реплика Gateway держит свой Bloom filter, поэтому читает topic
+ * собственной consumer group.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationListener {
+
+    private final TokenRevocationRegistry revocationRegistry;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "token-revocations", groupId = "gateway-revocations-${random.uuid}")
+    public void consumeTokenRevoked(String message) {
+        try {
+            TokenRevokedEvent event = objectMapper.readValue(message, TokenRevokedEvent.class);
+            log.debug("Received token revocation for user {}", event.getUserId());
+            revocationRegistry.revoke(event);
+        } catch (Exception e) {
+            log.error("Error processing token revocation: {}", e.getMessage(), e);
+        }
+    }
+}
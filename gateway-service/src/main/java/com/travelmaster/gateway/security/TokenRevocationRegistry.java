@@ -0,0 +1,208 @@
+package com.travelmaster.gateway.security;
+
+import com.travelmaster.common.security.TokenClaims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реестр отозванных токенов: Bloom filter в памяти + точные записи в Redis.
+ *
+ * На горячем пути проверяется только Bloom filter (jti токена и userId владельца).
+ * В Redis идём лишь при положительном ответе фильтра, то есть для действительно
+ * отозванных токенов и редких ложноположительных совпадений.
+ *
+ * Записи в Redis живут до истечения отозванных токенов; фильтр периодически
+ * перестраивается по Redis, чтобы из него уходили истёкшие отзывы.
+ * При недоступности Redis проверка пропускает токен (fail-open) - доступность важнее,
+ * срок жизни access token и так ограничен.
+ *
+ * Метрики: gateway.revocation.checks{result}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final String REDIS_KEY_PREFIX = "revoked:";
+    private static final Mono<Boolean> NOT_REVOKED = Mono.just(false);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // Фильтр, который сейчас строится по Redis; новые отзывы пишутся и в него
+    private BloomFilter rebuilding;
+
+    private final Counter bloomNegativeCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter revokedCounter;
+    private final Counter lookupErrorCounter;
+
+    public TokenRevocationRegistry(
+            ReactiveStringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.revocation.expected-entries:100000}") long expectedEntries,
+            @Value("${gateway.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+
+        this.bloomNegativeCounter = meterRegistry.counter("gateway.revocation.checks", "result", "bloom_negative");
+        this.falsePositiveCounter = meterRegistry.counter("gateway.revocation.checks", "result", "false_positive");
+        this.revokedCounter = meterRegistry.counter("gateway.revocation.checks", "result", "revoked");
+        this.lookupErrorCounter = meterRegistry.counter("gateway.revocation.checks", "result", "lookup_error");
+    }
+
+    public Mono<Boolean> isRevoked(TokenClaims claims) {
+        BloomFilter current = filter;
+        String tokenKey = claims.getTokenId() != null ? tokenKey(claims.getTokenId()) : null;
+        String userKey = claims.getUserId() != null ? userKey(claims.getUserId()) : null;
+
+        boolean tokenCandidate = tokenKey != null && current.mightContain(tokenKey);
+        boolean userCandidate = userKey != null && current.mightContain(userKey);
+        if (!tokenCandidate && !userCandidate) {
+            bloomNegativeCounter.increment();
+            return NOT_REVOKED;
+        }
+
+        List<String> keys = new ArrayList<>(2);
+        if (tokenCandidate) {
+            keys.add(REDIS_KEY_PREFIX + tokenKey);
+        }
+        if (userCandidate) {
+            keys.add(REDIS_KEY_PREFIX + userKey);
+        }
+
+        return redisTemplate.opsForValue().multiGet(keys)
+                .map(values -> {
+                    boolean revoked = false;
+                    int index = 0;
+                    if (tokenCandidate) {
+                        revoked = values.get(index++) != null;
+                    }
+                    if (userCandidate && !revoked) {
+                        revoked = issuedBefore(claims, values.get(index));
+                    }
+                    (revoked ? revokedCounter : falsePositiveCounter).increment();
+                    return revoked;
+                })
+                .defaultIfEmpty(false)
+                .onErrorResume(error -> {
+                    lookupErrorCounter.increment();
+                    log.warn("Revocation lookup failed, allowing token: {}", error.getMessage());
+                    return NOT_REVOKED;
+                });
+    }
+
+    /**
+     * Регистрирует отзыв: сразу в локальном фильтре и точной записью в Redis.
+     */
+    public void revoke(TokenRevokedEvent event) {
+        long ttlSeconds = event.getExpiresAt() - Instant.now().getEpochSecond();
+        if (ttlSeconds <= 0 || event.getUserId() == null) {
+            return;
+        }
+
+        String key;
+        String value;
+        if (event.getJti() != null) {
+            key = tokenKey(event.getJti());
+            value = "1";
+        } else {
+            key = userKey(event.getUserId().toString());
+            value = String.valueOf(event.getRevokedAt());
+        }
+
+        addToFilters(key);
+        redisTemplate.opsForValue()
+                .set(REDIS_KEY_PREFIX + key, value, Duration.ofSeconds(ttlSeconds))
+                .subscribe(
+                        ok -> log.debug("Revocation stored: {}", key),
+                        error -> log.warn("Failed to store revocation {}: {}", key, error.getMessage()));
+    }
+
+    /**
+     * Перестраивает фильтр по актуальным записям Redis (истёкшие отзывы Redis уже удалил).
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${gateway.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedEntries, falsePositiveRate);
+        if (!startRebuild(next)) {
+            return;
+        }
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(REDIS_KEY_PREFIX + "*")
+                .count(1000)
+                .build();
+
+        redisTemplate.scan(options)
+                .doOnNext(redisKey -> next.put(redisKey.substring(REDIS_KEY_PREFIX.length())))
+                .count()
+                .subscribe(
+                        entries -> {
+                            finishRebuild(next);
+                            log.info("Revocation filter rebuilt with {} entries", entries);
+                        },
+                        error -> {
+                            abortRebuild();
+                            log.warn("Revocation filter rebuild failed: {}", error.getMessage());
+                        });
+    }
+
+    private synchronized void addToFilters(String key) {
+        filter.put(key);
+        if (rebuilding != null) {
+            rebuilding.put(key);
+        }
+    }
+
+    private synchronized boolean startRebuild(BloomFilter next) {
+        if (rebuilding != null) {
+            return false;
+        }
+        rebuilding = next;
+        return true;
+    }
+
+    private synchronized void finishRebuild(BloomFilter next) {
+        filter = next;
+        rebuilding = null;
+    }
+
+    private synchronized void abortRebuild() {
+        rebuilding = null;
+    }
+
+    private static boolean issuedBefore(TokenClaims claims, String revokedAt) {
+        if (revokedAt == null) {
+            return false;
+        }
+        if (claims.getIssuedAt() == null) {
+            return true;
+        }
+        return claims.getIssuedAt().getEpochSecond() <= Long.parseLong(revokedAt);
+    }
+
+    private static String tokenKey(String jti) {
+        return "jti:" + jti;
+    }
+
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+}
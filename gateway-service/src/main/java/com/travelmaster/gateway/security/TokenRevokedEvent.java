@@ -0,0 +1,23 @@
+package com.travelmaster.gateway.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Событие отзыва токена из user-service (topic token-revocations).
+ *
+ * jti задан - отозван один токен; jti пуст - все токены пользователя,
+ * выпущенные не позже revokedAt. Время - в секундах epoch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokedEvent {
+    private String jti;
+    private Long userId;
+    private Long revokedAt;
+    private Long expiresAt;
+}
@@ -0,0 +1,123 @@
+package com.travelmaster.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.travelmaster.common.security.TokenClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Ограниченный по размеру кеш уже проверенных access token.
+ *
+ * Ключ - SHA-256 digest токена (сам токен в памяти не хранится).
+ * Запись живёт не дольше срока действия токена, поэтому повторные запросы
+ * той же сессии обходятся без проверки HMAC-подписи и разбора JSON.
+ * Невалидные токены не кешируются.
+ *
+ * Метрики hit/miss/eviction публикуются как gateway.jwt.verified.*.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "gateway.jwt.verified";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final boolean enabled;
+    private final Cache<String, TokenClaims> cache;
+
+    public VerifiedTokenCache(
+            JwtTokenProvider jwtTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-size:100000}") long maxSize,
+            @Value("${jwt.cache.max-ttl:15m}") Duration maxTtl) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает claims токена из кеша или проверяет токен и кеширует результат.
+     */
+    public Optional<TokenClaims> getOrVerify(String token) {
+        if (!enabled) {
+            return jwtTokenProvider.parseAndValidate(token);
+        }
+
+        String key = digest(token);
+        TokenClaims cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return Optional.of(cached);
+            }
+            cache.invalidate(key);
+        }
+
+        Optional<TokenClaims> verified = jwtTokenProvider.parseAndValidate(token);
+        verified.ifPresent(claims -> cache.put(key, claims));
+        return verified;
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * Время жизни записи - до истечения токена, но не дольше maxTtl.
+     */
+    private static final class TokenExpiry implements Expiry<String, TokenClaims> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            if (claims.getExpiresAt() == null) {
+                return maxTtlNanos;
+            }
+            long untilExpiry = Duration.between(Instant.now(), claims.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.travelmaster.gateway.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out статусов бронирований в SSE-соединения пользователей.
+ *
+ * Рассчитан на десятки тысяч простаивающих соединений: у соединения нет ни потока,
+ * ни собственного таймера. Вся доставка идёт из одного потока хаба:
+ * - flush раз в flush-interval отправляет накопленные обновления "грязных" соединений;
+ * - heartbeat раз в heartbeat-interval шлёт комментарий (держит прокси и находит
+ *   оборванные соединения) и закрывает соединения с истёкшим сроком.
+ *
+ * Буфер соединения ограничен дважды. Неотправленные обновления хранятся по одному на
+ * бронирование (всплеск PENDING -> CONFIRMED -> PAID схлопывается в последнее
+ * состояние), не больше max-pending-bookings; при переполнении самое старое
+ * отбрасывается, а клиент получает событие resync. Очередь готовых событий sink -
+ * не больше buffer-size; медленный клиент не получает новых событий, пока не
+ * освободит её, а обновления ждут в pending.
+ *
+ * История событий не хранится, поэтому события без id: переподключившийся клиент не присылает
+ * Last-Event-ID и не ждёт повтора. Обновления, пришедшие пока соединения не было, теряются -
+ * получив connected, клиент перечитывает состояние отслеживаемых бронирований.
+ */
+@Slf4j
+@Component
+public class BookingStatusHub implements DisposableBean {
+
+    public static final String STATUS_EVENT = "booking-status";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final Map<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final Queue<Connection> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Scheduler scheduler = Schedulers.newSingle("booking-status-hub", true);
+
+    private final int maxConnectionsPerUser;
+    private final int maxPendingBookings;
+    private final int bufferSize;
+    private final Duration maxLifetime;
+
+    private final Counter deliveredCounter;
+    private final Counter coalescedCounter;
+    private final Counter overflowCounter;
+
+    public BookingStatusHub(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.booking-stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${gateway.booking-stream.max-pending-bookings:32}") int maxPendingBookings,
+            @Value("${gateway.booking-stream.buffer-size:16}") int bufferSize,
+            @Value("${gateway.booking-stream.flush-interval:250ms}") Duration flushInterval,
+            @Value("${gateway.booking-stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+            @Value("${gateway.booking-stream.max-lifetime:30m}") Duration maxLifetime) {
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxPendingBookings = maxPendingBookings;
+        this.bufferSize = bufferSize;
+        this.maxLifetime = maxLifetime;
+
+        Gauge.builder("gateway.booking_stream.connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+        this.deliveredCounter = meterRegistry.counter("gateway.booking_stream.updates", "result", "delivered");
+        this.coalescedCounter = meterRegistry.counter("gateway.booking_stream.updates", "result", "coalesced");
+        this.overflowCounter = meterRegistry.counter("gateway.booking_stream.updates", "result", "overflow");
+
+        scheduler.schedulePeriodically(this::flush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.schedulePeriodically(this::heartbeat,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Открывает соединение пользователя. Пусто, если превышен лимит соединений на пользователя.
+     *
+     * @param tokenExpiresAt соединение закрывается не позже истечения токена
+     */
+    public Optional<Flux<ServerSentEvent<Object>>> subscribe(String userId, Instant tokenExpiresAt) {
+        Instant deadline = Instant.now().plus(maxLifetime);
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(deadline)) {
+            deadline = tokenExpiresAt;
+        }
+        Connection connection = new Connection(userId, deadline);
+
+        AtomicBoolean accepted = new AtomicBoolean();
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> set = userConnections != null ? userConnections : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                set.add(connection);
+                accepted.set(true);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!accepted.get()) {
+            return Optional.empty();
+        }
+        connectionCount.incrementAndGet();
+
+        ServerSentEvent<Object> connected = ServerSentEvent.builder()
+                .event("connected")
+                .retry(Duration.ofSeconds(3))
+                .build();
+        return Optional.of(Flux.concat(Flux.just(connected), connection.sink.asFlux())
+                .doFinally(signal -> unregister(connection)));
+    }
+
+    /**
+     * Передаёт обновление всем соединениям пользователя. Вызывается из Kafka consumer,
+     * сама отправка происходит в ближайший flush.
+     */
+    public void publish(String userId, BookingStatusUpdate update) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            connection.offer(update);
+            if (connection.scheduled.compareAndSet(false, true)) {
+                dirty.add(connection);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+        connections.values().forEach(set -> set.forEach(c -> c.sink.tryEmitComplete()));
+    }
+
+    private void unregister(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            if (set.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void flush() {
+        // Только соединения, помеченные до начала прохода: недоставленные вернутся в очередь
+        for (int n = dirty.size(); n > 0; n--) {
+            Connection connection = dirty.poll();
+            if (connection == null) {
+                break;
+            }
+            connection.scheduled.set(false);
+            try {
+                if (!connection.drain() && connection.scheduled.compareAndSet(false, true)) {
+                    dirty.add(connection);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush booking stream of user {}: {}", connection.userId, e.getMessage());
+            }
+        }
+    }
+
+    private void heartbeat() {
+        Instant now = Instant.now();
+        ServerSentEvent<Object> ping = ServerSentEvent.builder().comment("ping").build();
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                if (!connection.deadline.isAfter(now)) {
+                    connection.sink.tryEmitComplete();
+                    unregister(connection);
+                } else {
+                    // Переполненный буфер - клиент и так получает данные, ping не нужен
+                    connection.sink.tryEmitNext(ping);
+                }
+            }
+        }
+    }
+
+    /**
+     * SSE-соединение: очередь готовых событий и обновления, ожидающие flush.
+     */
+    private final class Connection {
+
+        private final String userId;
+        private final Instant deadline;
+        private final Sinks.Many<ServerSentEvent<Object>> sink;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // bookingId -> последнее состояние; порядок вставки = порядок отправки
+        private final LinkedHashMap<Long, BookingStatusUpdate> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+
+        Connection(String userId, Instant deadline) {
+            this.userId = userId;
+            this.deadline = deadline;
+            this.sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize).get());
+        }
+
+        synchronized void offer(BookingStatusUpdate update) {
+            BookingStatusUpdate previous = pending.remove(update.getBookingId());
+            if (previous != null) {
+                coalescedCounter.increment();
+                pending.put(update.getBookingId(), previous.mergeWith(update));
+                return;
+            }
+            pending.put(update.getBookingId(), update);
+            if (pending.size() > maxPendingBookings) {
+                Iterator<Long> eldest = pending.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                overflowed = true;
+                overflowCounter.increment();
+            }
+        }
+
+        /**
+         * Переносит pending в sink, пока в нём есть место.
+         *
+         * @return true, если всё отправлено (или соединение закрыто)
+         */
+        synchronized boolean drain() {
+            if (overflowed) {
+                Sinks.EmitResult result = sink.tryEmitNext(ServerSentEvent.builder()
+                        .event(RESYNC_EVENT)
+                        .build());
+                if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    return false;
+                }
+                overflowed = false;
+            }
+
+            Iterator<BookingStatusUpdate> it = pending.values().iterator();
+            while (it.hasNext()) {
+                BookingStatusUpdate update = it.next();
+                Sinks.EmitResult result = sink.tryEmitNext(ServerSentEvent.<Object>builder(update)
+                        .event(STATUS_EVENT)
+                        .build());
+                if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    return false;
+                }
+                it.remove();
+                if (result.isSuccess()) {
+                    deliveredCounter.increment();
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.travelmaster.gateway.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Kafka consumer событий бронирований и платежей для SSE-потока статусов.
+ *
+ * Соединения пользователя могут быть на любой реплике Gateway, поэтому каждая реплика
+ * читает оба topic своей consumer group. Тип события определяется по полям, как в
+ * notification-service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStatusListener {
+
+    private final BookingStatusHub hub;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "booking-events", groupId = "gateway-booking-stream-${random.uuid}")
+    public void consumeBookingEvent(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String status = bookingStatus(event);
+            if (status != null) {
+                publish(event, BookingStatusUpdate.builder().status(status));
+            }
+        } catch (Exception e) {
+            log.error("Error processing booking event for stream: {}", e.getMessage(), e);
+        }
+    }
+
+    @KafkaListener(topics = "payment-events", groupId = "gateway-booking-stream-${random.uuid}")
+    public void consumePaymentEvent(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String paymentStatus = paymentStatus(event);
+            if (paymentStatus != null) {
+                publish(event, BookingStatusUpdate.builder().paymentStatus(paymentStatus));
+            }
+        } catch (Exception e) {
+            log.error("Error processing payment event for stream: {}", e.getMessage(), e);
+        }
+    }
+
+    private void publish(JsonNode event, BookingStatusUpdate.BookingStatusUpdateBuilder update) {
+        JsonNode userId = event.get("userId");
+        JsonNode bookingId = event.get("bookingId");
+        if (userId == null || userId.isNull() || bookingId == null || bookingId.isNull()) {
+            return;
+        }
+        JsonNode reference = event.get("bookingReference");
+        hub.publish(userId.asText(), update
+                .bookingId(bookingId.asLong())
+                .bookingReference(reference != null && !reference.isNull() ? reference.asText() : null)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    private static String bookingStatus(JsonNode event) {
+        if (event.has("cancelledAt")) {
+            return "CANCELLED";
+        } else if (event.has("completedAt")) {
+            return "COMPLETED";
+        } else if (event.has("paidAt")) {
+            return "PAID";
+        } else if (event.has("confirmedAt")) {
+            return "CONFIRMED";
+        } else if (event.has("createdAt")) {
+            return "PENDING";
+        }
+        return null;
+    }
+
+    private static String paymentStatus(JsonNode event) {
+        if (event.has("processedAt")) {
+            return "SUCCESS";
+        } else if (event.has("failedAt")) {
+            return "FAILED";
+        } else if (event.has("refundedAt")) {
+            return "REFUNDED";
+        } else if (event.has("createdAt")) {
+            return "PENDING";
+        }
+        return null;
+    }
+}
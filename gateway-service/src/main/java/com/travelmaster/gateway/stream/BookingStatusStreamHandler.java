@@ -0,0 +1,124 @@
+package com.travelmaster.gateway.stream;
+
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.gateway.security.TokenRevocationRegistry;
+import com.travelmaster.gateway.security.VerifiedTokenCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * SSE-поток изменений статусов бронирований текущего пользователя.
+ *
+ * Заменяет опрос GET /api/v1/bookings/{id} во время оформления: клиент держит одно
+ * соединение и получает события booking-status (статус бронирования и платежа).
+ * Событие resync означает, что часть обновлений отброшена и состояние нужно перечитать.
+ *
+ * Токен принимается из заголовка Authorization: Bearer или из cookie stream_token.
+ * Браузерный EventSource не умеет передавать заголовки, поэтому клиент сначала вызывает
+ * POST /api/v1/stream/bookings/session с Bearer-токеном и получает HttpOnly cookie
+ * (SameSite=Strict, только для пути потока) со сроком жизни не дольше access token.
+ * Соединение закрывается при истечении токена; EventSource переподключится сам, но после
+ * истечения cookie клиенту нужно обновить токен и снова открыть сессию.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStatusStreamHandler {
+
+    public static final String STREAM_PATH = "/api/v1/stream/bookings";
+    public static final String TOKEN_COOKIE = "stream_token";
+
+    private final BookingStatusHub hub;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry revocationRegistry;
+
+    public Mono<ServerResponse> streamStatuses(ServerRequest request) {
+        Optional<String> token = bearerToken(request)
+                .or(() -> Optional.ofNullable(request.cookies().getFirst(TOKEN_COOKIE)).map(HttpCookie::getValue));
+        return authenticate(request, token, claims -> open(request, claims));
+    }
+
+    /**
+     * Выдаёт cookie для EventSource по Bearer-токену. Cookie живёт до истечения токена.
+     */
+    public Mono<ServerResponse> openSession(ServerRequest request) {
+        Optional<String> token = bearerToken(request);
+        return authenticate(request, token, claims -> {
+            Duration maxAge = claims.getExpiresAt() != null
+                    ? Duration.between(Instant.now(), claims.getExpiresAt())
+                    : Duration.ZERO;
+            if (maxAge.isNegative() || maxAge.isZero()) {
+                return error(request, HttpStatus.UNAUTHORIZED, "Invalid authorization token");
+            }
+            ResponseCookie cookie = ResponseCookie.from(TOKEN_COOKIE, token.get())
+                    .httpOnly(true)
+                    .secure(true)
+                    .sameSite("Strict")
+                    .path(STREAM_PATH)
+                    .maxAge(maxAge)
+                    .build();
+            return ServerResponse.noContent()
+                    .cookie(cookie)
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .build();
+        });
+    }
+
+    private Mono<ServerResponse> authenticate(ServerRequest request, Optional<String> token,
+                                              Function<TokenClaims, Mono<ServerResponse>> onSuccess) {
+        Optional<TokenClaims> claims = token.flatMap(verifiedTokenCache::getOrVerify);
+        if (claims.isEmpty()) {
+            return error(request, HttpStatus.UNAUTHORIZED, "Invalid authorization token");
+        }
+
+        return revocationRegistry.isRevoked(claims.get())
+                .flatMap(revoked -> revoked
+                        ? error(request, HttpStatus.UNAUTHORIZED, "Authorization token has been revoked")
+                        : onSuccess.apply(claims.get()));
+    }
+
+    private static Optional<String> bearerToken(ServerRequest request) {
+        String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.startsWith("Bearer ")
+                ? Optional.of(authorization.substring(7))
+                : Optional.empty();
+    }
+
+    private Mono<ServerResponse> open(ServerRequest request, TokenClaims claims) {
+        return hub.subscribe(claims.getUserId(), claims.getExpiresAt())
+                .map(events -> ServerResponse.ok()
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                        .header("X-Accel-Buffering", "no")
+                        .body(BodyInserters.fromServerSentEvents(events)))
+                .orElseGet(() -> error(request, HttpStatus.TOO_MANY_REQUESTS, "Too many open booking streams"));
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+        String errorJson = String.format(
+                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.path()
+        );
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(errorJson);
+    }
+}
@@ -0,0 +1,39 @@
+package com.travelmaster.gateway.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Изменение статуса бронирования, отправляемое клиенту в SSE-поток.
+ *
+ * Событие бронирования заполняет status, событие платежа - paymentStatus.
+ * Обновления одного бронирования, пришедшие в пределах интервала flush, сливаются:
+ * непустые поля более нового обновления перекрывают старые.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStatusUpdate {
+    private Long bookingId;
+    private String bookingReference;
+    private String status;
+    private String paymentStatus;
+    private Instant updatedAt;
+
+    public BookingStatusUpdate mergeWith(BookingStatusUpdate newer) {
+        return BookingStatusUpdate.builder()
+                .bookingId(bookingId)
+                .bookingReference(newer.bookingReference != null ? newer.bookingReference : bookingReference)
+                .status(newer.status != null ? newer.status : status)
+                .paymentStatus(newer.paymentStatus != null ? newer.paymentStatus : paymentStatus)
+                .updatedAt(newer.updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+-- Глобальный token bucket для HybridRateLimiter.
+-- Списывает токены, уже выданные репликой локально, и возвращает глобальный остаток.
+-- В отличие от request_rate_limiter.lua списание безусловное: запросы уже пропущены.
+local tokens_key = KEYS[1]
+local timestamp_key = KEYS[2]
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local consumed = tonumber(ARGV[3])
+local now = tonumber(redis.call('TIME')[1])
+
+local fill_time = capacity / rate
+local ttl = math.max(1, math.floor(fill_time * 2))
+
+local last_tokens = tonumber(redis.call('get', tokens_key))
+if last_tokens == nil then
+  last_tokens = capacity
+end
+
+local last_refreshed = tonumber(redis.call('get', timestamp_key))
+if last_refreshed == nil then
+  last_refreshed = 0
+end
+
+local delta = math.max(0, now - last_refreshed)
+local filled_tokens = math.min(capacity, last_tokens + (delta * rate))
+local new_tokens = math.max(0, filled_tokens - consumed)
+
+redis.call('setex', tokens_key, ttl, new_tokens)
+redis.call('setex', timestamp_key, ttl, now)
+
+return math.floor(new_tokens)
@@ -0,0 +1,208 @@
+package com.travelmaster.gateway.bff;
+
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.gateway.security.TokenRevocationRegistry;
+import com.travelmaster.gateway.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.EntityResponse;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingDetailsHandler Unit Tests")
+class BookingDetailsHandlerTest {
+
+    private static final String TOKEN = "access-token";
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    private final List<String> calledPaths = new CopyOnWriteArrayList<>();
+    private final Map<String, ClientResponse> upstream = new ConcurrentHashMap<>();
+
+    private BookingDetailsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+            String path = request.url().getRawPath();
+            calledPaths.add(path);
+            return Mono.justOrEmpty(upstream.get(path))
+                    .switchIfEmpty(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+        });
+        handler = new BookingDetailsHandler(webClient, verifiedTokenCache, revocationRegistry,
+                "http://booking", "http://trip", "http://payment",
+                Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should aggregate booking, trip and payment")
+    void shouldAggregateBookingDetails() {
+        // Given
+        authorized();
+        json("/api/v1/bookings/7", "{\"id\":7,\"tripId\":99}");
+        json("/api/v1/trips/99", "{\"id\":99}");
+        json("/api/v1/payments/booking/7", "{\"status\":\"PAID\"}");
+
+        // When
+        ServerResponse response = handler.getBookingDetails(request(null)).block();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.statusCode());
+        BookingDetailsResponse body = body(response);
+        assertEquals(99, body.getTrip().get("id").asInt());
+        assertEquals("PAID", body.getPayment().get("status").asText());
+        assertFalse(body.isPartial());
+    }
+
+    @Test
+    @DisplayName("Should fetch requested trip in parallel when tripId matches booking")
+    void shouldUseMatchingTripId() {
+        // Given
+        authorized();
+        json("/api/v1/bookings/7", "{\"id\":7,\"tripId\":99}");
+        json("/api/v1/trips/99", "{\"id\":99}");
+
+        // When
+        ServerResponse response = handler.getBookingDetails(request("99")).block();
+
+        // Then - платёж не найден - это не ошибка
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(99, body(response).getTrip().get("id").asInt());
+        assertFalse(body(response).isPartial());
+    }
+
+    @Test
+    @DisplayName("Should reject tripId that does not belong to booking")
+    void shouldRejectForeignTripId() {
+        // Given
+        authorized();
+        json("/api/v1/bookings/7", "{\"id\":7,\"tripId\":99}");
+        json("/api/v1/trips/13", "{\"id\":13}");
+
+        // When
+        ServerResponse response = handler.getBookingDetails(request("13")).block();
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        assertTrue(((String) ((EntityResponse<?>) response).entity()).contains("tripId does not match booking"));
+    }
+
+    @Test
+    @DisplayName("Should encode path variables instead of changing upstream path")
+    void shouldEncodeIdentifiers() {
+        // Given
+        authorized();
+
+        // When
+        handler.getBookingDetails(MockServerRequest.builder()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .pathVariable("id", "7/../../admin")
+                .build()).block();
+
+        // Then
+        assertTrue(calledPaths.contains("/api/v1/bookings/7%2F..%2F..%2Fadmin"), calledPaths.toString());
+    }
+
+    @Test
+    @DisplayName("Should mark response partial when payment fails")
+    void shouldReturnPartialResponse() {
+        // Given
+        authorized();
+        json("/api/v1/bookings/7", "{\"id\":7,\"tripId\":99}");
+        json("/api/v1/trips/99", "{\"id\":99}");
+        upstream.put("/api/v1/payments/booking/7", ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        // When
+        ServerResponse response = handler.getBookingDetails(request(null)).block();
+
+        // Then
+        BookingDetailsResponse body = body(response);
+        assertTrue(body.isPartial());
+        assertNull(body.getPayment());
+        assertEquals("upstream status 503", body.getErrors().get("payment"));
+    }
+
+    @Test
+    @DisplayName("Should reject revoked token without calling services")
+    void shouldRejectRevokedToken() {
+        // Given
+        when(verifiedTokenCache.getOrVerify(TOKEN)).thenReturn(Optional.of(claims()));
+        when(revocationRegistry.isRevoked(any())).thenReturn(Mono.just(true));
+
+        // When
+        ServerResponse response = handler.getBookingDetails(request(null)).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, response.statusCode());
+        assertTrue(calledPaths.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject request without bearer token")
+    void shouldRejectMissingToken() {
+        // When
+        ServerResponse response = handler.getBookingDetails(MockServerRequest.builder()
+                .pathVariable("id", "7")
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, response.statusCode());
+        verifyNoInteractions(verifiedTokenCache, revocationRegistry);
+    }
+
+    private void authorized() {
+        when(verifiedTokenCache.getOrVerify(TOKEN)).thenReturn(Optional.of(claims()));
+        when(revocationRegistry.isRevoked(any())).thenReturn(Mono.just(false));
+    }
+
+    private void json(String path, String body) {
+        upstream.put(path, ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private static MockServerRequest request(String tripId) {
+        MockServerRequest.Builder builder = MockServerRequest.builder()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .pathVariable("id", "7");
+        if (tripId != null) {
+            builder.queryParam("tripId", tripId);
+        }
+        return builder.build();
+    }
+
+    private static TokenClaims claims() {
+        return TokenClaims.builder().userId("42").email("user@example.com").type("access").build();
+    }
+
+    private static BookingDetailsResponse body(ServerResponse response) {
+        return (BookingDetailsResponse) ((EntityResponse<?>) response).entity();
+    }
+}
@@ -0,0 +1,89 @@
+package com.travelmaster.gateway.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachedResponse Unit Tests")
+class CachedResponseTest {
+
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Should match only requests with same Vary header values")
+    void shouldMatchVary() {
+        // Given
+        CachedResponse cached = response(Map.of(), Map.of(HttpHeaders.ACCEPT_LANGUAGE, List.of("ru")));
+
+        // When & Then
+        assertTrue(cached.matchesVary(Map.of(HttpHeaders.ACCEPT_LANGUAGE, List.of("ru"))));
+        assertFalse(cached.matchesVary(Map.of(HttpHeaders.ACCEPT_LANGUAGE, List.of("en"))));
+        assertFalse(cached.matchesVary(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should treat absent Vary header as empty value")
+    void shouldMatchAbsentVaryHeader() {
+        // Given - запрос, для которого сохранена запись, был без Accept-Language
+        CachedResponse cached = response(Map.of(), Map.of(HttpHeaders.ACCEPT_LANGUAGE, List.of()));
+
+        // When & Then
+        assertTrue(cached.matchesVary(Map.of()));
+        assertFalse(cached.matchesVary(Map.of(HttpHeaders.ACCEPT_LANGUAGE, List.of("ru"))));
+    }
+
+    @Test
+    @DisplayName("Should use upstream strong ETag and keep other headers for replay")
+    void shouldKeepUpstreamHeaders() {
+        // Given
+        CachedResponse cached = response(Map.of(
+                HttpHeaders.ETAG, List.of("\"v7\""),
+                HttpHeaders.CACHE_CONTROL, List.of("max-age=30")), Map.of());
+
+        // When & Then
+        assertEquals("\"v7\"", cached.getEtag(false));
+        assertEquals(Map.of(HttpHeaders.CACHE_CONTROL, List.of("max-age=30")), cached.getHeaders());
+        assertTrue(cached.matches("W/\"v7\""));
+    }
+
+    @Test
+    @DisplayName("Should compute body ETag when upstream ETag is weak or missing")
+    void shouldComputeEtagForWeakUpstreamEtag() {
+        // Given
+        CachedResponse weak = response(Map.of(HttpHeaders.ETAG, List.of("W/\"v7\"")), Map.of());
+        CachedResponse none = response(Map.of(), Map.of());
+
+        // When & Then
+        assertEquals(none.getEtag(false), weak.getEtag(false));
+        assertNotEquals("W/\"v7\"", weak.getEtag(false));
+        assertFalse(weak.matches("\"v7\""));
+    }
+
+    @Test
+    @DisplayName("Should give gzip variant its own ETag and match both on If-None-Match")
+    void shouldSeparateGzipEtag() {
+        // Given
+        CachedResponse cached = new CachedResponse(BODY, new byte[]{1, 2}, "application/json", Map.of(), Map.of(),
+                Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+        // When & Then
+        assertNotEquals(cached.getEtag(false), cached.getEtag(true));
+        assertTrue(cached.matches(cached.getEtag(true)));
+        assertTrue(cached.matches("\"other\", " + cached.getEtag(false)));
+        assertTrue(cached.matches("*"));
+        assertFalse(cached.matches("\"other\""));
+        assertFalse(cached.matches(null));
+    }
+
+    private static CachedResponse response(Map<String, List<String>> headers, Map<String, List<String>> varyValues) {
+        return new CachedResponse(BODY, null, "application/json", headers, varyValues,
+                Duration.ofSeconds(30), Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,86 @@
+package com.travelmaster.gateway.compression;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResponseCompressor Unit Tests")
+class ResponseCompressorTest {
+
+    private final ResponseCompressor compressor = new ResponseCompressor(true, DataSize.ofKilobytes(1),
+            List.of("application/json", "text/plain"));
+
+    @Test
+    @DisplayName("Should accept gzip listed explicitly or via wildcard")
+    void shouldAcceptGzip() {
+        assertTrue(ResponseCompressor.acceptsGzip("gzip"));
+        assertTrue(ResponseCompressor.acceptsGzip("br, GZIP;q=0.8"));
+        assertTrue(ResponseCompressor.acceptsGzip("*"));
+        assertTrue(ResponseCompressor.acceptsGzip("gzip;q=abc"));
+    }
+
+    @Test
+    @DisplayName("Should reject missing, other and q=0 encodings")
+    void shouldRejectGzip() {
+        assertFalse(ResponseCompressor.acceptsGzip((String) null));
+        assertFalse(ResponseCompressor.acceptsGzip(" "));
+        assertFalse(ResponseCompressor.acceptsGzip("br, deflate"));
+        assertFalse(ResponseCompressor.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseCompressor.acceptsGzip("gzip; q = 0.0, br"));
+        assertFalse(ResponseCompressor.acceptsGzip("*;q=0"));
+    }
+
+    @Test
+    @DisplayName("Should prefer client Accept-Encoding saved before it was stripped")
+    void shouldPreferSavedClientAcceptEncoding() {
+        // Given - заголовок уже снят для upstream, решение клиента сохранено в атрибуте
+        MockServerWebExchange stripped = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/trips"));
+        stripped.getAttributes().put(ResponseCompressor.CLIENT_ACCEPTS_GZIP_ATTR, true);
+        MockServerWebExchange direct = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/trips")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // When & Then
+        assertTrue(compressor.acceptsGzip(stripped));
+        assertTrue(compressor.acceptsGzip(direct));
+        assertFalse(compressor.acceptsGzip(MockServerWebExchange.from(MockServerHttpRequest.get("/"))));
+    }
+
+    @Test
+    @DisplayName("Should compress only allowed types above size threshold")
+    void shouldApplyTypeAndSizeRules() {
+        assertTrue(compressor.isCompressible("application/json;charset=UTF-8", 2048));
+        assertFalse(compressor.isCompressible("application/json", 512));
+        assertFalse(compressor.isCompressible("image/png", 2048));
+        assertFalse(compressor.isCompressible("not a type", 2048));
+        assertFalse(compressor.isCompressible(null, 2048));
+        assertFalse(new ResponseCompressor(false, DataSize.ofBytes(0), List.of("application/json"))
+                .isCompressible("application/json", 2048));
+    }
+
+    @Test
+    @DisplayName("Should produce gzip that inflates back to the original body")
+    void shouldRoundTripGzip() throws IOException {
+        // Given
+        byte[] body = "{\"trips\":[]}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] gzipped = compressor.gzip(body);
+
+        // Then
+        assertTrue(gzipped.length < body.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.travelmaster.gateway.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimit Unit Tests")
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Should give reads only their share of the limit")
+    void shouldReserveCapacityForWrites() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(10, 0.5);
+
+        // When
+        int reads = acquire(limit, false, 20);
+
+        // Then - чтения упираются в 5, записи добирают до полного лимита
+        assertEquals(5, reads);
+        assertEquals(5, acquire(limit, true, 20));
+        assertFalse(limit.tryAcquire(true));
+        assertEquals(10, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should grow limit while fully loaded upstream keeps its latency")
+    void shouldGrowUnderStableLatency() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(4, 1.0);
+        acquire(limit, true, 4);
+
+        // When
+        limit.onSuccess(RTT);
+
+        // Then - градиент 1, прирост sqrt(4)
+        assertEquals(6, limit.getLimit());
+        assertEquals(3, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should not grow limit when upstream is underloaded")
+    void shouldNotGrowWhenUnderloaded() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(10, 1.0);
+        acquire(limit, true, 2);
+
+        // When
+        limit.onSuccess(RTT);
+        limit.onSuccess(RTT);
+
+        // Then
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should shrink limit when latency rises above long-term average")
+    void shouldShrinkOnLatencyGrowth() {
+        // Given - базовая задержка запомнена на недогруженном upstream
+        AdaptiveConcurrencyLimit limit = limit(20, 1.0);
+        acquire(limit, true, 1);
+        limit.onSuccess(RTT);
+        acquire(limit, true, 20);
+
+        // When - задержка выросла вдесятеро
+        limit.onSuccess(RTT * 10);
+
+        // Then - градиент ограничен снизу 0.5: 20 * 0.5 + sqrt(20)
+        assertEquals(14, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should back off on dropped request but not below min limit")
+    void shouldBackOffOnDrop() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 8, 100, 1.5, 1.0, 0.9, 1.0);
+        acquire(limit, true, 3);
+
+        // When & Then
+        limit.onDropped();
+        assertEquals(9, limit.getLimit());
+        limit.onDropped();
+        limit.onDropped();
+        assertEquals(8, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should release slot without adjusting limit on ignore")
+    void shouldIgnoreCancelledRequest() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(2, 1.0);
+        acquire(limit, true, 2);
+
+        // When
+        limit.onIgnore();
+
+        // Then
+        assertEquals(2, limit.getLimit());
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire(true));
+    }
+
+    private static AdaptiveConcurrencyLimit limit(int initial, double readShare) {
+        return new AdaptiveConcurrencyLimit(initial, 1, 100, 1.5, 1.0, 0.9, readShare);
+    }
+
+    private static int acquire(AdaptiveConcurrencyLimit limit, boolean priority, int attempts) {
+        int acquired = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limit.tryAcquire(priority)) {
+                acquired++;
+            }
+        }
+        return acquired;
+    }
+}
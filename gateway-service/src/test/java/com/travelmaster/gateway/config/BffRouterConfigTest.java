@@ -0,0 +1,57 @@
+package com.travelmaster.gateway.config;
+
+import com.travelmaster.gateway.bff.BookingDetailsHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("BffRouterConfig Unit Tests")
+class BffRouterConfigTest {
+
+    private final RouterFunction<ServerResponse> routes =
+            new BffRouterConfig().bffRoutes(mock(BookingDetailsHandler.class));
+
+    @Test
+    @DisplayName("Should not handle request that did not pass a gateway route")
+    void shouldIgnoreDirectRequest() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bff/bookings/7"));
+
+        // When & Then
+        assertTrue(routes.route(request(exchange)).blockOptional().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should handle request forwarded by gateway route")
+    void shouldHandleForwardedRequest() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bff/bookings/7"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("bff-bookings")
+                .uri(URI.create("forward:/"))
+                .predicate(e -> true)
+                .build());
+
+        // When & Then
+        assertTrue(routes.route(request(exchange)).blockOptional().isPresent());
+        assertTrue(routes.route(request(MockServerWebExchange.from(
+                MockServerHttpRequest.method(HttpMethod.DELETE, "/api/v1/bff/bookings/7")))).blockOptional().isEmpty());
+    }
+
+    private static ServerRequest request(MockServerWebExchange exchange) {
+        return ServerRequest.create(exchange, HandlerStrategies.withDefaults().messageReaders());
+    }
+}
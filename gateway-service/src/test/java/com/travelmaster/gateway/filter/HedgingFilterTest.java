@@ -0,0 +1,151 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.metrics.RouteLatencyMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HedgingFilter Unit Tests")
+class HedgingFilterTest {
+
+    private static final URI REPLICA = URI.create("http://trip-service-2:8082");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgingFilter filterFactory = new HedgingFilter(meterRegistry);
+
+    @Test
+    @DisplayName("Should promote primary attempt status, headers and attributes")
+    void shouldPromotePrimaryAttempt() {
+        // Given
+        GatewayFilter filter = filterFactory.apply(config(Duration.ofSeconds(1), 0.0));
+        MockServerWebExchange exchange = exchange();
+        GatewayFilterChain chain = attempt -> {
+            attempt.getResponse().setStatusCode(HttpStatus.CREATED);
+            attempt.getResponse().getHeaders().add("X-Upstream", "primary");
+            attempt.getAttributes().put("test.attr", "value");
+            timing(attempt).upstreamNanos = 5;
+            return Mono.empty();
+        };
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals(HttpStatus.CREATED, exchange.getResponse().getStatusCode());
+        assertEquals("primary", exchange.getResponse().getHeaders().getFirst("X-Upstream"));
+        assertEquals("value", exchange.getAttribute("test.attr"));
+        assertEquals(5, timing(exchange).upstreamNanos);
+        assertEquals(RouteLatencyMetrics.Source.UPSTREAM, timing(exchange).source);
+        assertEquals(1.0, outcome("primary"));
+    }
+
+    @Test
+    @DisplayName("Should promote hedge attempt when primary is slow")
+    void shouldPromoteHedgeWinner() {
+        // Given - основной запрос не отвечает, hedge уходит на реплику
+        GatewayFilter filter = filterFactory.apply(config(Duration.ofSeconds(1), 1.0));
+        MockServerWebExchange exchange = exchange();
+        List<URI> targets = new CopyOnWriteArrayList<>();
+        GatewayFilterChain chain = attempt -> {
+            URI target = attempt.getAttribute(HedgeTargetFilter.HEDGE_TARGET_ATTR);
+            if (target == null) {
+                return Mono.never();
+            }
+            targets.add(target);
+            attempt.getResponse().setStatusCode(HttpStatus.OK);
+            attempt.getResponse().getHeaders().add("X-Upstream", "hedge");
+            return Mono.empty();
+        };
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals(List.of(REPLICA), targets);
+        assertEquals("hedge", exchange.getResponse().getHeaders().getFirst("X-Upstream"));
+        assertEquals(RouteLatencyMetrics.Source.HEDGED, timing(exchange).source);
+        assertNull(exchange.getAttribute(HedgeTargetFilter.HEDGE_TARGET_ATTR));
+        assertEquals(1.0, outcome("hedge_won"));
+    }
+
+    @Test
+    @DisplayName("Should map overall timeout to 504 Gateway Timeout")
+    void shouldMapTimeoutToGatewayTimeout() {
+        // Given - upstream не отвечает, бюджет hedge пуст
+        GatewayFilter filter = filterFactory.apply(config(Duration.ofMillis(50), 0.0));
+
+        // When
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange(), attempt -> Mono.never()).block());
+
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+        assertEquals(1.0, outcome("timeout"));
+        assertEquals(1.0, outcome("denied"));
+    }
+
+    @Test
+    @DisplayName("Should record timed out primary latency so hedge delay grows")
+    void shouldRecordTimedOutLatency() {
+        // Given - один замер уже даёт перцентиль
+        HedgingFilter.Config config = config(Duration.ofMillis(300), 0.0);
+        config.setMinSamples(1);
+        GatewayFilter filter = filterFactory.apply(config);
+        assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange(), attempt -> Mono.never()).block());
+
+        // When - следующий ответ медленнее начальной задержки hedge, но быстрее таймаута
+        filter.filter(exchange(), attempt -> Mono.delay(Duration.ofMillis(100)).then()).block();
+
+        // Then - задержка hedge выросла до ~300 мс, повторной попытки hedge не было
+        assertEquals(1.0, outcome("denied"));
+        assertEquals(1.0, outcome("primary"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter("gateway.hedge.requests", "route", "trips", "outcome", outcome).count();
+    }
+
+    private static HedgingFilter.Config config(Duration timeout, double maxHedgeRatio) {
+        HedgingFilter.Config config = new HedgingFilter.Config();
+        config.setInitialDelay(Duration.ofMillis(10));
+        config.setMinDelay(Duration.ofMillis(10));
+        config.setMaxHedgeRatio(maxHedgeRatio);
+        config.setHedgeUris(List.of(REPLICA.toString()));
+        config.setTimeout(timeout);
+        return config;
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/trips/1"));
+        Route route = Route.async()
+                .id("trips")
+                .uri(URI.create("http://trip-service:8082"))
+                .predicate(e -> true)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(RouteLatencyFilter.TIMING_ATTR, new RouteLatencyFilter.RequestTiming(System.nanoTime()));
+        return exchange;
+    }
+
+    private static RouteLatencyFilter.RequestTiming timing(ServerWebExchange exchange) {
+        return exchange.getAttribute(RouteLatencyFilter.TIMING_ATTR);
+    }
+}
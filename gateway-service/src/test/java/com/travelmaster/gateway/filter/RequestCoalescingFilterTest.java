@@ -0,0 +1,169 @@
+package com.travelmaster.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestCoalescingFilter Unit Tests")
+class RequestCoalescingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayFilter filter = new RequestCoalescingFilter(meterRegistry)
+            .apply(new RequestCoalescingFilter.Config());
+    private final ResponseWriteHookFilter writeHook = new ResponseWriteHookFilter();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    @Test
+    @DisplayName("Should share leader response with concurrent identical requests")
+    void shouldShareLeaderResponse() {
+        // Given
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get("/api/v1/trips?from=MOW"));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get("/api/v1/trips?from=MOW"));
+
+        // When
+        CompletableFuture<Void> leaderDone = send(leader);
+        CompletableFuture<Void> followerDone = send(follower);
+        release.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("[{\"id\":1}]", follower.getResponse().getBodyAsString().block());
+        assertEquals("[{\"id\":1}]", leader.getResponse().getBodyAsString().block());
+        assertNull(follower.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+        assertEquals(1.0, requests("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Should coalesce requests regardless of client Accept-Encoding")
+    void shouldIgnoreAcceptEncodingInKey() {
+        // Given - Accept-Encoding к этому моменту снят ResponseCompressionFilter, но ключ не должен от него зависеть
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get("/api/v1/trips")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get("/api/v1/trips"));
+
+        // When
+        CompletableFuture<Void> leaderDone = send(leader);
+        CompletableFuture<Void> followerDone = send(follower);
+        release.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should not coalesce requests with different Accept-Language")
+    void shouldKeyByAcceptLanguage() {
+        // Given
+        MockServerWebExchange russian = exchange(MockServerHttpRequest.get("/api/v1/trips")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "ru"));
+        MockServerWebExchange english = exchange(MockServerHttpRequest.get("/api/v1/trips")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+
+        // When
+        CompletableFuture<Void> first = send(russian);
+        CompletableFuture<Void> second = send(english);
+        release.tryEmitEmpty();
+        first.join();
+        second.join();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2.0, requests("leader"));
+    }
+
+    @Test
+    @DisplayName("Should send requests with credentials to upstream on their own")
+    void shouldSkipAuthorizedRequests() {
+        // Given
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get("/api/v1/trips"));
+        MockServerWebExchange authorized = exchange(MockServerHttpRequest.get("/api/v1/trips")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+
+        // When
+        CompletableFuture<Void> leaderDone = send(leader);
+        CompletableFuture<Void> authorizedDone = send(authorized);
+        release.tryEmitEmpty();
+        leaderDone.join();
+        authorizedDone.join();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0.0, requests("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to upstream when leader fails")
+    void shouldFallBackWhenLeaderFails() {
+        // Given - первый вызов upstream падает после того, как подключился ожидающий
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get("/api/v1/trips"));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get("/api/v1/trips"));
+        GatewayFilterChain failingOnce = exchange -> upstreamCalls.incrementAndGet() == 1
+                ? release.asMono().then(Mono.error(new IllegalStateException("upstream down")))
+                : write(exchange);
+
+        // When
+        CompletableFuture<Void> leaderDone = send(leader, failingOnce);
+        CompletableFuture<Void> followerDone = send(follower, failingOnce);
+        release.tryEmitEmpty();
+
+        // Then
+        assertThrows(Exception.class, leaderDone::join);
+        followerDone.join();
+        assertEquals("[{\"id\":1}]", follower.getResponse().getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1.0, requests("fallback"));
+    }
+
+    private CompletableFuture<Void> send(MockServerWebExchange exchange) {
+        return send(exchange, upstream -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(write(upstream));
+        });
+    }
+
+    private CompletableFuture<Void> send(MockServerWebExchange exchange, GatewayFilterChain upstream) {
+        return writeHook.filter(exchange, hooked -> filter.filter(hooked, upstream)).toFuture();
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange) {
+        return Mono.defer(() -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().add(HttpHeaders.SET_COOKIE, "session=leader");
+            return exchange.getResponse().writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance
+                    .wrap("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8))));
+        });
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+}
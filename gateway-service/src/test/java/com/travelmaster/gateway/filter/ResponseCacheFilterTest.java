@@ -0,0 +1,235 @@
+package com.travelmaster.gateway.filter;
+
+import com.travelmaster.gateway.cache.ResponseCacheStore;
+import com.travelmaster.gateway.compression.ResponseCompressor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResponseCacheFilter Unit Tests")
+class ResponseCacheFilterTest {
+
+    private static final int MAX_ENTRY_BYTES = 16;
+
+    private final ResponseWriteHookFilter writeHook = new ResponseWriteHookFilter();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCompressor compressor = new ResponseCompressor(true, DataSize.ofKilobytes(1),
+                List.of(MediaType.APPLICATION_JSON_VALUE));
+        ResponseCacheStore store = new ResponseCacheStore(new SimpleMeterRegistry(), compressor,
+                DataSize.ofMegabytes(1), DataSize.ofBytes(MAX_ENTRY_BYTES));
+        filter = new ResponseCacheFilter(store, compressor, WebClient.builder())
+                .apply(new ResponseCacheFilter.Config());
+    }
+
+    @Test
+    @DisplayName("Should cache small response and serve it from memory")
+    void shouldCacheSmallResponse() {
+        // Given
+        GatewayFilterChain upstream = upstream(new HttpHeaders(), "{\"id\":", "1}");
+
+        // When
+        MockServerWebExchange miss = send(request(), upstream);
+        MockServerWebExchange hit = send(request(), upstream);
+
+        // Then
+        assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("{\"id\":1}", hit.getResponse().getBodyAsString().block());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should stream response larger than cache entry limit without caching it")
+    void shouldStreamLargeResponse() {
+        // Given - тело из трёх частей по 10 байт больше предела записи в 16 байт
+        GatewayFilterChain upstream = upstream(new HttpHeaders(), "0123456789", "abcdefghij", "ABCDEFGHIJ");
+
+        // When
+        MockServerWebExchange first = send(request(), upstream);
+        MockServerWebExchange second = send(request(), upstream);
+
+        // Then
+        assertEquals("0123456789abcdefghijABCDEFGHIJ", first.getResponse().getBodyAsString().block());
+        assertNull(first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("0123456789abcdefghijABCDEFGHIJ", second.getResponse().getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should cache empty response body")
+    void shouldCacheEmptyResponse() {
+        // Given
+        GatewayFilterChain upstream = upstream(new HttpHeaders());
+
+        // When
+        send(request(), upstream);
+        MockServerWebExchange hit = send(request(), upstream);
+
+        // Then
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("", hit.getResponse().getBodyAsString().defaultIfEmpty("").block());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should replay allow-listed upstream headers on hit")
+    void shouldReplayUpstreamHeaders() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("public, max-age=30");
+        headers.setETag("\"v7\"");
+        headers.set(HttpHeaders.LAST_MODIFIED, "Wed, 14 Oct 2026 10:00:00 GMT");
+        headers.set(HttpHeaders.CONTENT_LANGUAGE, "ru");
+        headers.set("X-Internal", "secret");
+        GatewayFilterChain upstream = upstream(headers, "{}");
+
+        // When
+        send(request(), upstream);
+        MockServerWebExchange hit = send(request(), upstream);
+
+        // Then
+        HttpHeaders replayed = hit.getResponse().getHeaders();
+        assertEquals("HIT", replayed.getFirst("X-Cache"));
+        assertEquals("public, max-age=30", replayed.getCacheControl());
+        assertEquals("\"v7\"", replayed.getETag());
+        assertEquals("Wed, 14 Oct 2026 10:00:00 GMT", replayed.getFirst(HttpHeaders.LAST_MODIFIED));
+        assertEquals("ru", replayed.getFirst(HttpHeaders.CONTENT_LANGUAGE));
+        assertEquals(MediaType.APPLICATION_JSON, replayed.getContentType());
+        assertNull(replayed.getFirst("X-Internal"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to If-None-Match with upstream ETag")
+    void shouldRevalidateWithUpstreamEtag() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v7\"");
+        GatewayFilterChain upstream = upstream(headers, "{}");
+        send(request(), upstream);
+
+        // When
+        MockServerWebExchange conditional = send(request().header(HttpHeaders.IF_NONE_MATCH, "\"v7\""), upstream);
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should serve entry only to requests with same Vary header values")
+    void shouldRespectVary() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+        GatewayFilterChain upstream = upstream(headers, "{}");
+        send(request().header(HttpHeaders.ACCEPT_LANGUAGE, "ru"), upstream);
+
+        // When
+        MockServerWebExchange sameLanguage = send(request().header(HttpHeaders.ACCEPT_LANGUAGE, "ru"), upstream);
+        MockServerWebExchange otherLanguage = send(request().header(HttpHeaders.ACCEPT_LANGUAGE, "en"), upstream);
+
+        // Then
+        assertEquals("HIT", sameLanguage.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("MISS", otherLanguage.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache responses with Vary: *")
+    void shouldNotCacheVaryStar() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setVary(List.of("*"));
+        GatewayFilterChain upstream = upstream(headers, "{}");
+
+        // When
+        send(request(), upstream);
+        send(request(), upstream);
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should key entries by user and credentials")
+    void shouldKeyByCredentials() {
+        // Given
+        GatewayFilterChain upstream = upstream(new HttpHeaders(), "{}");
+        send(request().header(HttpHeaders.AUTHORIZATION, "Bearer token-a"), upstream);
+
+        // When
+        MockServerWebExchange sameToken = send(request().header(HttpHeaders.AUTHORIZATION, "Bearer token-a"), upstream);
+        MockServerWebExchange otherToken = send(request().header(HttpHeaders.AUTHORIZATION, "Bearer token-b"), upstream);
+        MockServerWebExchange anonymous = send(request(), upstream);
+        send(request().header("X-User-Id", "42").header(HttpHeaders.AUTHORIZATION, "Bearer token-c"), upstream);
+        MockServerWebExchange sameUser = send(request().header("X-User-Id", "42")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-d"), upstream);
+
+        // Then
+        assertEquals("HIT", sameToken.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("MISS", otherToken.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("MISS", anonymous.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", sameUser.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache responses with Set-Cookie")
+    void shouldNotCacheSetCookie() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.SET_COOKIE, "session=1");
+        GatewayFilterChain upstream = upstream(headers, "{}");
+
+        // When
+        send(request(), upstream);
+        send(request(), upstream);
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request, GatewayFilterChain upstream) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        writeHook.filter(exchange, hooked -> filter.filter(hooked, upstream)).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request() {
+        return MockServerHttpRequest.get("/api/v1/trips/1");
+    }
+
+    private GatewayFilterChain upstream(HttpHeaders headers, String... chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().addAll(headers);
+            return exchange.getResponse().writeWith(Flux.fromArray(chunks)
+                    .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
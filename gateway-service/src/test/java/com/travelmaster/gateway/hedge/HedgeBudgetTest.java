@@ -0,0 +1,44 @@
+package com.travelmaster.gateway.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HedgeBudget Unit Tests")
+class HedgeBudgetTest {
+
+    @Test
+    @DisplayName("Should allow one hedge per 1/maxRatio requests")
+    void shouldLimitHedgeRatio() {
+        // Given
+        HedgeBudget budget = new HedgeBudget(0.25, 10);
+
+        // When & Then - 3 запроса дают 0.75 токена, четвёртый добирает до целого
+        for (int i = 0; i < 3; i++) {
+            budget.onRequest();
+            assertFalse(budget.tryAcquire());
+        }
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should cap accumulated tokens at max burst")
+    void shouldCapBurst() {
+        // Given
+        HedgeBudget budget = new HedgeBudget(1.0, 3);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        // Then
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+}
@@ -0,0 +1,66 @@
+package com.travelmaster.gateway.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyTracker Unit Tests")
+class LatencyTrackerTest {
+
+    private static final Duration FALLBACK = Duration.ofMillis(200);
+
+    @Test
+    @DisplayName("Should return fallback until min samples are collected")
+    void shouldUseFallbackWithoutSamples() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(100, 0.95, 10);
+
+        // When
+        for (int i = 0; i < 9; i++) {
+            tracker.record(Duration.ofMillis(5).toNanos());
+        }
+
+        // Then
+        assertEquals(FALLBACK, tracker.percentileOr(FALLBACK));
+        tracker.record(Duration.ofMillis(5).toNanos());
+        assertEquals(Duration.ofMillis(5), tracker.percentileOr(FALLBACK));
+    }
+
+    @Test
+    @DisplayName("Should compute nearest-rank percentile over the window")
+    void shouldComputePercentile() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(100, 0.95, 100);
+
+        // When - задержки 1..100 мс
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(Duration.ofMillis(i).toNanos());
+        }
+
+        // Then
+        assertEquals(Duration.ofMillis(95), tracker.percentileOr(FALLBACK));
+    }
+
+    @Test
+    @DisplayName("Should recompute percentile only periodically and forget samples outside window")
+    void shouldSlideWindow() {
+        // Given - окно из 100 быстрых ответов
+        LatencyTracker tracker = new LatencyTracker(100, 0.5, 100);
+        for (int i = 0; i < 100; i++) {
+            tracker.record(Duration.ofMillis(10).toNanos());
+        }
+
+        // When - 99 медленных ответов ещё не вызывают пересчёт
+        for (int i = 0; i < 99; i++) {
+            tracker.record(Duration.ofMillis(500).toNanos());
+        }
+        assertEquals(Duration.ofMillis(10), tracker.percentileOr(FALLBACK));
+        tracker.record(Duration.ofMillis(500).toNanos());
+
+        // Then - быстрые ответы вытеснены из окна
+        assertEquals(Duration.ofMillis(500), tracker.percentileOr(FALLBACK));
+    }
+}
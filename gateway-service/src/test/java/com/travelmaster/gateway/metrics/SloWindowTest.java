@@ -0,0 +1,76 @@
+package com.travelmaster.gateway.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SloWindow Unit Tests")
+class SloWindowTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    // Начало 10-секундного интервала, чтобы границы окон в тестах были точными
+    private static final long NOW = 1_000_000 * 10_000L;
+
+    @Test
+    @DisplayName("Should compute burn rate as error share over error budget")
+    void shouldComputeBurnRate() {
+        // Given - SLO 99%: бюджет ошибок 1%
+        SloWindow window = new SloWindow(0.99);
+        record(window, 98, 2, NOW);
+
+        // When & Then - 2% ошибок расходуют бюджет вдвое быстрее
+        assertEquals(2.0, window.burnRate(5 * MINUTE, NOW), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should count only buckets inside the requested window")
+    void shouldLimitToWindow() {
+        // Given - ошибки 10 минут назад, сейчас только успешные запросы
+        SloWindow window = new SloWindow(0.9);
+        record(window, 0, 10, NOW - 10 * MINUTE);
+        record(window, 10, 0, NOW);
+
+        // When & Then
+        assertEquals(0.0, window.burnRate(5 * MINUTE, NOW), 1e-9);
+        assertEquals(5.0, window.burnRate(HOUR, NOW), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should forget bucket reused after an hour")
+    void shouldResetReusedBucket() {
+        // Given - тот же слот кольцевого буфера через час
+        SloWindow window = new SloWindow(0.9);
+        record(window, 0, 10, NOW);
+
+        // When
+        record(window, 10, 0, NOW + HOUR);
+
+        // Then
+        assertEquals(0.0, window.burnRate(HOUR, NOW + HOUR), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should report zero burn rate without traffic or with 100% objective")
+    void shouldReturnZeroWithoutData() {
+        // Given
+        SloWindow empty = new SloWindow(0.999);
+        SloWindow strict = new SloWindow(1.0);
+        record(strict, 0, 5, NOW);
+
+        // When & Then
+        assertEquals(0.0, empty.burnRate(HOUR, NOW));
+        assertEquals(0.0, strict.burnRate(HOUR, NOW));
+    }
+
+    private static void record(SloWindow window, int good, int bad, long nowMillis) {
+        for (int i = 0; i < good; i++) {
+            window.record(true, nowMillis);
+        }
+        for (int i = 0; i < bad; i++) {
+            window.record(false, nowMillis);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.travelmaster.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HybridRateLimiter Unit Tests")
+class HybridRateLimiterTest {
+
+    private static final RedisScript<Long> SCRIPT = RedisScript.of("return 0", Long.class);
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ConfigurationService configurationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should decide on local bucket and deny once burst is spent")
+    void shouldDenyAfterLocalBurst() {
+        // Given - бюджет рассинхронизации равен всей ёмкости, сверка только после 3 запросов
+        HybridRateLimiter limiter = limiter(config(3, 1.0));
+        globalRemaining(100L);
+
+        // When & Then
+        assertTrue(allowed(limiter));
+        assertTrue(allowed(limiter));
+        assertTrue(allowed(limiter));
+        assertFalse(allowed(limiter));
+        verify(redisTemplate, times(1)).execute(eq(SCRIPT), anyList(), eq(List.of("1", "3", "3")));
+    }
+
+    @Test
+    @DisplayName("Should cap local tokens with global remaining after reconcile")
+    void shouldCapLocalTokensByGlobalRemaining() {
+        // Given - сверка после 2 токенов, в глобальном bucket остался 1
+        HybridRateLimiter limiter = limiter(config(10, 0.2));
+        globalRemaining(1L);
+
+        // When
+        assertTrue(allowed(limiter));
+        RateLimiter.Response second = limiter.isAllowed("route", "user-1").block();
+
+        // Then - локально осталось бы 8, но глобально доступен только 1
+        assertEquals("8", second.getHeaders().get(RedisRateLimiter.REMAINING_HEADER));
+        assertTrue(allowed(limiter));
+        assertFalse(allowed(limiter));
+        verify(redisTemplate).execute(eq(SCRIPT), anyList(), eq(List.of("1", "10", "2")));
+    }
+
+    @Test
+    @DisplayName("Should keep limiting locally when Redis is unavailable")
+    void shouldWorkWithoutRedis() {
+        // Given
+        HybridRateLimiter limiter = limiter(config(2, 1.0));
+        doReturn(Flux.error(new IllegalStateException("redis down")))
+                .when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+
+        // When & Then
+        assertTrue(allowed(limiter));
+        assertTrue(allowed(limiter));
+        assertFalse(allowed(limiter));
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.sync").tag("result", "error").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per key")
+    void shouldSeparateKeys() {
+        // Given
+        HybridRateLimiter limiter = limiter(config(1, 1.0));
+        globalRemaining(100L);
+
+        // When & Then
+        assertTrue(limiter.isAllowed("route", "user-1").block().isAllowed());
+        assertFalse(limiter.isAllowed("route", "user-1").block().isAllowed());
+        assertTrue(limiter.isAllowed("route", "user-2").block().isAllowed());
+    }
+
+    @Test
+    @DisplayName("Local bucket should refill at replenish rate up to burst capacity")
+    void shouldRefillLocalBucket() {
+        // Given
+        HybridRateLimiter.Config config = config(2, 1.0);
+        HybridRateLimiter.LocalBucket bucket = new HybridRateLimiter.LocalBucket(2);
+        long now = System.nanoTime();
+        bucket.tryConsume(config, now);
+        bucket.tryConsume(config, now);
+        assertEquals(-1, bucket.tryConsume(config, now));
+
+        // When - через секунду при replenishRate = 1 появился один токен, через минуту - не больше ёмкости
+        long afterSecond = now + Duration.ofSeconds(1).toNanos();
+
+        // Then
+        assertEquals(0, bucket.tryConsume(config, afterSecond));
+        assertEquals(1, bucket.tryConsume(config, afterSecond + Duration.ofMinutes(1).toNanos()));
+    }
+
+    private HybridRateLimiter limiter(HybridRateLimiter.Config config) {
+        return new HybridRateLimiter(redisTemplate, SCRIPT, configurationService, meterRegistry,
+                config, 1000, Duration.ofMinutes(5));
+    }
+
+    private void globalRemaining(long remaining) {
+        doReturn(Flux.just(remaining)).when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    private static boolean allowed(HybridRateLimiter limiter) {
+        return limiter.isAllowed("route", "user-1").block().isAllowed();
+    }
+
+    private static HybridRateLimiter.Config config(int burstCapacity, double allowedSkew) {
+        HybridRateLimiter.Config config = new HybridRateLimiter.Config();
+        config.setReplenishRate(1);
+        config.setBurstCapacity(burstCapacity);
+        config.setAllowedSkew(allowedSkew);
+        config.setSyncInterval(Duration.ofHours(1));
+        return config;
+    }
+}
@@ -0,0 +1,59 @@
+package com.travelmaster.gateway.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never miss an inserted value")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("token-" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep false positive rate near configured value at expected size")
+    void shouldRespectFalsePositiveRate() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then - ожидается около 1000, запас на разброс хеширования
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Empty filter should contain nothing")
+    void shouldBeEmptyInitially() {
+        // Given
+        BloomFilter filter = new BloomFilter(100, 0.001);
+
+        // When & Then
+        assertFalse(filter.mightContain("token-1"));
+        assertFalse(filter.mightContain(""));
+    }
+}
@@ -0,0 +1,181 @@
+package com.travelmaster.gateway.security;
+
+import com.travelmaster.common.security.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationRegistry Unit Tests")
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(redisTemplate, meterRegistry, 1000, 0.001);
+    }
+
+    @Test
+    @DisplayName("Should answer from Bloom filter without Redis for unknown tokens")
+    void shouldSkipRedisOnBloomNegative() {
+        // When
+        boolean revoked = registry.isRevoked(claims("jti-1", "42", Instant.now())).block();
+
+        // Then
+        assertFalse(revoked);
+        verifyNoInteractions(redisTemplate);
+        assertEquals(1.0, checks("bloom_negative"));
+    }
+
+    @Test
+    @DisplayName("Should report revoked single token after revoke")
+    void shouldRevokeSingleToken() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(eq("revoked:jti:jti-1"), eq("1"), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.multiGet(List.of("revoked:jti:jti-1"))).thenReturn(Mono.just(List.of("1")));
+        registry.revoke(event("jti-1", 42L, null));
+
+        // When
+        boolean revoked = registry.isRevoked(claims("jti-1", "42", Instant.now())).block();
+
+        // Then
+        assertTrue(revoked);
+        assertEquals(1.0, checks("revoked"));
+    }
+
+    @Test
+    @DisplayName("Should revoke only user tokens issued before revokedAt")
+    void shouldRevokeUserTokensIssuedBefore() {
+        // Given - все токены пользователя отозваны минуту назад
+        long revokedAt = Instant.now().minusSeconds(60).getEpochSecond();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(eq("revoked:user:42"), eq(String.valueOf(revokedAt)), any(Duration.class)))
+                .thenReturn(Mono.just(true));
+        when(valueOperations.multiGet(List.of("revoked:user:42")))
+                .thenReturn(Mono.just(List.of(String.valueOf(revokedAt))));
+        registry.revoke(event(null, 42L, revokedAt));
+
+        // When
+        boolean oldToken = registry.isRevoked(claims(null, "42", Instant.ofEpochSecond(revokedAt - 10))).block();
+        boolean newToken = registry.isRevoked(claims(null, "42", Instant.now())).block();
+
+        // Then
+        assertTrue(oldToken);
+        assertFalse(newToken);
+    }
+
+    @Test
+    @DisplayName("Should count Redis miss as false positive")
+    void shouldCountFalsePositive() {
+        // Given - запись в Redis уже истекла, а фильтр ещё не перестроен
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.multiGet(List.of("revoked:jti:jti-1"))).thenReturn(Mono.just(Arrays.asList((String) null)));
+        registry.revoke(event("jti-1", 42L, null));
+
+        // When
+        boolean revoked = registry.isRevoked(claims("jti-1", null, Instant.now())).block();
+
+        // Then
+        assertFalse(revoked);
+        assertEquals(1.0, checks("false_positive"));
+    }
+
+    @Test
+    @DisplayName("Should allow token when Redis lookup fails")
+    void shouldFailOpenOnRedisError() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.multiGet(anyList())).thenReturn(Mono.error(new IllegalStateException("redis down")));
+        registry.revoke(event("jti-1", 42L, null));
+
+        // When
+        boolean revoked = registry.isRevoked(claims("jti-1", "42", Instant.now())).block();
+
+        // Then
+        assertFalse(revoked);
+        assertEquals(1.0, checks("lookup_error"));
+    }
+
+    @Test
+    @DisplayName("Should ignore already expired revocations")
+    void shouldIgnoreExpiredRevocation() {
+        // Given
+        TokenRevokedEvent expired = event("jti-1", 42L, null);
+        expired.setExpiresAt(Instant.now().minusSeconds(1).getEpochSecond());
+
+        // When
+        registry.revoke(expired);
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+        assertFalse(registry.isRevoked(claims("jti-1", "42", Instant.now())).block());
+    }
+
+    @Test
+    @DisplayName("Should rebuild filter from Redis keys")
+    void shouldRebuildFromRedis() {
+        // Given
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.just("revoked:jti:jti-7"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("revoked:jti:jti-7"))).thenReturn(Mono.just(List.of("1")));
+
+        // When
+        registry.rebuild();
+
+        // Then
+        assertTrue(registry.isRevoked(claims("jti-7", null, Instant.now())).block());
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("gateway.revocation.checks").tag("result", result).counter().count();
+    }
+
+    private static TokenRevokedEvent event(String jti, Long userId, Long revokedAt) {
+        return TokenRevokedEvent.builder()
+                .jti(jti)
+                .userId(userId)
+                .revokedAt(revokedAt)
+                .expiresAt(Instant.now().plusSeconds(900).getEpochSecond())
+                .build();
+    }
+
+    private static TokenClaims claims(String jti, String userId, Instant issuedAt) {
+        return TokenClaims.builder()
+                .tokenId(jti)
+                .userId(userId)
+                .type("access")
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(900))
+                .build();
+    }
+}
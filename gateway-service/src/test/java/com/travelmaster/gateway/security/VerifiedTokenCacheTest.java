@@ -0,0 +1,125 @@
+package com.travelmaster.gateway.security;
+
+import com.travelmaster.common.security.JwtCodec;
+import com.travelmaster.common.security.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("VerifiedTokenCache Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET =
+            "travelmaster-super-secret-jwt-key-minimum-512-bits-hs512-algorithm-requires-this-length";
+
+    private final JwtCodec codec = new JwtCodec(SECRET);
+
+    private JwtTokenProvider jwtTokenProvider;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = spy(new JwtTokenProvider(SECRET));
+        cache = new VerifiedTokenCache(jwtTokenProvider, new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("Should verify access token once and serve repeats from cache")
+    void shouldCacheVerifiedAccessToken() {
+        // Given
+        String token = token(TokenClaims.TYPE_ACCESS, Instant.now().plusSeconds(600));
+
+        // When
+        Optional<TokenClaims> first = cache.getOrVerify(token);
+        Optional<TokenClaims> second = cache.getOrVerify(token);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals("42", first.get().getUserId());
+        assertSame(first.get(), second.orElseThrow());
+        verify(jwtTokenProvider, times(1)).parseAndValidate(token);
+    }
+
+    @Test
+    @DisplayName("Should reject refresh token signed with the same key")
+    void shouldRejectRefreshToken() {
+        // Given
+        String token = token(TokenClaims.TYPE_REFRESH, Instant.now().plusSeconds(600));
+
+        // When & Then
+        assertTrue(jwtTokenProvider.parseAndValidate(token).isEmpty());
+        assertTrue(cache.getOrVerify(token).isEmpty());
+        // Отказ не кешируется: каждая попытка проверяется заново
+        assertTrue(cache.getOrVerify(token).isEmpty());
+        verify(jwtTokenProvider, times(3)).parseAndValidate(token);
+    }
+
+    @Test
+    @DisplayName("Should reject token with foreign signature")
+    void shouldRejectForeignSignature() {
+        // Given
+        String token = new JwtCodec(SECRET + "-other").encode(claims(TokenClaims.TYPE_ACCESS,
+                Instant.now().plusSeconds(600)));
+
+        // When & Then
+        assertTrue(cache.getOrVerify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stop serving cached token once its exp has passed")
+    void shouldExpireWithToken() throws InterruptedException {
+        // Given - exp хранится в секундах, токен истекает на ближайшей границе секунды
+        Instant expiresAt = Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        String token = token(TokenClaims.TYPE_ACCESS, expiresAt);
+        assertTrue(cache.getOrVerify(token).isPresent());
+
+        // When
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 50);
+
+        // Then
+        assertTrue(cache.getOrVerify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should verify every call when cache is disabled")
+    void shouldBypassDisabledCache() {
+        // Given
+        VerifiedTokenCache disabled = new VerifiedTokenCache(jwtTokenProvider, new SimpleMeterRegistry(), false,
+                1000, Duration.ofMinutes(15));
+        String token = token(TokenClaims.TYPE_ACCESS, Instant.now().plusSeconds(600));
+
+        // When
+        disabled.getOrVerify(token);
+        disabled.getOrVerify(token);
+
+        // Then
+        verify(jwtTokenProvider, times(2)).parseAndValidate(token);
+    }
+
+    private String token(String type, Instant expiresAt) {
+        return codec.encode(claims(type, expiresAt));
+    }
+
+    private static TokenClaims claims(String type, Instant expiresAt) {
+        Instant now = Instant.now();
+        return TokenClaims.builder()
+                .tokenId("token-1")
+                .userId("42")
+                .email("traveler@example.com")
+                .roles(List.of("ROLE_TRAVELER"))
+                .type(type)
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
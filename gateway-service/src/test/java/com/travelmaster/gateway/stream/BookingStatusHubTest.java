@@ -0,0 +1,142 @@
+package com.travelmaster.gateway.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookingStatusHub Unit Tests")
+class BookingStatusHubTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingStatusHub hub;
+
+    @AfterEach
+    void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    @DisplayName("Should coalesce updates of one booking into its latest state")
+    void shouldCoalesceUpdates() {
+        // Given - flush реже, чем приходят обновления
+        hub = hub(2, 32, Duration.ofMillis(200), Duration.ofHours(1));
+        Flux<ServerSentEvent<Object>> stream = hub.subscribe("42", null).orElseThrow();
+
+        // When
+        hub.publish("42", update(1L, "PENDING", null));
+        hub.publish("42", update(1L, "CONFIRMED", null));
+        hub.publish("42", update(1L, null, "PAID"));
+        List<ServerSentEvent<Object>> events = stream.take(2).collectList().block(WAIT);
+
+        // Then
+        assertEquals("connected", events.get(0).event());
+        ServerSentEvent<Object> status = events.get(1);
+        assertEquals(BookingStatusHub.STATUS_EVENT, status.event());
+        assertNull(status.id());
+        BookingStatusUpdate data = (BookingStatusUpdate) status.data();
+        assertEquals("CONFIRMED", data.getStatus());
+        assertEquals("PAID", data.getPaymentStatus());
+        assertEquals(2.0, updates("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Should send resync and keep newest bookings when pending overflows")
+    void shouldResyncOnOverflow() {
+        // Given
+        hub = hub(2, 2, Duration.ofMillis(200), Duration.ofHours(1));
+        Flux<ServerSentEvent<Object>> stream = hub.subscribe("42", null).orElseThrow();
+
+        // When
+        hub.publish("42", update(1L, "PENDING", null));
+        hub.publish("42", update(2L, "PENDING", null));
+        hub.publish("42", update(3L, "PENDING", null));
+        List<ServerSentEvent<Object>> events = stream.take(4).collectList().block(WAIT);
+
+        // Then
+        assertEquals(BookingStatusHub.RESYNC_EVENT, events.get(1).event());
+        assertEquals(2L, ((BookingStatusUpdate) events.get(2).data()).getBookingId());
+        assertEquals(3L, ((BookingStatusUpdate) events.get(3).data()).getBookingId());
+        assertEquals(1.0, updates("overflow"));
+    }
+
+    @Test
+    @DisplayName("Should deliver only to connections of the same user")
+    void shouldRouteByUser() {
+        // Given
+        hub = hub(2, 32, Duration.ofMillis(20), Duration.ofHours(1));
+        Flux<ServerSentEvent<Object>> own = hub.subscribe("42", null).orElseThrow();
+        Flux<ServerSentEvent<Object>> other = hub.subscribe("7", null).orElseThrow();
+
+        // When
+        hub.publish("42", update(1L, "CONFIRMED", null));
+        List<ServerSentEvent<Object>> ownEvents = own.take(2).collectList().block(WAIT);
+        List<ServerSentEvent<Object>> otherEvents = other.take(Duration.ofMillis(200)).collectList().block(WAIT);
+
+        // Then
+        assertEquals(1L, ((BookingStatusUpdate) ownEvents.get(1).data()).getBookingId());
+        assertEquals(1, otherEvents.size());
+    }
+
+    @Test
+    @DisplayName("Should limit connections per user and free slot on disconnect")
+    void shouldLimitConnectionsPerUser() {
+        // Given
+        hub = hub(2, 32, Duration.ofMillis(200), Duration.ofHours(1));
+        Flux<ServerSentEvent<Object>> first = hub.subscribe("42", null).orElseThrow();
+        hub.subscribe("42", null).orElseThrow();
+
+        // When
+        Optional<Flux<ServerSentEvent<Object>>> third = hub.subscribe("42", null);
+        first.take(1).blockLast(WAIT);
+
+        // Then
+        assertTrue(third.isEmpty());
+        assertTrue(hub.subscribe("42", null).isPresent());
+        assertTrue(hub.subscribe("7", null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should close connection when token expires")
+    void shouldCloseExpiredConnection() {
+        // Given
+        hub = hub(2, 32, Duration.ofMillis(200), Duration.ofMillis(20));
+        Flux<ServerSentEvent<Object>> stream = hub.subscribe("42", Instant.now().plusMillis(50)).orElseThrow();
+
+        // When
+        List<ServerSentEvent<Object>> events = stream.collectList().block(WAIT);
+
+        // Then - поток завершился сам: connected и, возможно, ping до истечения
+        assertEquals("connected", events.get(0).event());
+        assertEquals(0.0, meterRegistry.get("gateway.booking_stream.connections").gauge().value());
+    }
+
+    private BookingStatusHub hub(int maxConnections, int maxPending, Duration flush, Duration heartbeat) {
+        return new BookingStatusHub(meterRegistry, maxConnections, maxPending, 16, flush, heartbeat,
+                Duration.ofMinutes(30));
+    }
+
+    private double updates(String result) {
+        return meterRegistry.get("gateway.booking_stream.updates").tag("result", result).counter().count();
+    }
+
+    private static BookingStatusUpdate update(Long bookingId, String status, String paymentStatus) {
+        return BookingStatusUpdate.builder()
+                .bookingId(bookingId)
+                .status(status)
+                .paymentStatus(paymentStatus)
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.travelmaster.gateway.stream;
+
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.gateway.security.TokenRevocationRegistry;
+import com.travelmaster.gateway.security.VerifiedTokenCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingStatusStreamHandler Unit Tests")
+class BookingStatusStreamHandlerTest {
+
+    private static final String TOKEN = "access-token";
+
+    @Mock
+    private BookingStatusHub hub;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    @InjectMocks
+    private BookingStatusStreamHandler handler;
+
+    @Test
+    @DisplayName("Should open stream with bearer token")
+    void shouldOpenStreamWithBearerToken() {
+        // Given
+        TokenClaims claims = authorized(Instant.now().plusSeconds(600));
+        when(hub.subscribe("42", claims.getExpiresAt())).thenReturn(Optional.of(Flux.empty()));
+
+        // When
+        ServerResponse response = handler.streamStatuses(MockServerRequest.builder()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(MediaType.TEXT_EVENT_STREAM, response.headers().getContentType());
+    }
+
+    @Test
+    @DisplayName("Should open stream with session cookie for EventSource")
+    void shouldOpenStreamWithCookie() {
+        // Given
+        TokenClaims claims = authorized(Instant.now().plusSeconds(600));
+        when(hub.subscribe("42", claims.getExpiresAt())).thenReturn(Optional.of(Flux.empty()));
+
+        // When
+        ServerResponse response = handler.streamStatuses(MockServerRequest.builder()
+                .cookie(new HttpCookie(BookingStatusStreamHandler.TOKEN_COOKIE, TOKEN))
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject stream without token")
+    void shouldRejectStreamWithoutToken() {
+        // When
+        ServerResponse response = handler.streamStatuses(MockServerRequest.builder().build()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, response.statusCode());
+        verifyNoInteractions(verifiedTokenCache, hub);
+    }
+
+    @Test
+    @DisplayName("Should reject stream with revoked token")
+    void shouldRejectRevokedToken() {
+        // Given
+        when(verifiedTokenCache.getOrVerify(TOKEN)).thenReturn(Optional.of(claims(Instant.now().plusSeconds(600))));
+        when(revocationRegistry.isRevoked(any())).thenReturn(Mono.just(true));
+
+        // When
+        ServerResponse response = handler.streamStatuses(MockServerRequest.builder()
+                .cookie(new HttpCookie(BookingStatusStreamHandler.TOKEN_COOKIE, TOKEN))
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, response.statusCode());
+        verifyNoInteractions(hub);
+    }
+
+    @Test
+    @DisplayName("Should answer 429 when user has too many streams")
+    void shouldLimitStreams() {
+        // Given
+        TokenClaims claims = authorized(Instant.now().plusSeconds(600));
+        when(hub.subscribe("42", claims.getExpiresAt())).thenReturn(Optional.empty());
+
+        // When
+        ServerResponse response = handler.streamStatuses(MockServerRequest.builder()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should issue HttpOnly stream cookie that expires with token")
+    void shouldIssueSessionCookie() {
+        // Given
+        authorized(Instant.now().plusSeconds(600));
+
+        // When
+        ServerResponse response = handler.openSession(MockServerRequest.builder()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.NO_CONTENT, response.statusCode());
+        ResponseCookie cookie = response.cookies().getFirst(BookingStatusStreamHandler.TOKEN_COOKIE);
+        assertNotNull(cookie);
+        assertEquals(TOKEN, cookie.getValue());
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+        assertEquals("Strict", cookie.getSameSite());
+        assertEquals(BookingStatusStreamHandler.STREAM_PATH, cookie.getPath());
+        assertTrue(cookie.getMaxAge().compareTo(Duration.ofSeconds(600)) <= 0);
+        assertTrue(cookie.getMaxAge().compareTo(Duration.ofSeconds(590)) > 0);
+    }
+
+    @Test
+    @DisplayName("Should issue session only for bearer token, not for cookie")
+    void shouldRequireBearerForSession() {
+        // When
+        ServerResponse response = handler.openSession(MockServerRequest.builder()
+                .cookie(new HttpCookie(BookingStatusStreamHandler.TOKEN_COOKIE, TOKEN))
+                .build()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, response.statusCode());
+        assertTrue(response.cookies().isEmpty());
+        verifyNoInteractions(verifiedTokenCache);
+    }
+
+    private TokenClaims authorized(Instant expiresAt) {
+        TokenClaims claims = claims(expiresAt);
+        when(verifiedTokenCache.getOrVerify(TOKEN)).thenReturn(Optional.of(claims));
+        when(revocationRegistry.isRevoked(claims)).thenReturn(Mono.just(false));
+        return claims;
+    }
+
+    private static TokenClaims claims(Instant expiresAt) {
+        return TokenClaims.builder()
+                .tokenId("jti-1")
+                .userId("42")
+                .type("access")
+                .issuedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
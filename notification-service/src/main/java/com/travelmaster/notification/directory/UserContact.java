@@ -0,0 +1,22 @@
+package com.travelmaster.notification.directory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Контакты пользователя из topic user-contacts (см. UserContactEvent в user-service).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContact {
+    private Long userId;
+    private String email;
+    private String phoneNumber;
+    private String locale;
+    private Boolean enabled;
+    private Long updatedAt;
+}
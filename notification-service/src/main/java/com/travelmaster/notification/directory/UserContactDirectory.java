@@ -0,0 +1,184 @@
+package com.travelmaster.notification.directory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Локальный справочник контактов пользователей (userId -> email/телефон/язык).
+ *
+ * Материализуется из compacted topic user-contacts (см. UserContactListener), поэтому
+ * поиск адреса при обработке события - чтение из памяти, без вызова user-service.
+ *
+ * Если задан notification.contacts.snapshot-file, справочник вместе с offset
+ * периодически сохраняется на диск. После рестарта он загружается из файла, и topic
+ * дочитывается с сохранённых offset, а не с начала.
+ *
+ * Пока справочник не догнал topic, lookup ждёт готовности не дольше ready-timeout.
+ * Справочник готов, когда прочитаны все записи до end offset partition, зафиксированных
+ * при назначении (см. UserContactListener), даже если topic продолжает получать события.
+ */
+@Slf4j
+@Component
+public class UserContactDirectory implements DisposableBean {
+
+    private final Map<Long, UserContact> contacts = new ConcurrentHashMap<>();
+    // partition -> offset следующей непрочитанной записи
+    private final Map<Integer, Long> offsets = new ConcurrentHashMap<>();
+    // partition -> end offset, до которого нужно дочитать для готовности
+    private final Map<Integer, Long> endOffsets = new ConcurrentHashMap<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private final ObjectMapper objectMapper;
+    private final Path snapshotFile;
+    private final Duration readyTimeout;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public UserContactDirectory(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${notification.contacts.snapshot-file:}") String snapshotFile,
+            @Value("${notification.contacts.ready-timeout:30s}") Duration readyTimeout) {
+        this.objectMapper = objectMapper;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.readyTimeout = readyTimeout;
+
+        Gauge.builder("notification.contacts.size", contacts, Map::size)
+                .register(meterRegistry);
+        this.hitCounter = meterRegistry.counter("notification.contacts.lookups", "result", "hit");
+        this.missCounter = meterRegistry.counter("notification.contacts.lookups", "result", "miss");
+
+        loadSnapshot();
+    }
+
+    public Optional<UserContact> find(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        awaitReady();
+        UserContact contact = contacts.get(userId);
+        (contact != null ? hitCounter : missCounter).increment();
+        return Optional.ofNullable(contact);
+    }
+
+    void apply(int partition, long offset, Long userId, UserContact contact) {
+        if (contact == null) {
+            contacts.remove(userId);
+        } else {
+            contacts.put(userId, contact);
+        }
+        offsets.put(partition, offset + 1);
+        if (ready.getCount() > 0) {
+            markReadyIfCaughtUp();
+        }
+    }
+
+    /**
+     * Задаёт end offset partition, которые ещё нужно дочитать; пустая карта - справочник уже актуален.
+     */
+    void awaitOffsets(Map<Integer, Long> unreadEndOffsets) {
+        endOffsets.clear();
+        endOffsets.putAll(unreadEndOffsets);
+        markReadyIfCaughtUp();
+    }
+
+    /**
+     * Offset, с которого дочитывать partition после загрузки snapshot.
+     */
+    Optional<Long> snapshotOffset(int partition) {
+        return Optional.ofNullable(offsets.get(partition));
+    }
+
+    void markReady() {
+        if (ready.getCount() > 0) {
+            log.info("User contact directory is up to date: {} contacts", contacts.size());
+            ready.countDown();
+        }
+    }
+
+    private void markReadyIfCaughtUp() {
+        for (Map.Entry<Integer, Long> end : endOffsets.entrySet()) {
+            if (offsets.getOrDefault(end.getKey(), -1L) < end.getValue()) {
+                return;
+            }
+        }
+        markReady();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.contacts.snapshot-interval-ms:60000}")
+    public void saveSnapshot() {
+        if (snapshotFile == null || ready.getCount() > 0) {
+            return;
+        }
+        // Сначала offset, потом контакты: повторное чтение с offset идемпотентно
+        Snapshot snapshot = new Snapshot(new HashMap<>(offsets), new HashMap<>(contacts));
+        try {
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to save user contact snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        saveSnapshot();
+    }
+
+    private void awaitReady() {
+        try {
+            if (!ready.await(readyTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("User contact directory is still loading, lookup may miss");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(snapshotFile.toFile(), Snapshot.class);
+            contacts.putAll(snapshot.getContacts());
+            offsets.putAll(snapshot.getOffsets());
+            log.info("Loaded {} user contacts from snapshot", contacts.size());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable user contact snapshot: {}", e.getMessage());
+            contacts.clear();
+            offsets.clear();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Snapshot {
+        private Map<Integer, Long> offsets;
+        private Map<Long, UserContact> contacts;
+    }
+}
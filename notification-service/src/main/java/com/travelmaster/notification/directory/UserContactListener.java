@@ -0,0 +1,97 @@
+package com.travelmaster.notification.directory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer compacted topic user-contacts, наполняющий UserContactDirectory.
+ *
+ * Справочник нужен каждой реплике целиком, поэтому у каждой своя consumer group,
+ * а позиция чтения задаётся при назначении partition: с offset из snapshot или
+ * с начала topic. Тогда же запоминаются end offset partition: справочник готов, когда
+ * дочитан до них. Первое "простаивание" контейнера - запасной признак на случай, если
+ * end offset получить не удалось или хвост topic занят служебными записями.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserContactListener implements ConsumerSeekAware {
+
+    static final String LISTENER_ID = "user-contacts";
+    private static final Duration OFFSETS_TIMEOUT = Duration.ofSeconds(10);
+
+    private final UserContactDirectory directory;
+    private final ObjectMapper objectMapper;
+    private final ConsumerFactory<?, ?> consumerFactory;
+
+    @KafkaListener(id = LISTENER_ID, topics = "user-contacts",
+            groupId = "notification-contacts-${random.uuid}")
+    public void consumeContact(ConsumerRecord<String, String> record) {
+        try {
+            Long userId = Long.valueOf(record.key());
+            UserContact contact = record.value() != null
+                    ? objectMapper.readValue(record.value(), UserContact.class)
+                    : null;
+            directory.apply(record.partition(), record.offset(), userId, contact);
+        } catch (Exception e) {
+            log.error("Error processing user contact {}: {}", record.key(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> directory.snapshotOffset(partition.partition())
+                .ifPresentOrElse(
+                        offset -> callback.seek(partition.topic(), partition.partition(), offset),
+                        () -> callback.seekToBeginning(partition.topic(), partition.partition())));
+
+        Map<Integer, Long> unread = unreadEndOffsets(assignments.keySet());
+        if (unread != null) {
+            directory.awaitOffsets(unread);
+        }
+    }
+
+    /**
+     * End offset partition, у которых позиция старта (snapshot или начало topic) ещё не дошла до конца.
+     *
+     * @return null, если offset получить не удалось - тогда готовность определит idle
+     */
+    private Map<Integer, Long> unreadEndOffsets(Collection<TopicPartition> partitions) {
+        try (Consumer<?, ?> consumer = consumerFactory.createConsumer(null, LISTENER_ID + "-offsets", null)) {
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions, OFFSETS_TIMEOUT);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions, OFFSETS_TIMEOUT);
+            Map<Integer, Long> unread = new HashMap<>();
+            end.forEach((partition, endOffset) -> {
+                long start = directory.snapshotOffset(partition.partition()).orElse(beginning.get(partition));
+                if (start < endOffset) {
+                    unread.put(partition.partition(), endOffset);
+                }
+            });
+            return unread;
+        } catch (KafkaException e) {
+            log.warn("Failed to read user-contacts end offsets: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        directory.markReady();
+    }
+}
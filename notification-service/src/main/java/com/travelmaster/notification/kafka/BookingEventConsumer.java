@@ -1,6 +1,8 @@
 package com.travelmaster.notification.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmaster.notification.directory.UserContact;
+import com.travelmaster.notification.directory.UserContactDirectory;
 import com.travelmaster.notification.entity.Notification;
 import com.travelmaster.notification.entity.NotificationChannel;
 import com.travelmaster.notification.entity.NotificationType;
@@ -22,6 +24,7 @@ public class BookingEventConsumer {
 
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final UserContactDirectory contactDirectory;
 
     @KafkaListener(topics = "booking-events", groupId = "notification-service")
     public void consumeBookingEvent(String message) {
@@ -60,9 +63,18 @@ public class BookingEventConsumer {
         String bookingReference = getString(event, "bookingReference");
         Long bookingId = getLong(event, "bookingId");
 
+        UserContact contact = contactDirectory.find(userId)
+                .filter(c -> !Boolean.FALSE.equals(c.getEnabled()) && c.getEmail() != null)
+                .orElse(null);
+        if (contact == null) {
+            log.warn("No contact for user {}, skipping booking notification", userId);
+            return;
+        }
+
         Notification notification = Notification.builder()
                 .userId(userId)
-                .recipientEmail(getUserEmail(userId))
+                .recipientEmail(contact.getEmail())
+                .recipientPhone(contact.getPhoneNumber())
                 .channel(NotificationChannel.EMAIL)
                 .bookingId(bookingId)
                 .build();
@@ -134,11 +146,5 @@ public class BookingEventConsumer {
         Object value = map.get(key);
         return value != null ? value.toString() : null;
     }
-
-    private String getUserEmail(Long userId) {
-        // TODO: Получить email из User Service
-        // Пока используем заглушку
-        return "user" + userId + "@example.com";
-    }
 }
 
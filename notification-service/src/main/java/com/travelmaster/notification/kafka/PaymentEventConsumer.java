@@ -1,6 +1,8 @@
 package com.travelmaster.notification.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmaster.notification.directory.UserContact;
+import com.travelmaster.notification.directory.UserContactDirectory;
 import com.travelmaster.notification.entity.Notification;
 import com.travelmaster.notification.entity.NotificationChannel;
 import com.travelmaster.notification.entity.NotificationType;
@@ -23,6 +25,7 @@ public class PaymentEventConsumer {
 
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final UserContactDirectory contactDirectory;
 
     @KafkaListener(topics = "payment-events", groupId = "notification-service")
     public void consumePaymentEvent(String message) {
@@ -57,9 +60,18 @@ public class PaymentEventConsumer {
         Long paymentId = getLong(event, "paymentId");
         Long bookingId = getLong(event, "bookingId");
 
+        UserContact contact = contactDirectory.find(userId)
+                .filter(c -> !Boolean.FALSE.equals(c.getEnabled()) && c.getEmail() != null)
+                .orElse(null);
+        if (contact == null) {
+            log.warn("No contact for user {}, skipping payment notification", userId);
+            return;
+        }
+
         Notification notification = Notification.builder()
                 .userId(userId)
-                .recipientEmail(getUserEmail(userId))
+                .recipientEmail(contact.getEmail())
+                .recipientPhone(contact.getPhoneNumber())
                 .channel(NotificationChannel.EMAIL)
                 .paymentId(paymentId)
                 .bookingId(bookingId)
@@ -126,10 +138,5 @@ public class PaymentEventConsumer {
         }
         return BigDecimal.ZERO;
     }
-
-    private String getUserEmail(Long userId) {
-        // TODO: Получить email из User Service
-        return "user" + userId + "@example.com";
-    }
 }
 
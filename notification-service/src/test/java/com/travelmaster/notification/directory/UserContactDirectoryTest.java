@@ -0,0 +1,132 @@
+package com.travelmaster.notification.directory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserContactDirectory Unit Tests")
+class UserContactDirectoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Path snapshotFile;
+    private UserContactDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = tempDir.resolve("contacts.json");
+        directory = newDirectory();
+    }
+
+    @Test
+    @DisplayName("Should become ready only after reading up to captured end offsets")
+    void shouldBecomeReadyAtCapturedEndOffsets() {
+        // Given - при назначении в partition 0 три непрочитанные записи
+        directory.awaitOffsets(Map.of(0, 3L));
+        directory.apply(0, 0, 1L, contact(1L));
+        directory.apply(0, 1, 2L, contact(2L));
+
+        // When - snapshot пишется только готовым справочником
+        directory.saveSnapshot();
+
+        // Then
+        assertFalse(Files.exists(snapshotFile));
+
+        // When - дочитана последняя запись до зафиксированного end offset
+        directory.apply(0, 2, 3L, contact(3L));
+        directory.saveSnapshot();
+
+        // Then
+        assertTrue(Files.exists(snapshotFile));
+    }
+
+    @Test
+    @DisplayName("Should wait for every partition with unread records")
+    void shouldWaitForEveryPartition() {
+        // Given
+        directory.awaitOffsets(Map.of(0, 1L, 1, 2L));
+        directory.apply(0, 0, 1L, contact(1L));
+        directory.apply(1, 0, 2L, contact(2L));
+
+        // When
+        directory.saveSnapshot();
+
+        // Then
+        assertFalse(Files.exists(snapshotFile));
+        directory.apply(1, 1, 3L, contact(3L));
+        directory.saveSnapshot();
+        assertTrue(Files.exists(snapshotFile));
+    }
+
+    @Test
+    @DisplayName("Should be ready at once when nothing is left to read")
+    void shouldBeReadyWhenNothingUnread() {
+        // When
+        directory.awaitOffsets(Map.of());
+        directory.saveSnapshot();
+
+        // Then
+        assertTrue(Files.exists(snapshotFile));
+    }
+
+    @Test
+    @DisplayName("Should remove contact on tombstone")
+    void shouldRemoveContactOnTombstone() {
+        // Given
+        directory.markReady();
+        directory.apply(0, 0, 1L, contact(1L));
+        assertTrue(directory.find(1L).isPresent());
+
+        // When
+        directory.apply(0, 1, 1L, null);
+
+        // Then
+        assertEquals(Optional.empty(), directory.find(1L));
+        assertEquals(Optional.of(2L), directory.snapshotOffset(0));
+    }
+
+    @Test
+    @DisplayName("Should restore contacts and next offsets from snapshot")
+    void shouldRestoreFromSnapshot() {
+        // Given
+        directory.markReady();
+        directory.apply(0, 4, 1L, contact(1L));
+        directory.saveSnapshot();
+
+        // When
+        UserContactDirectory restored = newDirectory();
+        restored.markReady();
+
+        // Then
+        assertEquals(Optional.of(5L), restored.snapshotOffset(0));
+        assertEquals(Optional.empty(), restored.snapshotOffset(1));
+        assertEquals("user1@example.com", restored.find(1L).map(UserContact::getEmail).orElse(null));
+    }
+
+    private UserContactDirectory newDirectory() {
+        return new UserContactDirectory(objectMapper, new SimpleMeterRegistry(),
+                snapshotFile.toString(), Duration.ofMillis(10));
+    }
+
+    private static UserContact contact(Long userId) {
+        return UserContact.builder()
+                .userId(userId)
+                .email("user" + userId + "@example.com")
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.travelmaster.notification.directory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserContactListener Unit Tests")
+class UserContactListenerTest {
+
+    private static final TopicPartition P0 = new TopicPartition("user-contacts", 0);
+    private static final TopicPartition P1 = new TopicPartition("user-contacts", 1);
+
+    @Mock
+    private UserContactDirectory directory;
+
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+
+    @Mock
+    private Consumer<String, String> offsetsConsumer;
+
+    @Mock
+    private ConsumerSeekCallback callback;
+
+    private UserContactListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new UserContactListener(directory, new ObjectMapper(), consumerFactory);
+    }
+
+    @Test
+    @DisplayName("Should seek to snapshot offset or beginning and await unread end offsets")
+    void shouldSeekAndCaptureEndOffsets() {
+        // Given - partition 0 дочитывается со snapshot, partition 1 с начала
+        when(directory.snapshotOffset(0)).thenReturn(Optional.of(7L));
+        when(directory.snapshotOffset(1)).thenReturn(Optional.empty());
+        when(consumerFactory.createConsumer(isNull(), eq("user-contacts-offsets"), isNull()))
+                .thenReturn(offsetsConsumer);
+        when(offsetsConsumer.beginningOffsets(anyCollection(), any(Duration.class)))
+                .thenReturn(Map.of(P0, 0L, P1, 0L));
+        when(offsetsConsumer.endOffsets(anyCollection(), any(Duration.class)))
+                .thenReturn(Map.of(P0, 7L, P1, 3L));
+
+        // When
+        listener.onPartitionsAssigned(Map.of(P0, 0L, P1, 0L), callback);
+
+        // Then - partition 0 уже дочитана до end offset и не ждётся
+        verify(callback).seek("user-contacts", 0, 7L);
+        verify(callback).seekToBeginning("user-contacts", 1);
+        verify(directory).awaitOffsets(Map.of(1, 3L));
+        verify(offsetsConsumer).close();
+    }
+
+    @Test
+    @DisplayName("Should leave readiness to idle event when end offsets are unavailable")
+    void shouldFallBackToIdleWhenOffsetsFail() {
+        // Given
+        when(directory.snapshotOffset(0)).thenReturn(Optional.empty());
+        when(consumerFactory.createConsumer(isNull(), eq("user-contacts-offsets"), isNull()))
+                .thenReturn(offsetsConsumer);
+        when(offsetsConsumer.beginningOffsets(anyCollection(), any(Duration.class)))
+                .thenThrow(new KafkaException("broker unavailable"));
+
+        // When
+        listener.onPartitionsAssigned(Map.of(P0, 0L), callback);
+        listener.onIdle(mock(ListenerContainerIdleEvent.class));
+
+        // Then
+        verify(directory, never()).awaitOffsets(any());
+        verify(directory).markReady();
+    }
+
+    @Test
+    @DisplayName("Should apply contact record to directory")
+    void shouldApplyContact() {
+        // Given
+        String value = "{\"userId\":42,\"email\":\"user@example.com\",\"enabled\":true}";
+
+        // When
+        listener.consumeContact(new ConsumerRecord<>("user-contacts", 1, 15L, "42", value));
+
+        // Then
+        verify(directory).apply(eq(1), eq(15L), eq(42L),
+                argThat(contact -> "user@example.com".equals(contact.getEmail())));
+    }
+
+    @Test
+    @DisplayName("Should pass tombstone as removal")
+    void shouldApplyTombstone() {
+        // When
+        listener.consumeContact(new ConsumerRecord<>("user-contacts", 0, 3L, "42", null));
+
+        // Then
+        verify(directory).apply(0, 3L, 42L, null);
+    }
+
+    @Test
+    @DisplayName("Should skip malformed record without failing listener")
+    void shouldSkipMalformedRecord() {
+        // When
+        listener.consumeContact(new ConsumerRecord<>("user-contacts", 0, 3L, "42", "{not json"));
+
+        // Then
+        verify(directory, never()).apply(anyInt(), anyLong(), any(), any());
+        verifyNoMoreInteractions(directory);
+    }
+}
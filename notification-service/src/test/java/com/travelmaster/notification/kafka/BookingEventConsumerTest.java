@@ -0,0 +1,96 @@
+package com.travelmaster.notification.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmaster.notification.directory.UserContact;
+import com.travelmaster.notification.directory.UserContactDirectory;
+import com.travelmaster.notification.entity.NotificationChannel;
+import com.travelmaster.notification.entity.NotificationType;
+import com.travelmaster.notification.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingEventConsumer Unit Tests")
+class BookingEventConsumerTest {
+
+    private static final String CREATED_EVENT =
+            "{\"bookingId\":10,\"userId\":42,\"bookingReference\":\"TM-10\",\"createdAt\":\"2026-07-01T10:00:00\"}";
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private UserContactDirectory contactDirectory;
+
+    private BookingEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new BookingEventConsumer(notificationService, new ObjectMapper(), contactDirectory);
+    }
+
+    @Test
+    @DisplayName("Should send notification to contact from directory")
+    void shouldNotifyKnownContact() {
+        // Given
+        when(contactDirectory.find(42L)).thenReturn(Optional.of(contact(true, "user@example.com")));
+
+        // When
+        consumer.consumeBookingEvent(CREATED_EVENT);
+
+        // Then
+        verify(notificationService).createAndSend(argThat(notification ->
+                notification.getType() == NotificationType.BOOKING_CREATED
+                        && notification.getChannel() == NotificationChannel.EMAIL
+                        && "user@example.com".equals(notification.getRecipientEmail())
+                        && notification.getBookingId() == 10L
+                        && notification.getContent().contains("TM-10")));
+    }
+
+    @Test
+    @DisplayName("Should skip notification when contact is missing")
+    void shouldSkipMissingContact() {
+        // Given
+        when(contactDirectory.find(42L)).thenReturn(Optional.empty());
+
+        // When
+        consumer.consumeBookingEvent(CREATED_EVENT);
+
+        // Then
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("Should skip notification for disabled user or contact without email")
+    void shouldSkipUnusableContact() {
+        // Given
+        when(contactDirectory.find(42L))
+                .thenReturn(Optional.of(contact(false, "user@example.com")))
+                .thenReturn(Optional.of(contact(true, null)));
+
+        // When
+        consumer.consumeBookingEvent(CREATED_EVENT);
+        consumer.consumeBookingEvent(CREATED_EVENT);
+
+        // Then
+        verify(contactDirectory, times(2)).find(42L);
+        verify(notificationService, never()).createAndSend(any());
+    }
+
+    private static UserContact contact(boolean enabled, String email) {
+        return UserContact.builder()
+                .userId(42L)
+                .email(email)
+                .enabled(enabled)
+                .build();
+    }
+}
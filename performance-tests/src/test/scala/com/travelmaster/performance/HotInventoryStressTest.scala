@@ -0,0 +1,43 @@
+package com.travelmaster.performance
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+
+/**
+ * Пропускная способность резервирований одной поездки в режиме горячего инвентаря.
+ *
+ * Подготовка: trip.hot-inventory.enabled=true и поездка с большим запасом мест,
+ * переведённая в горячий режим:
+ *   UPDATE trips SET hot_inventory = TRUE, total_seats = 1000000, available_seats = 1000000 WHERE id = 1;
+ * Резервирования подтверждаются из памяти владельца, поэтому нагрузка задаётся темпом
+ * запросов (open model), а результат - reservations/s в отчёте Gatling ("Reserve").
+ * Для сравнения - тот же прогон при hot_inventory = FALSE (условный UPDATE в БД).
+ */
+class HotInventoryStressTest extends Simulation {
+
+  val tripId = Integer.getInteger("tripId", 1).intValue
+  val targetRate = Integer.getInteger("rate", 5000).intValue
+
+  val httpProtocol = http
+    .baseUrl(System.getProperty("baseUrl", "http://localhost:8082")) // Trip Service URL
+    .acceptHeader("application/json")
+    .shareConnections
+
+  val reserveScenario = scenario("Reserve Hot Trip")
+    .exec(http("Reserve")
+      .post(s"/api/v1/trips/$tripId/reserve")
+      .queryParam("seats", 1)
+      .check(status.in(204, 409)))
+
+  setUp(
+    reserveScenario.inject(
+      rampUsersPerSec(100).to(targetRate).during(1.minutes),
+      constantUsersPerSec(targetRate).during(2.minutes)
+    )
+  ).protocols(httpProtocol)
+   .assertions(
+     details("Reserve").responseTime.percentile3.lt(100),
+     details("Reserve").successfulRequests.percent.gt(99.9)
+   )
+}
@@ -0,0 +1,48 @@
+package com.travelmaster.performance
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+
+/**
+ * Конкуренция за места одной популярной поездки (Trip Service).
+ *
+ * Все виртуальные пользователи резервируют и сразу освобождают места одной
+ * поездки (-DtripId), поэтому запас мест не исчерпывается и нагрузка держится
+ * на одной строке trips. 204 - места зарезервированы, 409 - мест не хватило;
+ * оба ответа ожидаемы, любой 5xx - ошибка. До перехода на условный UPDATE
+ * под такой нагрузкой резервирование падало на optimistic lock (500).
+ */
+class SeatReservationContentionTest extends Simulation {
+
+  val tripId = Integer.getInteger("tripId", 1).intValue
+  val seatsPerBooking = Integer.getInteger("seats", 1).intValue
+
+  val httpProtocol = http
+    .baseUrl(System.getProperty("baseUrl", "http://localhost:8082")) // Trip Service URL
+    .acceptHeader("application/json")
+
+  val reserveReleaseScenario = scenario("Reserve Hot Trip")
+    .exec(http("Reserve")
+      .post(s"/api/v1/trips/$tripId/reserve")
+      .queryParam("seats", seatsPerBooking)
+      .check(status.in(204, 409).saveAs("reserveStatus")))
+    .doIf(session => session("reserveStatus").as[Int] == 204) {
+      exec(http("Release")
+        .post(s"/api/v1/trips/$tripId/release")
+        .queryParam("seats", seatsPerBooking)
+        .check(status.is(204)))
+    }
+
+  setUp(
+    reserveReleaseScenario.inject(
+      rampConcurrentUsers(1).to(50).during(30.seconds),
+      constantConcurrentUsers(50).during(1.minutes),
+      rampConcurrentUsers(50).to(200).during(1.minutes)
+    )
+  ).protocols(httpProtocol)
+   .assertions(
+     details("Reserve").responseTime.percentile3.lt(200),
+     global.successfulRequests.percent.gt(99.9)
+   )
+}
@@ -0,0 +1,59 @@
+package com.travelmaster.performance
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+
+/**
+ * Login latency под конкурентной нагрузкой (User Service).
+ *
+ * Сначала регистрирует пул тестовых пользователей (повторный запуск получает 400 -
+ * пользователь уже есть), затем входит ими с нарастающей конкурентностью.
+ * Сравнение "до/после" - запуском на соответствующих версиях user-service;
+ * latency входа ограничена снизу BCrypt, поэтому смотреть стоит на p95/p99
+ * и на user.password_hash.wait в Prometheus.
+ */
+class UserLoginLoadTest extends Simulation {
+
+  val userCount = Integer.getInteger("users", 200).intValue
+  val password = "LoadTest123!"
+
+  val httpProtocol = http
+    .baseUrl(System.getProperty("baseUrl", "http://localhost:8081")) // User Service URL
+    .acceptHeader("application/json")
+    .contentTypeHeader("application/json")
+
+  val userFeeder = (1 to userCount)
+    .map(i => Map("email" -> s"loadtest-$i@travelmaster.test"))
+    .toIndexedSeq
+
+  val registerScenario = scenario("Register Test Users")
+    .feed(userFeeder.queue)
+    .exec(http("Register")
+      .post("/api/v1/auth/register")
+      .body(StringBody(s"""{"email":"#{email}","password":"$password","firstName":"Load","lastName":"Test"}"""))
+      .check(status.in(201, 400)))
+
+  val loginScenario = scenario("Login")
+    .feed(userFeeder.circular)
+    .exec(http("Login")
+      .post("/api/v1/auth/login")
+      .body(StringBody(s"""{"email":"#{email}","password":"$password"}"""))
+      .check(status.is(200))
+      .check(jsonPath("$.accessToken").exists))
+
+  setUp(
+    registerScenario.inject(atOnceUsers(userCount))
+      .andThen(
+        loginScenario.inject(
+          rampConcurrentUsers(1).to(50).during(1.minutes),
+          constantConcurrentUsers(50).during(2.minutes),
+          rampConcurrentUsers(50).to(100).during(1.minutes)
+        )
+      )
+  ).protocols(httpProtocol)
+   .assertions(
+     details("Login").responseTime.percentile3.lt(1000),
+     details("Login").successfulRequests.percent.gt(99)
+   )
+}
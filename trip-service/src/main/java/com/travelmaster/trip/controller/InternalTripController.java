@@ -0,0 +1,75 @@
+package com.travelmaster.trip.controller;
+
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.inventory.HotInventory;
+import com.travelmaster.trip.inventory.HotInventoryClient;
+import com.travelmaster.trip.service.TripService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Служебные операции с местами для booking-service и экземпляров trip-service.
+ *
+ * Путь /internal не маршрутизируется gateway: клиенты меняют места только через
+ * бронирование или удержание (SeatHoldController).
+ */
+@RestController
+@RequestMapping("/internal/v1/trips")
+@RequiredArgsConstructor
+@Tag(name = "Trips (internal)", description = "Служебное резервирование мест, недоступно через gateway")
+public class InternalTripController {
+
+    private final TripService tripService;
+    private final HotInventory hotInventory;
+    private final HotInventoryClient hotInventoryClient;
+
+    @PostMapping("/{id}/reserve")
+    @Operation(summary = "Зарезервировать места (409 - мест недостаточно, 404 - поездка не найдена)")
+    public ResponseEntity<Void> reserveSeats(
+            @PathVariable Long id,
+            @RequestParam int seats,
+            @RequestHeader(value = HotInventoryClient.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        if (seats < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Горячая поездка резервируется из памяти без транзакции и соединения с БД
+        SeatReservationResult result = hotInventory.reserve(id, seats)
+                .orElseGet(() -> tripService.reserveSeats(id, seats));
+        if (result == SeatReservationResult.REMOTE && !forwarded) {
+            result = hotInventoryClient.reserve(id, seats);
+        }
+        return toResponse(result);
+    }
+
+    @PostMapping("/{id}/release")
+    @Operation(summary = "Освободить ранее зарезервированные места")
+    public ResponseEntity<Void> releaseSeats(
+            @PathVariable Long id,
+            @RequestParam int seats,
+            @RequestHeader(value = HotInventoryClient.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        if (seats < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        SeatReservationResult result = hotInventory.release(id, seats)
+                .orElseGet(() -> tripService.releaseSeats(id, seats));
+        if (result == SeatReservationResult.REMOTE && !forwarded) {
+            result = hotInventoryClient.release(id, seats);
+        }
+        return toResponse(result);
+    }
+
+    private static ResponseEntity<Void> toResponse(SeatReservationResult result) {
+        HttpStatus status = switch (result) {
+            case RESERVED, RELEASED -> HttpStatus.NO_CONTENT;
+            case INSUFFICIENT_SEATS -> HttpStatus.CONFLICT;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            // REMOTE здесь - владелец горячей поездки сменился во время переадресации
+            case REMOTE, UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+        return ResponseEntity.status(status).build();
+    }
+}
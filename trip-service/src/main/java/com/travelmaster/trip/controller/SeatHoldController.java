@@ -0,0 +1,75 @@
+package com.travelmaster.trip.controller;
+
+import com.travelmaster.common.dto.ErrorResponse;
+import com.travelmaster.trip.dto.SeatHoldRequest;
+import com.travelmaster.trip.dto.SeatHoldResponse;
+import com.travelmaster.trip.hold.SeatHoldException;
+import com.travelmaster.trip.service.SeatHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Удержания доступны только аутентифицированному пользователю: gateway проверяет JWT
+ * и передаёт его id в X-User-Id (клиентский заголовок с тем же именем отбрасывается).
+ */
+@RestController
+@RequestMapping("/api/v1/trips/{tripId}/holds")
+@RequiredArgsConstructor
+@Tag(name = "Seat holds", description = "Удержание мест на время оформления заказа")
+public class SeatHoldController {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    private final SeatHoldService seatHoldService;
+
+    @PostMapping
+    @Operation(summary = "Удержать места на срок ttlSeconds (409 - мест недостаточно)")
+    public ResponseEntity<SeatHoldResponse> createHold(
+            @PathVariable Long tripId,
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+            @Valid @RequestBody SeatHoldRequest request) {
+        SeatHoldResponse response = seatHoldService.createHold(tripId, requireUser(userId), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    @Operation(summary = "Подтвердить удержание (410 - срок истёк)")
+    public ResponseEntity<SeatHoldResponse> confirmHold(
+            @PathVariable Long tripId,
+            @PathVariable UUID holdId,
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long userId) {
+        return ResponseEntity.ok(seatHoldService.confirmHold(tripId, holdId, requireUser(userId)));
+    }
+
+    @PostMapping("/{holdId}/release")
+    @Operation(summary = "Отменить удержание и вернуть места")
+    public ResponseEntity<SeatHoldResponse> releaseHold(
+            @PathVariable Long tripId,
+            @PathVariable UUID holdId,
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long userId) {
+        return ResponseEntity.ok(seatHoldService.releaseHold(tripId, holdId, requireUser(userId)));
+    }
+
+    private static Long requireUser(Long userId) {
+        if (userId == null) {
+            throw new SeatHoldException(HttpStatus.UNAUTHORIZED, "Удержание мест требует аутентификации");
+        }
+        return userId;
+    }
+
+    @ExceptionHandler(SeatHoldException.class)
+    public ResponseEntity<ErrorResponse> handleSeatHold(SeatHoldException ex, HttpServletRequest request) {
+        HttpStatus status = ex.getStatus();
+        return ResponseEntity.status(status)
+                .body(ErrorResponse.of(status.value(), status.getReasonPhrase(), ex.getMessage(),
+                        request.getRequestURI()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.travelmaster.trip.controller;
 
 import com.travelmaster.common.dto.PageResponse;
+import com.travelmaster.trip.dto.PlaceSuggestion;
 import com.travelmaster.trip.dto.TripResponse;
 import com.travelmaster.trip.dto.TripSearchRequest;
+import com.travelmaster.trip.dto.TripSearchResponse;
 import com.travelmaster.trip.service.TripService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/trips")
 @RequiredArgsConstructor
@@ -20,12 +24,12 @@ public class TripController {
     private final TripService tripService;
 
     @PostMapping("/search")
-    @Operation(summary = "Поиск поездок")
-    public ResponseEntity<PageResponse<TripResponse>> searchTrips(
+    @Operation(summary = "Поиск поездок (facets = true - счётчики фильтров с первой страницей)")
+    public ResponseEntity<TripSearchResponse> searchTrips(
             @Valid @RequestBody TripSearchRequest request,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        PageResponse<TripResponse> response = tripService.searchTrips(request, page, size);
+        TripSearchResponse response = tripService.search(request, page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -38,6 +42,14 @@ public class TripController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/places/suggest")
+    @Operation(summary = "Подсказки мест отправления и назначения по префиксу")
+    public ResponseEntity<List<PlaceSuggestion>> suggestPlaces(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tripService.suggestPlaces(q, limit));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить поездку по ID")
     public ResponseEntity<TripResponse> getTripById(@PathVariable Long id) {
@@ -52,4 +64,3 @@ public class TripController {
         return ResponseEntity.ok(count);
     }
 }
-
@@ -0,0 +1,18 @@
+package com.travelmaster.trip.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlaceSuggestion {
+
+    private String name;
+
+    // Доступные поездки из/в это место - вес подсказки
+    private long tripCount;
+}
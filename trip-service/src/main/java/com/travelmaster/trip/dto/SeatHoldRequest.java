@@ -0,0 +1,23 @@
+package com.travelmaster.trip.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRequest {
+
+    @NotNull(message = "Количество мест обязательно")
+    @Min(value = 1, message = "Минимум 1 место")
+    private Integer seats;
+
+    // Без значения - trip.holds.default-ttl, не больше trip.holds.max-ttl
+    @Min(value = 1, message = "Срок удержания - минимум 1 секунда")
+    private Integer ttlSeconds;
+}
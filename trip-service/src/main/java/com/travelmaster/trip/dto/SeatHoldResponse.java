@@ -0,0 +1,22 @@
+package com.travelmaster.trip.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponse {
+
+    private UUID holdId;
+    private Long tripId;
+    private Integer seats;
+    private String status;
+    private LocalDateTime expiresAt;
+}
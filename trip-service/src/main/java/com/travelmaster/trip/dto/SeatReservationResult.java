@@ -0,0 +1,13 @@
+package com.travelmaster.trip.dto;
+
+/**
+ * Исход изменения мест поездки; контроллер отображает его в HTTP-статус.
+ */
+public enum SeatReservationResult {
+    RESERVED,
+    RELEASED,
+    INSUFFICIENT_SEATS, // мест меньше запрошенного или поездка не в продаже
+    NOT_FOUND,
+    REMOTE,             // местами горячей поездки распоряжается другой экземпляр
+    UNAVAILABLE         // горячий режим переключается или лог недоступен - повторить позже
+}
@@ -0,0 +1,53 @@
+package com.travelmaster.trip.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Счётчики фильтров для первой страницы поиска.
+ *
+ * Ценовые диапазоны считаются без учёта minPrice/maxPrice запроса, чтобы UI показывал,
+ * сколько поездок появится при смене диапазона; провайдеры и часы - по найденным поездкам.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripSearchFacets {
+
+    private List<PriceBand> priceBands;
+
+    // По убыванию числа поездок
+    private List<ProviderCount> providers;
+
+    // Индекс - час отправления 0..23
+    private int[] departureHours;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBand {
+
+        private BigDecimal from;
+
+        // null - без верхней границы
+        private BigDecimal to;
+
+        private int count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProviderCount {
+
+        private String provider;
+
+        private int count;
+    }
+}
@@ -38,5 +38,7 @@ public class TripSearchRequest {
     private String sortBy = "price"; // price, departureDate, duration
     
     private String sortDirection = "ASC"; // ASC, DESC
+
+    private boolean facets; // true - счётчики фильтров вместе с первой страницей
 }
 
@@ -0,0 +1,26 @@
+package com.travelmaster.trip.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.travelmaster.common.dto.PageResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ответ поиска: поля страницы на верхнем уровне (как у PageResponse) и фасеты,
+ * если они запрошены. Без фасетов JSON совпадает с прежним ответом.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripSearchResponse {
+
+    @JsonUnwrapped
+    private PageResponse<TripResponse> page;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TripSearchFacets facets;
+}
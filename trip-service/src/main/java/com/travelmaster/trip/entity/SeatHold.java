@@ -0,0 +1,72 @@
+package com.travelmaster.trip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Удержание мест поездки на время оформления заказа.
+ * Статус меняют только условные UPDATE из SeatHoldRepository.
+ *
+ * id назначается приложением; Persistable избавляет save() от лишнего SELECT перед INSERT.
+ */
+@Entity
+@Table(name = "seat_holds")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHold implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "trip_id", nullable = false)
+    private Long tripId;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    // Пользователь, создавший удержание; только он подтверждает и отменяет его
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SeatHoldStatus status;
+
+    // Места отменённого или истёкшего удержания ещё не вернулись поездке
+    @Column(name = "return_pending", nullable = false)
+    @Builder.Default
+    private Boolean returnPending = false;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Transient
+    @Builder.Default
+    private boolean created = true;
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        created = false;
+    }
+}
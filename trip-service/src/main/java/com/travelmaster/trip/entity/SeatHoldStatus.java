@@ -0,0 +1,8 @@
+package com.travelmaster.trip.entity;
+
+public enum SeatHoldStatus {
+    HELD,         // Места удержаны до expires_at
+    CONFIRMED,    // Удержание подтверждено, места остаются за заказом
+    RELEASED,     // Отменено клиентом, места возвращены
+    EXPIRED       // Истёк срок, места возвращены
+}
@@ -49,6 +49,10 @@ public class Trip {
     @Column(name = "return_date")
     private LocalDateTime returnDate;
 
+    // Вычисляется БД (generated column), нужен для сортировки поиска по длительности
+    @Column(name = "duration_seconds", insertable = false, updatable = false)
+    private Long durationSeconds;
+
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
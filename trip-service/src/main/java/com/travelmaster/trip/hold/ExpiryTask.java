@@ -0,0 +1,27 @@
+package com.travelmaster.trip.hold;
+
+import java.util.UUID;
+
+/**
+ * Таймер истечения одного удержания. Отмена только помечает задачу:
+ * она выбрасывается, когда колесо дойдёт до её ячейки.
+ */
+final class ExpiryTask {
+
+    final UUID holdId;
+    final long expirationMs;
+    private volatile boolean cancelled;
+
+    ExpiryTask(UUID holdId, long expirationMs) {
+        this.holdId = holdId;
+        this.expirationMs = expirationMs;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
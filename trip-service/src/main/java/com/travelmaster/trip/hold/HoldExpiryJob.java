@@ -0,0 +1,102 @@
+package com.travelmaster.trip.hold;
+
+import com.travelmaster.trip.repository.projection.HoldExpiryView;
+import com.travelmaster.trip.service.SeatHoldService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Истечение удержаний: пакеты сработавших таймеров закрываются через SeatHoldService.
+ *
+ * После рестарта таймеры восстанавливаются по активным удержаниям из БД. Удержания
+ * экземпляра, который не вернулся (scale down), подбирает редкий страховочный обход
+ * просроченных - по частичному индексу, а не по всей таблице. Он же повторяет возврат
+ * мест, не завершённый до падения экземпляра (seat_holds.return_pending).
+ */
+@Slf4j
+@Component
+public class HoldExpiryJob {
+
+    private final SeatHoldService seatHoldService;
+    private final HoldExpiryTimer holdExpiryTimer;
+    private final int batchSize;
+    private final Duration sweepGrace;
+    private final Counter expiredHolds;
+
+    public HoldExpiryJob(
+            SeatHoldService seatHoldService,
+            HoldExpiryTimer holdExpiryTimer,
+            MeterRegistry meterRegistry,
+            @Value("${trip.holds.expiry-batch-size:500}") int batchSize,
+            @Value("${trip.holds.sweep-grace:1m}") Duration sweepGrace) {
+        this.seatHoldService = seatHoldService;
+        this.holdExpiryTimer = holdExpiryTimer;
+        this.batchSize = batchSize;
+        this.sweepGrace = sweepGrace;
+        this.expiredHolds = Counter.builder("trip.holds.expired")
+                .description("Удержаний мест, истёкших с возвратом мест")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<HoldExpiryView> active = seatHoldService.findActiveHolds();
+        for (HoldExpiryView hold : active) {
+            holdExpiryTimer.schedule(hold.getId(), hold.getExpiresAt());
+        }
+        log.info("Restored expiry timers for {} seat holds", active.size());
+        sweepPendingReturns();
+    }
+
+    @Scheduled(fixedDelayString = "${trip.holds.expiry-interval-ms:500}")
+    public void expireDue() {
+        try {
+            seatHoldService.returnPendingSeats(batchSize);
+        } catch (RuntimeException e) {
+            log.error("Failed to return seats of released holds: {}", e.getMessage(), e);
+        }
+        for (List<UUID> batch = holdExpiryTimer.drainExpired(batchSize); !batch.isEmpty();
+             batch = holdExpiryTimer.drainExpired(batchSize)) {
+            expire(batch);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${trip.holds.sweep-interval-ms:600000}",
+            fixedDelayString = "${trip.holds.sweep-interval-ms:600000}")
+    public void sweepOverdue() {
+        List<UUID> overdue = seatHoldService.findOverdueHolds(sweepGrace, batchSize);
+        if (!overdue.isEmpty()) {
+            log.warn("Found {} overdue seat holds without a timer", overdue.size());
+            expire(overdue);
+        }
+        sweepPendingReturns();
+    }
+
+    private void sweepPendingReturns() {
+        try {
+            seatHoldService.sweepPendingReturns(batchSize);
+        } catch (RuntimeException e) {
+            // Флаги return_pending остаются в БД - повтор следующим обходом
+            log.error("Failed to return seats of released holds: {}", e.getMessage(), e);
+        }
+    }
+
+    private void expire(List<UUID> batch) {
+        try {
+            expiredHolds.increment(seatHoldService.expireHolds(batch));
+        } catch (RuntimeException e) {
+            // Удержания остаются HELD - их подберёт страховочный обход
+            log.error("Failed to expire {} seat holds: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.travelmaster.trip.hold;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Таймеры истечения удержаний на иерархическом колесе (см. TimingWheel).
+ *
+ * Поток таймера спит до срока ближайшей непустой ячейки, а не опрашивает таблицу:
+ * стоимость не зависит от числа активных удержаний. Сработавшие удержания
+ * копятся в очереди, HoldExpiryJob забирает их пакетами и истекает одним UPDATE.
+ *
+ * Таймеры только в памяти экземпляра; после рестарта их восстанавливает
+ * HoldExpiryJob по активным удержаниям из БД.
+ */
+@Slf4j
+@Component
+public class HoldExpiryTimer {
+
+    private final long tickMs;
+    private final DelayQueue<TimerBucket> buckets = new DelayQueue<>();
+    private final TimingWheel wheel;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, ExpiryTask> scheduled = new ConcurrentHashMap<>();
+    private final Queue<UUID> expired = new ConcurrentLinkedQueue<>();
+    private final Thread driver;
+
+    private volatile boolean running = true;
+
+    public HoldExpiryTimer(
+            MeterRegistry meterRegistry,
+            @Value("${trip.holds.tick-ms:100}") long tickMs,
+            @Value("${trip.holds.wheel-size:64}") int wheelSize) {
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), buckets);
+        Gauge.builder("trip.holds.scheduled", scheduled, Map::size)
+                .description("Удержаний мест с активным таймером истечения")
+                .register(meterRegistry);
+        this.driver = new Thread(this::run, "hold-expiry-timer");
+        this.driver.setDaemon(true);
+        this.driver.start();
+    }
+
+    /**
+     * Ставит (или переставляет) таймер удержания. Срок сдвигается на тик вперёд:
+     * ячейка срабатывает в начале своего интервала, а удержание не должно истечь раньше срока.
+     */
+    public void schedule(UUID holdId, LocalDateTime expiresAt) {
+        long expiresAtMs = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ExpiryTask task = new ExpiryTask(holdId, expiresAtMs + tickMs);
+        ExpiryTask previous = scheduled.put(holdId, task);
+        if (previous != null) {
+            previous.cancel();
+        }
+        lock.readLock().lock();
+        try {
+            if (!wheel.add(task)) {
+                fire(task);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void cancel(UUID holdId) {
+        ExpiryTask task = scheduled.remove(holdId);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Забирает не больше max сработавших удержаний.
+     */
+    public List<UUID> drainExpired(int max) {
+        List<UUID> batch = new ArrayList<>(Math.min(max, 256));
+        for (UUID holdId; batch.size() < max && (holdId = expired.poll()) != null; ) {
+            batch.add(holdId);
+        }
+        return batch;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        driver.interrupt();
+        driver.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                TimerBucket bucket = buckets.poll(200, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        wheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(this::reinsert);
+                        bucket = buckets.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Hold expiry timer failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void reinsert(ExpiryTask task) {
+        if (!wheel.add(task)) {
+            fire(task);
+        }
+    }
+
+    private void fire(ExpiryTask task) {
+        if (!task.isCancelled() && scheduled.remove(task.holdId, task)) {
+            expired.add(task.holdId);
+        }
+    }
+}
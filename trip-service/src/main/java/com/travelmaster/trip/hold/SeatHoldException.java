@@ -0,0 +1,19 @@
+package com.travelmaster.trip.hold;
+
+import com.travelmaster.common.exception.BusinessException;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Операция с удержанием невозможна; статус - HTTP-ответ контроллера.
+ */
+@Getter
+public class SeatHoldException extends BusinessException {
+
+    private final HttpStatus status;
+
+    public SeatHoldException(HttpStatus status, String message) {
+        super("SEAT_HOLD_" + status.name(), message);
+        this.status = status;
+    }
+}
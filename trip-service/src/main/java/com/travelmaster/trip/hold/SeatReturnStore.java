@@ -0,0 +1,66 @@
+package com.travelmaster.trip.hold;
+
+import com.travelmaster.trip.entity.SeatHold;
+import com.travelmaster.trip.entity.SeatHoldStatus;
+import com.travelmaster.trip.repository.SeatHoldRepository;
+import com.travelmaster.trip.repository.projection.HeldSeatsView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Транзакционные операции отложенного возврата мест удержаний.
+ *
+ * Возврат в память горячего инвентаря не откатывается вместе с транзакцией БД, поэтому
+ * каждый шаг фиксируется отдельно: захват, возврат мест, снятие флага return_pending.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatReturnStore {
+
+    private final SeatHoldRepository seatHoldRepository;
+
+    @Transactional
+    public List<HeldSeatsView> claim(int limit, Duration attemptTimeout) {
+        LocalDateTime now = LocalDateTime.now();
+        return seatHoldRepository.claimPendingReturns(now, now.minus(attemptTimeout), limit);
+    }
+
+    @Transactional
+    public void markReturned(Collection<UUID> holdIds) {
+        seatHoldRepository.markReturned(holdIds);
+    }
+
+    @Transactional
+    public void unclaim(Collection<UUID> holdIds) {
+        seatHoldRepository.unclaimPendingReturns(holdIds);
+    }
+
+    /**
+     * Фиксирует места, списанные из горячего инвентаря транзакцией, которая затем
+     * откатилась: удержания нет, но долг перед поездкой должен пережить рестарт.
+     * Вызывается после завершения исходной транзакции, поэтому - в новой.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordUnreturned(UUID holdId, Long tripId, int seats) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        seatHoldRepository.save(SeatHold.builder()
+                .id(holdId)
+                .tripId(tripId)
+                .seats(seats)
+                .status(SeatHoldStatus.RELEASED)
+                .returnPending(true)
+                .expiresAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+}
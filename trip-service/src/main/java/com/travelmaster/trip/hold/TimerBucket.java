@@ -0,0 +1,58 @@
+package com.travelmaster.trip.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Ячейка колеса: задачи одного интервала тика. В DelayQueue попадает сама ячейка,
+ * а не задачи - очередь с приоритетом держит число непустых ячеек, а не удержаний.
+ */
+final class TimerBucket implements Delayed {
+
+    private final AtomicLong expiration = new AtomicLong(-1);
+    private final List<ExpiryTask> tasks = new ArrayList<>();
+
+    synchronized void add(ExpiryTask task) {
+        tasks.add(task);
+    }
+
+    /**
+     * @return true, если срок ячейки изменился и её нужно (заново) поставить в очередь
+     */
+    boolean setExpiration(long expirationMs) {
+        return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    /**
+     * Забирает все задачи ячейки и передаёт их обратно колесу: наступившие сработают,
+     * задачи внешнего уровня опустятся на нижний.
+     */
+    void flush(Consumer<ExpiryTask> reinsert) {
+        List<ExpiryTask> drained;
+        synchronized (this) {
+            drained = new ArrayList<>(tasks);
+            tasks.clear();
+            expiration.set(-1);
+        }
+        drained.forEach(reinsert);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        long delayMs = Math.max(getExpiration() - System.currentTimeMillis(), 0);
+        return unit.convert(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getExpiration(), ((TimerBucket) other).getExpiration());
+    }
+}
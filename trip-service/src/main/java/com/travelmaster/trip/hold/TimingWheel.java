@@ -0,0 +1,78 @@
+package com.travelmaster.trip.hold;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Уровень иерархического колеса таймеров: wheelSize ячеек по tickMs.
+ * Задача дальше interval уходит на следующий уровень с тиком, равным interval
+ * текущего; при продвижении часов ячейки верхних уровней перекладываются вниз.
+ * Добавление и отмена - O(1) независимо от числа удержаний.
+ *
+ * add вызывается под read-lock, advanceClock - под write-lock HoldExpiryTimer.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final DelayQueue<TimerBucket> queue;
+    private final TimerBucket[] buckets;
+
+    private long currentTime;
+    private volatile TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * @return false, если задача отменена или её срок наступает в текущем тике
+     */
+    boolean add(ExpiryTask task) {
+        long expiration = task.expirationMs;
+        if (task.isCancelled() || expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(task);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        return overflow().add(task);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            TimingWheel overflow = overflowWheel;
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+
+    private TimingWheel overflow() {
+        TimingWheel overflow = overflowWheel;
+        if (overflow == null) {
+            synchronized (this) {
+                if (overflowWheel == null) {
+                    overflowWheel = new TimingWheel(interval, wheelSize, currentTime, queue);
+                }
+                overflow = overflowWheel;
+            }
+        }
+        return overflow;
+    }
+}
@@ -0,0 +1,337 @@
+package com.travelmaster.trip.inventory;
+
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.repository.projection.ClaimedSeatsView;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячий инвентарь: места поездок с trips.hot_inventory = true (flash sale) обслуживаются
+ * из памяти, без обращения к строке trips на каждое резервирование.
+ *
+ * Поездкой владеет один экземпляр - аренда в trips.inventory_owner, продлевается в refresh().
+ * У владельца счётчик мест в памяти авторитетен: резервирование уменьшает StripedSeatCounter,
+ * пишет изменение в локальный лог (group commit с fsync) и только после этого подтверждается.
+ * Фоновый сброс (write-behind) применяет накопленные изменения к trips.available_seats и
+ * trip_availability_log пакетом раз в flush-interval. Остальные экземпляры переадресуют
+ * запросы владельцу (HotInventoryClient), условный UPDATE в БД горячую поездку не трогает.
+ *
+ * После сбоя лог повторяется с контрольной точки экземпляра (hot_inventory_checkpoints),
+ * поэтому instance-id должен переживать перезапуск, а log-dir - лежать на постоянном томе.
+ * Фенсинг: владелец ведёт локальный срок аренды (монотонные часы, отсчёт от момента до
+ * захвата - не позже срока в БД) и после него отклоняет операции, пока аренда не продлена.
+ * Другой экземпляр перехватывает аренду только через flush-interval после её истечения в БД,
+ * когда прежний владелец уже не принимает операции и сбросил последние изменения. Если
+ * прежний владелец завис дольше, его несброшенные изменения новый владелец не видит до
+ * перезапуска прежнего.
+ */
+@Slf4j
+@Component
+public class HotInventory {
+
+    private static final String REASON_FLUSH = "HOT_INVENTORY_FLUSH";
+    private static final String REASON_RECOVERY = "HOT_INVENTORY_RECOVERY";
+
+    private final HotInventoryStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String instanceId;
+    private final String advertisedUrl;
+    private final Path logDirectory;
+    private final long segmentBytes;
+    private final int stripes;
+    private final int leaseSeconds;
+    private final long takeoverGraceMs;
+    private final Map<Long, HotTrip> active = new ConcurrentHashMap<>();
+    private final Map<SeatReservationResult, Counter> results = new EnumMap<>(SeatReservationResult.class);
+    private final Timer flushTimer;
+
+    private volatile InventoryLog inventoryLog;
+
+    public HotInventory(
+            HotInventoryStore store,
+            MeterRegistry meterRegistry,
+            @Value("${trip.hot-inventory.enabled:false}") boolean enabled,
+            @Value("${trip.hot-inventory.instance-id:${HOSTNAME:trip-service}}") String instanceId,
+            @Value("${trip.hot-inventory.advertised-url:http://localhost:${server.port:8082}}") String advertisedUrl,
+            @Value("${trip.hot-inventory.log-dir:./data/hot-inventory}") String logDirectory,
+            @Value("${trip.hot-inventory.log-segment-bytes:67108864}") long segmentBytes,
+            @Value("${trip.hot-inventory.stripes:8}") int stripes,
+            @Value("${trip.hot-inventory.lease-seconds:30}") int leaseSeconds,
+            @Value("${trip.hot-inventory.flush-interval-ms:200}") long flushIntervalMs) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.instanceId = instanceId;
+        this.advertisedUrl = advertisedUrl;
+        this.logDirectory = Path.of(logDirectory);
+        this.segmentBytes = segmentBytes;
+        this.stripes = stripes;
+        this.leaseSeconds = leaseSeconds;
+        this.takeoverGraceMs = flushIntervalMs;
+        for (SeatReservationResult result : SeatReservationResult.values()) {
+            results.put(result, Counter.builder("trip.hot_inventory.operations")
+                    .tag("result", result.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.flushTimer = meterRegistry.timer("trip.hot_inventory.flush");
+        Gauge.builder("trip.hot_inventory.active", active, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Поездка обслуживается из памяти этого экземпляра.
+     */
+    public boolean isActive(Long tripId) {
+        return tripId != null && active.containsKey(tripId);
+    }
+
+    public boolean isLocalOwner(String owner) {
+        return instanceId.equals(owner);
+    }
+
+    /**
+     * Резервирование из памяти; пусто - поездка не горячая на этом экземпляре.
+     */
+    public Optional<SeatReservationResult> reserve(long tripId, int seats) {
+        HotTrip trip = active.get(tripId);
+        if (trip == null) {
+            return Optional.empty();
+        }
+        if (!trip.enter()) {
+            return Optional.of(count(SeatReservationResult.UNAVAILABLE));
+        }
+        try {
+            if (!trip.seats.tryAcquire(seats)) {
+                return Optional.of(count(SeatReservationResult.INSUFFICIENT_SEATS));
+            }
+            try {
+                inventoryLog.append(trip, -seats).join();
+            } catch (CompletionException e) {
+                // Запись не подтверждена: места возвращаются. Если она всё же дошла до диска,
+                // восстановление спишет их в БД - недопродажа, но не перепродажа
+                trip.seats.add(seats);
+                log.error("Hot inventory log append failed for trip {}: {}", tripId, e.getMessage());
+                return Optional.of(count(SeatReservationResult.UNAVAILABLE));
+            }
+            return Optional.of(count(SeatReservationResult.RESERVED));
+        } finally {
+            trip.exit();
+        }
+    }
+
+    /**
+     * Возврат мест в память; пусто - поездка не горячая на этом экземпляре.
+     * Сначала запись в лог, потом счётчик: несохранённый возврат не даёт лишних мест.
+     */
+    public Optional<SeatReservationResult> release(long tripId, int seats) {
+        HotTrip trip = active.get(tripId);
+        if (trip == null) {
+            return Optional.empty();
+        }
+        if (!trip.enter()) {
+            return Optional.of(count(SeatReservationResult.UNAVAILABLE));
+        }
+        try {
+            // Возвраты редки; блокировка не даёт двум возвратам вместе превысить total_seats
+            synchronized (trip.releaseLock) {
+                int released = Math.min(seats, trip.totalSeats - trip.seats.available());
+                if (released > 0) {
+                    inventoryLog.append(trip, released).join();
+                    trip.seats.add(released);
+                }
+            }
+            return Optional.of(count(SeatReservationResult.RELEASED));
+        } catch (CompletionException e) {
+            log.error("Hot inventory log append failed for trip {}: {}", tripId, e.getMessage());
+            return Optional.of(count(SeatReservationResult.UNAVAILABLE));
+        } finally {
+            trip.exit();
+        }
+    }
+
+    /**
+     * Восстановление после старта, захват и продление аренд, вывод поездок из горячего режима.
+     */
+    @Scheduled(fixedDelayString = "${trip.hot-inventory.refresh-interval-ms:2000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (inventoryLog == null) {
+                recover();
+            }
+
+            Set<Long> hot = new HashSet<>();
+            for (InventoryOwnerView trip : store.findHotTrips()) {
+                boolean ours = isLocalOwner(trip.getInventoryOwner());
+                if (!Boolean.TRUE.equals(trip.getHotInventory())) {
+                    // Режим выключен, пока экземпляр не работал: мест в памяти нет, отпускаем сразу
+                    if (ours && !active.containsKey(trip.getId())) {
+                        store.releaseOwnership(trip.getId(), instanceId);
+                    }
+                    continue;
+                }
+                if (trip.getInventoryOwner() != null && !ours && !Boolean.TRUE.equals(trip.getLeaseExpired())) {
+                    if (active.containsKey(trip.getId())) {
+                        log.error("Hot inventory lease for trip {} taken by {}, leaving hot mode",
+                                trip.getId(), trip.getInventoryOwner());
+                    }
+                    continue;
+                }
+                // Срок отсчитывается от момента до запроса: локальная аренда истекает раньше, чем в БД
+                long leaseDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(leaseSeconds);
+                Optional<ClaimedSeatsView> claimed = store.claim(trip.getId(), instanceId, advertisedUrl,
+                        leaseSeconds, takeoverGraceMs);
+                if (claimed.isEmpty()) {
+                    continue;
+                }
+                hot.add(trip.getId());
+                HotTrip current = active.get(trip.getId());
+                if (current != null) {
+                    current.extendLease(leaseDeadline);
+                } else {
+                    activate(trip.getId(), claimed.get(), leaseDeadline);
+                }
+            }
+
+            for (Long tripId : List.copyOf(active.keySet())) {
+                if (!hot.contains(tripId)) {
+                    deactivate(active.get(tripId));
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            log.error("Hot inventory refresh failed: {}", e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write-behind: накопленные изменения мест каждой горячей поездки - одной транзакцией.
+     */
+    @Scheduled(fixedDelayString = "${trip.hot-inventory.flush-interval-ms:200}")
+    public void flush() {
+        InventoryLog currentLog = inventoryLog;
+        if (!enabled || currentLog == null) {
+            return;
+        }
+        // Все записи до watermark уже учтены в pending поездок (см. InventoryLog.writeBatch)
+        long watermark = currentLog.durableSeq();
+        boolean complete = true;
+        for (HotTrip trip : active.values()) {
+            complete &= flush(trip, REASON_FLUSH);
+        }
+        if (complete) {
+            currentLog.markFlushed(watermark);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        for (HotTrip trip : List.copyOf(active.values())) {
+            deactivate(trip);
+        }
+        InventoryLog currentLog = inventoryLog;
+        if (currentLog != null) {
+            currentLog.close();
+        }
+    }
+
+    private void activate(long tripId, ClaimedSeatsView seats, long leaseDeadline) {
+        active.put(tripId, new HotTrip(tripId, seats.getAvailableSeats(), seats.getTotalSeats(), stripes,
+                leaseDeadline));
+        log.info("Trip {} switched to hot inventory with {} seats", tripId, seats.getAvailableSeats());
+    }
+
+    /**
+     * Останавливает операции поездки, сбрасывает остаток и отпускает аренду.
+     * При ошибке сброса поездка остаётся закрытой в памяти до следующей попытки.
+     */
+    private void deactivate(HotTrip trip) throws InterruptedException {
+        trip.close();
+        if (!flush(trip, REASON_FLUSH)) {
+            return;
+        }
+        store.releaseOwnership(trip.tripId, instanceId);
+        active.remove(trip.tripId);
+        log.info("Trip {} left hot inventory with {} seats", trip.tripId, trip.seats.available());
+    }
+
+    private boolean flush(HotTrip trip, String reason) {
+        HotTrip.PendingDelta pending = trip.drain();
+        if (pending == null) {
+            return true;
+        }
+        try {
+            flushTimer.record(() -> store.flush(trip.tripId, pending.delta, pending.seq, instanceId, reason));
+            return true;
+        } catch (RuntimeException e) {
+            trip.restore(pending);
+            log.error("Hot inventory flush failed for trip {}: {}", trip.tripId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Повторяет записи лога новее контрольной точки экземпляра и открывает новый лог.
+     * До завершения горячие поездки экземпляра не обслуживаются (условный UPDATE их
+     * не трогает), поэтому восстановленные изменения не смешиваются с новыми.
+     */
+    private void recover() throws IOException {
+        Map<Long, Long> checkpoints = store.findCheckpoints(instanceId);
+        long lastSeq = checkpoints.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+
+        Map<Long, HotTrip.PendingDelta> replay = new HashMap<>();
+        for (InventoryLog.LogRecord record : InventoryLog.readAll(logDirectory)) {
+            lastSeq = Math.max(lastSeq, record.seq);
+            if (record.seq <= checkpoints.getOrDefault(record.tripId, 0L)) {
+                continue;
+            }
+            HotTrip.PendingDelta previous = replay.get(record.tripId);
+            int delta = previous != null ? previous.delta + record.delta : record.delta;
+            replay.put(record.tripId, new HotTrip.PendingDelta(delta, record.seq));
+        }
+        for (Map.Entry<Long, HotTrip.PendingDelta> entry : replay.entrySet()) {
+            HotTrip.PendingDelta pending = entry.getValue();
+            if (!store.flush(entry.getKey(), pending.delta, pending.seq, instanceId, REASON_RECOVERY)) {
+                log.warn("Trip {} no longer exists, dropping {} logged seat changes", entry.getKey(), pending.delta);
+            }
+        }
+        if (!replay.isEmpty()) {
+            log.info("Replayed hot inventory log for {} trips", replay.size());
+        }
+
+        inventoryLog = InventoryLog.open(logDirectory, lastSeq + 1, segmentBytes, meterRegistry);
+    }
+
+    private SeatReservationResult count(SeatReservationResult result) {
+        results.get(result).increment();
+        return result;
+    }
+}
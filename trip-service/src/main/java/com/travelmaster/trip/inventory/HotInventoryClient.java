@@ -0,0 +1,75 @@
+package com.travelmaster.trip.inventory;
+
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.repository.TripRepository;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Переадресует резервирование горячей поездки экземпляру-владельцу её счётчика.
+ * Переадресованный запрос помечается заголовком и дальше не пересылается.
+ */
+@Slf4j
+@Component
+public class HotInventoryClient {
+
+    public static final String FORWARDED_HEADER = "X-Inventory-Forwarded";
+
+    private final TripRepository tripRepository;
+    private final RestTemplate restTemplate;
+
+    public HotInventoryClient(
+            TripRepository tripRepository,
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${trip.hot-inventory.forward-timeout:2s}") Duration timeout) {
+        this.tripRepository = tripRepository;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+    }
+
+    public SeatReservationResult reserve(Long tripId, int seats) {
+        return forward(tripId, "reserve", seats, SeatReservationResult.RESERVED);
+    }
+
+    public SeatReservationResult release(Long tripId, int seats) {
+        return forward(tripId, "release", seats, SeatReservationResult.RELEASED);
+    }
+
+    private SeatReservationResult forward(Long tripId, String operation, int seats, SeatReservationResult success) {
+        String ownerUrl = tripRepository.findInventoryOwner(tripId)
+                .map(InventoryOwnerView::getInventoryOwnerUrl)
+                .orElse(null);
+        if (ownerUrl == null) {
+            // Владелец только что освободил поездку - клиент повторит запрос
+            return SeatReservationResult.UNAVAILABLE;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_HEADER, "true");
+        try {
+            restTemplate.exchange(ownerUrl + "/internal/v1/trips/" + tripId + "/" + operation + "?seats=" + seats,
+                    HttpMethod.POST, new HttpEntity<>(headers), Void.class);
+            return success;
+        } catch (HttpClientErrorException.Conflict e) {
+            return SeatReservationResult.INSUFFICIENT_SEATS;
+        } catch (HttpClientErrorException.NotFound e) {
+            return SeatReservationResult.NOT_FOUND;
+        } catch (RestClientException e) {
+            log.warn("Failed to forward {} of trip {} to {}: {}", operation, tripId, ownerUrl, e.getMessage());
+            return SeatReservationResult.UNAVAILABLE;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.travelmaster.trip.inventory;
+
+import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.repository.HotInventoryRepository;
+import com.travelmaster.trip.repository.projection.CheckpointView;
+import com.travelmaster.trip.repository.projection.ClaimedSeatsView;
+import com.travelmaster.trip.repository.projection.FlushedSeatsView;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import com.travelmaster.trip.search.TripSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Транзакционные операции горячего инвентаря с БД.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotInventoryStore {
+
+    private final HotInventoryRepository repository;
+    private final TripSearchIndex tripSearchIndex;
+
+    @Transactional(readOnly = true)
+    public List<InventoryOwnerView> findHotTrips() {
+        return repository.findHotTrips();
+    }
+
+    @Transactional
+    public Optional<ClaimedSeatsView> claim(long tripId, String owner, String url, int leaseSeconds,
+                                            long takeoverGraceMs) {
+        return repository.claim(tripId, owner, url, leaseSeconds, takeoverGraceMs);
+    }
+
+    @Transactional
+    public void releaseOwnership(long tripId, String owner) {
+        repository.releaseOwnership(tripId, owner);
+    }
+
+    /**
+     * Применяет накопленное изменение мест, пишет историю и контрольную точку лога
+     * в одной транзакции: после сбоя запись лога либо применена целиком, либо будет повторена.
+     *
+     * @return false - поездка удалена
+     */
+    @CacheEvict(value = "trips", key = "#tripId")
+    @Transactional
+    public boolean flush(long tripId, int delta, long seq, String instanceId, String reason) {
+        Optional<FlushedSeatsView> flushed = repository.applyDelta(tripId, delta);
+        if (flushed.isEmpty()) {
+            return false;
+        }
+        FlushedSeatsView seats = flushed.get();
+        if (!seats.getPreviousSeats().equals(seats.getAvailableSeats())) {
+            repository.logAvailabilityChange(tripId, seats.getPreviousSeats(), seats.getAvailableSeats(),
+                    reason, instanceId);
+        }
+        repository.saveCheckpoint(instanceId, tripId, seq);
+        tripSearchIndex.updateSeatsAfterCommit(tripId, seats.getAvailableSeats(),
+                TripStatus.valueOf(seats.getStatus()), seats.getVersion());
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Long> findCheckpoints(String instanceId) {
+        Map<Long, Long> checkpoints = new HashMap<>();
+        for (CheckpointView checkpoint : repository.findCheckpoints(instanceId)) {
+            checkpoints.put(checkpoint.getTripId(), checkpoint.getFlushedSeq());
+        }
+        return checkpoints;
+    }
+}
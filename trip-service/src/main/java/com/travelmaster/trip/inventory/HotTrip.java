@@ -0,0 +1,119 @@
+package com.travelmaster.trip.inventory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Горячая поездка в памяти владельца: авторитетный счётчик мест и изменения,
+ * уже записанные в лог, но ещё не сброшенные в БД.
+ */
+final class HotTrip {
+
+    final long tripId;
+    final int totalSeats;
+    final StripedSeatCounter seats;
+    // Отдельно от монитора pending: его берёт писатель лога, пока возврат ждёт fsync
+    final Object releaseLock = new Object();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Открывается, когда после close() не осталось начатых операций
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private volatile boolean closed;
+    // System.nanoTime(), до которого действует аренда этого экземпляра
+    private volatile long leaseDeadline;
+
+    // Под монитором: изменение мест и номер последней записи лога, ещё не сброшенные в БД
+    private int pendingDelta;
+    private long pendingSeq;
+
+    HotTrip(long tripId, int availableSeats, int totalSeats, int stripes, long leaseDeadline) {
+        this.tripId = tripId;
+        this.totalSeats = totalSeats;
+        this.seats = new StripedSeatCounter(availableSeats, stripes);
+        this.leaseDeadline = leaseDeadline;
+    }
+
+    /**
+     * Начало операции; false - поездка выводится из горячего режима или аренда истекла
+     * и не продлена (поездку мог перехватить другой экземпляр).
+     */
+    boolean enter() {
+        inFlight.incrementAndGet();
+        if (closed || !isLeaseValid()) {
+            exit();
+            return false;
+        }
+        return true;
+    }
+
+    boolean isLeaseValid() {
+        return System.nanoTime() - leaseDeadline < 0;
+    }
+
+    void extendLease(long deadline) {
+        leaseDeadline = deadline;
+    }
+
+    void exit() {
+        if (inFlight.decrementAndGet() == 0 && closed) {
+            drained.countDown();
+        }
+    }
+
+    /**
+     * Запрещает новые операции и ждёт завершения начатых (включая запись в лог),
+     * после чего все изменения поездки учтены в pending.
+     */
+    void close() throws InterruptedException {
+        closed = true;
+        // enter() увеличивает счётчик до проверки closed: ноль здесь означает, что новых операций не будет
+        if (inFlight.get() == 0) {
+            drained.countDown();
+        }
+        drained.await();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Вызывается писателем лога после fsync записи.
+     */
+    synchronized void addDurable(int delta, long seq) {
+        pendingDelta += delta;
+        pendingSeq = Math.max(pendingSeq, seq);
+    }
+
+    /**
+     * Забирает накопленное для сброса; null - сбрасывать нечего.
+     */
+    synchronized PendingDelta drain() {
+        if (pendingSeq == 0) {
+            return null;
+        }
+        PendingDelta pending = new PendingDelta(pendingDelta, pendingSeq);
+        pendingDelta = 0;
+        pendingSeq = 0;
+        return pending;
+    }
+
+    /**
+     * Возвращает несброшенное после ошибки записи в БД - уйдёт со следующим сбросом.
+     */
+    synchronized void restore(PendingDelta pending) {
+        pendingDelta += pending.delta;
+        pendingSeq = Math.max(pendingSeq, pending.seq);
+    }
+
+    static final class PendingDelta {
+
+        final int delta;
+        final long seq;
+
+        PendingDelta(int delta, long seq) {
+            this.delta = delta;
+            this.seq = seq;
+        }
+    }
+}
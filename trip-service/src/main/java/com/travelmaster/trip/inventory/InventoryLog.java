@@ -0,0 +1,318 @@
+package com.travelmaster.trip.inventory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный append-only лог изменений мест горячих поездок.
+ *
+ * Запись: seq (8) | tripId (8) | delta (4) | CRC32 первых 20 байт (4). Один поток-писатель
+ * забирает из очереди всё накопившееся, пишет одной операцией и делает один fsync на пакет
+ * (group commit): под нагрузкой стоимость fsync делится на все резервирования пакета.
+ * Резервирование подтверждается только после fsync своей записи.
+ *
+ * Лог разбит на сегменты; сегмент удаляется, когда все его записи сброшены в БД
+ * (см. markFlushed). Оборванная при сбое запись в конце сегмента отбрасывается по CRC.
+ */
+@Slf4j
+final class InventoryLog implements AutoCloseable {
+
+    static final int RECORD_SIZE = 24;
+
+    private static final int MAX_BATCH = 1024;
+    private static final String SEGMENT_PREFIX = "inventory-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * MAX_BATCH);
+    private final CRC32 crc = new CRC32();
+    private final DistributionSummary batchSize;
+    private final Thread writer;
+
+    // Принадлежат потоку-писателю
+    private FileChannel channel;
+    private Path segmentPath;
+    private long segmentSize;
+    private long nextSeq;
+
+    private volatile long durableSeq;
+    private volatile long flushedSeq;
+    private volatile boolean running = true;
+
+    private InventoryLog(Path directory, long nextSeq, long segmentBytes, MeterRegistry meterRegistry)
+            throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.nextSeq = nextSeq;
+        this.durableSeq = nextSeq - 1;
+        this.flushedSeq = nextSeq - 1;
+        this.batchSize = DistributionSummary.builder("trip.hot_inventory.log.batch")
+                .description("Записей на один fsync лога горячего инвентаря")
+                .register(meterRegistry);
+        openSegment();
+        this.writer = new Thread(this::writeLoop, "hot-inventory-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Открывает пустой лог, удаляя прежние сегменты: вызывающий код уже применил их к БД.
+     */
+    static InventoryLog open(Path directory, long nextSeq, long segmentBytes, MeterRegistry meterRegistry)
+            throws IOException {
+        Files.createDirectories(directory);
+        for (Path segment : listSegments(directory)) {
+            Files.delete(segment);
+        }
+        return new InventoryLog(directory, nextSeq, segmentBytes, meterRegistry);
+    }
+
+    /**
+     * Читает все целые записи всех сегментов по возрастанию seq.
+     */
+    static List<LogRecord> readAll(Path directory) throws IOException {
+        List<LogRecord> records = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return records;
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 checksum = new CRC32();
+        for (Path segment : listSegments(directory)) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                while (readFully(in, record)) {
+                    record.flip();
+                    checksum.reset();
+                    checksum.update(record.array(), 0, RECORD_SIZE - 4);
+                    long seq = record.getLong();
+                    long tripId = record.getLong();
+                    int delta = record.getInt();
+                    if ((int) checksum.getValue() != record.getInt()) {
+                        log.warn("Torn record in {} at seq {}, ignoring the rest of segment", segment, seq);
+                        break;
+                    }
+                    records.add(new LogRecord(seq, tripId, delta));
+                }
+            }
+        }
+        records.sort(Comparator.comparingLong(r -> r.seq));
+        return records;
+    }
+
+    /**
+     * Ставит запись в очередь; future завершается после fsync, когда изменение
+     * уже учтено в pending поездки.
+     */
+    CompletableFuture<Void> append(HotTrip trip, int delta) {
+        Append append = new Append(trip, delta);
+        if (!running) {
+            append.done.completeExceptionally(new IllegalStateException("Inventory log is closed"));
+            return append.done;
+        }
+        queue.add(append);
+        return append.done;
+    }
+
+    /**
+     * Номер последней записи, прошедшей fsync и учтённой в pending поездок.
+     */
+    long durableSeq() {
+        return durableSeq;
+    }
+
+    /**
+     * Все записи до seq включительно сброшены в БД - их сегменты можно удалить.
+     */
+    void markFlushed(long seq) {
+        if (seq > flushedSeq) {
+            flushedSeq = seq;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close inventory log segment {}: {}", segmentPath, e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    writeBatch(batch);
+                }
+                deleteFlushedSegments();
+                if (segmentSize >= segmentBytes) {
+                    rotate();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                log.error("Inventory log write failed: {}", e.getMessage(), e);
+                for (Append append : batch) {
+                    append.done.completeExceptionally(e);
+                }
+                discardPartialWrite();
+            } finally {
+                batch.clear();
+            }
+        }
+        for (Append append; (append = queue.poll()) != null; ) {
+            append.done.completeExceptionally(new IllegalStateException("Inventory log is closed"));
+        }
+    }
+
+    private void writeBatch(List<Append> batch) throws IOException {
+        buffer.clear();
+        long seq = nextSeq;
+        for (Append append : batch) {
+            append.seq = seq++;
+            int start = buffer.position();
+            buffer.putLong(append.seq).putLong(append.trip.tripId).putInt(append.delta);
+            crc.reset();
+            crc.update(buffer.array(), start, RECORD_SIZE - 4);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        segmentSize += (long) batch.size() * RECORD_SIZE;
+        nextSeq = seq;
+
+        // Сначала pending, потом durableSeq: сброс, прочитавший durableSeq, увидит эти изменения
+        for (Append append : batch) {
+            append.trip.addDurable(append.delta, append.seq);
+        }
+        durableSeq = seq - 1;
+        for (Append append : batch) {
+            append.done.complete(null);
+        }
+        batchSize.record(batch.size());
+    }
+
+    /**
+     * Обрезает сегмент до последней целой записи: неподтверждённые записи не должны
+     * попасть в восстановление после сбоя.
+     */
+    private void discardPartialWrite() {
+        try {
+            channel.truncate(segmentSize);
+        } catch (IOException e) {
+            log.error("Failed to truncate inventory log segment {}: {}", segmentPath, e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        sealed.addLast(new Segment(segmentPath, nextSeq - 1));
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        segmentPath = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segmentPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+    }
+
+    private void deleteFlushedSegments() throws IOException {
+        while (!sealed.isEmpty() && sealed.peekFirst().lastSeq <= flushedSeq) {
+            Files.deleteIfExists(sealed.pollFirst().path);
+        }
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer record) throws IOException {
+        record.clear();
+        while (record.hasRemaining()) {
+            if (in.read(record) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static final class Append {
+
+        private final HotTrip trip;
+        private final int delta;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long seq;
+
+        private Append(HotTrip trip, int delta) {
+            this.trip = trip;
+            this.delta = delta;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long lastSeq;
+
+        private Segment(Path path, long lastSeq) {
+            this.path = path;
+            this.lastSeq = lastSeq;
+        }
+    }
+
+    /**
+     * Запись лога, прочитанная при восстановлении.
+     */
+    static final class LogRecord {
+
+        final long seq;
+        final long tripId;
+        final int delta;
+
+        LogRecord(long seq, long tripId, int delta) {
+            this.seq = seq;
+            this.tripId = tripId;
+            this.delta = delta;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.travelmaster.trip.inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free счётчик мест, разбитый на полосы (stripes).
+ *
+ * Места распределены по полосам, каждая в своей кеш-линии. Поток резервирует из своей
+ * полосы одним CAS, поэтому тысячи параллельных резервирований не конкурируют за одну
+ * ячейку. Если в своей полосе мест не хватает, резервирование собирает их из остальных
+ * полос; при неудаче собранное возвращается. Отказ выдаётся, только когда в сумме мест
+ * меньше запрошенного - временная нехватка из-за чужого сбора приводит к повтору.
+ */
+final class StripedSeatCounter {
+
+    // 16 int = 64 байта: соседние полосы не делят кеш-линию
+    private static final int PADDING = 16;
+    private static final int MAX_GATHER_ATTEMPTS = 8;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    StripedSeatCounter(int availableSeats, int stripes) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicIntegerArray(this.stripes * PADDING);
+        int share = availableSeats / this.stripes;
+        int remainder = availableSeats % this.stripes;
+        for (int i = 0; i < this.stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    boolean tryAcquire(int seats) {
+        int home = homeStripe();
+        if (takeExactly(home, seats)) {
+            return true;
+        }
+        for (int attempt = 0; attempt < MAX_GATHER_ATTEMPTS; attempt++) {
+            int gathered = 0;
+            for (int i = 0; i < stripes && gathered < seats; i++) {
+                gathered += takeUpTo((home + i) % stripes, seats - gathered);
+            }
+            if (gathered == seats) {
+                return true;
+            }
+            add(home, gathered);
+            if (available() < seats) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает места в полосу текущего потока (без проверки верхней границы).
+     */
+    void add(int seats) {
+        add(homeStripe(), seats);
+    }
+
+    /**
+     * Сумма по полосам; при параллельных изменениях - приблизительная.
+     */
+    int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private boolean takeExactly(int stripe, int seats) {
+        int index = stripe * PADDING;
+        while (true) {
+            int current = cells.get(index);
+            if (current < seats) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - seats)) {
+                return true;
+            }
+        }
+    }
+
+    private int takeUpTo(int stripe, int seats) {
+        int index = stripe * PADDING;
+        while (true) {
+            int current = cells.get(index);
+            if (current == 0) {
+                return 0;
+            }
+            int taken = Math.min(current, seats);
+            if (cells.compareAndSet(index, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    private void add(int stripe, int seats) {
+        if (seats > 0) {
+            cells.addAndGet(stripe * PADDING, seats);
+        }
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().threadId() % stripes);
+    }
+}
@@ -0,0 +1,107 @@
+package com.travelmaster.trip.repository;
+
+import com.travelmaster.trip.entity.Trip;
+import com.travelmaster.trip.repository.projection.CheckpointView;
+import com.travelmaster.trip.repository.projection.ClaimedSeatsView;
+import com.travelmaster.trip.repository.projection.FlushedSeatsView;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запросы горячего инвентаря: аренда владельца, сброс накопленных изменений мест
+ * и контрольные точки локального лога. Колонки режима не отображаются в Trip -
+ * их меняют только эти запросы.
+ */
+public interface HotInventoryRepository extends Repository<Trip, Long> {
+
+    /**
+     * Горячие поездки и поездки, у которых ещё есть владелец (режим только что выключен).
+     */
+    @Query(value = "SELECT id, hot_inventory AS \"hotInventory\", inventory_owner AS \"inventoryOwner\", " +
+                   "inventory_owner_url AS \"inventoryOwnerUrl\", " +
+                   "COALESCE(inventory_lease_until < CURRENT_TIMESTAMP, TRUE) AS \"leaseExpired\", status " +
+                   "FROM trips WHERE hot_inventory OR inventory_owner IS NOT NULL",
+           nativeQuery = true)
+    List<InventoryOwnerView> findHotTrips();
+
+    /**
+     * Захват или продление аренды. Чужая аренда перехватывается не раньше чем через
+     * takeoverGraceMs после истечения: прежний владелец за это время перестаёт принимать
+     * операции по локальному сроку аренды и сбрасывает последние изменения в БД.
+     * UPDATE ... RETURNING без @Modifying - см. TripRepository.reserveSeats.
+     *
+     * @return места на момент захвата или пусто, если поездкой владеет другой экземпляр
+     */
+    @Query(value = "UPDATE trips SET inventory_owner = :owner, inventory_owner_url = :url, " +
+                   "inventory_lease_until = CURRENT_TIMESTAMP + :leaseSeconds * INTERVAL '1 second' " +
+                   "WHERE id = :id AND hot_inventory AND status IN ('AVAILABLE', 'FULL') " +
+                   "AND (inventory_owner IS NULL OR inventory_owner = :owner " +
+                   "OR inventory_lease_until < CURRENT_TIMESTAMP - :takeoverGraceMs * INTERVAL '1 millisecond') " +
+                   "RETURNING available_seats AS \"availableSeats\", total_seats AS \"totalSeats\"",
+           nativeQuery = true)
+    Optional<ClaimedSeatsView> claim(
+            @Param("id") Long id,
+            @Param("owner") String owner,
+            @Param("url") String url,
+            @Param("leaseSeconds") int leaseSeconds,
+            @Param("takeoverGraceMs") long takeoverGraceMs);
+
+    @Modifying
+    @Query(value = "UPDATE trips SET inventory_owner = NULL, inventory_owner_url = NULL, " +
+                   "inventory_lease_until = NULL WHERE id = :id AND inventory_owner = :owner",
+           nativeQuery = true)
+    int releaseOwnership(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Применяет накопленное изменение мест одним UPDATE. Значение ограничено
+     * [0, total_seats]: расхождение после перехвата аренды не должно блокировать сброс.
+     * Без @Modifying, как и claim.
+     */
+    @Query(value = "UPDATE trips t SET " +
+                   "available_seats = LEAST(GREATEST(p.previous + :delta, 0), t.total_seats), " +
+                   "status = CASE " +
+                   "WHEN LEAST(GREATEST(p.previous + :delta, 0), t.total_seats) = 0 " +
+                   "AND t.status = 'AVAILABLE' THEN 'FULL' " +
+                   "WHEN LEAST(GREATEST(p.previous + :delta, 0), t.total_seats) > 0 " +
+                   "AND t.status = 'FULL' THEN 'AVAILABLE' " +
+                   "ELSE t.status END, " +
+                   "version = t.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "FROM (SELECT id, available_seats AS previous FROM trips WHERE id = :id FOR UPDATE) p " +
+                   "WHERE t.id = p.id " +
+                   "RETURNING p.previous AS \"previousSeats\", t.available_seats AS \"availableSeats\", " +
+                   "t.status AS status, t.version AS version",
+           nativeQuery = true)
+    Optional<FlushedSeatsView> applyDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO trip_availability_log " +
+                   "(trip_id, previous_available_seats, new_available_seats, change_reason, changed_by) " +
+                   "VALUES (:tripId, :previous, :current, :reason, :changedBy)",
+           nativeQuery = true)
+    int logAvailabilityChange(
+            @Param("tripId") Long tripId,
+            @Param("previous") int previous,
+            @Param("current") int current,
+            @Param("reason") String reason,
+            @Param("changedBy") String changedBy);
+
+    @Modifying
+    @Query(value = "INSERT INTO hot_inventory_checkpoints (instance_id, trip_id, flushed_seq) " +
+                   "VALUES (:instanceId, :tripId, :seq) " +
+                   "ON CONFLICT (instance_id, trip_id) DO UPDATE SET " +
+                   "flushed_seq = GREATEST(hot_inventory_checkpoints.flushed_seq, EXCLUDED.flushed_seq), " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int saveCheckpoint(@Param("instanceId") String instanceId, @Param("tripId") Long tripId, @Param("seq") long seq);
+
+    @Query(value = "SELECT trip_id AS \"tripId\", flushed_seq AS \"flushedSeq\" " +
+                   "FROM hot_inventory_checkpoints WHERE instance_id = :instanceId",
+           nativeQuery = true)
+    List<CheckpointView> findCheckpoints(@Param("instanceId") String instanceId);
+}
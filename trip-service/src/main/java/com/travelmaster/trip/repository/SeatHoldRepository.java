@@ -0,0 +1,88 @@
+package com.travelmaster.trip.repository;
+
+import com.travelmaster.trip.entity.SeatHold;
+import com.travelmaster.trip.entity.SeatHoldStatus;
+import com.travelmaster.trip.repository.projection.HeldSeatsView;
+import com.travelmaster.trip.repository.projection.HoldExpiryView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Переходы статуса удержания - условными UPDATE: подтверждение, отмена и истечение
+ * одного удержания, гонящиеся между собой, применяются ровно один раз.
+ */
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, UUID> {
+
+    @Modifying
+    @Query("UPDATE SeatHold h SET h.status = 'CONFIRMED', h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.tripId = :tripId AND h.userId = :userId " +
+           "AND h.status = 'HELD' AND h.expiresAt > :now")
+    int confirm(@Param("id") UUID id, @Param("tripId") Long tripId, @Param("userId") Long userId,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SeatHold h SET h.status = 'RELEASED', h.returnPending = true, h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.tripId = :tripId AND h.userId = :userId AND h.status = 'HELD'")
+    int release(@Param("id") UUID id, @Param("tripId") Long tripId, @Param("userId") Long userId,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Истечение пакета удержаний одним UPDATE. Уже подтверждённые, отменённые
+     * и ещё не истёкшие удержания пропускаются. UPDATE ... RETURNING без @Modifying -
+     * см. TripRepository.reserveSeats.
+     *
+     * Отмена и истечение помечают места невозвращёнными (return_pending) в той же
+     * транзакции, что и смену статуса; флаг снимает markReturned после возврата мест.
+     *
+     * @return поездка и места каждого истёкшего удержания
+     */
+    @Query(value = "UPDATE seat_holds SET status = 'EXPIRED', return_pending = TRUE, updated_at = :now " +
+                   "WHERE id IN (:ids) AND status = 'HELD' AND expires_at <= :now " +
+                   "RETURNING id, trip_id AS \"tripId\", seats",
+           nativeQuery = true)
+    List<HeldSeatsView> expire(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SeatHold h SET h.returnPending = false WHERE h.id IN :ids")
+    int markReturned(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Захватывает пакет удержаний с невозвращёнными местами. Попытка, начатая раньше
+     * staleBefore, считается прерванной (экземпляр упал) и захватывается снова;
+     * SKIP LOCKED разводит экземпляры по разным строкам.
+     */
+    @Query(value = "UPDATE seat_holds SET return_attempt_at = :now " +
+                   "WHERE id IN (SELECT id FROM seat_holds WHERE return_pending " +
+                   "AND (return_attempt_at IS NULL OR return_attempt_at < :staleBefore) " +
+                   "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING id, trip_id AS \"tripId\", seats",
+           nativeQuery = true)
+    List<HeldSeatsView> claimPendingReturns(
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE seat_holds SET return_attempt_at = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int unclaimPendingReturns(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT h.status FROM SeatHold h WHERE h.id = :id")
+    Optional<SeatHoldStatus> findStatus(@Param("id") UUID id);
+
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SeatHold h WHERE h.status = 'HELD'")
+    List<HoldExpiryView> findActive();
+
+    @Query("SELECT h.id FROM SeatHold h WHERE h.status = 'HELD' AND h.expiresAt < :before ORDER BY h.expiresAt")
+    List<UUID> findOverdue(@Param("before") LocalDateTime before, Pageable pageable);
+}
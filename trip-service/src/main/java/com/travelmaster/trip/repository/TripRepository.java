@@ -2,6 +2,9 @@ package com.travelmaster.trip.repository;
 
 import com.travelmaster.trip.entity.Trip;
 import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import com.travelmaster.trip.repository.projection.RouteCountView;
+import com.travelmaster.trip.repository.projection.SeatCountView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +15,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> {
@@ -19,11 +23,19 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     @Query("SELECT t FROM Trip t WHERE t.status = :status")
     Page<Trip> findByStatus(@Param("status") TripStatus status, Pageable pageable);
 
+    /**
+     * Поиск по префиксу origin/destination (без учёта регистра), дате, местам и цене.
+     * Все условия - в запросе, поэтому страница и totalElements точные. Использует
+     * partial index idx_trips_search_price; wildcard-символы в origin/destination
+     * должны быть экранированы вызывающим кодом.
+     */
     @Query("SELECT t FROM Trip t WHERE " +
-           "LOWER(t.origin) LIKE LOWER(CONCAT('%', :origin, '%')) AND " +
-           "LOWER(t.destination) LIKE LOWER(CONCAT('%', :destination, '%')) AND " +
+           "LOWER(t.origin) LIKE CONCAT(LOWER(:origin), '%') ESCAPE '\\' AND " +
+           "LOWER(t.destination) LIKE CONCAT(LOWER(:destination), '%') ESCAPE '\\' AND " +
            "t.departureDate >= :startDate AND " +
            "t.departureDate <= :endDate AND " +
+           "t.price >= :minPrice AND " +
+           "t.price <= :maxPrice AND " +
            "t.availableSeats >= :passengers AND " +
            "t.status = 'AVAILABLE'")
     Page<Trip> searchTrips(
@@ -31,6 +43,8 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
             @Param("destination") String destination,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
             @Param("passengers") Integer passengers,
             Pageable pageable
     );
@@ -52,5 +66,66 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
 
     @Query("SELECT COUNT(t) FROM Trip t WHERE t.status = 'AVAILABLE'")
     long countAvailableTrips();
-}
 
+    /**
+     * Число доступных будущих поездок по маршрутам - вес подсказок мест.
+     * Агрегация та же, что в popular_routes, но по актуальным данным trips.
+     */
+    @Query("SELECT t.origin AS origin, t.destination AS destination, COUNT(t) AS tripCount " +
+           "FROM Trip t WHERE t.status = 'AVAILABLE' AND t.departureDate > CURRENT_TIMESTAMP " +
+           "GROUP BY t.origin, t.destination")
+    List<RouteCountView> countAvailableRoutes();
+
+    /**
+     * Keyset-пагинация по id для построения поискового индекса.
+     */
+    @Query("SELECT t FROM Trip t WHERE t.id > :afterId ORDER BY t.id")
+    List<Trip> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Резервирование одним UPDATE без предварительного чтения: параллельные резервирования
+     * одной поездки ждут только блокировку строки, а не падают на @Version. Условие
+     * проверяется в WHERE, поэтому мест не может стать меньше нуля. version увеличивается,
+     * чтобы загруженные ранее сущности и поисковый индекс видели изменение.
+     *
+     * Без @Modifying: с ним Spring Data выполняет executeUpdate, а тот не принимает
+     * результат RETURNING. Запрос исполняется как выборка - Hibernate перед нативным
+     * запросом сбрасывает сессию, но загруженные Trip не обновляет; их устаревшая
+     * version не даст перезаписать места при сохранении.
+     *
+     * Места горячей поездки (inventory_owner задан) этим запросом не меняются - ими
+     * распоряжается владелец, см. HotInventory.
+     *
+     * @return состояние после резервирования или пусто, если строка не подошла под условие
+     */
+    @Query(value = "UPDATE trips SET available_seats = available_seats - :seats, " +
+                   "status = CASE WHEN available_seats = :seats THEN 'FULL' ELSE status END, " +
+                   "version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id = :id AND status = 'AVAILABLE' AND available_seats >= :seats " +
+                   "AND inventory_owner IS NULL " +
+                   "RETURNING available_seats AS \"availableSeats\", status, version",
+           nativeQuery = true)
+    Optional<SeatCountView> reserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    /**
+     * Возврат мест одним UPDATE (не больше total_seats); заполненная поездка снова в продаже.
+     * Отменённой или завершённой поездке места не возвращаются. Без @Modifying - см. reserveSeats.
+     */
+    @Query(value = "UPDATE trips SET available_seats = LEAST(available_seats + :seats, total_seats), " +
+                   "status = CASE WHEN status = 'FULL' THEN 'AVAILABLE' ELSE status END, " +
+                   "version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id = :id AND status IN ('AVAILABLE', 'FULL') AND inventory_owner IS NULL " +
+                   "RETURNING available_seats AS \"availableSeats\", status, version",
+           nativeQuery = true)
+    Optional<SeatCountView> releaseSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    /**
+     * Почему условный UPDATE не изменил строку: поездки нет или ею владеет горячий инвентарь.
+     */
+    @Query(value = "SELECT id, hot_inventory AS \"hotInventory\", inventory_owner AS \"inventoryOwner\", " +
+                   "inventory_owner_url AS \"inventoryOwnerUrl\", " +
+                   "COALESCE(inventory_lease_until < CURRENT_TIMESTAMP, TRUE) AS \"leaseExpired\", status " +
+                   "FROM trips WHERE id = :id",
+           nativeQuery = true)
+    Optional<InventoryOwnerView> findInventoryOwner(@Param("id") Long id);
+}
@@ -0,0 +1,11 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Последняя применённая к поездке запись локального лога экземпляра.
+ */
+public interface CheckpointView {
+
+    Long getTripId();
+
+    Long getFlushedSeq();
+}
@@ -0,0 +1,11 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Места горячей поездки на момент захвата аренды - начальное значение счётчика в памяти.
+ */
+public interface ClaimedSeatsView {
+
+    Integer getAvailableSeats();
+
+    Integer getTotalSeats();
+}
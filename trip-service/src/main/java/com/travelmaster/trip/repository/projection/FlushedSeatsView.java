@@ -0,0 +1,15 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Места поездки до и после сброса накопленных изменений горячего инвентаря.
+ */
+public interface FlushedSeatsView {
+
+    Integer getPreviousSeats();
+
+    Integer getAvailableSeats();
+
+    String getStatus();
+
+    Long getVersion();
+}
@@ -0,0 +1,15 @@
+package com.travelmaster.trip.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Места удержания из UPDATE ... RETURNING: истёкшего или ожидающего возврата мест.
+ */
+public interface HeldSeatsView {
+
+    UUID getId();
+
+    Long getTripId();
+
+    Integer getSeats();
+}
@@ -0,0 +1,14 @@
+package com.travelmaster.trip.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Активное удержание для постановки на таймер истечения.
+ */
+public interface HoldExpiryView {
+
+    UUID getId();
+
+    LocalDateTime getExpiresAt();
+}
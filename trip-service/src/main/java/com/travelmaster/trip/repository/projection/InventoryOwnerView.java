@@ -0,0 +1,19 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Режим горячего инвентаря поездки и её текущий владелец (экземпляр trip-service).
+ */
+public interface InventoryOwnerView {
+
+    Long getId();
+
+    Boolean getHotInventory();
+
+    String getInventoryOwner();
+
+    String getInventoryOwnerUrl();
+
+    Boolean getLeaseExpired();
+
+    String getStatus();
+}
@@ -0,0 +1,13 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Число доступных будущих поездок по маршруту (та же агрегация, что в popular_routes).
+ */
+public interface RouteCountView {
+
+    String getOrigin();
+
+    String getDestination();
+
+    Long getTripCount();
+}
@@ -0,0 +1,13 @@
+package com.travelmaster.trip.repository.projection;
+
+/**
+ * Состояние мест поездки после атомарного UPDATE ... RETURNING.
+ */
+public interface SeatCountView {
+
+    Integer getAvailableSeats();
+
+    String getStatus();
+
+    Long getVersion();
+}
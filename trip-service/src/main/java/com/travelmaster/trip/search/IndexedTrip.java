@@ -0,0 +1,93 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.entity.Trip;
+import com.travelmaster.trip.entity.TripStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Неизменяемая копия полей поездки, нужных поиску. Изменение поездки заменяет
+ * документ целиком, поэтому читатели индекса не видят частично обновлённых значений.
+ */
+final class IndexedTrip {
+
+    static final long NO_RETURN = Long.MIN_VALUE;
+
+    final long id;
+    final long version;
+    final String[] originTokens;
+    final String[] destinationTokens;
+    final long departure;       // epoch seconds (UTC)
+    final long returnTime;      // epoch seconds или NO_RETURN
+    final long priceCents;
+    final int availableSeats;
+    final TripStatus status;
+    final String provider;
+    final int providerOrdinal;  // номер в ProviderDictionary или NONE
+    final int departureHour;    // 0..23, для фасетов
+
+    private IndexedTrip(Trip trip, ProviderDictionary providers) {
+        this.id = trip.getId();
+        this.version = trip.getVersion() != null ? trip.getVersion() : 0L;
+        this.originTokens = TextNormalizer.tokens(trip.getOrigin());
+        this.destinationTokens = TextNormalizer.tokens(trip.getDestination());
+        this.departure = toEpochSecond(trip.getDepartureDate());
+        this.returnTime = trip.getReturnDate() != null ? toEpochSecond(trip.getReturnDate()) : NO_RETURN;
+        this.priceCents = toCents(trip.getPrice());
+        this.availableSeats = trip.getAvailableSeats() != null ? trip.getAvailableSeats() : 0;
+        this.status = trip.getStatus();
+        this.provider = trip.getProvider();
+        this.providerOrdinal = providers.ordinal(trip.getProvider());
+        this.departureHour = trip.getDepartureDate().getHour();
+    }
+
+    private IndexedTrip(IndexedTrip source, int availableSeats, TripStatus status, long version) {
+        this.id = source.id;
+        this.version = version;
+        this.originTokens = source.originTokens;
+        this.destinationTokens = source.destinationTokens;
+        this.departure = source.departure;
+        this.returnTime = source.returnTime;
+        this.priceCents = source.priceCents;
+        this.availableSeats = availableSeats;
+        this.status = status;
+        this.provider = source.provider;
+        this.providerOrdinal = source.providerOrdinal;
+        this.departureHour = source.departureHour;
+    }
+
+    static IndexedTrip from(Trip trip, ProviderDictionary providers) {
+        return new IndexedTrip(trip, providers);
+    }
+
+    /**
+     * Копия с новыми местами и статусом - после атомарного UPDATE сущность не загружается.
+     */
+    IndexedTrip withSeats(int availableSeats, TripStatus status, long version) {
+        return new IndexedTrip(this, availableSeats, status, version);
+    }
+
+    /**
+     * Длительность в секундах; поездки без даты возврата сортируются последними.
+     */
+    long duration() {
+        return returnTime == NO_RETURN ? Long.MAX_VALUE : returnTime - departure;
+    }
+
+    boolean sameKeys(IndexedTrip other) {
+        return departure == other.departure
+                && Arrays.equals(originTokens, other.originTokens)
+                && Arrays.equals(destinationTokens, other.destinationTokens);
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).longValue() : 0L;
+    }
+}
@@ -0,0 +1,123 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.dto.PlaceSuggestion;
+import com.travelmaster.trip.repository.TripRepository;
+import com.travelmaster.trip.repository.projection.RouteCountView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подсказки мест (origin/destination) для формы поиска.
+ *
+ * Каждое место попадает в {@link PlaceTrie} под несколькими ключами: полное
+ * нормализованное название, его латинская транслитерация и то же самое с начала
+ * каждого слова ("петербург" находит "Санкт-Петербург"). Запрос нормализуется так же
+ * и ищется в обоих вариантах - исходном и транслитерированном. Вес места - число
+ * доступных будущих поездок из него и в него.
+ *
+ * Дерево неизменяемо: фоновое перестроение собирает новое и подменяет ссылку.
+ */
+@Slf4j
+@Component
+public class PlaceSuggestIndex {
+
+    private final TripRepository tripRepository;
+    private final int maxSuggestions;
+    private final Timer suggestTimer;
+
+    private volatile PlaceTrie trie = PlaceTrie.empty();
+
+    public PlaceSuggestIndex(
+            TripRepository tripRepository,
+            MeterRegistry meterRegistry,
+            @Value("${trip.places.max-suggestions:10}") int maxSuggestions) {
+        this.tripRepository = tripRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.suggestTimer = Timer.builder("trip.places.suggest")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("trip.places.keys", this, index -> index.trie.size())
+                .register(meterRegistry);
+    }
+
+    public List<PlaceSuggestion> suggest(String query, int limit) {
+        return suggestTimer.record(() -> {
+            String normalized = TextNormalizer.normalize(query);
+            if (normalized.isEmpty()) {
+                return List.<PlaceSuggestion>of();
+            }
+            PlaceTrie current = trie;
+            Map<String, PlaceTrie.Place> merged = new LinkedHashMap<>();
+            for (PlaceTrie.Place place : current.find(normalized)) {
+                merged.putIfAbsent(place.getName(), place);
+            }
+            String latin = Transliterator.toLatin(normalized);
+            if (!latin.equals(normalized)) {
+                for (PlaceTrie.Place place : current.find(latin)) {
+                    merged.putIfAbsent(place.getName(), place);
+                }
+            }
+
+            return merged.values().stream()
+                    .sorted(PlaceTrie.BY_WEIGHT)
+                    .limit(Math.max(1, Math.min(limit, maxSuggestions)))
+                    .map(place -> new PlaceSuggestion(place.getName(), place.getWeight()))
+                    .toList();
+        });
+    }
+
+    @Scheduled(initialDelayString = "${trip.places.initial-delay-ms:0}",
+            fixedDelayString = "${trip.places.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            // Нормализованное название -> первое встреченное написание и суммарный вес
+            Map<String, String> names = new HashMap<>();
+            Map<String, Long> weights = new HashMap<>();
+            for (RouteCountView route : tripRepository.countAvailableRoutes()) {
+                for (String place : new String[]{route.getOrigin(), route.getDestination()}) {
+                    String key = TextNormalizer.normalize(place);
+                    if (!key.isEmpty()) {
+                        names.putIfAbsent(key, place.trim());
+                        weights.merge(key, route.getTripCount(), Long::sum);
+                    }
+                }
+            }
+
+            PlaceTrie.Builder builder = new PlaceTrie.Builder(maxSuggestions);
+            names.forEach((key, name) -> {
+                PlaceTrie.Place place = new PlaceTrie.Place(name, weights.get(key));
+                for (String suffix : wordSuffixes(key)) {
+                    builder.add(suffix, place);
+                    builder.add(Transliterator.toLatin(suffix), place);
+                }
+            });
+            trie = builder.build();
+            log.debug("Place suggestions rebuilt: {} places", names.size());
+        } catch (RuntimeException e) {
+            log.error("Place suggestions rebuild failed, keeping previous trie: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * "санкт петербург" -> ["санкт петербург", "петербург"].
+     */
+    private static List<String> wordSuffixes(String normalized) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            suffixes.add(normalized.substring(i + 1));
+        }
+        return suffixes;
+    }
+}
@@ -0,0 +1,162 @@
+package com.travelmaster.trip.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемое сжатое префиксное дерево (radix trie) названий мест.
+ *
+ * В каждом узле заранее сохранены top-K мест поддерева по весу, поэтому ответ на
+ * префикс - спуск на длину префикса плюс копирование не более K элементов,
+ * без обхода поддерева.
+ */
+final class PlaceTrie {
+
+    static final Comparator<Place> BY_WEIGHT =
+            Comparator.comparingLong(Place::getWeight).reversed().thenComparing(Place::getName);
+
+    private static final Node EMPTY_NODE = new Node(new char[0], new String[0], new Node[0], new Place[0]);
+
+    private final Node root;
+    private final int size;
+
+    private PlaceTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static PlaceTrie empty() {
+        return new PlaceTrie(EMPTY_NODE, 0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Top-K мест с ключом, начинающимся с prefix (K - задан при построении).
+     */
+    Place[] find(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int child = Arrays.binarySearch(node.firstChars, prefix.charAt(position));
+            if (child < 0) {
+                return EMPTY_NODE.top;
+            }
+            String label = node.labels[child];
+            int remaining = prefix.length() - position;
+            if (remaining >= label.length()) {
+                if (!prefix.startsWith(label, position)) {
+                    return EMPTY_NODE.top;
+                }
+                position += label.length();
+                node = node.children[child];
+            } else {
+                // Префикс заканчивается внутри ребра
+                return label.startsWith(prefix.substring(position)) ? node.children[child].top : EMPTY_NODE.top;
+            }
+        }
+        return node.top;
+    }
+
+    /**
+     * Место и его вес (число поездок).
+     */
+    @Value
+    static class Place {
+        String name;
+        long weight;
+    }
+
+    private static final class Node {
+
+        private final char[] firstChars;
+        private final String[] labels;
+        private final Node[] children;
+        private final Place[] top;
+
+        private Node(char[] firstChars, String[] labels, Node[] children, Place[] top) {
+            this.firstChars = firstChars;
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    /**
+     * Построение: обычное посимвольное дерево, затем сжатие цепочек без ветвлений
+     * и подсчёт top-K снизу вверх.
+     */
+    static final class Builder {
+
+        private final int topK;
+        private final BuildNode root = new BuildNode();
+        private int keys;
+
+        Builder(int topK) {
+            this.topK = topK;
+        }
+
+        Builder add(String key, Place place) {
+            if (key.isEmpty()) {
+                return this;
+            }
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            node.places.putIfAbsent(place.getName(), place);
+            keys++;
+            return this;
+        }
+
+        PlaceTrie build() {
+            return new PlaceTrie(compress(root), keys);
+        }
+
+        private Node compress(BuildNode node) {
+            int count = node.children.size();
+            char[] firstChars = new char[count];
+            String[] labels = new String[count];
+            Node[] children = new Node[count];
+
+            Map<String, Place> candidates = new LinkedHashMap<>(node.places);
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> entry : node.children.entrySet()) {
+                StringBuilder label = new StringBuilder().append(entry.getKey());
+                BuildNode child = entry.getValue();
+                while (child.places.isEmpty() && child.children.size() == 1) {
+                    Map.Entry<Character, BuildNode> only = child.children.firstEntry();
+                    label.append(only.getKey());
+                    child = only.getValue();
+                }
+                firstChars[i] = entry.getKey();
+                labels[i] = label.toString();
+                children[i] = compress(child);
+                for (Place place : children[i].top) {
+                    candidates.putIfAbsent(place.getName(), place);
+                }
+                i++;
+            }
+
+            List<Place> top = new ArrayList<>(candidates.values());
+            top.sort(BY_WEIGHT);
+            return new Node(firstChars, labels, children,
+                    top.subList(0, Math.min(topK, top.size())).toArray(new Place[0]));
+        }
+
+        private static final class BuildNode {
+            // TreeMap - дети уже отсортированы для бинарного поиска
+            private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+            private final Map<String, Place> places = new LinkedHashMap<>();
+        }
+    }
+}
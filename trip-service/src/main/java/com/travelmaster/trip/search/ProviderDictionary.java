@@ -0,0 +1,47 @@
+package com.travelmaster.trip.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Порядковые номера провайдеров для счётчиков фасетов: документ индекса хранит номер,
+ * поэтому подсчёт идёт по int[] без строковых ключей. Провайдеров единицы,
+ * словарь только растёт и переживает перестроения индекса.
+ */
+final class ProviderDictionary {
+
+    static final int NONE = -1;
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    int ordinal(String provider) {
+        if (provider == null) {
+            return NONE;
+        }
+        Integer ordinal = ordinals.get(provider);
+        return ordinal != null ? ordinal : register(provider);
+    }
+
+    /**
+     * Имена по номерам; массив не изменяется, новые провайдеры публикуются новым массивом.
+     */
+    String[] names() {
+        return names;
+    }
+
+    private synchronized int register(String provider) {
+        Integer existing = ordinals.get(provider);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = names.length;
+        String[] next = Arrays.copyOf(names, ordinal + 1);
+        next[ordinal] = provider;
+        // Сначала имя, потом номер: получивший номер всегда найдёт имя
+        names = next;
+        ordinals.put(provider, ordinal);
+        return ordinal;
+    }
+}
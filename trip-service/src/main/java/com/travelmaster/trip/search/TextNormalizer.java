@@ -0,0 +1,33 @@
+package com.travelmaster.trip.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Нормализация названий мест для поиска: нижний регистр, без диакритики
+ * (ё -> е, é -> e), любые разделители (пробел, дефис, скобки) - одиночный пробел.
+ */
+public final class TextNormalizer {
+
+    private static final String[] NO_TOKENS = new String[0];
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutMarks = MARKS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static String[] tokens(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? NO_TOKENS : normalized.split(" ");
+    }
+}
@@ -0,0 +1,34 @@
+package com.travelmaster.trip.search;
+
+/**
+ * Кириллица -> латиница для сопоставления "moskva" с "Москва" и "пари" с "Paris".
+ * Применяется к уже нормализованному тексту (нижний регистр, без диакритики).
+ */
+final class Transliterator {
+
+    private static final char FIRST = 'а';
+    private static final String[] LATIN = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "i", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"
+    };
+
+    private Transliterator() {
+    }
+
+    static String toLatin(String normalized) {
+        StringBuilder out = null;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            int index = c - FIRST;
+            if (index >= 0 && index < LATIN.length) {
+                if (out == null) {
+                    out = new StringBuilder(normalized.length() + 8).append(normalized, 0, i);
+                }
+                out.append(LATIN[index]);
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return out != null ? out.toString() : normalized;
+    }
+}
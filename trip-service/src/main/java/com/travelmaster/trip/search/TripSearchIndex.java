@@ -0,0 +1,508 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.dto.TripSearchFacets;
+import com.travelmaster.trip.dto.TripSearchRequest;
+import com.travelmaster.trip.entity.Trip;
+import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.repository.TripRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory поисковый индекс поездок.
+ *
+ * Названия мест нормализуются (регистр, диакритика, разделители) и разбиваются на токены;
+ * токен отображается в posting list поездок, упорядоченный по дате отправления. Поиск
+ * берёт из posting list токенов origin только окно нужной даты, остальные условия
+ * (destination, места, статус, цена) проверяются по документу поездки. Время ответа
+ * зависит от числа поездок из города в этот день, а не от размера каталога.
+ *
+ * Совпадение - по целым токенам, последний токен запроса может быть префиксом
+ * ("санкт пет" находит "Санкт-Петербург").
+ *
+ * Индекс обновляется после коммита изменений поездки (см. indexAfterCommit) и
+ * периодически перестраивается из БД целиком - это подхватывает изменения, сделанные
+ * в обход сервиса. Конкурирующие версии одной поездки разрешаются по @Version.
+ * Пока первое построение не завершено, поиск идёт через БД.
+ *
+ * Фасеты (ценовые диапазоны, провайдеры, час отправления) считаются в том же проходе
+ * по кандидатам, что и фильтрация, в массивы int[] - без отдельных запросов и boxed-карт.
+ */
+@Slf4j
+@Component
+public class TripSearchIndex {
+
+    private static final Comparator<IndexedTrip> BY_DEPARTURE =
+            Comparator.<IndexedTrip>comparingLong(trip -> trip.departure).thenComparingLong(trip -> trip.id);
+
+    private final TripRepository tripRepository;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final long[] priceBandBounds;
+    private final ProviderDictionary providers = new ProviderDictionary();
+    private final Timer queryTimer;
+    private final Timer rebuildTimer;
+
+    private volatile IndexData current = new IndexData();
+    private volatile IndexData building;
+    private volatile boolean ready;
+
+    public TripSearchIndex(
+            TripRepository tripRepository,
+            MeterRegistry meterRegistry,
+            @Value("${trip.search.index.enabled:true}") boolean enabled,
+            @Value("${trip.search.index.load-batch-size:1000}") int loadBatchSize,
+            @Value("${trip.search.facets.price-bands:5000,10000,20000,50000}") BigDecimal[] priceBands) {
+        this.tripRepository = tripRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.priceBandBounds = Arrays.stream(priceBands)
+                .mapToLong(IndexedTrip::toCents)
+                .sorted()
+                .distinct()
+                .toArray();
+        this.queryTimer = Timer.builder("trip.search.index.query")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rebuildTimer = meterRegistry.timer("trip.search.index.rebuild");
+        Gauge.builder("trip.search.index.documents", this, index -> index.current.documents.size())
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Страница результатов; фасеты - только для первой страницы запроса с facets = true.
+     */
+    public TripSearchResult search(TripSearchRequest request, int page, int size) {
+        return queryTimer.record(() -> {
+            FacetCounter facets = request.isFacets() && page == 0 ? new FacetCounter(priceBandBounds) : null;
+            List<IndexedTrip> matches = findMatches(request, facets);
+            matches.sort(comparator(request.getSortBy(), request.getSortDirection()));
+
+            int from = (int) Math.min((long) page * size, matches.size());
+            int to = Math.min(from + size, matches.size());
+            List<Long> ids = new ArrayList<>(to - from);
+            for (IndexedTrip trip : matches.subList(from, to)) {
+                ids.add(trip.id);
+            }
+            return new TripSearchResult(ids, matches.size(), facets != null ? facets.toFacets(providers) : null);
+        });
+    }
+
+    /**
+     * Обновляет поездку в индексе после коммита текущей транзакции (сразу - вне транзакции).
+     * Документ строится после коммита, когда у сущности уже новая @Version.
+     */
+    public void indexAfterCommit(Trip trip) {
+        if (enabled) {
+            runAfterCommit(() -> index(trip));
+        }
+    }
+
+    /**
+     * Обновляет места и статус поездки после коммита - для изменений одним UPDATE,
+     * когда сущность не загружалась. Остальные поля документа не меняются.
+     */
+    public void updateSeatsAfterCommit(long tripId, int availableSeats, TripStatus status, long version) {
+        if (enabled) {
+            runAfterCommit(() -> updateSeats(tripId, availableSeats, status, version));
+        }
+    }
+
+    public void index(Trip trip) {
+        if (!enabled || trip.getId() == null || trip.getDepartureDate() == null) {
+            return;
+        }
+        IndexedTrip document = IndexedTrip.from(trip, providers);
+        synchronized (this) {
+            current.upsert(document);
+            IndexData next = building;
+            if (next != null) {
+                next.upsert(document);
+            }
+        }
+    }
+
+    private synchronized void updateSeats(long tripId, int availableSeats, TripStatus status, long version) {
+        current.updateSeats(tripId, availableSeats, status, version);
+        IndexData next = building;
+        if (next != null) {
+            next.updateOrDeferSeats(tripId, availableSeats, status, version);
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Полное перестроение из БД (keyset-пагинация по id) с атомарной заменой индекса.
+     * Обновления, пришедшие во время построения, применяются и к новому индексу;
+     * обновления мест для ещё не загруженных поездок применяются после загрузки.
+     */
+    @Scheduled(initialDelayString = "${trip.search.index.initial-delay-ms:0}",
+            fixedDelayString = "${trip.search.index.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        IndexData next = new IndexData();
+        building = next;
+        try {
+            rebuildTimer.record(() -> load(next));
+            synchronized (this) {
+                next.applyDeferredSeats();
+                current = next;
+                building = null;
+            }
+            ready = true;
+            log.info("Trip search index rebuilt: {} trips", next.documents.size());
+        } catch (RuntimeException e) {
+            building = null;
+            log.error("Trip search index rebuild failed, keeping previous index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void load(IndexData target) {
+        long afterId = 0;
+        while (true) {
+            List<Trip> batch = tripRepository.findBatchAfterId(afterId, PageRequest.of(0, loadBatchSize));
+            for (Trip trip : batch) {
+                if (trip.getDepartureDate() != null) {
+                    IndexedTrip document = IndexedTrip.from(trip, providers);
+                    synchronized (this) {
+                        target.upsert(document);
+                    }
+                }
+            }
+            if (batch.size() < loadBatchSize) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private List<IndexedTrip> findMatches(TripSearchRequest request, FacetCounter facets) {
+        IndexData data = current;
+        String[] originQuery = TextNormalizer.tokens(request.getOrigin());
+        String[] destinationQuery = TextNormalizer.tokens(request.getDestination());
+        List<IndexedTrip> matches = new ArrayList<>();
+        if (originQuery.length == 0 || destinationQuery.length == 0) {
+            return matches;
+        }
+
+        LocalDate date = request.getDepartureDate();
+        long from = IndexedTrip.toEpochSecond(date.atStartOfDay());
+        long to = IndexedTrip.toEpochSecond(date.atTime(LocalTime.MAX));
+        int passengers = request.getPassengers() != null ? request.getPassengers() : 1;
+        long minPrice = request.getMinPrice() != null ? IndexedTrip.toCents(request.getMinPrice()) : Long.MIN_VALUE;
+        long maxPrice = request.getMaxPrice() != null ? IndexedTrip.toCents(request.getMaxPrice()) : Long.MAX_VALUE;
+
+        Set<Long> seen = new HashSet<>();
+        for (NavigableSet<Posting> postings : data.candidatePostings(originQuery)) {
+            for (Posting posting : postings.subSet(new Posting(from, Long.MIN_VALUE), true,
+                    new Posting(to, Long.MAX_VALUE), true)) {
+                if (!seen.add(posting.tripId)) {
+                    continue;
+                }
+                // Документ - источник истины: posting мог устареть между чтениями
+                IndexedTrip trip = data.documents.get(posting.tripId);
+                if (trip == null
+                        || trip.status != TripStatus.AVAILABLE
+                        || trip.availableSeats < passengers
+                        || trip.departure < from || trip.departure > to
+                        || !matchesTokens(trip.originTokens, originQuery)
+                        || !matchesTokens(trip.destinationTokens, destinationQuery)) {
+                    continue;
+                }
+                boolean inPriceRange = trip.priceCents >= minPrice && trip.priceCents <= maxPrice;
+                if (facets != null) {
+                    facets.count(trip, inPriceRange);
+                }
+                if (inPriceRange) {
+                    matches.add(trip);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Все токены запроса есть в поле; последний - как префикс токена поля.
+     */
+    static boolean matchesTokens(String[] fieldTokens, String[] queryTokens) {
+        for (int i = 0; i < queryTokens.length; i++) {
+            boolean prefix = i == queryTokens.length - 1;
+            boolean found = false;
+            for (String token : fieldTokens) {
+                if (prefix ? token.startsWith(queryTokens[i]) : token.equals(queryTokens[i])) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Порядок как у TripService.createSort; при равенстве - по дате отправления и id.
+     */
+    private static Comparator<IndexedTrip> comparator(String sortBy, String direction) {
+        Comparator<IndexedTrip> comparator = switch (sortBy != null ? sortBy.toLowerCase() : "") {
+            case "price" -> Comparator.comparingLong(trip -> trip.priceCents);
+            case "duration" -> Comparator.comparingLong(IndexedTrip::duration);
+            case "departuredate" -> BY_DEPARTURE;
+            default -> null;
+        };
+        if (comparator == null) {
+            return BY_DEPARTURE;
+        }
+        if ("DESC".equalsIgnoreCase(direction)) {
+            comparator = comparator.reversed();
+        }
+        return comparator.thenComparing(BY_DEPARTURE);
+    }
+
+    /**
+     * Счётчики фасетов одного запроса. Ценовой диапазон учитывает все поездки,
+     * прошедшие остальные фильтры, провайдер и час - только попавшие в ответ.
+     */
+    private static final class FacetCounter {
+
+        private final long[] priceBounds;
+        private final int[] priceBands;
+        private final int[] departureHours = new int[24];
+        private int[] providerCounts = new int[0];
+
+        private FacetCounter(long[] priceBounds) {
+            this.priceBounds = priceBounds;
+            this.priceBands = new int[priceBounds.length + 1];
+        }
+
+        void count(IndexedTrip trip, boolean inPriceRange) {
+            priceBands[priceBand(trip.priceCents)]++;
+            if (!inPriceRange) {
+                return;
+            }
+            departureHours[trip.departureHour]++;
+            int ordinal = trip.providerOrdinal;
+            if (ordinal != ProviderDictionary.NONE) {
+                if (ordinal >= providerCounts.length) {
+                    providerCounts = Arrays.copyOf(providerCounts, ordinal + 1);
+                }
+                providerCounts[ordinal]++;
+            }
+        }
+
+        /**
+         * Диапазон i - [bounds[i-1], bounds[i]), последний - без верхней границы.
+         */
+        private int priceBand(long priceCents) {
+            int position = Arrays.binarySearch(priceBounds, priceCents);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        TripSearchFacets toFacets(ProviderDictionary dictionary) {
+            List<TripSearchFacets.PriceBand> bands = new ArrayList<>(priceBands.length);
+            for (int i = 0; i < priceBands.length; i++) {
+                bands.add(new TripSearchFacets.PriceBand(
+                        i == 0 ? BigDecimal.ZERO.setScale(2) : BigDecimal.valueOf(priceBounds[i - 1], 2),
+                        i < priceBounds.length ? BigDecimal.valueOf(priceBounds[i], 2) : null,
+                        priceBands[i]));
+            }
+
+            // Номер выдан до публикации документа, поэтому имя уже есть в словаре
+            String[] names = dictionary.names();
+            List<TripSearchFacets.ProviderCount> providerList = new ArrayList<>();
+            for (int ordinal = 0; ordinal < providerCounts.length; ordinal++) {
+                if (providerCounts[ordinal] > 0) {
+                    providerList.add(new TripSearchFacets.ProviderCount(names[ordinal], providerCounts[ordinal]));
+                }
+            }
+            providerList.sort(Comparator.comparingInt(TripSearchFacets.ProviderCount::getCount).reversed()
+                    .thenComparing(TripSearchFacets.ProviderCount::getProvider));
+
+            return TripSearchFacets.builder()
+                    .priceBands(bands)
+                    .providers(providerList)
+                    .departureHours(departureHours)
+                    .build();
+        }
+    }
+
+    /**
+     * Элемент posting list: поездка, упорядоченная по дате отправления.
+     */
+    private static final class Posting implements Comparable<Posting> {
+
+        private final long departure;
+        private final long tripId;
+
+        private Posting(long departure, long tripId) {
+            this.departure = departure;
+            this.tripId = tripId;
+        }
+
+        @Override
+        public int compareTo(Posting other) {
+            int byDeparture = Long.compare(departure, other.departure);
+            return byDeparture != 0 ? byDeparture : Long.compare(tripId, other.tripId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Posting other && departure == other.departure && tripId == other.tripId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(departure) * 31 + Long.hashCode(tripId);
+        }
+    }
+
+    private static final class SeatUpdate {
+
+        private final int availableSeats;
+        private final TripStatus status;
+        private final long version;
+
+        private SeatUpdate(int availableSeats, TripStatus status, long version) {
+            this.availableSeats = availableSeats;
+            this.status = status;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Документы и posting lists по токенам origin. Читается без блокировок,
+     * изменяется под монитором индекса.
+     */
+    private static final class IndexData {
+
+        private final Map<Long, IndexedTrip> documents = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, NavigableSet<Posting>> originPostings =
+                new ConcurrentSkipListMap<>();
+        // Только для строящегося индекса, под монитором индекса
+        private final Map<Long, SeatUpdate> deferredSeats = new HashMap<>();
+
+        void upsert(IndexedTrip document) {
+            IndexedTrip existing = documents.get(document.id);
+            if (existing != null && existing.version > document.version) {
+                return;
+            }
+            if (existing != null && existing.sameKeys(document)) {
+                // Изменились только места/цена/статус - posting lists не трогаем
+                documents.put(document.id, document);
+                return;
+            }
+            // Сначала новые postings, потом документ, потом удаление старых:
+            // читатель не пропускает поездку в момент замены
+            addPostings(document);
+            documents.put(document.id, document);
+            if (existing != null) {
+                removePostings(existing);
+            }
+        }
+
+        void updateSeats(long tripId, int availableSeats, TripStatus status, long version) {
+            IndexedTrip existing = documents.get(tripId);
+            // Поездки нет в индексе - её добавит ближайшее перестроение
+            if (existing != null) {
+                upsert(existing.withSeats(availableSeats, status, version));
+            }
+        }
+
+        /**
+         * Для строящегося индекса: поездка может быть ещё не загружена, а загрузка -
+         * прочитать её из БД до этого изменения. Обновление запоминается (последняя версия)
+         * и применяется после загрузки; устаревшее отбросит сравнение @Version в upsert.
+         */
+        void updateOrDeferSeats(long tripId, int availableSeats, TripStatus status, long version) {
+            if (documents.containsKey(tripId)) {
+                updateSeats(tripId, availableSeats, status, version);
+                return;
+            }
+            deferredSeats.merge(tripId, new SeatUpdate(availableSeats, status, version),
+                    (previous, update) -> previous.version >= update.version ? previous : update);
+        }
+
+        void applyDeferredSeats() {
+            deferredSeats.forEach((tripId, update) ->
+                    updateSeats(tripId, update.availableSeats, update.status, update.version));
+            deferredSeats.clear();
+        }
+
+        /**
+         * Posting lists для первого токена origin: точный токен или, если токен
+         * в запросе один, все токены с таким префиксом.
+         */
+        Collection<NavigableSet<Posting>> candidatePostings(String[] originQuery) {
+            String driver = originQuery[0];
+            if (originQuery.length > 1) {
+                NavigableSet<Posting> postings = originPostings.get(driver);
+                return postings != null ? List.of(postings) : List.of();
+            }
+            return originPostings.subMap(driver, true, driver + Character.MAX_VALUE, false).values();
+        }
+
+        private void addPostings(IndexedTrip document) {
+            Posting posting = new Posting(document.departure, document.id);
+            for (String token : document.originTokens) {
+                originPostings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>()).add(posting);
+            }
+        }
+
+        private void removePostings(IndexedTrip document) {
+            Posting posting = new Posting(document.departure, document.id);
+            for (String token : document.originTokens) {
+                NavigableSet<Posting> postings = originPostings.get(token);
+                if (postings != null) {
+                    postings.remove(posting);
+                    if (postings.isEmpty()) {
+                        originPostings.remove(token, postings);
+                    }
+                }
+            }
+        }
+    }
+}
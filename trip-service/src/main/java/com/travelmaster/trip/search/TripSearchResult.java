@@ -0,0 +1,20 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.dto.TripSearchFacets;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска по индексу: id поездок в порядке сортировки,
+ * общее число подходящих поездок и фасеты (null, если не запрошены).
+ */
+@Value
+public class TripSearchResult {
+
+    List<Long> tripIds;
+
+    long totalElements;
+
+    TripSearchFacets facets;
+}
@@ -0,0 +1,357 @@
+package com.travelmaster.trip.service;
+
+import com.travelmaster.trip.dto.SeatHoldRequest;
+import com.travelmaster.trip.dto.SeatHoldResponse;
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.entity.SeatHold;
+import com.travelmaster.trip.entity.SeatHoldStatus;
+import com.travelmaster.trip.hold.HoldExpiryTimer;
+import com.travelmaster.trip.hold.SeatHoldException;
+import com.travelmaster.trip.hold.SeatReturnStore;
+import com.travelmaster.trip.inventory.HotInventory;
+import com.travelmaster.trip.inventory.HotInventoryClient;
+import com.travelmaster.trip.repository.SeatHoldRepository;
+import com.travelmaster.trip.repository.projection.HeldSeatsView;
+import com.travelmaster.trip.repository.projection.HoldExpiryView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Удержание мест на время оформления заказа.
+ *
+ * Места списываются с поездки при создании удержания (тем же путём, что и
+ * резервирование, включая горячий инвентарь) и возвращаются при отмене или
+ * истечении срока. Истечение ведёт HoldExpiryTimer, а не периодический обход таблицы;
+ * истёкшие удержания закрываются пакетом, места возвращаются одним UPDATE на поездку.
+ *
+ * Места горячих поездок возвращаются после коммита: память владельца не откатывается
+ * вместе с транзакцией. Долг хранится в БД (seat_holds.return_pending) и переживает
+ * рестарт; возврат места в память и снятие флага не атомарны, поэтому падение между
+ * ними приводит к повторному возврату после attemptTimeout.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final TripService tripService;
+    private final HotInventory hotInventory;
+    private final HotInventoryClient hotInventoryClient;
+    private final HoldExpiryTimer holdExpiryTimer;
+    private final SeatReturnStore seatReturnStore;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Duration returnAttemptTimeout;
+
+    // Подсказка частому циклу, что в БД появились места к возврату; источник истины - return_pending
+    private final AtomicBoolean returnsPending = new AtomicBoolean(true);
+
+    public SeatHoldService(
+            SeatHoldRepository seatHoldRepository,
+            TripService tripService,
+            HotInventory hotInventory,
+            HotInventoryClient hotInventoryClient,
+            HoldExpiryTimer holdExpiryTimer,
+            SeatReturnStore seatReturnStore,
+            @Value("${trip.holds.default-ttl:10m}") Duration defaultTtl,
+            @Value("${trip.holds.max-ttl:30m}") Duration maxTtl,
+            @Value("${trip.holds.return-attempt-timeout:1m}") Duration returnAttemptTimeout) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.tripService = tripService;
+        this.hotInventory = hotInventory;
+        this.hotInventoryClient = hotInventoryClient;
+        this.holdExpiryTimer = holdExpiryTimer;
+        this.seatReturnStore = seatReturnStore;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.returnAttemptTimeout = returnAttemptTimeout;
+    }
+
+    @Transactional
+    public SeatHoldResponse createHold(Long tripId, Long userId, SeatHoldRequest request) {
+        int seats = request.getSeats();
+        Duration ttl = resolveTtl(request.getTtlSeconds());
+        log.info("Удержание {} мест поездки ID {} на {} для пользователя {}", seats, tripId, ttl, userId);
+
+        UUID holdId = UUID.randomUUID();
+        Optional<SeatReservationResult> hotResult = hotInventory.reserve(tripId, seats);
+        boolean hot = hotResult.isPresent();
+        SeatReservationResult result = hotResult.orElseGet(() -> tripService.reserveSeats(tripId, seats));
+        if (result == SeatReservationResult.REMOTE) {
+            hot = true;
+            result = hotInventoryClient.reserve(tripId, seats);
+        }
+        switch (result) {
+            case RESERVED -> { }
+            case INSUFFICIENT_SEATS -> throw new SeatHoldException(HttpStatus.CONFLICT,
+                    "Недостаточно мест для поездки " + tripId);
+            case NOT_FOUND -> throw new SeatHoldException(HttpStatus.NOT_FOUND,
+                    "Поездка " + tripId + " не найдена");
+            default -> throw new SeatHoldException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Места поездки " + tripId + " временно недоступны, повторите запрос");
+        }
+        if (hot) {
+            // Откат транзакции не вернёт места из памяти владельца
+            runAfterRollback(() -> recordUnreturned(holdId, tripId, seats));
+        }
+
+        // Точность TIMESTAMP в БД - микросекунды
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        SeatHold hold = seatHoldRepository.save(SeatHold.builder()
+                .id(holdId)
+                .tripId(tripId)
+                .userId(userId)
+                .seats(seats)
+                .status(SeatHoldStatus.HELD)
+                .expiresAt(now.plus(ttl))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        runAfterCommit(() -> holdExpiryTimer.schedule(hold.getId(), hold.getExpiresAt()));
+        return toResponse(hold, SeatHoldStatus.HELD);
+    }
+
+    /**
+     * Подтверждение оставляет места за заказом. Повторное подтверждение идемпотентно,
+     * истёкшее удержание подтвердить нельзя, даже если таймер ещё не сработал.
+     * Чужое удержание для пользователя не существует (404).
+     */
+    @Transactional
+    public SeatHoldResponse confirmHold(Long tripId, UUID holdId, Long userId) {
+        boolean confirmed = seatHoldRepository.confirm(holdId, tripId, userId, LocalDateTime.now()) == 1;
+        SeatHold hold = findHold(tripId, holdId, userId);
+        if (confirmed) {
+            runAfterCommit(() -> holdExpiryTimer.cancel(holdId));
+            log.info("Удержание {} поездки ID {} подтверждено", holdId, tripId);
+            return toResponse(hold, SeatHoldStatus.CONFIRMED);
+        }
+        return switch (hold.getStatus()) {
+            case CONFIRMED -> toResponse(hold, SeatHoldStatus.CONFIRMED);
+            case RELEASED -> throw new SeatHoldException(HttpStatus.CONFLICT,
+                    "Удержание " + holdId + " уже отменено");
+            case HELD, EXPIRED -> throw new SeatHoldException(HttpStatus.GONE,
+                    "Срок удержания " + holdId + " истёк");
+        };
+    }
+
+    /**
+     * Отмена возвращает места поездке. Повторная отмена и отмена истёкшего
+     * удержания идемпотентны: места уже возвращены.
+     */
+    @Transactional
+    public SeatHoldResponse releaseHold(Long tripId, UUID holdId, Long userId) {
+        SeatHold hold = findHold(tripId, holdId, userId);
+        if (seatHoldRepository.release(holdId, tripId, userId, LocalDateTime.now()) == 1) {
+            returnSeats(tripId, hold.getSeats(), List.of(holdId));
+            runAfterCommit(() -> holdExpiryTimer.cancel(holdId));
+            log.info("Удержание {} поездки ID {} отменено, возвращено мест: {}", holdId, tripId, hold.getSeats());
+            return toResponse(hold, SeatHoldStatus.RELEASED);
+        }
+        // Строку мог изменить параллельный запрос - статус перечитывается
+        SeatHoldStatus status = seatHoldRepository.findStatus(holdId).orElse(hold.getStatus());
+        if (status == SeatHoldStatus.CONFIRMED) {
+            throw new SeatHoldException(HttpStatus.CONFLICT, "Удержание " + holdId + " уже подтверждено");
+        }
+        return toResponse(hold, status);
+    }
+
+    /**
+     * Закрывает пакет истёкших удержаний одним UPDATE и возвращает их места
+     * одним UPDATE на поездку.
+     *
+     * @return число истёкших удержаний
+     */
+    @Transactional
+    public int expireHolds(Collection<UUID> holdIds) {
+        if (holdIds.isEmpty()) {
+            return 0;
+        }
+        List<HeldSeatsView> expired = seatHoldRepository.expire(holdIds, LocalDateTime.now());
+        Map<Long, List<HeldSeatsView>> seatsByTrip = groupByTrip(expired);
+        seatsByTrip.forEach((tripId, holds) -> returnSeats(tripId, sumSeats(holds), ids(holds)));
+        if (!expired.isEmpty()) {
+            log.info("Истекло удержаний: {}, поездок: {}", expired.size(), seatsByTrip.size());
+        }
+        return expired.size();
+    }
+
+    /**
+     * Возвращает места, отложенные до коммита или не вернувшиеся с первой попытки,
+     * если с прошлого вызова такие появились. Вызывается вне транзакции.
+     */
+    public void returnPendingSeats(int batchSize) {
+        if (returnsPending.getAndSet(false)) {
+            try {
+                sweepPendingReturns(batchSize);
+            } catch (RuntimeException e) {
+                returnsPending.set(true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Возвращает места всех удержаний с return_pending, включая оставленные упавшим
+     * экземпляром. Неудавшийся возврат снимает захват и повторяется следующим вызовом.
+     */
+    public void sweepPendingReturns(int batchSize) {
+        for (List<HeldSeatsView> claimed = seatReturnStore.claim(batchSize, returnAttemptTimeout);
+             !claimed.isEmpty(); claimed = seatReturnStore.claim(batchSize, returnAttemptTimeout)) {
+            boolean failed = false;
+            for (Map.Entry<Long, List<HeldSeatsView>> trip : groupByTrip(claimed).entrySet()) {
+                Long tripId = trip.getKey();
+                int seats = sumSeats(trip.getValue());
+                // Без транзакции: горячая поездка возвращает места в память, не занимая соединение
+                SeatReservationResult result = hotInventory.release(tripId, seats)
+                        .orElseGet(() -> tripService.releaseSeats(tripId, seats));
+                if (result == SeatReservationResult.REMOTE) {
+                    result = hotInventoryClient.release(tripId, seats);
+                }
+                if (result == SeatReservationResult.RELEASED || result == SeatReservationResult.NOT_FOUND) {
+                    seatReturnStore.markReturned(ids(trip.getValue()));
+                } else {
+                    log.warn("Не удалось вернуть {} мест поездки ID {}: {}, повтор позже", seats, tripId, result);
+                    seatReturnStore.unclaim(ids(trip.getValue()));
+                    failed = true;
+                }
+            }
+            if (failed) {
+                // Иначе тот же пакет захватывался бы снова в этом же цикле
+                returnsPending.set(true);
+                return;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldExpiryView> findActiveHolds() {
+        return seatHoldRepository.findActive();
+    }
+
+    /**
+     * Удержания, просроченные дольше grace: их таймеры потеряны вместе с экземпляром,
+     * который их создал.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findOverdueHolds(Duration grace, int limit) {
+        return seatHoldRepository.findOverdue(LocalDateTime.now().minus(grace), PageRequest.of(0, limit));
+    }
+
+    private Duration resolveTtl(Integer ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultTtl;
+        }
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    private SeatHold findHold(Long tripId, UUID holdId, Long userId) {
+        return seatHoldRepository.findById(holdId)
+                .filter(hold -> hold.getTripId().equals(tripId) && userId.equals(hold.getUserId()))
+                .orElseThrow(() -> new SeatHoldException(HttpStatus.NOT_FOUND,
+                        "Удержание " + holdId + " не найдено"));
+    }
+
+    /**
+     * Места обычной поездки возвращаются в текущей транзакции, вместе со сменой
+     * статуса удержания; горячей - после коммита, по флагу return_pending.
+     */
+    private void returnSeats(Long tripId, int seats, Collection<UUID> holdIds) {
+        if (!hotInventory.isActive(tripId)) {
+            SeatReservationResult result = tripService.releaseSeats(tripId, seats);
+            if (result == SeatReservationResult.RELEASED || result == SeatReservationResult.NOT_FOUND) {
+                seatHoldRepository.markReturned(holdIds);
+                return;
+            }
+        }
+        runAfterCommit(() -> returnsPending.set(true));
+    }
+
+    private void recordUnreturned(UUID holdId, Long tripId, int seats) {
+        try {
+            seatReturnStore.recordUnreturned(holdId, tripId, seats);
+            returnsPending.set(true);
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить долг {} мест поездки ID {} после отката удержания: {}",
+                    seats, tripId, e.getMessage(), e);
+        }
+    }
+
+    private static Map<Long, List<HeldSeatsView>> groupByTrip(List<HeldSeatsView> holds) {
+        Map<Long, List<HeldSeatsView>> byTrip = new LinkedHashMap<>();
+        for (HeldSeatsView hold : holds) {
+            byTrip.computeIfAbsent(hold.getTripId(), id -> new ArrayList<>()).add(hold);
+        }
+        return byTrip;
+    }
+
+    private static int sumSeats(List<HeldSeatsView> holds) {
+        int seats = 0;
+        for (HeldSeatsView hold : holds) {
+            seats += hold.getSeats();
+        }
+        return seats;
+    }
+
+    private static List<UUID> ids(List<HeldSeatsView> holds) {
+        List<UUID> ids = new ArrayList<>(holds.size());
+        for (HeldSeatsView hold : holds) {
+            ids.add(hold.getId());
+        }
+        return ids;
+    }
+
+    private static SeatHoldResponse toResponse(SeatHold hold, SeatHoldStatus status) {
+        return SeatHoldResponse.builder()
+                .holdId(hold.getId())
+                .tripId(hold.getTripId())
+                .seats(hold.getSeats())
+                .status(status.name())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void runAfterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
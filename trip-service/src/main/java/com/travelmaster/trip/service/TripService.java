@@ -2,12 +2,21 @@ package com.travelmaster.trip.service;
 
 import com.travelmaster.common.dto.PageResponse;
 import com.travelmaster.common.exception.EntityNotFoundException;
+import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.trip.dto.PlaceSuggestion;
+import com.travelmaster.trip.dto.SeatReservationResult;
 import com.travelmaster.trip.dto.TripResponse;
 import com.travelmaster.trip.dto.TripSearchRequest;
+import com.travelmaster.trip.dto.TripSearchResponse;
 import com.travelmaster.trip.entity.Trip;
 import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.inventory.HotInventory;
 import com.travelmaster.trip.mapper.TripMapper;
 import com.travelmaster.trip.repository.TripRepository;
+import com.travelmaster.trip.repository.projection.SeatCountView;
+import com.travelmaster.trip.search.PlaceSuggestIndex;
+import com.travelmaster.trip.search.TripSearchIndex;
+import com.travelmaster.trip.search.TripSearchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -22,14 +31,26 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TripService {
 
+    // Верхняя граница DECIMAL(10, 2) - фильтр без maxPrice
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
     private final TripRepository tripRepository;
     private final TripMapper tripMapper;
+    private final TripSearchIndex tripSearchIndex;
+    private final PlaceSuggestIndex placeSuggestIndex;
+    private final HotInventory hotInventory;
 
     @Cacheable(value = "trips", key = "#id")
     @Transactional(readOnly = true)
@@ -40,11 +61,24 @@ public class TripService {
         return tripMapper.toResponse(trip);
     }
 
+    /**
+     * Поиск по in-memory индексу (id нужной страницы), сами поездки - по первичному ключу.
+     * Фасеты считаются индексом в том же проходе и возвращаются с первой страницей.
+     * Пока индекс не построен или выключен - запросом к БД, без фасетов.
+     */
     @Transactional(readOnly = true)
-    public PageResponse<TripResponse> searchTrips(TripSearchRequest request, int page, int size) {
+    public TripSearchResponse search(TripSearchRequest request, int page, int size) {
         log.info("Поиск поездок: {} → {}, passengers: {}", 
                 request.getOrigin(), request.getDestination(), request.getPassengers());
 
+        if (tripSearchIndex.isReady()) {
+            TripSearchResult result = tripSearchIndex.search(request, page, size);
+            return TripSearchResponse.builder()
+                    .page(mapToPageResponse(findAllInOrder(result.getTripIds()), page, size, result.getTotalElements()))
+                    .facets(result.getFacets())
+                    .build();
+        }
+
         // Создание Pageable с сортировкой
         Sort sort = createSort(request.getSortBy(), request.getSortDirection());
         Pageable pageable = PageRequest.of(page, size, sort);
@@ -54,28 +88,19 @@ public class TripService {
         LocalDateTime endDate = request.getDepartureDate().atTime(LocalTime.MAX);
 
         Page<Trip> tripsPage = tripRepository.searchTrips(
-                request.getOrigin(),
-                request.getDestination(),
+                escapeLike(request.getOrigin().trim()),
+                escapeLike(request.getDestination().trim()),
                 startDate,
                 endDate,
-                request.getPassengers(),
+                request.getMinPrice() != null ? request.getMinPrice() : BigDecimal.ZERO,
+                request.getMaxPrice() != null ? request.getMaxPrice() : MAX_PRICE,
+                request.getPassengers() != null ? request.getPassengers() : 1,
                 pageable
         );
 
-        // Фильтрация по цене если указано
-        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
-            BigDecimal min = request.getMinPrice() != null ? request.getMinPrice() : BigDecimal.ZERO;
-            BigDecimal max = request.getMaxPrice() != null ? request.getMaxPrice() : BigDecimal.valueOf(Double.MAX_VALUE);
-            
-            tripsPage = tripsPage.map(trip -> {
-                if (trip.getPrice().compareTo(min) >= 0 && trip.getPrice().compareTo(max) <= 0) {
-                    return trip;
-                }
-                return null;
-            }).map(trip -> trip);
-        }
-
-        return mapToPageResponse(tripsPage);
+        return TripSearchResponse.builder()
+                .page(mapToPageResponse(tripsPage))
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -86,40 +111,61 @@ public class TripService {
         return mapToPageResponse(tripsPage);
     }
 
+    /**
+     * Резервирование одним условным UPDATE: без чтения сущности и конфликтов @Version
+     * под конкуренцией за одну поездку. Причина отказа уточняется только при неудаче.
+     *
+     * Только путь через БД: горячие поездки (flash sale) резервируются из памяти владельца
+     * (HotInventory) до вызова этого метода, в нетранзакционной точке входа
+     * (InternalTripController, SeatHoldService). Иначе каждое резервирование из памяти
+     * занимало бы соединение пула на время транзакции и записи в лог.
+     */
     @CacheEvict(value = "trips", key = "#tripId")
     @Transactional
-    public void reserveSeats(Long tripId, int count) {
+    public SeatReservationResult reserveSeats(Long tripId, int count) {
         log.info("Резервирование {} мест для поездки ID: {}", count, tripId);
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new EntityNotFoundException("Trip", tripId));
-
-        trip.reserveSeats(count);
+        requirePositive(count);
 
-        // Обновляем статус если мест не осталось
-        if (trip.getAvailableSeats() == 0) {
-            trip.setStatus(TripStatus.FULL);
+        Optional<SeatCountView> updated = tripRepository.reserveSeats(tripId, count);
+        if (updated.isEmpty()) {
+            SeatReservationResult result = failureReason(tripId, SeatReservationResult.INSUFFICIENT_SEATS,
+                    SeatReservationResult.INSUFFICIENT_SEATS);
+            log.info("Места для поездки ID {} не зарезервированы: {}", tripId, result);
+            return result;
         }
 
-        tripRepository.save(trip);
-        log.info("Места зарезервированы. Осталось доступных: {}", trip.getAvailableSeats());
+        SeatCountView seats = updated.get();
+        updateIndex(tripId, seats);
+        log.info("Места зарезервированы. Осталось доступных: {}", seats.getAvailableSeats());
+        return SeatReservationResult.RESERVED;
     }
 
+    /**
+     * Возврат мест через БД; горячие поездки возвращаются в память до вызова, см. reserveSeats.
+     */
     @CacheEvict(value = "trips", key = "#tripId")
     @Transactional
-    public void releaseSeats(Long tripId, int count) {
+    public SeatReservationResult releaseSeats(Long tripId, int count) {
         log.info("Освобождение {} мест для поездки ID: {}", count, tripId);
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new EntityNotFoundException("Trip", tripId));
+        requirePositive(count);
 
-        trip.releaseSeats(count);
-
-        // Обновляем статус если были мест не было, а теперь появились
-        if (trip.getStatus() == TripStatus.FULL && trip.getAvailableSeats() > 0) {
-            trip.setStatus(TripStatus.AVAILABLE);
+        Optional<SeatCountView> updated = tripRepository.releaseSeats(tripId, count);
+        if (updated.isEmpty()) {
+            // Поездка снята с продажи - возвращать места некуда, повтор не нужен
+            return failureReason(tripId, SeatReservationResult.UNAVAILABLE, SeatReservationResult.NOT_FOUND);
         }
 
-        tripRepository.save(trip);
-        log.info("Места освобождены. Доступно: {}", trip.getAvailableSeats());
+        SeatCountView seats = updated.get();
+        updateIndex(tripId, seats);
+        log.info("Места освобождены. Доступно: {}", seats.getAvailableSeats());
+        return SeatReservationResult.RELEASED;
+    }
+
+    /**
+     * Подсказки мест по префиксу из in-memory дерева, без обращения к БД.
+     */
+    public List<PlaceSuggestion> suggestPlaces(String query, int limit) {
+        return placeSuggestIndex.suggest(query, limit);
     }
 
     @Transactional(readOnly = true)
@@ -132,13 +178,79 @@ public class TripService {
                 ? Sort.Direction.DESC 
                 : Sort.Direction.ASC;
 
-        return switch (sortBy.toLowerCase()) {
+        return switch (sortBy != null ? sortBy.toLowerCase() : "") {
             case "price" -> Sort.by(sortDirection, "price");
             case "departuredate" -> Sort.by(sortDirection, "departureDate");
+            // Поездки без даты возврата - в конце при любом направлении
+            case "duration" -> Sort.by(new Sort.Order(sortDirection, "durationSeconds").nullsLast())
+                    .and(Sort.by("departureDate"));
             default -> Sort.by(Sort.Direction.ASC, "departureDate");
         };
     }
 
+    /**
+     * Условный UPDATE не изменил строку: поездки нет, ею владеет горячий инвентарь
+     * или не выполнено условие запроса (ifUnowned).
+     */
+    private SeatReservationResult failureReason(Long tripId, SeatReservationResult ifUnowned,
+                                                SeatReservationResult ifClosed) {
+        return tripRepository.findInventoryOwner(tripId)
+                .map(trip -> {
+                    if (trip.getInventoryOwner() == null) {
+                        return isOnSale(trip.getStatus()) ? ifUnowned : ifClosed;
+                    }
+                    // Своя горячая поездка ещё не активирована (восстановление после старта)
+                    return hotInventory.isLocalOwner(trip.getInventoryOwner())
+                            ? SeatReservationResult.UNAVAILABLE
+                            : SeatReservationResult.REMOTE;
+                })
+                .orElse(SeatReservationResult.NOT_FOUND);
+    }
+
+    private static boolean isOnSale(String status) {
+        return TripStatus.AVAILABLE.name().equals(status) || TripStatus.FULL.name().equals(status);
+    }
+
+    private void updateIndex(Long tripId, SeatCountView seats) {
+        tripSearchIndex.updateSeatsAfterCommit(tripId, seats.getAvailableSeats(),
+                TripStatus.valueOf(seats.getStatus()), seats.getVersion());
+    }
+
+    private static void requirePositive(int count) {
+        if (count < 1) {
+            throw new ValidationException("Количество мест должно быть положительным");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private List<Trip> findAllInOrder(List<Long> ids) {
+        Map<Long, Trip> byId = tripRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Trip::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private PageResponse<TripResponse> mapToPageResponse(List<Trip> trips, int page, int size, long totalElements) {
+        int totalPages = size > 0 ? (int) ((totalElements + size - 1) / size) : 0;
+        return PageResponse.<TripResponse>builder()
+                .content(trips.stream()
+                        .map(tripMapper::toResponse)
+                        .toList())
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(page == 0)
+                .last(page >= totalPages - 1)
+                .empty(trips.isEmpty())
+                .build();
+    }
+
     private PageResponse<TripResponse> mapToPageResponse(Page<Trip> page) {
         return PageResponse.<TripResponse>builder()
                 .content(page.getContent().stream()
@@ -0,0 +1,21 @@
+-- ================================================================
+-- Trip Service - V4: Price filter and duration sort in search query
+-- ================================================================
+-- Описание: фильтр по цене и сортировка по длительности выполняются в
+-- TripRepository.searchTrips, а не после выборки страницы
+-- ================================================================
+
+-- Длительность поездки для ORDER BY без вычисления выражения по каждой строке
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS duration_seconds BIGINT
+    GENERATED ALWAYS AS (EXTRACT(EPOCH FROM (return_date - departure_date))::BIGINT) STORED;
+
+-- Поиск: префикс origin/destination без учёта регистра, окно даты, диапазон цены.
+-- text_pattern_ops - чтобы LIKE 'prefix%' использовал индекс при любой collation
+CREATE INDEX IF NOT EXISTS idx_trips_search_price ON trips (
+    LOWER(origin) text_pattern_ops,
+    LOWER(destination) text_pattern_ops,
+    departure_date,
+    price
+) WHERE status = 'AVAILABLE';
+
+COMMENT ON INDEX idx_trips_search_price IS 'Составной partial index для поиска с фильтром по цене';
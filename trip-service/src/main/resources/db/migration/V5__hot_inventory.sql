@@ -0,0 +1,30 @@
+-- ================================================================
+-- Trip Service - V5: Hot inventory for flash-sale trips
+-- ================================================================
+-- Описание: места поездок с hot_inventory = true держит в памяти один
+-- экземпляр trip-service (владелец по аренде) и сбрасывает их в trips
+-- пакетами (write-behind), см. HotInventory
+-- ================================================================
+
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS hot_inventory BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS inventory_owner VARCHAR(100);
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS inventory_owner_url VARCHAR(255);
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS inventory_lease_until TIMESTAMP;
+
+-- Горячих поездок единицы - обход при обновлении аренд не читает всю таблицу
+CREATE INDEX IF NOT EXISTS idx_trips_hot_inventory ON trips (id)
+    WHERE hot_inventory OR inventory_owner IS NOT NULL;
+
+-- Последняя запись локального лога экземпляра, применённая к поездке.
+-- Восстановление после сбоя повторяет только записи с большим номером
+CREATE TABLE IF NOT EXISTS hot_inventory_checkpoints (
+    instance_id VARCHAR(100) NOT NULL,
+    trip_id BIGINT NOT NULL REFERENCES trips(id) ON DELETE CASCADE,
+    flushed_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (instance_id, trip_id)
+);
+
+COMMENT ON COLUMN trips.hot_inventory IS 'Места поездки обслуживаются из памяти владельца (flash sale)';
+COMMENT ON COLUMN trips.inventory_owner IS 'Экземпляр trip-service, владеющий счётчиком мест горячей поездки';
+COMMENT ON TABLE hot_inventory_checkpoints IS 'Номер последней сброшенной записи лога горячего инвентаря по экземпляру и поездке';
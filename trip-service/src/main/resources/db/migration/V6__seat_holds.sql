@@ -0,0 +1,28 @@
+-- ================================================================
+-- Trip Service - V6: Time-limited seat holds
+-- ================================================================
+-- Описание: удержание мест на время оформления заказа. Места списываются
+-- с поездки при создании удержания и возвращаются при отмене или
+-- истечении срока, см. SeatHoldService
+-- ================================================================
+
+CREATE TABLE IF NOT EXISTS seat_holds (
+    id UUID PRIMARY KEY,
+    trip_id BIGINT NOT NULL REFERENCES trips(id) ON DELETE CASCADE,
+    seats INTEGER NOT NULL CHECK (seats > 0),
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Активных удержаний немного относительно истории: восстановление таймеров
+-- после рестарта и страховочный обход читают только их
+CREATE INDEX IF NOT EXISTS idx_seat_holds_active ON seat_holds (expires_at)
+    WHERE status = 'HELD';
+
+CREATE INDEX IF NOT EXISTS idx_seat_holds_trip ON seat_holds (trip_id);
+
+COMMENT ON TABLE seat_holds IS 'Удержания мест на время оформления заказа';
+COMMENT ON COLUMN seat_holds.status IS 'HELD, CONFIRMED, RELEASED, EXPIRED';
+COMMENT ON COLUMN seat_holds.expires_at IS 'Срок удержания; по истечении места возвращаются поездке';
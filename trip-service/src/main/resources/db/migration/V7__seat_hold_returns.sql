@@ -0,0 +1,17 @@
+-- ================================================================
+-- Trip Service - V7: Durable seat returns of seat holds
+-- ================================================================
+-- Описание: места отменённого или истёкшего удержания горячей поездки
+-- возвращаются после коммита. Флаг return_pending сохраняет долг в БД,
+-- чтобы рестарт экземпляра не терял места, см. SeatHoldService
+-- ================================================================
+
+ALTER TABLE seat_holds ADD COLUMN IF NOT EXISTS return_pending BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE seat_holds ADD COLUMN IF NOT EXISTS return_attempt_at TIMESTAMP;
+
+-- Невозвращённых мест единицы: повтор читает только их
+CREATE INDEX IF NOT EXISTS idx_seat_holds_return_pending ON seat_holds (updated_at)
+    WHERE return_pending;
+
+COMMENT ON COLUMN seat_holds.return_pending IS 'Места удержания ещё не возвращены поездке';
+COMMENT ON COLUMN seat_holds.return_attempt_at IS 'Начало текущей попытки возврата; устаревшая попытка повторяется';
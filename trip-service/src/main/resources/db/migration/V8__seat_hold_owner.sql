@@ -0,0 +1,10 @@
+-- ================================================================
+-- Trip Service - V8: Owner of seat hold
+-- ================================================================
+-- Описание: подтвердить или отменить удержание может только создавший
+-- его пользователь (X-User-Id от gateway), см. SeatHoldController
+-- ================================================================
+
+ALTER TABLE seat_holds ADD COLUMN IF NOT EXISTS user_id BIGINT;
+
+COMMENT ON COLUMN seat_holds.user_id IS 'Владелец удержания; NULL - служебная запись или удержание до V8';
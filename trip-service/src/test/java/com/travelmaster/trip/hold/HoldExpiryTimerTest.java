@@ -0,0 +1,126 @@
+package com.travelmaster.trip.hold;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HoldExpiryTimer Unit Tests")
+class HoldExpiryTimerTest {
+
+    // interval нижнего уровня - 80 мс: сроки дальше уходят на верхние уровни
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+
+    private HoldExpiryTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HoldExpiryTimer(new SimpleMeterRegistry(), TICK_MS, WHEEL_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        timer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fire already due hold immediately")
+    void shouldFireDueHoldImmediately() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+
+        // When
+        timer.schedule(holdId, LocalDateTime.now().minusSeconds(1));
+
+        // Then
+        assertEquals(List.of(holdId), timer.drainExpired(10));
+    }
+
+    @Test
+    @DisplayName("Should never fire before expiresAt, including overflow levels")
+    void shouldNotFireBeforeExpiry() throws InterruptedException {
+        // Given
+        UUID nearHold = UUID.randomUUID();
+        UUID farHold = UUID.randomUUID();
+        LocalDateTime nearExpiry = LocalDateTime.now().plusNanos(50_000_000);
+        LocalDateTime farExpiry = LocalDateTime.now().plusNanos(700_000_000);
+
+        // When
+        timer.schedule(nearHold, nearExpiry);
+        timer.schedule(farHold, farExpiry);
+
+        // Then
+        assertFiresNotBefore(nearHold, nearExpiry);
+        assertFiresNotBefore(farHold, farExpiry);
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled hold")
+    void shouldNotFireCancelledHold() throws InterruptedException {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        timer.schedule(holdId, LocalDateTime.now().plusNanos(50_000_000));
+
+        // When
+        timer.cancel(holdId);
+        Thread.sleep(300);
+
+        // Then
+        assertTrue(timer.drainExpired(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fire rescheduled hold once at the new deadline")
+    void shouldFireRescheduledHoldOnce() throws InterruptedException {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        timer.schedule(holdId, LocalDateTime.now().plusNanos(50_000_000));
+
+        // When
+        LocalDateTime newExpiry = LocalDateTime.now().plusNanos(400_000_000);
+        timer.schedule(holdId, newExpiry);
+
+        // Then
+        assertFiresNotBefore(holdId, newExpiry);
+        Thread.sleep(100);
+        assertTrue(timer.drainExpired(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drain expired holds in bounded batches")
+    void shouldDrainInBatches() {
+        // Given
+        LocalDateTime past = LocalDateTime.now().minusSeconds(1);
+        for (int i = 0; i < 5; i++) {
+            timer.schedule(UUID.randomUUID(), past);
+        }
+
+        // When & Then
+        assertEquals(3, timer.drainExpired(3).size());
+        assertEquals(2, timer.drainExpired(3).size());
+        assertTrue(timer.drainExpired(3).isEmpty());
+    }
+
+    private void assertFiresNotBefore(UUID holdId, LocalDateTime expiresAt) throws InterruptedException {
+        List<UUID> drained = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!drained.contains(holdId) && System.currentTimeMillis() < deadline) {
+            List<UUID> batch = timer.drainExpired(10);
+            if (batch.contains(holdId)) {
+                assertFalse(LocalDateTime.now().isBefore(expiresAt), "Hold fired before its expiry");
+            }
+            drained.addAll(batch);
+            Thread.sleep(5);
+        }
+        assertEquals(List.of(holdId), drained.stream().filter(holdId::equals).toList());
+    }
+}
@@ -0,0 +1,161 @@
+package com.travelmaster.trip.hold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Колесо проверяется без потока таймера: часы двигает сам тест, как это делает
+ * HoldExpiryTimer при срабатывании ячейки.
+ */
+@DisplayName("TimingWheel Unit Tests")
+class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 4;
+
+    private DelayQueue<TimerBucket> queue;
+    private TimingWheel wheel;
+    private List<ExpiryTask> fired;
+
+    @BeforeEach
+    void setUp() {
+        queue = new DelayQueue<>();
+        wheel = new TimingWheel(TICK_MS, WHEEL_SIZE, 1000, queue);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should put task into bucket of its tick")
+    void shouldPutTaskIntoBucketOfItsTick() {
+        // When
+        boolean added = wheel.add(task(1025));
+
+        // Then
+        assertTrue(added);
+        assertEquals(1, queue.size());
+        assertEquals(1020, queue.peek().getExpiration());
+    }
+
+    @Test
+    @DisplayName("Should reject already due and cancelled tasks")
+    void shouldRejectDueAndCancelledTasks() {
+        // Given
+        ExpiryTask cancelled = task(1030);
+        cancelled.cancel();
+
+        // When & Then
+        assertFalse(wheel.add(task(1005)));
+        assertFalse(wheel.add(task(500)));
+        assertFalse(wheel.add(cancelled));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should queue one bucket for tasks of the same tick")
+    void shouldQueueBucketOnce() {
+        // When
+        wheel.add(task(1021));
+        wheel.add(task(1029));
+
+        // Then
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    @DisplayName("Should move task from overflow wheel down to lower level")
+    void shouldMoveOverflowTaskToLowerLevel() {
+        // Given - за пределом interval нижнего уровня (40 мс): ячейка верхнего уровня с тиком 40
+        ExpiryTask task = task(1100);
+        assertTrue(wheel.add(task));
+        TimerBucket outer = queue.poll();
+        assertEquals(1080, outer.getExpiration());
+
+        // When - ячейка верхнего уровня срабатывает
+        advance(outer);
+
+        // Then - задача опустилась в ячейку нижнего уровня, но ещё не сработала
+        assertTrue(fired.isEmpty());
+        TimerBucket inner = queue.poll();
+        assertNotNull(inner);
+        assertEquals(1100, inner.getExpiration());
+
+        // When
+        advance(inner);
+
+        // Then
+        assertEquals(List.of(task), fired);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should skip cancelled task when its bucket fires")
+    void shouldSkipCancelledTaskOnFlush() {
+        // Given
+        ExpiryTask task = task(1030);
+        wheel.add(task);
+        task.cancel();
+
+        // When
+        advance(queue.poll());
+
+        // Then - отменённая задача не возвращается в колесо и не срабатывает
+        assertTrue(fired.isEmpty());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("TimerBucket should report expiration change and reset on flush")
+    void bucketShouldTrackExpiration() {
+        // Given
+        TimerBucket bucket = new TimerBucket();
+        ExpiryTask task = task(1020);
+        bucket.add(task);
+
+        // When & Then
+        assertTrue(bucket.setExpiration(1020));
+        assertFalse(bucket.setExpiration(1020));
+
+        List<ExpiryTask> drained = new ArrayList<>();
+        bucket.flush(drained::add);
+        assertEquals(List.of(task), drained);
+        assertEquals(-1, bucket.getExpiration());
+        assertTrue(bucket.setExpiration(1020));
+    }
+
+    @Test
+    @DisplayName("TimerBucket should order by expiration and never report negative delay")
+    void bucketShouldOrderByExpiration() {
+        // Given
+        TimerBucket earlier = new TimerBucket();
+        TimerBucket later = new TimerBucket();
+        earlier.setExpiration(1000);
+        later.setExpiration(System.currentTimeMillis() + 60_000);
+
+        // When & Then
+        assertTrue(earlier.compareTo(later) < 0);
+        assertEquals(0, earlier.getDelay(TimeUnit.MILLISECONDS));
+        assertTrue(later.getDelay(TimeUnit.SECONDS) > 0);
+    }
+
+    private void advance(TimerBucket bucket) {
+        wheel.advanceClock(bucket.getExpiration());
+        bucket.flush(task -> {
+            if (!wheel.add(task) && !task.isCancelled()) {
+                fired.add(task);
+            }
+        });
+    }
+
+    private static ExpiryTask task(long expirationMs) {
+        return new ExpiryTask(UUID.randomUUID(), expirationMs);
+    }
+}
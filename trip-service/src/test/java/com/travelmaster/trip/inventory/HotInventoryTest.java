@@ -0,0 +1,151 @@
+package com.travelmaster.trip.inventory;
+
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.repository.projection.ClaimedSeatsView;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotInventory Unit Tests")
+class HotInventoryTest {
+
+    private static final String INSTANCE = "trip-service-1";
+    private static final String URL = "http://trip-service-1:8082";
+
+    @Mock
+    private HotInventoryStore store;
+
+    @TempDir
+    Path logDirectory;
+
+    private HotInventory hotInventory;
+
+    @BeforeEach
+    void setUp() {
+        hotInventory = new HotInventory(store, new SimpleMeterRegistry(), true, INSTANCE, URL,
+                logDirectory.toString(), 1 << 20, 4, 30, 200);
+        when(store.findCheckpoints(INSTANCE)).thenReturn(Map.of());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hotInventory.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should activate claimed trip and flush reservations write-behind")
+    void shouldActivateClaimedTrip() {
+        // Given
+        when(store.findHotTrips()).thenReturn(List.of(owner(1L, true, null)));
+        when(store.claim(1L, INSTANCE, URL, 30, 200)).thenReturn(Optional.of(claimed(10, 10)));
+        when(store.flush(eq(1L), anyInt(), anyLong(), eq(INSTANCE), anyString())).thenReturn(true);
+
+        // When
+        hotInventory.refresh();
+
+        // Then
+        assertTrue(hotInventory.isActive(1L));
+        assertEquals(Optional.of(SeatReservationResult.RESERVED), hotInventory.reserve(1L, 3));
+        assertEquals(Optional.of(SeatReservationResult.INSUFFICIENT_SEATS), hotInventory.reserve(1L, 8));
+
+        // When
+        hotInventory.flush();
+
+        // Then
+        verify(store).flush(1L, -3, 1L, INSTANCE, "HOT_INVENTORY_FLUSH");
+    }
+
+    @Test
+    @DisplayName("Should flush and release ownership when hot mode is switched off")
+    void shouldDeactivateWhenHotModeSwitchedOff() {
+        // Given
+        when(store.findHotTrips()).thenReturn(
+                List.of(owner(1L, true, null)),
+                List.of(owner(1L, false, INSTANCE)));
+        when(store.claim(1L, INSTANCE, URL, 30, 200)).thenReturn(Optional.of(claimed(10, 10)));
+        when(store.flush(eq(1L), anyInt(), anyLong(), eq(INSTANCE), anyString())).thenReturn(true);
+        hotInventory.refresh();
+        hotInventory.reserve(1L, 2);
+
+        // When
+        hotInventory.refresh();
+
+        // Then - остаток сброшен до отпускания аренды, дальше места идут через БД
+        verify(store).flush(1L, -2, 1L, INSTANCE, "HOT_INVENTORY_FLUSH");
+        verify(store).releaseOwnership(1L, INSTANCE);
+        assertFalse(hotInventory.isActive(1L));
+        assertEquals(Optional.empty(), hotInventory.reserve(1L, 1));
+    }
+
+    @Test
+    @DisplayName("Should leave hot mode when lease renewal fails")
+    void shouldDeactivateWhenLeaseLost() {
+        // Given
+        when(store.findHotTrips()).thenReturn(List.of(owner(1L, true, INSTANCE)));
+        when(store.claim(1L, INSTANCE, URL, 30, 200)).thenReturn(Optional.of(claimed(10, 10)), Optional.empty());
+        hotInventory.refresh();
+
+        // When
+        hotInventory.refresh();
+
+        // Then
+        assertFalse(hotInventory.isActive(1L));
+        verify(store).releaseOwnership(1L, INSTANCE);
+    }
+
+    @Test
+    @DisplayName("Should keep trip closed in memory when final flush fails")
+    void shouldStayClosedWhenFinalFlushFails() {
+        // Given
+        when(store.findHotTrips()).thenReturn(List.of(owner(1L, true, null)), List.of());
+        when(store.claim(1L, INSTANCE, URL, 30, 200)).thenReturn(Optional.of(claimed(10, 10)));
+        when(store.flush(eq(1L), anyInt(), anyLong(), eq(INSTANCE), anyString()))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(true);
+        hotInventory.refresh();
+        hotInventory.reserve(1L, 1);
+
+        // When
+        hotInventory.refresh();
+
+        // Then - аренда не отпущена, операции отклоняются до успешного сброса
+        assertTrue(hotInventory.isActive(1L));
+        assertEquals(Optional.of(SeatReservationResult.UNAVAILABLE), hotInventory.reserve(1L, 1));
+        verify(store, never()).releaseOwnership(anyLong(), anyString());
+    }
+
+    private static InventoryOwnerView owner(Long id, boolean hot, String owner) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("hotInventory", hot);
+        row.put("inventoryOwner", owner);
+        row.put("inventoryOwnerUrl", owner != null ? URL : null);
+        row.put("leaseExpired", owner == null);
+        row.put("status", "AVAILABLE");
+        return new SpelAwareProxyProjectionFactory().createProjection(InventoryOwnerView.class, row);
+    }
+
+    private static ClaimedSeatsView claimed(int available, int total) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ClaimedSeatsView.class,
+                Map.of("availableSeats", available, "totalSeats", total));
+    }
+}
@@ -0,0 +1,111 @@
+package com.travelmaster.trip.inventory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HotTrip Unit Tests")
+class HotTripTest {
+
+    @Test
+    @DisplayName("Should accumulate durable changes and drain them once")
+    void shouldDrainPendingChanges() {
+        // Given
+        HotTrip trip = trip(leaseFromNow(60));
+        trip.addDurable(-3, 5);
+        trip.addDurable(1, 6);
+
+        // When
+        HotTrip.PendingDelta pending = trip.drain();
+
+        // Then
+        assertEquals(-2, pending.delta);
+        assertEquals(6, pending.seq);
+        assertNull(trip.drain());
+    }
+
+    @Test
+    @DisplayName("Should restore pending changes after failed flush")
+    void shouldRestorePendingChanges() {
+        // Given
+        HotTrip trip = trip(leaseFromNow(60));
+        trip.addDurable(-3, 5);
+        HotTrip.PendingDelta failed = trip.drain();
+        trip.addDurable(-1, 7);
+
+        // When
+        trip.restore(failed);
+
+        // Then
+        HotTrip.PendingDelta pending = trip.drain();
+        assertEquals(-4, pending.delta);
+        assertEquals(7, pending.seq);
+    }
+
+    @Test
+    @DisplayName("Should wait for operations in flight before closing")
+    void shouldWaitForOperationsInFlight() throws Exception {
+        // Given
+        HotTrip trip = trip(leaseFromNow(60));
+        assertTrue(trip.enter());
+
+        // When
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(() -> {
+            try {
+                trip.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Then - закрытие ждёт начатую операцию, новые уже не допускаются
+        assertThrows(TimeoutException.class, () -> closing.get(100, TimeUnit.MILLISECONDS));
+        assertTrue(trip.isClosed());
+        assertFalse(trip.enter());
+
+        trip.exit();
+        closing.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should close immediately when idle and allow repeated close")
+    void shouldCloseIdleTrip() throws InterruptedException {
+        // Given
+        HotTrip trip = trip(leaseFromNow(60));
+
+        // When
+        trip.close();
+        trip.close();
+
+        // Then
+        assertFalse(trip.enter());
+    }
+
+    @Test
+    @DisplayName("Should reject operations after local lease deadline until renewed")
+    void shouldFenceExpiredLease() {
+        // Given
+        HotTrip trip = trip(System.nanoTime() - 1);
+
+        // When & Then
+        assertFalse(trip.isLeaseValid());
+        assertFalse(trip.enter());
+
+        trip.extendLease(leaseFromNow(30));
+        assertTrue(trip.enter());
+        trip.exit();
+    }
+
+    private static HotTrip trip(long leaseDeadline) {
+        return new HotTrip(1L, 10, 10, 2, leaseDeadline);
+    }
+
+    private static long leaseFromNow(int seconds) {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
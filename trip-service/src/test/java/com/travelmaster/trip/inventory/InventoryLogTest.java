@@ -0,0 +1,168 @@
+package com.travelmaster.trip.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InventoryLog Unit Tests")
+class InventoryLogTest {
+
+    @TempDir
+    Path directory;
+
+    private InventoryLog inventoryLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (inventoryLog != null) {
+            inventoryLog.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should make appended changes durable and visible to the trip")
+    void shouldAppendDurably() throws Exception {
+        // Given
+        inventoryLog = InventoryLog.open(directory, 1, 1 << 20, new SimpleMeterRegistry());
+        HotTrip trip = trip(7L);
+
+        // When
+        inventoryLog.append(trip, -2).get(5, TimeUnit.SECONDS);
+        inventoryLog.append(trip, 1).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(2, inventoryLog.durableSeq());
+        HotTrip.PendingDelta pending = trip.drain();
+        assertEquals(-1, pending.delta);
+        assertEquals(2, pending.seq);
+    }
+
+    @Test
+    @DisplayName("Should recover all records after close in seq order")
+    void shouldRecoverRecords() throws Exception {
+        // Given
+        inventoryLog = InventoryLog.open(directory, 10, 1 << 20, new SimpleMeterRegistry());
+        inventoryLog.append(trip(1L), -3).get(5, TimeUnit.SECONDS);
+        inventoryLog.append(trip(2L), -1).get(5, TimeUnit.SECONDS);
+        inventoryLog.append(trip(1L), 2).get(5, TimeUnit.SECONDS);
+        inventoryLog.close();
+        inventoryLog = null;
+
+        // When
+        List<InventoryLog.LogRecord> records = InventoryLog.readAll(directory);
+
+        // Then
+        assertEquals(3, records.size());
+        assertEquals(List.of(10L, 11L, 12L), records.stream().map(r -> r.seq).toList());
+        assertEquals(1L, records.get(0).tripId);
+        assertEquals(-3, records.get(0).delta);
+        assertEquals(2L, records.get(1).tripId);
+    }
+
+    @Test
+    @DisplayName("Should drop torn record at the end of segment")
+    void shouldDropTornRecord() throws Exception {
+        // Given
+        inventoryLog = InventoryLog.open(directory, 1, 1 << 20, new SimpleMeterRegistry());
+        inventoryLog.append(trip(1L), -1).get(5, TimeUnit.SECONDS);
+        inventoryLog.append(trip(1L), -1).get(5, TimeUnit.SECONDS);
+        inventoryLog.close();
+        inventoryLog = null;
+
+        // When - сбой посреди записи: целая по длине запись с неверной CRC и обрывок следующей
+        Path segment = segments().get(0);
+        try (FileChannel out = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(InventoryLog.RECORD_SIZE + 10);
+            torn.putLong(3).putLong(1).putInt(-5).putInt(12345).putLong(4);
+            torn.flip();
+            out.write(torn);
+        }
+
+        // Then
+        List<InventoryLog.LogRecord> records = InventoryLog.readAll(directory);
+        assertEquals(List.of(1L, 2L), records.stream().map(r -> r.seq).toList());
+    }
+
+    @Test
+    @DisplayName("Should delete sealed segments only after they are flushed")
+    void shouldDeleteSegmentsAfterFlush() throws Exception {
+        // Given - сегмент на одну запись: каждая запись закрывает сегмент
+        inventoryLog = InventoryLog.open(directory, 1, InventoryLog.RECORD_SIZE, new SimpleMeterRegistry());
+        HotTrip trip = trip(1L);
+        for (int i = 0; i < 3; i++) {
+            inventoryLog.append(trip, -1).get(5, TimeUnit.SECONDS);
+        }
+        awaitSegments(4);
+
+        // When - сброшены первые две записи
+        inventoryLog.markFlushed(2);
+
+        // Then - удалены их сегменты, третья запись осталась для восстановления
+        awaitSegments(2);
+        List<InventoryLog.LogRecord> records = InventoryLog.readAll(directory);
+        assertEquals(List.of(3L), records.stream().map(r -> r.seq).toList());
+    }
+
+    @Test
+    @DisplayName("Should start empty log after recovery")
+    void shouldStartEmptyLogAfterRecovery() throws Exception {
+        // Given
+        inventoryLog = InventoryLog.open(directory, 1, 1 << 20, new SimpleMeterRegistry());
+        inventoryLog.append(trip(1L), -1).get(5, TimeUnit.SECONDS);
+        inventoryLog.close();
+
+        // When - восстановление применило записи и открывает лог со следующего seq
+        inventoryLog = InventoryLog.open(directory, 2, 1 << 20, new SimpleMeterRegistry());
+        inventoryLog.append(trip(1L), -4).get(5, TimeUnit.SECONDS);
+
+        // Then
+        List<InventoryLog.LogRecord> records = InventoryLog.readAll(directory);
+        assertEquals(1, records.size());
+        assertEquals(2L, records.get(0).seq);
+        assertEquals(-4, records.get(0).delta);
+    }
+
+    @Test
+    @DisplayName("Should fail appends after close")
+    void shouldFailAppendAfterClose() throws Exception {
+        // Given
+        inventoryLog = InventoryLog.open(directory, 1, 1 << 20, new SimpleMeterRegistry());
+        inventoryLog.close();
+
+        // When & Then
+        assertTrue(inventoryLog.append(trip(1L), -1).isCompletedExceptionally());
+        inventoryLog = null;
+    }
+
+    private void awaitSegments(int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (segments().size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, segments().size());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static HotTrip trip(long tripId) {
+        return new HotTrip(tripId, 100, 100, 2, System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.travelmaster.trip.inventory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripedSeatCounter Unit Tests")
+class StripedSeatCounterTest {
+
+    @Test
+    @DisplayName("Should spread seats over stripes without losing remainder")
+    void shouldSpreadSeatsOverStripes() {
+        // When
+        StripedSeatCounter counter = new StripedSeatCounter(10, 4);
+
+        // Then
+        assertEquals(10, counter.available());
+    }
+
+    @Test
+    @DisplayName("Should gather seats from other stripes when home stripe is short")
+    void shouldGatherSeatsFromOtherStripes() {
+        // Given - по одному месту на полосу
+        StripedSeatCounter counter = new StripedSeatCounter(8, 8);
+
+        // When
+        boolean acquired = counter.tryAcquire(6);
+
+        // Then
+        assertTrue(acquired);
+        assertEquals(2, counter.available());
+    }
+
+    @Test
+    @DisplayName("Should reject request larger than available and keep seats intact")
+    void shouldRejectWhenInsufficient() {
+        // Given
+        StripedSeatCounter counter = new StripedSeatCounter(5, 4);
+
+        // When
+        boolean acquired = counter.tryAcquire(6);
+
+        // Then
+        assertFalse(acquired);
+        assertEquals(5, counter.available());
+    }
+
+    @Test
+    @DisplayName("Should return released seats")
+    void shouldReturnReleasedSeats() {
+        // Given
+        StripedSeatCounter counter = new StripedSeatCounter(3, 2);
+        assertTrue(counter.tryAcquire(3));
+
+        // When
+        counter.add(2);
+
+        // Then
+        assertEquals(2, counter.available());
+        assertTrue(counter.tryAcquire(2));
+        assertFalse(counter.tryAcquire(1));
+    }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent reservations")
+    void shouldNeverOversellConcurrently() throws Exception {
+        // Given
+        int seats = 1000;
+        int threads = 16;
+        int attemptsPerThread = 200;
+        StripedSeatCounter counter = new StripedSeatCounter(seats, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int acquired = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (counter.tryAcquire(1 + i % 3)) {
+                        acquired += 1 + i % 3;
+                    }
+                }
+                return acquired;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(seats, total + counter.available());
+        assertTrue(counter.available() < 3, "Seats left unsold: " + counter.available());
+    }
+}
@@ -0,0 +1,112 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.dto.PlaceSuggestion;
+import com.travelmaster.trip.repository.TripRepository;
+import com.travelmaster.trip.repository.projection.RouteCountView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlaceSuggestIndex Unit Tests")
+class PlaceSuggestIndexTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    private PlaceSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlaceSuggestIndex(tripRepository, new SimpleMeterRegistry(), 3);
+    }
+
+    @Test
+    @DisplayName("Should suggest places by prefix ordered by trip count")
+    void shouldSuggestByPrefix() {
+        // Given
+        when(tripRepository.countAvailableRoutes()).thenReturn(List.of(
+                route("Москва", "Сочи", 10),
+                route("Мурманск", "Москва", 4),
+                route("Можайск", "Сочи", 1)));
+        index.rebuild();
+
+        // When
+        List<PlaceSuggestion> suggestions = index.suggest("мо", 10);
+
+        // Then - вес места - поездки из него и в него
+        assertEquals(List.of(new PlaceSuggestion("Москва", 14), new PlaceSuggestion("Можайск", 1)), suggestions);
+    }
+
+    @Test
+    @DisplayName("Should find place by any word of its name")
+    void shouldFindByWordInsideName() {
+        // Given
+        when(tripRepository.countAvailableRoutes()).thenReturn(List.of(route("Санкт-Петербург", "Москва", 5)));
+        index.rebuild();
+
+        // When & Then
+        assertEquals(List.of(new PlaceSuggestion("Санкт-Петербург", 5)), index.suggest("петер", 5));
+        assertEquals(List.of(new PlaceSuggestion("Санкт-Петербург", 5)), index.suggest("САНКТ-П", 5));
+    }
+
+    @Test
+    @DisplayName("Should match Latin query to Cyrillic place and Cyrillic query to Latin place")
+    void shouldTransliterateBothWays() {
+        // Given
+        when(tripRepository.countAvailableRoutes()).thenReturn(List.of(route("Москва", "Paris", 7)));
+        index.rebuild();
+
+        // When & Then
+        assertEquals(List.of(new PlaceSuggestion("Москва", 7)), index.suggest("moskv", 5));
+        assertEquals(List.of(new PlaceSuggestion("Paris", 7)), index.suggest("пари", 5));
+    }
+
+    @Test
+    @DisplayName("Should cap suggestions at configured maximum and return nothing for blank query")
+    void shouldLimitSuggestions() {
+        // Given
+        when(tripRepository.countAvailableRoutes()).thenReturn(List.of(
+                route("Сочи", "Адлер", 9),
+                route("Самара", "Саратов", 3),
+                route("Сургут", "Анапа", 1)));
+        index.rebuild();
+
+        // When & Then
+        assertEquals(3, index.suggest("с", 100).size());
+        assertEquals(List.of(new PlaceSuggestion("Сочи", 9)), index.suggest("с", 1));
+        assertEquals(List.of(), index.suggest("  ", 5));
+    }
+
+    @Test
+    @DisplayName("Should keep previous suggestions when rebuild fails")
+    void shouldKeepTrieWhenRebuildFails() {
+        // Given
+        when(tripRepository.countAvailableRoutes())
+                .thenReturn(List.of(route("Москва", "Сочи", 2)))
+                .thenThrow(new IllegalStateException("db down"));
+        index.rebuild();
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertEquals(List.of(new PlaceSuggestion("Сочи", 2)), index.suggest("со", 5));
+    }
+
+    private static RouteCountView route(String origin, String destination, long trips) {
+        return new SpelAwareProxyProjectionFactory().createProjection(RouteCountView.class,
+                Map.of("origin", origin, "destination", destination, "tripCount", trips));
+    }
+}
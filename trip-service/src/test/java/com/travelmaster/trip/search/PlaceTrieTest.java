@@ -0,0 +1,92 @@
+package com.travelmaster.trip.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlaceTrie Unit Tests")
+class PlaceTrieTest {
+
+    private static final PlaceTrie.Place MOSCOW = new PlaceTrie.Place("Москва", 50);
+    private static final PlaceTrie.Place MOZHAISK = new PlaceTrie.Place("Можайск", 5);
+    private static final PlaceTrie.Place MURMANSK = new PlaceTrie.Place("Мурманск", 20);
+    private static final PlaceTrie.Place SOCHI = new PlaceTrie.Place("Сочи", 30);
+
+    @Test
+    @DisplayName("Should keep top-K places of subtree in every node")
+    void shouldKeepTopKPerNode() {
+        // Given
+        PlaceTrie trie = new PlaceTrie.Builder(2)
+                .add("москва", MOSCOW)
+                .add("можаиск", MOZHAISK)
+                .add("мурманск", MURMANSK)
+                .add("сочи", SOCHI)
+                .build();
+
+        // When & Then
+        assertEquals(List.of(MOSCOW, SOCHI), names(trie.find("")));
+        assertEquals(List.of(MOSCOW, MURMANSK), names(trie.find("м")));
+        assertEquals(List.of(MOSCOW, MOZHAISK), names(trie.find("мо")));
+        assertEquals(List.of(MOZHAISK), names(trie.find("мож")));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    @DisplayName("Should find prefix ending inside compressed edge")
+    void shouldFindPrefixInsideEdge() {
+        // Given - ветвлений после "сочи" нет, ребро сжато в одну метку
+        PlaceTrie trie = new PlaceTrie.Builder(5)
+                .add("сочи", SOCHI)
+                .add("москва", MOSCOW)
+                .build();
+
+        // When & Then
+        assertEquals(List.of(SOCHI), names(trie.find("со")));
+        assertEquals(List.of(SOCHI), names(trie.find("сочи")));
+        assertEquals(List.of(), names(trie.find("сод")));
+        assertEquals(List.of(), names(trie.find("сочинский")));
+        assertEquals(List.of(), names(trie.find("казань")));
+    }
+
+    @Test
+    @DisplayName("Should return place once when it is stored under several keys")
+    void shouldDeduplicatePlaceKeys() {
+        // Given
+        PlaceTrie.Place spb = new PlaceTrie.Place("Санкт-Петербург", 40);
+        PlaceTrie trie = new PlaceTrie.Builder(5)
+                .add("санкт петербург", spb)
+                .add("sankt peterburg", spb)
+                .add("сочи", SOCHI)
+                .build();
+
+        // When & Then
+        assertEquals(List.of(spb, SOCHI), names(trie.find("")));
+        assertEquals(List.of(spb), names(trie.find("sankt")));
+    }
+
+    @Test
+    @DisplayName("Should order equal weights by name and ignore empty keys")
+    void shouldOrderTiesByName() {
+        // Given
+        PlaceTrie.Place anapa = new PlaceTrie.Place("Анапа", 10);
+        PlaceTrie.Place abakan = new PlaceTrie.Place("Абакан", 10);
+        PlaceTrie trie = new PlaceTrie.Builder(5)
+                .add("анапа", anapa)
+                .add("абакан", abakan)
+                .add("", SOCHI)
+                .build();
+
+        // When & Then
+        assertEquals(List.of(abakan, anapa), names(trie.find("а")));
+        assertEquals(2, trie.size());
+        assertEquals(0, PlaceTrie.empty().find("а").length);
+    }
+
+    private static List<PlaceTrie.Place> names(PlaceTrie.Place[] places) {
+        return Arrays.asList(places);
+    }
+}
@@ -0,0 +1,37 @@
+package com.travelmaster.trip.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transliterator Unit Tests")
+class TransliteratorTest {
+
+    @Test
+    @DisplayName("Should transliterate Cyrillic to Latin")
+    void shouldTransliterateCyrillic() {
+        assertEquals("moskva", Transliterator.toLatin("москва"));
+        assertEquals("sankt peterburg", Transliterator.toLatin("санкт петербург"));
+        assertEquals("nizhnii novgorod", Transliterator.toLatin(TextNormalizer.normalize("Нижний Новгород")));
+        assertEquals("shchelkovo", Transliterator.toLatin("щелково"));
+        assertEquals("tsyurikh", Transliterator.toLatin("цюрих"));
+    }
+
+    @Test
+    @DisplayName("Should drop hard and soft signs")
+    void shouldDropSigns() {
+        assertEquals("podezd", Transliterator.toLatin("подъезд"));
+        assertEquals("kazan", Transliterator.toLatin("казань"));
+    }
+
+    @Test
+    @DisplayName("Should return Latin and mixed text unchanged outside Cyrillic letters")
+    void shouldKeepNonCyrillic() {
+        String latin = "paris 2024";
+
+        assertSame(latin, Transliterator.toLatin(latin));
+        assertEquals("rim roma", Transliterator.toLatin("рим roma"));
+        assertEquals("", Transliterator.toLatin(""));
+    }
+}
@@ -0,0 +1,300 @@
+package com.travelmaster.trip.search;
+
+import com.travelmaster.trip.dto.TripSearchFacets;
+import com.travelmaster.trip.dto.TripSearchRequest;
+import com.travelmaster.trip.entity.Trip;
+import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TripSearchIndex Unit Tests")
+class TripSearchIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 7, 1);
+
+    @Mock
+    private TripRepository tripRepository;
+
+    private TripSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TripSearchIndex(tripRepository, new SimpleMeterRegistry(), true, 1000,
+                new BigDecimal[]{new BigDecimal("5000"), new BigDecimal("10000")});
+    }
+
+    @Test
+    @DisplayName("Should match whole tokens regardless of case, diacritics and separators")
+    void shouldMatchNormalizedTokens() {
+        // Given
+        index.index(trip(1L, "Санкт-Петербург", "Москва", 1L));
+
+        // When & Then
+        assertEquals(List.of(1L), find("санкт петербург", "МОСКВА"));
+        assertEquals(List.of(1L), find("Санкт Петербург", "москва"));
+        assertEquals(List.of(), find("санкт петербург", "казань"));
+        // Не последний токен запроса сравнивается целиком
+        assertEquals(List.of(), find("санк петербург", "москва"));
+    }
+
+    @Test
+    @DisplayName("Should treat last query token as prefix")
+    void shouldMatchLastTokenAsPrefix() {
+        // Given
+        index.index(trip(1L, "Санкт-Петербург", "Москва", 1L));
+        index.index(trip(2L, "Москва", "Сочи", 1L));
+
+        // When & Then
+        assertEquals(List.of(1L), find("санкт пет", "моск"));
+        assertEquals(List.of(2L), find("мос", "со"));
+        assertEquals(List.of(1L), find("пет", "москва"));
+    }
+
+    @Test
+    @DisplayName("TokenMatcher should require every query token in field")
+    void shouldRequireEveryQueryToken() {
+        // Given
+        String[] field = TextNormalizer.tokens("Ростов-на-Дону");
+
+        // When & Then
+        assertTrue(TripSearchIndex.matchesTokens(field, TextNormalizer.tokens("ростов на д")));
+        assertTrue(TripSearchIndex.matchesTokens(field, TextNormalizer.tokens("дону")));
+        assertFalse(TripSearchIndex.matchesTokens(field, TextNormalizer.tokens("ростов великий")));
+    }
+
+    @Test
+    @DisplayName("Should ignore seat update older than indexed version")
+    void shouldIgnoreStaleSeatUpdate() {
+        // Given
+        index.index(trip(1L, "Москва", "Сочи", 5L));
+
+        // When - обновление от версии 4 пришло после документа версии 5
+        index.updateSeatsAfterCommit(1L, 0, TripStatus.FULL, 4L);
+
+        // Then
+        assertEquals(List.of(1L), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should apply newer seat update without reloading trip")
+    void shouldApplyNewerSeatUpdate() {
+        // Given
+        index.index(trip(1L, "Москва", "Сочи", 5L));
+
+        // When
+        index.updateSeatsAfterCommit(1L, 0, TripStatus.FULL, 6L);
+
+        // Then - распроданная поездка не находится, повторная старая версия не возвращает её
+        assertEquals(List.of(), find("москва", "сочи"));
+        index.index(trip(1L, "Москва", "Сочи", 5L));
+        assertEquals(List.of(), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should move trip between posting lists when origin changes")
+    void shouldReindexChangedOrigin() {
+        // Given
+        index.index(trip(1L, "Москва", "Сочи", 1L));
+
+        // When
+        index.index(trip(1L, "Казань", "Сочи", 2L));
+
+        // Then
+        assertEquals(List.of(), find("москва", "сочи"));
+        assertEquals(List.of(1L), find("казань", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should swap in rebuilt index and keep updates made during rebuild")
+    void shouldSwapRebuiltIndex() {
+        // Given - в старом индексе поездка, которой уже нет в БД
+        index.index(trip(1L, "Москва", "Сочи", 1L));
+        when(tripRepository.findBatchAfterId(eq(0L), any())).thenAnswer(invocation -> {
+            // Изменение, пришедшее во время построения, попадает и в новый индекс
+            index.index(trip(3L, "Москва", "Сочи", 1L));
+            return List.of(trip(2L, "Москва", "Сочи", 1L));
+        });
+        assertFalse(index.isReady());
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.isReady());
+        assertEquals(List.of(2L, 3L), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should apply seat update for trip not yet loaded by rebuild")
+    void shouldApplySeatUpdateDeferredDuringRebuild() {
+        // Given - загрузка прочитала поездку до продажи мест, а событие о продаже
+        // пришло, пока поездки ещё не было в строящемся индексе
+        index.index(trip(1L, "Москва", "Сочи", 1L));
+        when(tripRepository.findBatchAfterId(eq(0L), any())).thenAnswer(invocation -> {
+            index.updateSeatsAfterCommit(1L, 0, TripStatus.FULL, 2L);
+            // Устаревшее обновление не перекрывает более новое
+            index.updateSeatsAfterCommit(1L, 5, TripStatus.AVAILABLE, 1L);
+            return List.of(trip(1L, "Москва", "Сочи", 1L), trip(2L, "Москва", "Сочи", 1L));
+        });
+
+        // When
+        index.rebuild();
+
+        // Then - поездка 1 распродана и в новом индексе
+        assertEquals(List.of(2L), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should drop deferred seat update older than loaded version")
+    void shouldDropStaleDeferredSeatUpdate() {
+        // Given - загрузка уже видит версию 3, отложенное обновление от версии 2
+        when(tripRepository.findBatchAfterId(eq(0L), any())).thenAnswer(invocation -> {
+            index.updateSeatsAfterCommit(1L, 0, TripStatus.FULL, 2L);
+            return List.of(trip(1L, "Москва", "Сочи", 3L));
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertEquals(List.of(1L), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should keep previous index when rebuild fails")
+    void shouldKeepIndexWhenRebuildFails() {
+        // Given
+        index.index(trip(1L, "Москва", "Сочи", 1L));
+        when(tripRepository.findBatchAfterId(anyLong(), any())).thenThrow(new IllegalStateException("db down"));
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertFalse(index.isReady());
+        assertEquals(List.of(1L), find("москва", "сочи"));
+    }
+
+    @Test
+    @DisplayName("Should count price bands with lower bound inclusive and upper bound exclusive")
+    void shouldCountPriceBandBoundaries() {
+        // Given - границы 5000 и 10000: [0, 5000), [5000, 10000), [10000, ...)
+        index.index(trip(1L, "4999.99", null));
+        index.index(trip(2L, "5000", null));
+        index.index(trip(3L, "9999.99", null));
+        index.index(trip(4L, "10000", null));
+        index.index(trip(5L, "25000", null));
+
+        // When - фильтр по цене не влияет на диапазоны
+        TripSearchFacets facets = facets(new BigDecimal("9000"), null);
+
+        // Then
+        List<TripSearchFacets.PriceBand> bands = facets.getPriceBands();
+        assertEquals(3, bands.size());
+        assertEquals(List.of(1, 2, 2), bands.stream().map(TripSearchFacets.PriceBand::getCount).toList());
+        assertEquals(new BigDecimal("0.00"), bands.get(0).getFrom());
+        assertEquals(new BigDecimal("5000.00"), bands.get(0).getTo());
+        assertEquals(new BigDecimal("10000.00"), bands.get(2).getFrom());
+        assertNull(bands.get(2).getTo());
+    }
+
+    @Test
+    @DisplayName("Should count providers by ordinal only for trips in price range")
+    void shouldCountProvidersByOrdinal() {
+        // Given - номера провайдеров выдаются в порядке появления: Booking=0, Amadeus=1, Internal=2
+        index.index(trip(1L, "7000", "Booking"));
+        index.index(trip(2L, "7000", "Amadeus"));
+        index.index(trip(3L, "7000", "Amadeus"));
+        index.index(trip(4L, "7000", "Booking"));
+        index.index(trip(5L, "7000", "Internal"));
+        index.index(trip(6L, "7000", null));
+        index.index(trip(7L, "90000", "Internal"));
+
+        // When
+        TripSearchFacets facets = facets(null, new BigDecimal("50000"));
+
+        // Then - по убыванию числа, при равенстве по имени; поездка вне диапазона цены не учтена
+        assertEquals(List.of(
+                        new TripSearchFacets.ProviderCount("Amadeus", 2),
+                        new TripSearchFacets.ProviderCount("Booking", 2),
+                        new TripSearchFacets.ProviderCount("Internal", 1)),
+                facets.getProviders());
+        assertEquals(6, facets.getDepartureHours()[10]);
+    }
+
+    @Test
+    @DisplayName("Should compute facets only for the first page")
+    void shouldSkipFacetsAfterFirstPage() {
+        // Given
+        index.index(trip(1L, "7000", "Booking"));
+        TripSearchRequest request = TripSearchRequest.builder()
+                .origin("москва")
+                .destination("сочи")
+                .departureDate(DATE)
+                .facets(true)
+                .build();
+
+        // When & Then
+        assertNotNull(index.search(request, 0, 1).getFacets());
+        assertNull(index.search(request, 1, 1).getFacets());
+    }
+
+    private TripSearchFacets facets(BigDecimal minPrice, BigDecimal maxPrice) {
+        TripSearchRequest request = TripSearchRequest.builder()
+                .origin("москва")
+                .destination("сочи")
+                .departureDate(DATE)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .facets(true)
+                .build();
+        return index.search(request, 0, 20).getFacets();
+    }
+
+    private static Trip trip(Long id, String price, String provider) {
+        Trip trip = trip(id, "Москва", "Сочи", 1L);
+        trip.setPrice(new BigDecimal(price));
+        trip.setProvider(provider);
+        return trip;
+    }
+
+    private List<Long> find(String origin, String destination) {
+        TripSearchRequest request = TripSearchRequest.builder()
+                .origin(origin)
+                .destination(destination)
+                .departureDate(DATE)
+                .passengers(1)
+                .sortBy("departureDate")
+                .build();
+        return index.search(request, 0, 20).getTripIds();
+    }
+
+    private static Trip trip(Long id, String origin, String destination, Long version) {
+        return Trip.builder()
+                .id(id)
+                .origin(origin)
+                .destination(destination)
+                .departureDate(DATE.atTime(10, 0).plusMinutes(id))
+                .price(new BigDecimal("7000"))
+                .totalSeats(10)
+                .availableSeats(10)
+                .status(TripStatus.AVAILABLE)
+                .version(version)
+                .build();
+    }
+}
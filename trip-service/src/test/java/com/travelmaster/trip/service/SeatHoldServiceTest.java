@@ -0,0 +1,296 @@
+package com.travelmaster.trip.service;
+
+import com.travelmaster.trip.dto.SeatHoldRequest;
+import com.travelmaster.trip.dto.SeatHoldResponse;
+import com.travelmaster.trip.dto.SeatReservationResult;
+import com.travelmaster.trip.entity.SeatHold;
+import com.travelmaster.trip.entity.SeatHoldStatus;
+import com.travelmaster.trip.hold.HoldExpiryTimer;
+import com.travelmaster.trip.hold.SeatHoldException;
+import com.travelmaster.trip.hold.SeatReturnStore;
+import com.travelmaster.trip.inventory.HotInventory;
+import com.travelmaster.trip.inventory.HotInventoryClient;
+import com.travelmaster.trip.repository.SeatHoldRepository;
+import com.travelmaster.trip.repository.projection.HeldSeatsView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeatHoldService Unit Tests")
+class SeatHoldServiceTest {
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private TripService tripService;
+
+    @Mock
+    private HotInventory hotInventory;
+
+    @Mock
+    private HotInventoryClient hotInventoryClient;
+
+    @Mock
+    private HoldExpiryTimer holdExpiryTimer;
+
+    @Mock
+    private SeatReturnStore seatReturnStore;
+
+    private SeatHoldService seatHoldService;
+
+    @BeforeEach
+    void setUp() {
+        seatHoldService = new SeatHoldService(seatHoldRepository, tripService, hotInventory,
+                hotInventoryClient, holdExpiryTimer, seatReturnStore,
+                Duration.ofMinutes(10), Duration.ofMinutes(30), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should hold seats and schedule expiry")
+    void shouldHoldSeatsAndScheduleExpiry() {
+        // Given
+        when(tripService.reserveSeats(1L, 2)).thenReturn(SeatReservationResult.RESERVED);
+        when(seatHoldRepository.save(any(SeatHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        SeatHoldResponse response = seatHoldService.createHold(1L, 7L, new SeatHoldRequest(2, 120));
+
+        // Then
+        assertEquals("HELD", response.getStatus());
+        assertEquals(2, response.getSeats());
+        assertFalse(response.getExpiresAt().isBefore(before.plusSeconds(119)));
+        assertTrue(response.getExpiresAt().isBefore(before.plusSeconds(121)));
+        verify(holdExpiryTimer).schedule(response.getHoldId(), response.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should cap hold ttl at the configured maximum")
+    void shouldCapHoldTtl() {
+        // Given
+        when(tripService.reserveSeats(1L, 1)).thenReturn(SeatReservationResult.RESERVED);
+        when(seatHoldRepository.save(any(SeatHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        SeatHoldResponse response = seatHoldService.createHold(1L, 7L, new SeatHoldRequest(1, 24 * 3600));
+
+        // Then
+        assertTrue(response.getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(31)));
+    }
+
+    @Test
+    @DisplayName("Should not create hold when seats are insufficient")
+    void shouldNotCreateHoldWhenSeatsInsufficient() {
+        // Given
+        when(tripService.reserveSeats(1L, 5)).thenReturn(SeatReservationResult.INSUFFICIENT_SEATS);
+
+        // When & Then
+        SeatHoldException ex = assertThrows(SeatHoldException.class,
+                () -> seatHoldService.createHold(1L, 7L, new SeatHoldRequest(5, null)));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        verify(seatHoldRepository, never()).save(any());
+        verify(holdExpiryTimer, never()).schedule(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should hide hold of another user")
+    void shouldHideHoldOfAnotherUser() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(holdId, SeatHoldStatus.HELD)));
+
+        // When & Then
+        SeatHoldException ex = assertThrows(SeatHoldException.class,
+                () -> seatHoldService.releaseHold(1L, holdId, 8L));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        verify(seatHoldRepository, never()).release(any(), anyLong(), anyLong(), any());
+        verify(tripService, never()).releaseSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should confirm hold and cancel its timer")
+    void shouldConfirmHold() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatHoldRepository.confirm(eq(holdId), eq(1L), eq(7L), any())).thenReturn(1);
+        when(seatHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(holdId, SeatHoldStatus.CONFIRMED)));
+
+        // When
+        SeatHoldResponse response = seatHoldService.confirmHold(1L, holdId, 7L);
+
+        // Then
+        assertEquals("CONFIRMED", response.getStatus());
+        verify(holdExpiryTimer).cancel(holdId);
+        verify(tripService, never()).releaseSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject confirmation of expired hold")
+    void shouldRejectConfirmationOfExpiredHold() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatHoldRepository.confirm(eq(holdId), eq(1L), eq(7L), any())).thenReturn(0);
+        when(seatHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(holdId, SeatHoldStatus.EXPIRED)));
+
+        // When & Then
+        SeatHoldException ex = assertThrows(SeatHoldException.class,
+                () -> seatHoldService.confirmHold(1L, holdId, 7L));
+        assertEquals(HttpStatus.GONE, ex.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should release hold and return its seats")
+    void shouldReleaseHold() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(holdId, SeatHoldStatus.HELD)));
+        when(seatHoldRepository.release(eq(holdId), eq(1L), eq(7L), any())).thenReturn(1);
+        when(tripService.releaseSeats(1L, 2)).thenReturn(SeatReservationResult.RELEASED);
+
+        // When
+        SeatHoldResponse response = seatHoldService.releaseHold(1L, holdId, 7L);
+
+        // Then
+        assertEquals("RELEASED", response.getStatus());
+        verify(tripService).releaseSeats(1L, 2);
+        verify(seatHoldRepository).markReturned(List.of(holdId));
+        verify(holdExpiryTimer).cancel(holdId);
+    }
+
+    @Test
+    @DisplayName("Should expire holds in one batch and return seats once per trip")
+    void shouldExpireHoldsInBatch() {
+        // Given
+        List<UUID> holdIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(seatHoldRepository.expire(eq(holdIds), any())).thenReturn(List.of(
+                heldSeats(holdIds.get(0), 1L, 2), heldSeats(holdIds.get(1), 1L, 1), heldSeats(holdIds.get(2), 2L, 4)));
+        when(tripService.releaseSeats(anyLong(), anyInt())).thenReturn(SeatReservationResult.RELEASED);
+
+        // When
+        int expired = seatHoldService.expireHolds(holdIds);
+
+        // Then
+        assertEquals(3, expired);
+        verify(seatHoldRepository).expire(eq(holdIds), any());
+        verify(tripService).releaseSeats(1L, 3);
+        verify(tripService).releaseSeats(2L, 4);
+        verifyNoMoreInteractions(tripService);
+        verify(seatHoldRepository).markReturned(List.of(holdIds.get(0), holdIds.get(1)));
+        verify(seatHoldRepository).markReturned(List.of(holdIds.get(2)));
+    }
+
+    @Test
+    @DisplayName("Should leave seats of hot trip pending in the database until returned")
+    void shouldDeferSeatsOfHotTrip() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        HeldSeatsView expired = heldSeats(holdId, 1L, 2);
+        when(seatHoldRepository.expire(eq(List.of(holdId)), any())).thenReturn(List.of(expired));
+        when(hotInventory.isActive(1L)).thenReturn(true);
+
+        // When
+        seatHoldService.expireHolds(List.of(holdId));
+
+        // Then
+        verify(tripService, never()).releaseSeats(anyLong(), anyInt());
+        verify(seatHoldRepository, never()).markReturned(any());
+
+        // When
+        when(seatReturnStore.claim(eq(100), any())).thenReturn(List.of(expired), List.of());
+        when(tripService.releaseSeats(1L, 2)).thenReturn(SeatReservationResult.RELEASED);
+        seatHoldService.returnPendingSeats(100);
+
+        // Then
+        verify(tripService).releaseSeats(1L, 2);
+        verify(seatReturnStore).markReturned(List.of(holdId));
+    }
+
+    @Test
+    @DisplayName("Should return seats of active hot trip to memory without transactional TripService")
+    void shouldReturnHotSeatsWithoutTransaction() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatReturnStore.claim(eq(100), any())).thenReturn(List.of(heldSeats(holdId, 1L, 2)), List.of());
+        when(hotInventory.release(1L, 2)).thenReturn(Optional.of(SeatReservationResult.RELEASED));
+
+        // When
+        seatHoldService.sweepPendingReturns(100);
+
+        // Then - транзакция (и соединение с БД) открывается только в TripService
+        verify(tripService, never()).releaseSeats(anyLong(), anyInt());
+        verify(seatReturnStore).markReturned(List.of(holdId));
+    }
+
+    @Test
+    @DisplayName("Should hold seats of active hot trip from memory")
+    void shouldHoldHotTripFromMemory() {
+        // Given
+        when(hotInventory.reserve(1L, 2)).thenReturn(Optional.of(SeatReservationResult.RESERVED));
+        when(seatHoldRepository.save(any(SeatHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        seatHoldService.createHold(1L, 7L, new SeatHoldRequest(2, 120));
+
+        // Then
+        verify(tripService, never()).reserveSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep seats pending when owner of hot trip is unavailable")
+    void shouldRetryUnavailableSeatReturn() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        when(seatReturnStore.claim(eq(100), any())).thenReturn(List.of(heldSeats(holdId, 1L, 2)));
+        when(tripService.releaseSeats(1L, 2)).thenReturn(SeatReservationResult.REMOTE);
+        when(hotInventoryClient.release(1L, 2)).thenReturn(SeatReservationResult.UNAVAILABLE);
+
+        // When
+        seatHoldService.sweepPendingReturns(100);
+
+        // Then
+        verify(seatReturnStore).unclaim(List.of(holdId));
+        verify(seatReturnStore, never()).markReturned(any());
+        verify(seatReturnStore, times(1)).claim(eq(100), any());
+    }
+
+    private SeatHold hold(UUID id, SeatHoldStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return SeatHold.builder()
+                .id(id)
+                .tripId(1L)
+                .userId(7L)
+                .seats(2)
+                .status(status)
+                .expiresAt(now.plusMinutes(10))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private HeldSeatsView heldSeats(UUID id, Long tripId, int seats) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("tripId", tripId);
+        row.put("seats", seats);
+        return new SpelAwareProxyProjectionFactory().createProjection(HeldSeatsView.class, row);
+    }
+}
@@ -1,16 +1,27 @@
 package com.travelmaster.trip.service;
 
 import com.travelmaster.common.exception.EntityNotFoundException;
+import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.trip.dto.SeatReservationResult;
 import com.travelmaster.trip.dto.TripResponse;
+import com.travelmaster.trip.dto.TripSearchFacets;
 import com.travelmaster.trip.dto.TripSearchRequest;
+import com.travelmaster.trip.dto.TripSearchResponse;
 import com.travelmaster.trip.entity.Trip;
 import com.travelmaster.trip.entity.TripStatus;
+import com.travelmaster.trip.inventory.HotInventory;
 import com.travelmaster.trip.mapper.TripMapper;
 import com.travelmaster.trip.repository.TripRepository;
+import com.travelmaster.trip.repository.projection.InventoryOwnerView;
+import com.travelmaster.trip.repository.projection.SeatCountView;
+import com.travelmaster.trip.search.PlaceSuggestIndex;
+import com.travelmaster.trip.search.TripSearchIndex;
+import com.travelmaster.trip.search.TripSearchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,12 +29,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +54,15 @@ class TripServiceTest {
     @Mock
     private TripMapper tripMapper;
 
+    @Mock
+    private TripSearchIndex tripSearchIndex;
+
+    @Mock
+    private PlaceSuggestIndex placeSuggestIndex;
+
+    @Mock
+    private HotInventory hotInventory;
+
     @InjectMocks
     private TripService tripService;
 
@@ -126,12 +149,12 @@ class TripServiceTest {
 
         when(tripRepository.searchTrips(
                 eq("Moscow"), eq("Paris"), any(LocalDateTime.class), any(LocalDateTime.class), 
-                eq(2), any(Pageable.class)))
+                any(BigDecimal.class), any(BigDecimal.class), eq(2), any(Pageable.class)))
                 .thenReturn(tripPage);
         when(tripMapper.toResponse(testTrip)).thenReturn(testTripResponse);
 
         // When
-        var result = tripService.searchTrips(searchRequest, 0, 10);
+        var result = tripService.search(searchRequest, 0, 10).getPage();
 
         // Then
         assertNotNull(result);
@@ -140,6 +163,206 @@ class TripServiceTest {
         assertEquals("Moscow", result.getContent().get(0).getOrigin());
     }
 
+    @Test
+    @DisplayName("Should pass price bounds and duration sort to repository query")
+    void shouldFilterByPriceInRepositoryQuery() {
+        // Given
+        TripSearchRequest searchRequest = TripSearchRequest.builder()
+                .origin("Moscow")
+                .destination("Paris")
+                .departureDate(LocalDate.now().plusDays(7))
+                .passengers(1)
+                .minPrice(new BigDecimal("10000"))
+                .maxPrice(new BigDecimal("60000"))
+                .sortBy("duration")
+                .sortDirection("ASC")
+                .build();
+
+        Page<Trip> tripPage = new PageImpl<>(List.of(testTrip), PageRequest.of(0, 10), 1);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(tripRepository.searchTrips(
+                eq("Moscow"), eq("Paris"), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(new BigDecimal("10000")), eq(new BigDecimal("60000")), eq(1), pageable.capture()))
+                .thenReturn(tripPage);
+        when(tripMapper.toResponse(testTrip)).thenReturn(testTripResponse);
+
+        // When
+        var result = tripService.search(searchRequest, 0, 10).getPage();
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertNotNull(pageable.getValue().getSort().getOrderFor("durationSeconds"));
+    }
+
+    @Test
+    @DisplayName("Should search trips through in-memory index when it is ready")
+    void shouldSearchTripsThroughIndex() {
+        // Given
+        TripSearchRequest searchRequest = TripSearchRequest.builder()
+                .origin("Moscow")
+                .destination("Paris")
+                .departureDate(LocalDate.now().plusDays(7))
+                .passengers(2)
+                .sortBy("price")
+                .build();
+
+        when(tripSearchIndex.isReady()).thenReturn(true);
+        when(tripSearchIndex.search(searchRequest, 0, 10))
+                .thenReturn(new TripSearchResult(List.of(1L), 11, null));
+        when(tripRepository.findAllById(List.of(1L))).thenReturn(List.of(testTrip));
+        when(tripMapper.toResponse(testTrip)).thenReturn(testTripResponse);
+
+        // When
+        var result = tripService.search(searchRequest, 0, 10).getPage();
+
+        // Then
+        assertEquals(11, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(1, result.getContent().size());
+        verify(tripRepository, never()).searchTrips(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return facets computed by index with the first page")
+    void shouldReturnFacetsWithFirstPage() {
+        // Given
+        TripSearchRequest searchRequest = TripSearchRequest.builder()
+                .origin("Moscow")
+                .destination("Paris")
+                .departureDate(LocalDate.now().plusDays(7))
+                .passengers(1)
+                .sortBy("price")
+                .facets(true)
+                .build();
+        TripSearchFacets facets = TripSearchFacets.builder()
+                .priceBands(List.of(new TripSearchFacets.PriceBand(BigDecimal.ZERO, null, 1)))
+                .providers(List.of(new TripSearchFacets.ProviderCount("Aeroflot", 1)))
+                .departureHours(new int[24])
+                .build();
+
+        when(tripSearchIndex.isReady()).thenReturn(true);
+        when(tripSearchIndex.search(searchRequest, 0, 10))
+                .thenReturn(new TripSearchResult(List.of(1L), 1, facets));
+        when(tripRepository.findAllById(List.of(1L))).thenReturn(List.of(testTrip));
+        when(tripMapper.toResponse(testTrip)).thenReturn(testTripResponse);
+
+        // When
+        TripSearchResponse result = tripService.search(searchRequest, 0, 10);
+
+        // Then
+        assertEquals(1, result.getPage().getTotalElements());
+        assertEquals(1, result.getPage().getContent().size());
+        assertSame(facets, result.getFacets());
+    }
+
+    @Test
+    @DisplayName("Should reserve seats with a single conditional update")
+    void shouldReserveSeatsAtomically() {
+        // Given
+        when(tripRepository.reserveSeats(1L, 2)).thenReturn(Optional.of(seatCount(8, "AVAILABLE", 4L)));
+
+        // When
+        SeatReservationResult result = tripService.reserveSeats(1L, 2);
+
+        // Then
+        assertEquals(SeatReservationResult.RESERVED, result);
+        verify(tripSearchIndex).updateSeatsAfterCommit(1L, 8, TripStatus.AVAILABLE, 4L);
+        verify(tripRepository, never()).findById(any());
+        verify(tripRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should report insufficient seats when conditional update matches nothing")
+    void shouldReportInsufficientSeats() {
+        // Given
+        when(tripRepository.reserveSeats(1L, 20)).thenReturn(Optional.empty());
+        when(tripRepository.findInventoryOwner(1L)).thenReturn(Optional.of(inventoryOwner(1L, null)));
+
+        // When
+        SeatReservationResult result = tripService.reserveSeats(1L, 20);
+
+        // Then
+        assertEquals(SeatReservationResult.INSUFFICIENT_SEATS, result);
+        verify(tripSearchIndex, never()).updateSeatsAfterCommit(anyLong(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report missing trip on reservation")
+    void shouldReportMissingTripOnReserve() {
+        // Given
+        when(tripRepository.reserveSeats(999L, 1)).thenReturn(Optional.empty());
+        when(tripRepository.findInventoryOwner(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertEquals(SeatReservationResult.NOT_FOUND, tripService.reserveSeats(999L, 1));
+    }
+
+    @Test
+    @DisplayName("Should leave hot inventory to non-transactional callers")
+    void shouldNotConsultHotInventoryInTransaction() {
+        // Given
+        when(tripRepository.reserveSeats(1L, 2)).thenReturn(Optional.of(seatCount(8, "AVAILABLE", 4L)));
+
+        // When
+        tripService.reserveSeats(1L, 2);
+
+        // Then - память горячей поездки проверяется до входа в транзакцию
+        verify(hotInventory, never()).reserve(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should report hot trip owned by another instance as remote")
+    void shouldReportRemoteHotTrip() {
+        // Given
+        when(tripRepository.reserveSeats(1L, 2)).thenReturn(Optional.empty());
+        when(tripRepository.findInventoryOwner(1L)).thenReturn(Optional.of(inventoryOwner(1L, "trip-service-1")));
+        when(hotInventory.isLocalOwner("trip-service-1")).thenReturn(false);
+
+        // When
+        SeatReservationResult result = tripService.reserveSeats(1L, 2);
+
+        // Then
+        assertEquals(SeatReservationResult.REMOTE, result);
+    }
+
+    @Test
+    @DisplayName("Should release seats and put full trip back on sale")
+    void shouldReleaseSeats() {
+        // Given
+        when(tripRepository.releaseSeats(1L, 2)).thenReturn(Optional.of(seatCount(2, "AVAILABLE", 5L)));
+
+        // When
+        SeatReservationResult result = tripService.releaseSeats(1L, 2);
+
+        // Then
+        assertEquals(SeatReservationResult.RELEASED, result);
+        verify(tripSearchIndex).updateSeatsAfterCommit(1L, 2, TripStatus.AVAILABLE, 5L);
+    }
+
+    @Test
+    @DisplayName("Should not return seats to cancelled trip")
+    void shouldNotReturnSeatsToCancelledTrip() {
+        // Given
+        InventoryOwnerView cancelled = new SpelAwareProxyProjectionFactory().createProjection(
+                InventoryOwnerView.class, Map.of("id", 1L, "hotInventory", false, "status", "CANCELLED"));
+        when(tripRepository.releaseSeats(1L, 2)).thenReturn(Optional.empty());
+        when(tripRepository.findInventoryOwner(1L)).thenReturn(Optional.of(cancelled));
+
+        // When
+        SeatReservationResult result = tripService.releaseSeats(1L, 2);
+
+        // Then
+        assertEquals(SeatReservationResult.NOT_FOUND, result);
+        verify(tripSearchIndex, never()).updateSeatsAfterCommit(anyLong(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive seat count")
+    void shouldRejectNonPositiveSeatCount() {
+        assertThrows(ValidationException.class, () -> tripService.reserveSeats(1L, 0));
+        verify(tripRepository, never()).reserveSeats(anyLong(), anyInt());
+    }
+
     @Test
     @DisplayName("Should get all trips with pagination")
     void shouldGetAllTripsWithPagination() {
@@ -204,5 +427,23 @@ class TripServiceTest {
         // Then
         assertFalse(isAvailable);
     }
-}
 
+    private SeatCountView seatCount(int availableSeats, String status, long version) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("availableSeats", availableSeats);
+        row.put("status", status);
+        row.put("version", version);
+        return new SpelAwareProxyProjectionFactory().createProjection(SeatCountView.class, row);
+    }
+
+    private InventoryOwnerView inventoryOwner(Long id, String owner) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("hotInventory", owner != null);
+        row.put("inventoryOwner", owner);
+        row.put("inventoryOwnerUrl", owner != null ? "http://" + owner + ":8082" : null);
+        row.put("leaseExpired", owner == null);
+        row.put("status", "AVAILABLE");
+        return new SpelAwareProxyProjectionFactory().createProjection(InventoryOwnerView.class, row);
+    }
+}
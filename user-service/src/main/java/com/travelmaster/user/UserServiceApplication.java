@@ -3,12 +3,14 @@ package com.travelmaster.user;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
         "com.travelmaster.user",
         "com.travelmaster.common"
 })
 @EnableJpaAuditing
+@EnableScheduling
 public class UserServiceApplication {
 
     public static void main(String[] args) {
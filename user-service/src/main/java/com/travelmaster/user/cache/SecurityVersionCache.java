@@ -0,0 +1,56 @@
+package com.travelmaster.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Near-cache версий безопасности активных пользователей (security_version по id).
+ *
+ * Refresh сверяет версию из токена с текущей и загружает пользователя целиком, только
+ * если она изменилась. Запись вытесняется по событиям user-events так же, как профиль
+ * (см. UserEventListener). Удалённые и заблокированные пользователи не кешируются.
+ */
+@Component
+public class SecurityVersionCache {
+
+    private static final String CACHE_NAME = "user.security_version.cache";
+
+    private final boolean enabled;
+    private final Cache<Long, Long> cache;
+
+    public SecurityVersionCache(
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.security-version.max-size:100000}") long maxSize,
+            @Value("${user.cache.security-version.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param loader версия из БД; пусто - пользователь удалён, заблокирован или не существует
+     */
+    public Optional<Long> get(Long userId, Function<Long, Optional<Long>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        return Optional.ofNullable(cache.get(userId, id -> loader.apply(id).orElse(null)));
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,74 @@
+package com.travelmaster.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travelmaster.user.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Near-cache профилей активных пользователей (UserResponse по id).
+ *
+ * Снимает чтение users + user_roles с getUserById и refreshToken. Согласованность
+ * между репликами - через события user-events (см. UserEventListener): изменивший
+ * профиль сервис публикует событие после коммита, каждая реплика вытесняет запись.
+ * expire-after-write страхует от потерянного события.
+ *
+ * Удалённые пользователи не кешируются. Метрики hit/miss/eviction - user.profile.cache.*.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final String CACHE_NAME = "user.profile.cache";
+
+    private final boolean enabled;
+    private final Cache<Long, UserResponse> cache;
+
+    public UserProfileCache(
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.max-size:50000}") long maxSize,
+            @Value("${user.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<UserResponse> get(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(userId));
+    }
+
+    public void put(UserResponse user) {
+        if (!enabled || user == null || user.getId() == null) {
+            return;
+        }
+        // Запись разделяется между запросами - роли копируются в неизменяемое множество
+        cache.put(user.getId(), UserResponse.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .roles(user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of())
+                .enabled(user.getEnabled())
+                .createdAt(user.getCreatedAt())
+                .build());
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+}
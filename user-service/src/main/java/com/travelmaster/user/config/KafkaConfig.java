@@ -0,0 +1,26 @@
+package com.travelmaster.user.config;
+
+import com.travelmaster.user.event.UserEventPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Топики user-service. Producer (KafkaTemplate) настраивается Spring Boot
+ * по spring.kafka.producer в application.yml.
+ */
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Compacted topic: хранит последнее состояние контактов каждого пользователя.
+     */
+    @Bean
+    public NewTopic userContactsTopic() {
+        return TopicBuilder.name(UserEventPublisher.USER_CONTACTS_TOPIC)
+                .partitions(3)
+                .compact()
+                .build();
+    }
+}
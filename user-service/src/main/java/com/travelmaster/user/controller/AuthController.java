@@ -1,13 +1,17 @@
 package com.travelmaster.user.controller;
 
+import com.travelmaster.common.dto.ErrorResponse;
 import com.travelmaster.user.dto.AuthResponse;
 import com.travelmaster.user.dto.LoginRequest;
 import com.travelmaster.user.dto.RegisterRequest;
+import com.travelmaster.user.security.PasswordHashingRejectedException;
 import com.travelmaster.user.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -40,5 +44,25 @@ public class AuthController {
         AuthResponse response = authService.refreshToken(refreshToken);
         return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/logout")
+    @Operation(summary = "Выход из системы (отзыв access token)")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        authService.logout(token);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Пул хеширования паролей перегружен: быстрый 429 вместо ожидания в очереди.
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleHashingRejected(PasswordHashingRejectedException ex,
+                                                               HttpServletRequest request) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.of(status.value(), status.getReasonPhrase(), ex.getMessage(),
+                        request.getRequestURI()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.travelmaster.user.controller;
+
+import com.travelmaster.user.dto.UserBatchRequest;
+import com.travelmaster.user.dto.UserContactResponse;
+import com.travelmaster.user.dto.UserResponse;
+import com.travelmaster.user.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API профилей пользователей")
+public class UserController {
+
+    private final UserService userService;
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Получить пользователя по ID",
+            description = "Доступно самому пользователю и администратору",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PreAuthorize("hasRole('ADMIN') or #id.toString() == authentication.name")
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserById(id));
+    }
+
+    @GetMapping("/batch")
+    @Operation(
+            summary = "Контакты нескольких пользователей",
+            description = "Возвращает email, телефон, язык и статус для списка id одним запросом к БД. "
+                    + "Только для сервисных учётных записей",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PreAuthorize("hasRole('SERVICE')")
+    public ResponseEntity<List<UserContactResponse>> getUserContacts(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUserContacts(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Контакты нескольких пользователей (длинный список id)",
+            description = "Только для сервисных учётных записей",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PreAuthorize("hasRole('SERVICE')")
+    public ResponseEntity<List<UserContactResponse>> getUserContacts(@Valid @RequestBody UserBatchRequest request) {
+        return ResponseEntity.ok(userService.getUserContacts(request.getIds()));
+    }
+}
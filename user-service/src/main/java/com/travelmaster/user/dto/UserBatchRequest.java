@@ -0,0 +1,19 @@
+package com.travelmaster.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchRequest {
+
+    @NotEmpty(message = "Список id не может быть пустым")
+    private List<Long> ids;
+}
@@ -0,0 +1,26 @@
+package com.travelmaster.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Контактные данные пользователя для других сервисов (batch lookup).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactResponse {
+
+    private Long id;
+
+    private String email;
+
+    private String phoneNumber;
+
+    private String locale;
+
+    private Boolean enabled;
+}
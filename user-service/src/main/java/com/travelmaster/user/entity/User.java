@@ -46,6 +46,10 @@ public class User {
     @Column(name = "passport_number", length = 50)
     private String passportNumber;
 
+    // Язык уведомлений (ru, en, ...); null - язык по умолчанию
+    @Column(length = 10)
+    private String locale;
+
     @Column(nullable = false)
     private Boolean enabled = true;
 
@@ -55,6 +59,11 @@ public class User {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    // Растёт при удалении, блокировке и изменении ролей; сверяется при refresh
+    @Column(name = "security_version", nullable = false)
+    @Builder.Default
+    private Long securityVersion = 0L;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
@@ -83,11 +92,22 @@ public class User {
     private String oauthId;
 
     public void addRole(Role role) {
-        roles.add(role);
+        if (roles.add(role) && id != null) {
+            bumpSecurityVersion();
+        }
     }
 
     public void removeRole(Role role) {
-        roles.remove(role);
+        if (roles.remove(role)) {
+            bumpSecurityVersion();
+        }
+    }
+
+    /**
+     * Делает недействительными claims в ранее выданных refresh token.
+     */
+    public void bumpSecurityVersion() {
+        securityVersion = securityVersion == null ? 1L : securityVersion + 1;
     }
 
     public boolean hasRole(String roleName) {
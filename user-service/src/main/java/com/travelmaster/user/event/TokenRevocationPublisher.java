@@ -0,0 +1,51 @@
+package com.travelmaster.user.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Publisher отзыва токенов. Gateway строит по этим событиям Bloom filter отозванных токенов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationPublisher {
+
+    private static final String TOKEN_REVOCATIONS_TOPIC = "token-revocations";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${jwt.access-token-validity-ms:900000}")
+    private long accessTokenValidityMs;
+
+    public void publishTokenRevoked(String jti, Long userId, Instant expiresAt) {
+        log.info("Publishing TokenRevokedEvent for token {} of user {}", jti, userId);
+        TokenRevokedEvent event = TokenRevokedEvent.builder()
+                .jti(jti)
+                .userId(userId)
+                .revokedAt(Instant.now().getEpochSecond())
+                .expiresAt(expiresAt.getEpochSecond())
+                .build();
+        kafkaTemplate.send(TOKEN_REVOCATIONS_TOPIC, userId.toString(), event);
+    }
+
+    /**
+     * Отзывает все выданные пользователю access token. Помнить об отзыве нужно
+     * не дольше срока жизни access token, выданного прямо перед отзывом.
+     */
+    public void publishAllTokensRevoked(Long userId) {
+        log.info("Publishing TokenRevokedEvent for all tokens of user {}", userId);
+        Instant now = Instant.now();
+        TokenRevokedEvent event = TokenRevokedEvent.builder()
+                .userId(userId)
+                .revokedAt(now.getEpochSecond())
+                .expiresAt(now.plusMillis(accessTokenValidityMs).getEpochSecond())
+                .build();
+        kafkaTemplate.send(TOKEN_REVOCATIONS_TOPIC, userId.toString(), event);
+    }
+}
@@ -0,0 +1,25 @@
+package com.travelmaster.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Отзыв access token до истечения срока.
+ *
+ * Если jti задан - отозван один токен. Если jti пуст - отозваны все токены
+ * пользователя, выпущенные не позже revokedAt.
+ * Время - в секундах epoch, как iat/exp в самом JWT.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokedEvent {
+    private String jti;
+    private Long userId;
+    private Long revokedAt;
+    // До этого момента отзыв нужно помнить - дальше токены истекут сами
+    private Long expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.travelmaster.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Изменение пользователя (topic user-events). Реплики user-service вытесняют
+ * профиль из near-cache; событие не несёт самих данных профиля.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    public enum ChangeType {
+        UPDATED,
+        DELETED,
+        ROLES_CHANGED
+    }
+
+    private Long userId;
+    private ChangeType changeType;
+    private Long changedAt;
+}
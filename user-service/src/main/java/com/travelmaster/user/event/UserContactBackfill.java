@@ -0,0 +1,52 @@
+package com.travelmaster.user.event;
+
+import com.travelmaster.user.entity.User;
+import com.travelmaster.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Первичное наполнение topic user-contacts контактами всех активных пользователей.
+ *
+ * Нужен один раз после появления topic (или после потери данных в нём):
+ * запускается при старте, если user.contacts.backfill-on-startup=true.
+ * Повторная публикация безопасна - compaction оставит последнее значение.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserContactBackfill {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final UserEventPublisher userEventPublisher;
+
+    @Value("${user.contacts.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        long published = 0;
+        Page<User> page = userRepository.findAllActive(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(userEventPublisher::publishContact);
+            published += page.getNumberOfElements();
+            if (!page.hasNext()) {
+                break;
+            }
+            page = userRepository.findAllActive(page.nextPageable());
+        }
+        log.info("User contacts backfill published {} users", published);
+    }
+}
@@ -0,0 +1,26 @@
+package com.travelmaster.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Контакты пользователя (compacted topic user-contacts, ключ - userId).
+ *
+ * В topic хранится последнее состояние каждого пользователя, поэтому
+ * notification-service восстанавливает из него полный справочник контактов.
+ * Удаление пользователя - tombstone (null) с тем же ключом.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactEvent {
+    private Long userId;
+    private String email;
+    private String phoneNumber;
+    private String locale;
+    private Boolean enabled;
+    private Long updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.travelmaster.user.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmaster.user.cache.SecurityVersionCache;
+import com.travelmaster.user.cache.UserProfileCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Вытесняет профили и версии безопасности из near-cache по событиям user-events.
+ *
+ * Near-cache есть у каждой реплики, поэтому каждая читает topic своей consumer group.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventListener {
+
+    private final UserProfileCache userProfileCache;
+    private final SecurityVersionCache securityVersionCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = UserEventPublisher.USER_EVENTS_TOPIC, groupId = "user-service-cache-${random.uuid}")
+    public void consumeUserChanged(String message) {
+        try {
+            UserChangedEvent event = objectMapper.readValue(message, UserChangedEvent.class);
+            if (event.getUserId() != null) {
+                userProfileCache.invalidate(event.getUserId());
+                securityVersionCache.invalidate(event.getUserId());
+            }
+        } catch (Exception e) {
+            log.error("Error processing user event: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.travelmaster.user.event;
+
+import com.travelmaster.user.cache.UserProfileCache;
+import com.travelmaster.user.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * Publisher событий изменения пользователей (user-events) и их контактов (user-contacts).
+ *
+ * Внутри транзакции событие уходит только после коммита: иначе другая реплика
+ * успела бы перечитать из БД ещё старые данные и закешировать их.
+ * Своя реплика вытесняет запись сразу и ещё раз после коммита.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    static final String USER_EVENTS_TOPIC = "user-events";
+    public static final String USER_CONTACTS_TOPIC = "user-contacts";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final UserProfileCache userProfileCache;
+
+    public void publishUserChanged(Long userId, UserChangedEvent.ChangeType changeType) {
+        userProfileCache.invalidate(userId);
+        UserChangedEvent event = UserChangedEvent.builder()
+                .userId(userId)
+                .changeType(changeType)
+                .changedAt(Instant.now().getEpochSecond())
+                .build();
+
+        afterCommit(() -> {
+            log.debug("Publishing UserChangedEvent {} for user {}", event.getChangeType(), event.getUserId());
+            userProfileCache.invalidate(event.getUserId());
+            kafkaTemplate.send(USER_EVENTS_TOPIC, event.getUserId().toString(), event);
+        });
+    }
+
+    /**
+     * Актуальные контакты пользователя в compacted topic user-contacts (ключ - userId).
+     */
+    public void publishContact(User user) {
+        UserContactEvent event = UserContactEvent.builder()
+                .userId(user.getId())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .locale(user.getLocale())
+                .enabled(user.getEnabled())
+                .updatedAt(Instant.now().getEpochSecond())
+                .build();
+        afterCommit(() -> kafkaTemplate.send(USER_CONTACTS_TOPIC, user.getId().toString(), event));
+    }
+
+    /**
+     * Tombstone: при compaction контакты удалённого пользователя исчезают из topic.
+     */
+    public void publishContactRemoved(Long userId) {
+        afterCommit(() -> kafkaTemplate.send(USER_CONTACTS_TOPIC, userId.toString(), null));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
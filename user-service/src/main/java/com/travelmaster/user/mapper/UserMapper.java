@@ -1,10 +1,14 @@
 package com.travelmaster.user.mapper;
 
+import com.travelmaster.user.dto.UserContactResponse;
 import com.travelmaster.user.dto.UserResponse;
 import com.travelmaster.user.entity.Role;
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.repository.projection.UserContactView;
+import com.travelmaster.user.repository.projection.UserLoginView;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,5 +32,35 @@ public class UserMapper {
                 .createdAt(user.getCreatedAt())
                 .build();
     }
-}
 
+    public UserResponse toLoginResponse(UserLoginView login) {
+        if (login == null) {
+            return null;
+        }
+
+        return UserResponse.builder()
+                .id(login.getId())
+                .email(login.getEmail())
+                .firstName(login.getFirstName())
+                .lastName(login.getLastName())
+                .phoneNumber(login.getPhoneNumber())
+                .roles(Set.copyOf(login.roleList()))
+                .enabled(login.getEnabled())
+                .createdAt(login.getCreatedAt())
+                .build();
+    }
+
+    public UserContactResponse toContactResponse(UserContactView contact) {
+        if (contact == null) {
+            return null;
+        }
+
+        return UserContactResponse.builder()
+                .id(contact.getId())
+                .email(contact.getEmail())
+                .phoneNumber(contact.getPhoneNumber())
+                .locale(contact.getLocale())
+                .enabled(contact.getEnabled())
+                .build();
+    }
+}
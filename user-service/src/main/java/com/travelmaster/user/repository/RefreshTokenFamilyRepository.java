@@ -0,0 +1,38 @@
+package com.travelmaster.user.repository;
+
+import com.travelmaster.user.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+
+    /**
+     * Атомарная ротация: заменяет действующий токен цепочки, только если предъявлен именно он.
+     *
+     * @return 1 - ротация выполнена, 0 - токен устарел, сессия отозвана или истекла
+     */
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.currentTokenId = :nextTokenId, " +
+           "f.rotatedAt = :now, f.expiresAt = :expiresAt " +
+           "WHERE f.id = :id AND f.currentTokenId = :currentTokenId " +
+           "AND f.revoked = false AND f.expiresAt > :now")
+    int rotate(@Param("id") String id,
+               @Param("currentTokenId") String currentTokenId,
+               @Param("nextTokenId") String nextTokenId,
+               @Param("now") LocalDateTime now,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.revoked = true WHERE f.id = :id")
+    int revoke(@Param("id") String id);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenFamily f WHERE f.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,6 +1,8 @@
 package com.travelmaster.user.repository;
 
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.repository.projection.UserContactView;
+import com.travelmaster.user.repository.projection.UserLoginView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,6 +25,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Данные для входа одним запросом: колонки users из covering index idx_users_login,
+     * роли агрегируются в строку. Сущность User и её EAGER роли не загружаются.
+     */
+    @Query(value = "SELECT u.id AS id, u.email AS email, u.password AS passwordHash, " +
+                   "u.first_name AS firstName, u.last_name AS lastName, u.phone_number AS phoneNumber, " +
+                   "u.enabled AS enabled, u.security_version AS securityVersion, u.created_at AS createdAt, " +
+                   "COALESCE(string_agg(r.name, ',' ORDER BY r.name), '') AS roleNames " +
+                   "FROM users u " +
+                   "LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+                   "LEFT JOIN roles r ON r.id = ur.role_id " +
+                   "WHERE u.email = :email AND u.deleted = false " +
+                   "GROUP BY u.id",
+           nativeQuery = true)
+    Optional<UserLoginView> findLoginByEmail(@Param("email") String email);
+
     @Query("SELECT u FROM User u WHERE u.oauthProvider = :provider AND u.oauthId = :oauthId")
     Optional<User> findByOAuth(@Param("provider") String provider, @Param("oauthId") String oauthId);
 
@@ -30,5 +50,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
            "WHERE u.email = :email AND u.deleted = false")
     boolean existsActiveByEmail(@Param("email") String email);
-}
 
+    /**
+     * Контакты нескольких пользователей одним запросом: только нужные колонки,
+     * без сущности User и без join на роли.
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.phoneNumber AS phoneNumber, " +
+           "u.locale AS locale, u.enabled AS enabled " +
+           "FROM User u WHERE u.id IN :ids AND u.deleted = false")
+    List<UserContactView> findContactsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Версия безопасности активного пользователя - одна колонка по первичному ключу.
+     * Пусто, если пользователь удалён, заблокирован или не существует.
+     */
+    @Query("SELECT u.securityVersion FROM User u " +
+           "WHERE u.id = :id AND u.deleted = false AND u.enabled = true")
+    Optional<Long> findActiveSecurityVersion(@Param("id") Long id);
+}
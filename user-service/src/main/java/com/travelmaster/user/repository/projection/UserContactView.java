@@ -0,0 +1,17 @@
+package com.travelmaster.user.repository.projection;
+
+/**
+ * Проекция контактных данных пользователя для batch lookup.
+ */
+public interface UserContactView {
+
+    Long getId();
+
+    String getEmail();
+
+    String getPhoneNumber();
+
+    String getLocale();
+
+    Boolean getEnabled();
+}
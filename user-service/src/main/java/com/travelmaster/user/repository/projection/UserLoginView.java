@@ -0,0 +1,43 @@
+package com.travelmaster.user.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Проекция для входа: хеш пароля, статус, роли и поля профиля для ответа,
+ * без паспорта, OAuth-полей и служебных колонок.
+ */
+public interface UserLoginView {
+
+    Long getId();
+
+    String getEmail();
+
+    String getPasswordHash();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getPhoneNumber();
+
+    Boolean getEnabled();
+
+    Long getSecurityVersion();
+
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Имена ролей через запятую (string_agg), пустая строка - ролей нет.
+     */
+    String getRoleNames();
+
+    default List<String> roleList() {
+        String roleNames = getRoleNames();
+        if (roleNames == null || roleNames.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(roleNames.split(","));
+    }
+}
@@ -0,0 +1,50 @@
+package com.travelmaster.user.security;
+
+import com.travelmaster.common.security.TokenClaims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Аутентификация запросов по access token из заголовка Authorization.
+ *
+ * Principal - id пользователя (subject токена), authorities - роли из токена.
+ * Это позволяет ограничить доступ к профилям через @PreAuthorize: свой профиль или ADMIN.
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            jwtTokenProvider.decodeAccessToken(header.substring(BEARER_PREFIX.length()))
+                    .ifPresent(JwtAuthenticationFilter::authenticate);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void authenticate(TokenClaims claims) {
+        List<String> roles = claims.getRoles() != null ? claims.getRoles() : List.of();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                claims.getUserId(),
+                null,
+                roles.stream().map(SimpleGrantedAuthority::new).toList());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -1,21 +1,19 @@
 package com.travelmaster.user.security;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
+import com.travelmaster.common.security.JwtCodec;
+import com.travelmaster.common.security.TokenClaims;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
-@Slf4j
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    private final JwtCodec jwtCodec;
     private final long accessTokenValidityMs;
     private final long refreshTokenValidityMs;
 
@@ -23,72 +21,67 @@ public class JwtTokenProvider {
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-validity-ms:900000}") long accessTokenValidityMs,
             @Value("${jwt.refresh-token-validity-ms:2592000000}") long refreshTokenValidityMs) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtCodec = new JwtCodec(secret);
         this.accessTokenValidityMs = accessTokenValidityMs; // 15 минут по умолчанию
         this.refreshTokenValidityMs = refreshTokenValidityMs; // 30 дней по умолчанию
     }
 
-    public String generateAccessToken(String userId, String email, List<String> roles) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + accessTokenValidityMs);
+    /**
+     * @param familyId сессия refresh token, которую отзывает logout с этим access token
+     */
+    public String generateAccessToken(String userId, String email, List<String> roles, String familyId) {
+        Instant now = Instant.now();
 
-        return Jwts.builder()
-                .subject(userId)
-                .claim("email", email)
-                .claim("roles", roles)
-                .claim("type", "ACCESS")
+        return jwtCodec.encode(TokenClaims.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .userId(userId)
+                .email(email)
+                .roles(roles)
+                .type(TokenClaims.TYPE_ACCESS)
+                .familyId(familyId)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
-                .compact();
+                .expiresAt(now.plusMillis(accessTokenValidityMs))
+                .build());
     }
 
-    public String generateRefreshToken(String userId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshTokenValidityMs);
+    /**
+     * Refresh token несёт всё, что нужно для выпуска access token (email, роли), вместе
+     * с версией безопасности пользователя - при неизменной версии refresh не читает users.
+     */
+    public String generateRefreshToken(String userId, String email, List<String> roles,
+                                       long securityVersion, String familyId, String tokenId) {
+        Instant now = Instant.now();
 
-        return Jwts.builder()
-                .subject(userId)
-                .claim("type", "REFRESH")
+        return jwtCodec.encode(TokenClaims.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .email(email)
+                .roles(roles)
+                .type(TokenClaims.TYPE_REFRESH)
+                .securityVersion(securityVersion)
+                .familyId(familyId)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
-                .compact();
+                .expiresAt(now.plusMillis(refreshTokenValidityMs))
+                .build());
     }
 
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+    /**
+     * Claims валидного refresh token; access token сюда не подходит.
+     */
+    public Optional<TokenClaims> decodeRefreshToken(String token) {
+        return jwtCodec.decode(token)
+                .filter(claims -> TokenClaims.TYPE_REFRESH.equals(claims.getType()));
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
-        }
-        return false;
+    /**
+     * Claims валидного access token; refresh token для аутентификации запросов не подходит.
+     */
+    public Optional<TokenClaims> decodeAccessToken(String token) {
+        return jwtCodec.decode(token)
+                .filter(claims -> TokenClaims.TYPE_ACCESS.equals(claims.getType()));
     }
 
     public long getAccessTokenValidityMs() {
         return accessTokenValidityMs;
     }
 }
-
@@ -0,0 +1,137 @@
+package com.travelmaster.user.security;
+
+import com.travelmaster.common.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выделенный пул для хеширования паролей (BCrypt).
+ *
+ * BCrypt стоит десятки миллисекунд CPU. На servlet-потоках волна логинов
+ * (например, credential stuffing) занимает все ядра и весь пул Tomcat, и дешёвые
+ * запросы вроде getUserById начинают ждать. Здесь хеширование идёт на числе потоков
+ * по числу ядер, с ограниченной очередью:
+ * - очередь заполнена - запрос сразу отклоняется (429), поток Tomcat освобождается;
+ * - задача ждала в очереди дольше max-wait - тоже отклоняется, клиент уже не дождётся.
+ *
+ * Метрики: user.password_hash.duration{operation}, user.password_hash.wait,
+ * user.password_hash.queue, user.password_hash.active, user.password_hash.rejected{reason}.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> durationTimers = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${password-hashing.threads:0}") int threads,
+            @Value("${password-hashing.queue-capacity:0}") int queueCapacity,
+            @Value("${password-hashing.max-wait:2s}") Duration maxWait) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 4;
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("user.password_hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("user.password_hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("user.password_hash.wait")
+                .description("Time a hashing task spent in the queue")
+                .register(meterRegistry);
+        this.queueFullCounter = meterRegistry.counter("user.password_hash.rejected", "reason", "queue_full");
+        this.timeoutCounter = meterRegistry.counter("user.password_hash.rejected", "reason", "timeout");
+
+        log.info("Password hashing pool: threads={}, queue={}, maxWait={}", poolSize, capacity, maxWait);
+    }
+
+    /**
+     * Выполняет операцию на пуле хеширования и ждёт результат.
+     *
+     * @param operation имя операции для метрик (encode, matches)
+     * @throws PasswordHashingRejectedException пул перегружен
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer durationTimer = durationTimers.computeIfAbsent(operation, op -> Timer.builder("user.password_hash.duration")
+                .tag("operation", op)
+                .register(meterRegistry));
+        long submittedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return durationTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            throw new PasswordHashingRejectedException();
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Задача из очереди будет пропущена, уже начатая - доработает вхолостую
+            future.cancel(false);
+            timeoutCounter.increment();
+            throw new PasswordHashingRejectedException();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Хеширование пароля прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException("Ошибка хеширования пароля", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.travelmaster.user.security;
+
+import com.travelmaster.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Пул хеширования паролей перегружен - запрос отклоняется без ожидания.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class PasswordHashingRejectedException extends BusinessException {
+
+    public PasswordHashingRejectedException() {
+        super("TOO_MANY_REQUESTS", "Слишком много запросов аутентификации, повторите позже");
+    }
+}
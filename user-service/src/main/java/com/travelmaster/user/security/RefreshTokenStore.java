@@ -0,0 +1,108 @@
+package com.travelmaster.user.security;
+
+import com.travelmaster.user.entity.RefreshTokenFamily;
+import com.travelmaster.user.repository.RefreshTokenFamilyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Хранилище сессий refresh token с ротацией и обнаружением повторного использования.
+ *
+ * На сессию - одна строка: id цепочки и jti единственного действующего токена.
+ * Каждый refresh заменяет jti одним условным UPDATE по первичному ключу. Если предъявлен
+ * уже заменённый токен цепочки, его украли или переотправили - сессия отзывается целиком,
+ * и следующий refresh не пройдёт ни у злоумышленника, ни у владельца.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    public enum RotationResult {
+        ROTATED,
+        REUSED,
+        REVOKED
+    }
+
+    private final RefreshTokenFamilyRepository repository;
+    private final Duration refreshTokenValidity;
+
+    private final Counter rotatedCounter;
+    private final Counter reusedCounter;
+    private final Counter revokedCounter;
+
+    public RefreshTokenStore(
+            RefreshTokenFamilyRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-token-validity-ms:2592000000}") long refreshTokenValidityMs) {
+        this.repository = repository;
+        this.refreshTokenValidity = Duration.ofMillis(refreshTokenValidityMs);
+        this.rotatedCounter = meterRegistry.counter("user.refresh_token.rotations", "result", "rotated");
+        this.reusedCounter = meterRegistry.counter("user.refresh_token.rotations", "result", "reused");
+        this.revokedCounter = meterRegistry.counter("user.refresh_token.rotations", "result", "revoked");
+    }
+
+    /**
+     * Открывает новую сессию (вход, регистрация).
+     *
+     * @return id сессии для claim "fam"
+     */
+    @Transactional
+    public String startFamily(Long userId, String tokenId) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshTokenFamily family = RefreshTokenFamily.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .currentTokenId(tokenId)
+                .createdAt(now)
+                .expiresAt(now.plus(refreshTokenValidity))
+                .build();
+        return repository.save(family).getId();
+    }
+
+    @Transactional
+    public RotationResult rotate(String familyId, String presentedTokenId, String nextTokenId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = repository.rotate(familyId, presentedTokenId, nextTokenId,
+                now, now.plus(refreshTokenValidity));
+        if (updated == 1) {
+            rotatedCounter.increment();
+            return RotationResult.ROTATED;
+        }
+
+        RefreshTokenFamily family = repository.findById(familyId).orElse(null);
+        if (family == null || family.getRevoked() || !family.getExpiresAt().isAfter(now)
+                || family.getCurrentTokenId().equals(presentedTokenId)) {
+            revokedCounter.increment();
+            return RotationResult.REVOKED;
+        }
+
+        repository.revoke(familyId);
+        reusedCounter.increment();
+        log.warn("Повторное использование refresh token: сессия {} пользователя {} отозвана",
+                familyId, family.getUserId());
+        return RotationResult.REUSED;
+    }
+
+    @Transactional
+    public void revoke(String familyId) {
+        repository.revoke(familyId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-families.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Удалено истёкших сессий refresh token: {}", deleted);
+        }
+    }
+}
@@ -3,22 +3,30 @@ package com.travelmaster.user.service;
 import com.travelmaster.common.constant.RoleConstants;
 import com.travelmaster.common.exception.BusinessException;
 import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.user.cache.SecurityVersionCache;
+import com.travelmaster.user.cache.UserProfileCache;
 import com.travelmaster.user.dto.AuthResponse;
 import com.travelmaster.user.dto.LoginRequest;
 import com.travelmaster.user.dto.RegisterRequest;
+import com.travelmaster.user.dto.UserResponse;
 import com.travelmaster.user.entity.Role;
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.event.TokenRevocationPublisher;
+import com.travelmaster.user.event.UserEventPublisher;
 import com.travelmaster.user.mapper.UserMapper;
 import com.travelmaster.user.repository.RoleRepository;
 import com.travelmaster.user.repository.UserRepository;
+import com.travelmaster.user.repository.projection.UserLoginView;
 import com.travelmaster.user.security.JwtTokenProvider;
+import com.travelmaster.user.security.RefreshTokenStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,8 +39,16 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserMapper userMapper;
-
-    @Transactional
+    private final TokenRevocationPublisher tokenRevocationPublisher;
+    private final UserProfileCache userProfileCache;
+    private final UserEventPublisher userEventPublisher;
+    private final SecurityVersionCache securityVersionCache;
+    private final RefreshTokenStore refreshTokenStore;
+
+    /**
+     * Без общей транзакции: хеширование пароля (BCrypt, на отдельном пуле) не должно
+     * держать соединение из пула БД. Единственная запись - save, она транзакционна сама.
+     */
     public AuthResponse register(RegisterRequest request) {
         log.info("Регистрация нового пользователя: {}", request.getEmail());
 
@@ -59,62 +75,148 @@ public class AuthService {
         user.addRole(travelerRole);
 
         User savedUser = userRepository.save(user);
+        userEventPublisher.publishContact(savedUser);
         log.info("Пользователь успешно зарегистрирован: id={}, email={}", 
                 savedUser.getId(), savedUser.getEmail());
 
         return createAuthResponse(savedUser);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Без транзакции по той же причине, что и register. Пользователь читается проекцией
+     * (один запрос, covering index), а не сущностью с EAGER ролями.
+     */
     public AuthResponse login(LoginRequest request) {
         log.info("Попытка входа: {}", request.getEmail());
 
-        User user = userRepository.findByEmailAndDeletedFalse(request.getEmail())
+        UserLoginView user = userRepository.findLoginByEmail(request.getEmail())
                 .orElseThrow(() -> new ValidationException("Неверный email или пароль"));
 
         if (!user.getEnabled()) {
             throw new ValidationException("Аккаунт заблокирован");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
             log.warn("Неверный пароль для пользователя: {}", request.getEmail());
             throw new ValidationException("Неверный email или пароль");
         }
 
         log.info("Успешный вход: id={}, email={}", user.getId(), user.getEmail());
-        return createAuthResponse(user);
+        return startSession(user.getId(), user.getEmail(), user.roleList(), user.getSecurityVersion(),
+                userMapper.toLoginResponse(user));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Ротация refresh token без загрузки пользователя: email и роли берутся из самого
+     * токена, а актуальность подтверждает версия безопасности (near-cache, при промахе -
+     * одна колонка из users). Пользователь с ролями читается, только если версия изменилась.
+     *
+     * Предъявленный токен заменяется новым в той же сессии; повторное предъявление
+     * заменённого токена отзывает сессию целиком. Токен без сессии (выпущен до ротации)
+     * отклоняется: его повторное использование нельзя обнаружить.
+     */
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new BusinessException("INVALID_TOKEN", "Невалидный refresh token");
+        TokenClaims claims = jwtTokenProvider.decodeRefreshToken(refreshToken)
+                .orElseThrow(() -> new BusinessException("INVALID_TOKEN", "Невалидный refresh token"));
+        if (claims.getFamilyId() == null || claims.getTokenId() == null) {
+            throw new BusinessException("INVALID_TOKEN", "Refresh token устарел, выполните вход заново");
+        }
+
+        Long userId = Long.parseLong(claims.getUserId());
+        Long securityVersion = securityVersionCache.get(userId, userRepository::findActiveSecurityVersion)
+                .orElse(null);
+        if (securityVersion == null) {
+            refreshTokenStore.revoke(claims.getFamilyId());
+            throw new BusinessException("ACCOUNT_DISABLED", "Аккаунт заблокирован");
+        }
+
+        String nextTokenId = UUID.randomUUID().toString();
+        switch (refreshTokenStore.rotate(claims.getFamilyId(), claims.getTokenId(), nextTokenId)) {
+            case REUSED -> throw new BusinessException("TOKEN_REUSED",
+                    "Refresh token уже использован, сессия завершена");
+            case REVOKED -> throw new BusinessException("INVALID_TOKEN", "Сессия завершена");
+            case ROTATED -> { }
+        }
+
+        if (securityVersion.equals(claims.getSecurityVersion())) {
+            return buildAuthResponse(userId, claims.getEmail(), claims.getRoles(), securityVersion,
+                    claims.getFamilyId(), nextTokenId, userProfileCache.get(userId).orElse(null));
+        }
+
+        // Роли или статус изменились после выпуска токена
+        User user = loadActiveUser(userId);
+        UserResponse profile = userMapper.toResponse(user);
+        userProfileCache.put(profile);
+        return buildAuthResponse(user.getId(), user.getEmail(), roleNames(user), user.getSecurityVersion(),
+                claims.getFamilyId(), nextTokenId, profile);
+    }
+
+    /**
+     * Выход из системы: access token отзывается до истечения срока, а сессия refresh token,
+     * в которой он выпущен, закрывается - refresh после выхода не пройдёт.
+     */
+    public void logout(String accessToken) {
+        TokenClaims claims = jwtTokenProvider.decodeAccessToken(accessToken)
+                .orElseThrow(() -> new BusinessException("INVALID_TOKEN", "Невалидный access token"));
+        if (claims.getTokenId() == null) {
+            throw new BusinessException("INVALID_TOKEN", "Токен не может быть отозван");
+        }
+
+        tokenRevocationPublisher.publishTokenRevoked(
+                claims.getTokenId(),
+                Long.parseLong(claims.getUserId()),
+                claims.getExpiresAt()
+        );
+        if (claims.getFamilyId() != null) {
+            refreshTokenStore.revoke(claims.getFamilyId());
         }
+        log.info("Токен отозван: userId={}", claims.getUserId());
+    }
 
-        String userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
-        User user = userRepository.findById(Long.parseLong(userId))
+    private User loadActiveUser(Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessException("NOT_FOUND", "Пользователь не найден"));
 
         if (user.getDeleted() || !user.getEnabled()) {
             throw new BusinessException("ACCOUNT_DISABLED", "Аккаунт заблокирован");
         }
-
-        return createAuthResponse(user);
+        return user;
     }
 
     private AuthResponse createAuthResponse(User user) {
-        List<String> roles = user.getRoles().stream()
-                .map(Role::getName)
-                .collect(Collectors.toList());
+        return startSession(user.getId(), user.getEmail(), roleNames(user), user.getSecurityVersion(),
+                userMapper.toResponse(user));
+    }
 
+    /**
+     * Ответ с новой сессией refresh token (вход, регистрация).
+     */
+    private AuthResponse startSession(Long userId, String email, List<String> roles, long securityVersion,
+                                      UserResponse profile) {
+        String tokenId = UUID.randomUUID().toString();
+        String familyId = refreshTokenStore.startFamily(userId, tokenId);
+        return buildAuthResponse(userId, email, roles, securityVersion, familyId, tokenId, profile);
+    }
+
+    /**
+     * @param profile может отсутствовать при refresh, если профиля нет в near-cache
+     */
+    private AuthResponse buildAuthResponse(Long userId, String email, List<String> roles, long securityVersion,
+                                           String familyId, String refreshTokenId, UserResponse profile) {
         String accessToken = jwtTokenProvider.generateAccessToken(
-                user.getId().toString(),
-                user.getEmail(),
-                roles
+                userId.toString(),
+                email,
+                roles,
+                familyId
         );
 
         String refreshToken = jwtTokenProvider.generateRefreshToken(
-                user.getId().toString()
+                userId.toString(),
+                email,
+                roles,
+                securityVersion,
+                familyId,
+                refreshTokenId
         );
 
         return AuthResponse.builder()
@@ -122,8 +224,14 @@ public class AuthService {
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtTokenProvider.getAccessTokenValidityMs() / 1000)
-                .user(userMapper.toResponse(user))
+                .user(profile)
                 .build();
     }
+
+    private static List<String> roleNames(User user) {
+        return user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toList());
+    }
 }
 
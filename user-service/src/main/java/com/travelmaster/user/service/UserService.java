@@ -1,19 +1,34 @@
 package com.travelmaster.user.service;
 
 import com.travelmaster.common.exception.EntityNotFoundException;
+import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.user.cache.UserProfileCache;
 import com.travelmaster.user.dto.UpdateUserRequest;
+import com.travelmaster.user.dto.UserContactResponse;
 import com.travelmaster.user.dto.UserResponse;
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.event.TokenRevocationPublisher;
+import com.travelmaster.user.event.UserChangedEvent;
+import com.travelmaster.user.event.UserEventPublisher;
 import com.travelmaster.user.mapper.UserMapper;
 import com.travelmaster.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,12 +37,45 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final TokenRevocationPublisher tokenRevocationPublisher;
+    private final UserEventPublisher userEventPublisher;
+    private final UserProfileCache userProfileCache;
 
-    @Transactional(readOnly = true)
+    @Value("${user.batch.max-ids:200}")
+    private int maxBatchIds;
+
+    /**
+     * Сначала near-cache; транзакция не нужна - роли загружаются вместе с пользователем,
+     * а попадание в кеш не должно занимать соединение с БД.
+     */
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findByIdAndDeletedFalse(id)
-                .orElseThrow(() -> new EntityNotFoundException("User", id));
-        return userMapper.toResponse(user);
+        return userProfileCache.get(id).orElseGet(() -> {
+            User user = userRepository.findByIdAndDeletedFalse(id)
+                    .orElseThrow(() -> new EntityNotFoundException("User", id));
+            UserResponse response = userMapper.toResponse(user);
+            userProfileCache.put(response);
+            return response;
+        });
+    }
+
+    /**
+     * Контакты нескольких пользователей одним IN-запросом (проекция, без ролей).
+     * Удалённые и несуществующие id в ответ не попадают.
+     */
+    public List<UserContactResponse> getUserContacts(Collection<Long> ids) {
+        Set<Long> uniqueIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+        if (uniqueIds.size() > maxBatchIds) {
+            throw new ValidationException("Не больше " + maxBatchIds + " id за запрос");
+        }
+
+        return userRepository.findContactsByIdIn(uniqueIds).stream()
+                .map(userMapper::toContactResponse)
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -54,6 +102,8 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        userEventPublisher.publishUserChanged(id, UserChangedEvent.ChangeType.UPDATED);
+        userEventPublisher.publishContact(updatedUser);
         log.info("Профиль пользователя обновлён: id={}", id);
 
         return userMapper.toResponse(updatedUser);
@@ -75,9 +125,29 @@ public class UserService {
         user.setDeleted(true);
         user.setDeletedAt(LocalDateTime.now());
         user.setEnabled(false);
+        user.bumpSecurityVersion();
 
         userRepository.save(user);
+        // Уже выданные access token не должны работать до истечения срока.
+        // Только после commit: при откате пользователь остаётся активным
+        Long userId = user.getId();
+        afterCommit(() -> tokenRevocationPublisher.publishAllTokensRevoked(userId));
+        userEventPublisher.publishUserChanged(user.getId(), UserChangedEvent.ChangeType.DELETED);
+        userEventPublisher.publishContactRemoved(user.getId());
         log.info("Пользователь анонимизирован: id={}", id);
     }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
 
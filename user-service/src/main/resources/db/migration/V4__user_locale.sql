@@ -0,0 +1,7 @@
+-- ================================================================
+-- User Service - V4: User locale
+-- ================================================================
+-- Описание: язык пользователя для уведомлений (batch lookup контактов)
+-- ================================================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS locale VARCHAR(10);
@@ -0,0 +1,23 @@
+-- ================================================================
+-- User Service - V5: Security version and refresh token rotation
+-- ================================================================
+-- Описание: версия безопасности пользователя (растёт при удалении, блокировке,
+-- изменении ролей) и сессии refresh token для ротации с обнаружением повторного
+-- использования
+-- ================================================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS security_version BIGINT NOT NULL DEFAULT 0;
+
+-- Одна строка на сессию (цепочку refresh token); current_token_id - jti
+-- единственного действующего токена цепочки
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    current_token_id VARCHAR(36) NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    rotated_at TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_expires_at ON refresh_token_families(expires_at);
@@ -0,0 +1,13 @@
+-- ================================================================
+-- User Service - V6: Covering index for login
+-- ================================================================
+-- Описание: вход читает пользователя по email через UserRepository.findLoginByEmail.
+-- Partial index по активным пользователям содержит все колонки запроса (INCLUDE),
+-- поэтому строка users читается index-only scan без обращения к таблице.
+-- ================================================================
+
+CREATE INDEX IF NOT EXISTS idx_users_login ON users(email)
+    INCLUDE (id, password, enabled, security_version, first_name, last_name, phone_number, created_at)
+    WHERE deleted = false;
+
+COMMENT ON INDEX idx_users_login IS 'Covering partial index для login запроса';
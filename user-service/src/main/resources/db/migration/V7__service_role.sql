@@ -0,0 +1,4 @@
+-- Роль сервисных учётных записей: только им доступны пакетные контакты пользователей
+INSERT INTO roles (name, description) VALUES
+    ('ROLE_SERVICE', 'Сервисная учётная запись для межсервисных вызовов')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,128 @@
+package com.travelmaster.user.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordHashingExecutor Unit Tests")
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService callers;
+    private CountDownLatch release;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newCachedThreadPool();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        hashingExecutor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should run task on hashing pool and record duration")
+    void shouldRunTask() {
+        // Given
+        hashingExecutor = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        // When
+        String thread = hashingExecutor.execute("encode", () -> Thread.currentThread().getName());
+
+        // Then
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertEquals(1, meterRegistry.get("user.password_hash.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should reject immediately when queue is full")
+    void shouldRejectWhenQueueFull() throws InterruptedException {
+        // Given - единственный поток занят, единственное место в очереди занято
+        hashingExecutor = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5));
+        occupyThread();
+        callers.submit(() -> hashingExecutor.execute("encode", () -> "queued"));
+        awaitQueueSize(1);
+
+        // When
+        long startedAt = System.nanoTime();
+        assertThrows(PasswordHashingRejectedException.class,
+                () -> hashingExecutor.execute("matches", () -> "rejected"));
+
+        // Then - вызывающий поток не ждал max-wait
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1.0, rejected("queue_full"));
+        assertEquals(0.0, rejected("timeout"));
+    }
+
+    @Test
+    @DisplayName("Should reject and skip task that waited in queue longer than max wait")
+    void shouldRejectWhenWaitTimesOut() throws InterruptedException {
+        // Given
+        hashingExecutor = new PasswordHashingExecutor(meterRegistry, 1, 4, Duration.ofMillis(100));
+        Future<?> blocker = occupyThread();
+        // Вызывающий занявшую поток задачу тоже не дождался ответа, сама задача продолжает работать
+        ExecutionException blockerError = assertThrows(ExecutionException.class, () -> blocker.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingRejectedException.class, blockerError.getCause());
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // When
+        assertThrows(PasswordHashingRejectedException.class,
+                () -> hashingExecutor.execute("matches", () -> ran.getAndSet(true)));
+
+        // Then - после освобождения потока отменённая задача не выполняется
+        assertEquals(2.0, rejected("timeout"));
+        assertEquals(0.0, rejected("queue_full"));
+        release.countDown();
+        assertEquals("after", hashingExecutor.execute("encode", () -> "after"));
+        assertFalse(ran.get());
+    }
+
+    /**
+     * Занимает поток пула задачей, которая ждёт release.
+     */
+    private Future<?> occupyThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> caller = callers.submit(() -> hashingExecutor.execute("encode", () -> {
+            started.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return caller;
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("user.password_hash.queue").gauge().value() < size) {
+            assertTrue(System.nanoTime() < deadline, "queue did not fill up");
+            Thread.sleep(10);
+        }
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("user.password_hash.rejected").tag("reason", reason).counter().count();
+    }
+}
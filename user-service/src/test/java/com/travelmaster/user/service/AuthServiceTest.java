@@ -1,16 +1,26 @@
 package com.travelmaster.user.service;
 
 import com.travelmaster.common.constant.RoleConstants;
+import com.travelmaster.common.exception.BusinessException;
 import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.common.security.TokenClaims;
+import com.travelmaster.user.cache.SecurityVersionCache;
+import com.travelmaster.user.cache.UserProfileCache;
 import com.travelmaster.user.dto.AuthResponse;
 import com.travelmaster.user.dto.LoginRequest;
 import com.travelmaster.user.dto.RegisterRequest;
+import com.travelmaster.user.dto.UserResponse;
 import com.travelmaster.user.entity.Role;
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.event.TokenRevocationPublisher;
+import com.travelmaster.user.event.UserEventPublisher;
 import com.travelmaster.user.mapper.UserMapper;
 import com.travelmaster.user.repository.RoleRepository;
 import com.travelmaster.user.repository.UserRepository;
+import com.travelmaster.user.repository.projection.UserLoginView;
 import com.travelmaster.user.security.JwtTokenProvider;
+import com.travelmaster.user.security.PasswordHashingRejectedException;
+import com.travelmaster.user.security.RefreshTokenStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,14 +28,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +65,21 @@ class AuthServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationPublisher tokenRevocationPublisher;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
+    @Mock
+    private SecurityVersionCache securityVersionCache;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
     @InjectMocks
     private AuthService authService;
 
@@ -88,8 +121,9 @@ class AuthServiceTest {
         when(roleRepository.findByName(RoleConstants.ROLE_TRAVELER)).thenReturn(Optional.of(travelerRole));
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(jwtTokenProvider.generateAccessToken(anyString(), anyString(), anyList())).thenReturn("accessToken");
-        when(jwtTokenProvider.generateRefreshToken(anyString())).thenReturn("refreshToken");
+        when(jwtTokenProvider.generateAccessToken(anyString(), anyString(), anyList(), any())).thenReturn("accessToken");
+        when(jwtTokenProvider.generateRefreshToken(anyString(), anyString(), anyList(), anyLong(), any(), anyString()))
+                .thenReturn("refreshToken");
         when(jwtTokenProvider.getAccessTokenValidityMs()).thenReturn(900000L);
 
         // When
@@ -104,6 +138,7 @@ class AuthServiceTest {
         verify(userRepository).existsActiveByEmail(request.getEmail());
         verify(userRepository).save(any(User.class));
         verify(passwordEncoder).encode(request.getPassword());
+        verify(userEventPublisher).publishContact(testUser);
     }
 
     @Test
@@ -137,10 +172,11 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
 
-        when(userRepository.findByEmailAndDeletedFalse(request.getEmail())).thenReturn(Optional.of(testUser));
+        when(userRepository.findLoginByEmail(request.getEmail())).thenReturn(Optional.of(loginView(testUser)));
         when(passwordEncoder.matches(request.getPassword(), testUser.getPassword())).thenReturn(true);
-        when(jwtTokenProvider.generateAccessToken(anyString(), anyString(), anyList())).thenReturn("accessToken");
-        when(jwtTokenProvider.generateRefreshToken(anyString())).thenReturn("refreshToken");
+        when(jwtTokenProvider.generateAccessToken(anyString(), anyString(), anyList(), any())).thenReturn("accessToken");
+        when(jwtTokenProvider.generateRefreshToken(anyString(), anyString(), anyList(), anyLong(), any(), anyString()))
+                .thenReturn("refreshToken");
         when(jwtTokenProvider.getAccessTokenValidityMs()).thenReturn(900000L);
 
         // When
@@ -151,7 +187,7 @@ class AuthServiceTest {
         assertThat(response.getAccessToken()).isNotNull();
         assertThat(response.getRefreshToken()).isNotNull();
 
-        verify(userRepository).findByEmailAndDeletedFalse(request.getEmail());
+        verify(userRepository).findLoginByEmail(request.getEmail());
         verify(passwordEncoder).matches(request.getPassword(), testUser.getPassword());
     }
 
@@ -164,7 +200,7 @@ class AuthServiceTest {
                 .password("wrongPassword")
                 .build();
 
-        when(userRepository.findByEmailAndDeletedFalse(request.getEmail())).thenReturn(Optional.of(testUser));
+        when(userRepository.findLoginByEmail(request.getEmail())).thenReturn(Optional.of(loginView(testUser)));
         when(passwordEncoder.matches(request.getPassword(), testUser.getPassword())).thenReturn(false);
 
         // When & Then
@@ -175,6 +211,26 @@ class AuthServiceTest {
         verify(passwordEncoder).matches(request.getPassword(), testUser.getPassword());
     }
 
+    @Test
+    @DisplayName("Should reject login when password hashing pool is saturated")
+    void shouldRejectLoginWhenHashingPoolSaturated() {
+        // Given
+        LoginRequest request = LoginRequest.builder()
+                .email("test@example.com")
+                .password("password123")
+                .build();
+
+        when(userRepository.findLoginByEmail(request.getEmail())).thenReturn(Optional.of(loginView(testUser)));
+        when(passwordEncoder.matches(request.getPassword(), testUser.getPassword()))
+                .thenThrow(new PasswordHashingRejectedException());
+
+        // When & Then
+        assertThatThrownBy(() -> authService.login(request))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+
+        verify(jwtTokenProvider, never()).generateAccessToken(anyString(), anyString(), anyList(), any());
+    }
+
     @Test
     @DisplayName("Should throw exception when user not found")
     void shouldThrowExceptionWhenUserNotFound() {
@@ -184,13 +240,13 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
 
-        when(userRepository.findByEmailAndDeletedFalse(request.getEmail())).thenReturn(Optional.empty());
+        when(userRepository.findLoginByEmail(request.getEmail())).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> authService.login(request))
                 .isInstanceOf(ValidationException.class);
 
-        verify(userRepository).findByEmailAndDeletedFalse(request.getEmail());
+        verify(userRepository).findLoginByEmail(request.getEmail());
         verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
@@ -204,14 +260,186 @@ class AuthServiceTest {
                 .password("password123")
                 .build();
 
-        when(userRepository.findByEmailAndDeletedFalse(request.getEmail())).thenReturn(Optional.of(testUser));
+        when(userRepository.findLoginByEmail(request.getEmail())).thenReturn(Optional.of(loginView(testUser)));
 
         // When & Then
         assertThatThrownBy(() -> authService.login(request))
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("заблокирован");
 
-        verify(userRepository).findByEmailAndDeletedFalse(request.getEmail());
+        verify(userRepository).findLoginByEmail(request.getEmail());
+    }
+
+    @Test
+    @DisplayName("Should refresh token without loading user when security version is unchanged")
+    void shouldRefreshTokenFromCachedProfile() {
+        // Given
+        UserResponse profile = UserResponse.builder()
+                .id(1L)
+                .email("test@example.com")
+                .roles(Set.of(RoleConstants.ROLE_TRAVELER))
+                .enabled(true)
+                .build();
+
+        when(jwtTokenProvider.decodeRefreshToken("refresh-token")).thenReturn(Optional.of(refreshClaims(3L)));
+        when(securityVersionCache.get(eq(1L), any())).thenReturn(Optional.of(3L));
+        when(refreshTokenStore.rotate(eq("family-1"), eq("token-1"), anyString()))
+                .thenReturn(RefreshTokenStore.RotationResult.ROTATED);
+        when(userProfileCache.get(1L)).thenReturn(Optional.of(profile));
+        when(jwtTokenProvider.generateAccessToken("1", "test@example.com", List.of(RoleConstants.ROLE_TRAVELER), "family-1"))
+                .thenReturn("accessToken");
+        when(jwtTokenProvider.generateRefreshToken(eq("1"), eq("test@example.com"), anyList(), eq(3L),
+                eq("family-1"), anyString())).thenReturn("refreshToken");
+
+        // When
+        AuthResponse response = authService.refreshToken("refresh-token");
+
+        // Then
+        assertThat(response.getAccessToken()).isEqualTo("accessToken");
+        assertThat(response.getRefreshToken()).isEqualTo("refreshToken");
+        assertThat(response.getUser()).isSameAs(profile);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reload user on refresh when security version changed")
+    void shouldReloadUserWhenSecurityVersionChanged() {
+        // Given
+        testUser.setSecurityVersion(4L);
+        when(jwtTokenProvider.decodeRefreshToken("refresh-token")).thenReturn(Optional.of(refreshClaims(3L)));
+        when(securityVersionCache.get(eq(1L), any())).thenReturn(Optional.of(4L));
+        when(refreshTokenStore.rotate(eq("family-1"), eq("token-1"), anyString()))
+                .thenReturn(RefreshTokenStore.RotationResult.ROTATED);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.generateAccessToken(anyString(), anyString(), anyList(), any())).thenReturn("accessToken");
+        when(jwtTokenProvider.generateRefreshToken(anyString(), anyString(), anyList(), anyLong(), any(), anyString()))
+                .thenReturn("refreshToken");
+
+        // When
+        authService.refreshToken("refresh-token");
+
+        // Then
+        verify(jwtTokenProvider).generateRefreshToken(eq("1"), eq("test@example.com"), anyList(), eq(4L),
+                eq("family-1"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject reused refresh token")
+    void shouldRejectReusedRefreshToken() {
+        // Given
+        when(jwtTokenProvider.decodeRefreshToken("refresh-token")).thenReturn(Optional.of(refreshClaims(3L)));
+        when(securityVersionCache.get(eq(1L), any())).thenReturn(Optional.of(3L));
+        when(refreshTokenStore.rotate(eq("family-1"), eq("token-1"), anyString()))
+                .thenReturn(RefreshTokenStore.RotationResult.REUSED);
+
+        // When & Then
+        assertThatThrownBy(() -> authService.refreshToken("refresh-token"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("уже использован");
+
+        verify(jwtTokenProvider, never()).generateAccessToken(anyString(), anyString(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject refresh token issued without session")
+    void shouldRejectLegacyRefreshToken() {
+        // Given - токен без fam/jti нельзя проверить на повторное использование
+        TokenClaims legacy = TokenClaims.builder()
+                .userId("1")
+                .email("test@example.com")
+                .roles(List.of(RoleConstants.ROLE_TRAVELER))
+                .type(TokenClaims.TYPE_REFRESH)
+                .securityVersion(3L)
+                .build();
+        when(jwtTokenProvider.decodeRefreshToken("legacy-token")).thenReturn(Optional.of(legacy));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.refreshToken("legacy-token"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("выполните вход");
+
+        verify(refreshTokenStore, never()).startFamily(any(), anyString());
+        verify(jwtTokenProvider, never()).generateAccessToken(anyString(), anyString(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should revoke refresh session of access token on logout")
+    void shouldRevokeRefreshSessionOnLogout() {
+        // Given
+        TokenClaims claims = accessClaims(Instant.now().plusSeconds(600), "family-1");
+
+        when(jwtTokenProvider.decodeAccessToken("access-token")).thenReturn(Optional.of(claims));
+
+        // When
+        authService.logout("access-token");
+
+        // Then
+        verify(refreshTokenStore).revoke("family-1");
+    }
+
+    @Test
+    @DisplayName("Should revoke access token on logout")
+    void shouldRevokeTokenOnLogout() {
+        // Given
+        // exp в JWT хранится с точностью до секунды
+        Instant expiresAt = Instant.now().plusSeconds(600).truncatedTo(ChronoUnit.SECONDS);
+        TokenClaims claims = accessClaims(expiresAt, null);
+
+        when(jwtTokenProvider.decodeAccessToken("access-token")).thenReturn(Optional.of(claims));
+
+        // When
+        authService.logout("access-token");
+
+        // Then
+        verify(tokenRevocationPublisher).publishTokenRevoked("token-id", 1L, expiresAt);
+        verify(refreshTokenStore, never()).revoke(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not revoke invalid token on logout")
+    void shouldRejectInvalidTokenOnLogout() {
+        // Given
+        when(jwtTokenProvider.decodeAccessToken("bad-token")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> authService.logout("bad-token"))
+                .isInstanceOf(BusinessException.class);
+
+        verify(tokenRevocationPublisher, never()).publishTokenRevoked(anyString(), any(), any());
+    }
+
+    private static TokenClaims accessClaims(Instant expiresAt, String familyId) {
+        return TokenClaims.builder()
+                .tokenId("token-id")
+                .userId("1")
+                .type(TokenClaims.TYPE_ACCESS)
+                .familyId(familyId)
+                .expiresAt(expiresAt)
+                .build();
     }
-}
 
+    private TokenClaims refreshClaims(long securityVersion) {
+        return TokenClaims.builder()
+                .tokenId("token-1")
+                .userId("1")
+                .email("test@example.com")
+                .roles(List.of(RoleConstants.ROLE_TRAVELER))
+                .type(TokenClaims.TYPE_REFRESH)
+                .securityVersion(securityVersion)
+                .familyId("family-1")
+                .build();
+    }
+
+    private UserLoginView loginView(User user) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", user.getId());
+        row.put("email", user.getEmail());
+        row.put("passwordHash", user.getPassword());
+        row.put("firstName", user.getFirstName());
+        row.put("lastName", user.getLastName());
+        row.put("enabled", user.getEnabled());
+        row.put("securityVersion", user.getSecurityVersion());
+        row.put("roleNames", RoleConstants.ROLE_TRAVELER);
+        return new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, row);
+    }
+}
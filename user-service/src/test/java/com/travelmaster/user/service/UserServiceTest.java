@@ -1,11 +1,18 @@
 package com.travelmaster.user.service;
 
 import com.travelmaster.common.exception.EntityNotFoundException;
+import com.travelmaster.common.exception.ValidationException;
+import com.travelmaster.user.cache.UserProfileCache;
 import com.travelmaster.user.dto.UpdateUserRequest;
+import com.travelmaster.user.dto.UserContactResponse;
 import com.travelmaster.user.dto.UserResponse;
 import com.travelmaster.user.entity.User;
+import com.travelmaster.user.event.TokenRevocationPublisher;
+import com.travelmaster.user.event.UserChangedEvent;
+import com.travelmaster.user.event.UserEventPublisher;
 import com.travelmaster.user.mapper.UserMapper;
 import com.travelmaster.user.repository.UserRepository;
+import com.travelmaster.user.repository.projection.UserContactView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +20,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +42,15 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationPublisher tokenRevocationPublisher;
+
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -74,6 +95,21 @@ class UserServiceTest {
 
         verify(userRepository).findByIdAndDeletedFalse(1L);
         verify(userMapper).toResponse(testUser);
+        verify(userProfileCache).put(testUserResponse);
+    }
+
+    @Test
+    @DisplayName("Should serve user from near-cache without database access")
+    void shouldGetUserFromCache() {
+        // Given
+        when(userProfileCache.get(1L)).thenReturn(Optional.of(testUserResponse));
+
+        // When
+        UserResponse response = userService.getUserById(1L);
+
+        // Then
+        assertThat(response).isSameAs(testUserResponse);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -128,6 +164,8 @@ class UserServiceTest {
 
         verify(userRepository).findByIdAndDeletedFalse(1L);
         verify(userRepository).save(any(User.class));
+        verify(userEventPublisher).publishUserChanged(1L, UserChangedEvent.ChangeType.UPDATED);
+        verify(userEventPublisher).publishContact(updatedUser);
     }
 
     @Test
@@ -148,6 +186,66 @@ class UserServiceTest {
                 user.getFirstName().equals("DELETED") &&
                 user.getLastName().equals("USER")
         ));
+        verify(tokenRevocationPublisher).publishAllTokensRevoked(1L);
+        verify(userEventPublisher).publishUserChanged(1L, UserChangedEvent.ChangeType.DELETED);
+        verify(userEventPublisher).publishContactRemoved(1L);
     }
-}
 
+    @Test
+    @DisplayName("Should revoke user tokens only after delete transaction commits")
+    void shouldRevokeTokensAfterCommit() {
+        // Given
+        when(userRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.deleteUser(1L);
+
+            // Then - до commit событие не отправлено
+            verify(tokenRevocationPublisher, never()).publishAllTokensRevoked(any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            verify(tokenRevocationPublisher).publishAllTokensRevoked(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve contacts for distinct ids in one query")
+    void shouldGetUserContactsInOneQuery() {
+        // Given
+        ReflectionTestUtils.setField(userService, "maxBatchIds", 10);
+        UserContactView contact = mock(UserContactView.class);
+        UserContactResponse contactResponse = UserContactResponse.builder()
+                .id(1L)
+                .email("test@example.com")
+                .build();
+
+        when(userRepository.findContactsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(contact));
+        when(userMapper.toContactResponse(contact)).thenReturn(contactResponse);
+
+        // When
+        List<UserContactResponse> contacts = userService.getUserContacts(List.of(1L, 2L, 1L));
+
+        // Then
+        assertThat(contacts).containsExactly(contactResponse);
+        verify(userRepository).findContactsByIdIn(Set.of(1L, 2L));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should reject batch lookup above the id limit")
+    void shouldRejectTooManyIds() {
+        // Given
+        ReflectionTestUtils.setField(userService, "maxBatchIds", 2);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.getUserContacts(List.of(1L, 2L, 3L)))
+                .isInstanceOf(ValidationException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+}